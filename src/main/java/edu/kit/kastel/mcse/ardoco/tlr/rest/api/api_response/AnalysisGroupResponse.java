@@ -0,0 +1,148 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+
+/**
+ * Represents the response structure for a group of analyses that have been requested for one upload.
+ */
+public class AnalysisGroupResponse {
+    private String groupId;
+    private HttpStatus status;
+    private String message;
+    private Map<Analysis, String> requestIds;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Analysis, ArdocoResultResponse> results;
+
+    /**
+     * Default constructor for AnalysisGroupResponse.
+     * This is required for deserialization purposes.
+     */
+    public AnalysisGroupResponse() {
+    }
+
+    /**
+     * Constructor for AnalysisGroupResponse with groupId, status, requestIds, and message.
+     *
+     * @param groupId    the unique identifier of the group
+     * @param status     the HTTP status of the response
+     * @param requestIds the ids of the results of the analyses
+     * @param message    a message providing additional information about the response
+     */
+    public AnalysisGroupResponse(String groupId, HttpStatus status, Map<Analysis, String> requestIds, String message) {
+        this.groupId = groupId;
+        this.status = status;
+        this.requestIds = requestIds;
+        this.message = message;
+    }
+
+    /**
+     * Getter for groupId.
+     *
+     * @return the unique identifier of the group
+     */
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * Setter for groupId.
+     *
+     * @param groupId the unique identifier of the group
+     */
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * Getter for status.
+     *
+     * @return the HTTP status of the response
+     */
+    @JsonProperty("status")
+    public String getStatusName() {
+        return status != null ? status.name() : null;
+    }
+
+    /**
+     * Getter for status (returns HttpStatus object).
+     *
+     * @return the HTTP status of the response
+     */
+    @JsonIgnore
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     *
+     * @param status the HTTP status of the response
+     */
+    public void setStatus(HttpStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for message.
+     *
+     * @return the message providing additional information about the response
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for message.
+     *
+     * @param message the message providing additional information about the response
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Getter for requestIds.
+     *
+     * @return the ids of the results of the analyses, which can be queried on their own as well
+     */
+    public Map<Analysis, String> getRequestIds() {
+        return requestIds;
+    }
+
+    /**
+     * Setter for requestIds.
+     *
+     * @param requestIds the ids of the results of the analyses
+     */
+    public void setRequestIds(Map<Analysis, String> requestIds) {
+        this.requestIds = requestIds;
+    }
+
+    /**
+     * Getter for results.
+     *
+     * @return the responses for the results of the analyses, or null if the results have not been queried
+     */
+    public Map<Analysis, ArdocoResultResponse> getResults() {
+        return results;
+    }
+
+    /**
+     * Setter for results.
+     *
+     * @param results the responses for the results of the analyses
+     */
+    public void setResults(Map<Analysis, ArdocoResultResponse> results) {
+        this.results = results;
+    }
+}
@@ -1,9 +1,10 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response;
 
 import org.springframework.http.HttpStatus;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -17,6 +18,12 @@ public class ArdocoResultResponse {
 
     private ArDoCoApiResult result;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer queuePosition;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer sharedBy;
+
     /**
      * Default constructor for ArdocoResultResponse.
      * This is required for deserialization purposes.
@@ -155,4 +162,40 @@ public class ArdocoResultResponse {
     public void setTraceLinkType(TraceLinkType traceLinkType) {
         this.traceLinkType = traceLinkType;
     }
+
+    /**
+     * Getter for queuePosition.
+     *
+     * @return the 1-based position of the request in the pipeline queue, {@code 0} if it is already running, or null if not applicable
+     */
+    public Integer getQueuePosition() {
+        return queuePosition;
+    }
+
+    /**
+     * Setter for queuePosition.
+     *
+     * @param queuePosition the 1-based position of the request in the pipeline queue, {@code 0} if it is already running
+     */
+    public void setQueuePosition(Integer queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    /**
+     * Getter for sharedBy.
+     *
+     * @return the number of submissions sharing the pipeline run of this request, or null if not applicable
+     */
+    public Integer getSharedBy() {
+        return sharedBy;
+    }
+
+    /**
+     * Setter for sharedBy.
+     *
+     * @param sharedBy the number of submissions sharing the pipeline run of this request
+     */
+    public void setSharedBy(Integer sharedBy) {
+        this.sharedBy = sharedBy;
+    }
 }
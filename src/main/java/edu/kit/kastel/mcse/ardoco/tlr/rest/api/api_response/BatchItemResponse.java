@@ -0,0 +1,174 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+
+/**
+ * Represents the response structure for one project of a batch.
+ */
+public class BatchItemResponse {
+    private int index;
+    private String projectName;
+    private HttpStatus status;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String message;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private AnalysisGroupResponse group;
+
+    /**
+     * Default constructor for BatchItemResponse.
+     * This is required for deserialization purposes.
+     */
+    public BatchItemResponse() {
+    }
+
+    /**
+     * Constructor for BatchItemResponse of a project that has been started.
+     *
+     * @param index       the position of the project in the manifest of the batch
+     * @param projectName the name of the project
+     * @param group       the response for the analyses of the project
+     */
+    public BatchItemResponse(int index, String projectName, AnalysisGroupResponse group) {
+        this.index = index;
+        this.projectName = projectName;
+        this.status = group.getStatus();
+        this.group = group;
+    }
+
+    /**
+     * Constructor for BatchItemResponse of a project that has not been started.
+     *
+     * @param index       the position of the project in the manifest of the batch
+     * @param projectName the name of the project
+     * @param message     the reason why the project has not been started
+     */
+    public BatchItemResponse(int index, String projectName, String message) {
+        this.index = index;
+        this.projectName = projectName;
+        this.status = HttpStatus.UNPROCESSABLE_CONTENT;
+        this.message = message;
+    }
+
+    /**
+     * Constructor for BatchItemResponse of a project that waits for a free place in the pipeline queue.
+     *
+     * @param index       the position of the project in the manifest of the batch
+     * @param projectName the name of the project
+     */
+    public BatchItemResponse(int index, String projectName) {
+        this.index = index;
+        this.projectName = projectName;
+        this.status = HttpStatus.ACCEPTED;
+        this.message = ResultMessages.PROJECT_IS_WAITING;
+    }
+
+    /**
+     * Getter for index.
+     *
+     * @return the position of the project in the manifest of the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Setter for index.
+     *
+     * @param index the position of the project in the manifest of the batch
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Getter for projectName.
+     *
+     * @return the name of the project
+     */
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Setter for projectName.
+     *
+     * @param projectName the name of the project
+     */
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
+
+    /**
+     * Getter for status.
+     *
+     * @return the HTTP status of the project
+     */
+    @JsonProperty("status")
+    public String getStatusName() {
+        return status != null ? status.name() : null;
+    }
+
+    /**
+     * Getter for status (returns HttpStatus object).
+     *
+     * @return the HTTP status of the project
+     */
+    @JsonIgnore
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     *
+     * @param status the HTTP status of the project
+     */
+    public void setStatus(HttpStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for message.
+     *
+     * @return the reason why the project has not been started, or null if it has been started
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for message.
+     *
+     * @param message the reason why the project has not been started
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Getter for group.
+     *
+     * @return the response for the analyses of the project, or null if it has not been started
+     */
+    public AnalysisGroupResponse getGroup() {
+        return group;
+    }
+
+    /**
+     * Setter for group.
+     *
+     * @param group the response for the analyses of the project
+     */
+    public void setGroup(AnalysisGroupResponse group) {
+        this.group = group;
+    }
+}
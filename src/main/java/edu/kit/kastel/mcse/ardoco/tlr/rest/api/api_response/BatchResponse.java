@@ -0,0 +1,124 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents the response structure for a batch of projects.
+ */
+public class BatchResponse {
+    private String batchId;
+    private HttpStatus status;
+    private String message;
+    private List<BatchItemResponse> items;
+
+    /**
+     * Default constructor for BatchResponse.
+     * This is required for deserialization purposes.
+     */
+    public BatchResponse() {
+    }
+
+    /**
+     * Constructor for BatchResponse with batchId, status, items, and message.
+     *
+     * @param batchId the unique identifier of the batch
+     * @param status  the HTTP status of the response
+     * @param items   the responses for the projects of the batch, in the order of its manifest
+     * @param message a message providing additional information about the response
+     */
+    public BatchResponse(String batchId, HttpStatus status, List<BatchItemResponse> items, String message) {
+        this.batchId = batchId;
+        this.status = status;
+        this.items = items;
+        this.message = message;
+    }
+
+    /**
+     * Getter for batchId.
+     *
+     * @return the unique identifier of the batch
+     */
+    public String getBatchId() {
+        return batchId;
+    }
+
+    /**
+     * Setter for batchId.
+     *
+     * @param batchId the unique identifier of the batch
+     */
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    /**
+     * Getter for status.
+     *
+     * @return the HTTP status of the response
+     */
+    @JsonProperty("status")
+    public String getStatusName() {
+        return status != null ? status.name() : null;
+    }
+
+    /**
+     * Getter for status (returns HttpStatus object).
+     *
+     * @return the HTTP status of the response
+     */
+    @JsonIgnore
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     *
+     * @param status the HTTP status of the response
+     */
+    public void setStatus(HttpStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for message.
+     *
+     * @return the message providing additional information about the response
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Setter for message.
+     *
+     * @param message the message providing additional information about the response
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Getter for items.
+     *
+     * @return the responses for the projects of the batch, in the order of its manifest
+     */
+    public List<BatchItemResponse> getItems() {
+        return items;
+    }
+
+    /**
+     * Setter for items.
+     *
+     * @param items the responses for the projects of the batch
+     */
+    public void setItems(List<BatchItemResponse> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,122 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents the response structure for an input file in the input store.
+ */
+public class BlobResponse {
+    private String digest;
+    private String fileName;
+    private long size;
+    private HttpStatus status;
+
+    /**
+     * Default constructor for BlobResponse.
+     * This is required for deserialization purposes.
+     */
+    public BlobResponse() {
+    }
+
+    /**
+     * Constructor for BlobResponse.
+     *
+     * @param digest   the MD5 digest of the file, as 32 hex digits
+     * @param fileName the name of the stored file
+     * @param size     the size of the file in bytes
+     * @param status   the HTTP status of the response
+     */
+    public BlobResponse(String digest, String fileName, long size, HttpStatus status) {
+        this.digest = digest;
+        this.fileName = fileName;
+        this.size = size;
+        this.status = status;
+    }
+
+    /**
+     * Getter for digest.
+     *
+     * @return the MD5 digest of the file, as 32 hex digits
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Setter for digest.
+     *
+     * @param digest the MD5 digest of the file, as 32 hex digits
+     */
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    /**
+     * Getter for fileName.
+     *
+     * @return the name of the stored file
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Setter for fileName.
+     *
+     * @param fileName the name of the stored file
+     */
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Getter for size.
+     *
+     * @return the size of the file in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Setter for size.
+     *
+     * @param size the size of the file in bytes
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Getter for status.
+     *
+     * @return the HTTP status of the response
+     */
+    @JsonProperty("status")
+    public String getStatusName() {
+        return status != null ? status.name() : null;
+    }
+
+    /**
+     * Getter for status (returns HttpStatus object).
+     *
+     * @return the HTTP status of the response
+     */
+    @JsonIgnore
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for status.
+     *
+     * @param status the HTTP status of the response
+     */
+    public void setStatus(HttpStatus status) {
+        this.status = status;
+    }
+}
@@ -1,4 +1,4 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response;
 
 /**
@@ -26,6 +26,17 @@ public enum TraceLinkType {
         return this.endpointName;
     }
 
+    /**
+     * Builds the id of a request for trace links of this type.
+     *
+     * @param projectName the name of the project
+     * @param inputHash   the hash of the input files and the additional configuration of the request
+     * @return the id, under which the result of the request is stored
+     */
+    public String requestIdOf(String projectName, String inputHash) {
+        return this.keyPrefix + ":" + projectName + inputHash;
+    }
+
     @Override
     public String toString() {
         return this.name();
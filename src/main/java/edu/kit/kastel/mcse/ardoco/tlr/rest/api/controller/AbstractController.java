@@ -1,33 +1,38 @@
 /* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.AbstractRunnerTLRService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ConfigurationProviderService;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ResultService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.UploadIngestionService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.UploadIngestionService.HashedUploads;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
 
 /**
@@ -46,6 +51,8 @@ public abstract class AbstractController {
     public static final String ARCHITECTURE_MODEL_FORMAT_PARAMETER = "inputArchitectureModelFormat";
     public static final String CODE_PARAMETER = "inputCode";
     public static final String ADDITIONAL_CONFIGURATION_PARAMETER = "additionalConfigs";
+    public static final String DEADLINE_PARAMETER = "deadlineSeconds";
+    public static final String CLIENT_KEY_HEADER = "X-Client-Key";
     /**
      * The type of trace link this controller manages, used for identifying the specific TLR process.
      */
@@ -59,7 +66,11 @@ public abstract class AbstractController {
     @Autowired
     private ResultService resultService;
 
-    private static final Logger logger = LoggerFactory.getLogger(AbstractController.class);
+    @Autowired
+    private UploadIngestionService uploadIngestionService;
+
+    @Autowired
+    private ConfigurationProviderService configurationProviderService;
 
     /**
      * Constructs a new {@code AbstractController} with the specified service and trace link type.
@@ -74,20 +85,23 @@ public abstract class AbstractController {
 
     /**
      * Handles the process of running a pipeline and building a response based on the result status.
+     * <p>
+     * If the result is already in the database, it is returned without creating the request, i.e. without storing the input files.
      *
-     * @param runner     the {@link ArdocoRunner} instance to execute
-     * @param requestId  the unique request ID associated with the pipeline run
-     * @param inputFiles the list of input files for the pipeline run
+     * @param requestId the unique identifier of the request
+     * @param request   creates the request of the pipeline run, including its temporary input files
      * @return a {@link ResponseEntity} containing the {@link ArdocoResultResponse} with the status and result message
-     * @throws FileNotFoundException   if any of the input files cannot be found
-     * @throws FileConversionException if there's an error converting any file during the pipeline process
+     * @throws FileNotFoundException    if any of the input files cannot be found
+     * @throws FileConversionException  if there's an error converting any file during the pipeline process
+     * @throws TooManyRequestsException if the pipeline queue is full
      */
-    protected ResponseEntity<ArdocoResultResponse> handleRunPipeLineResult(ArdocoRunner runner, String requestId, List<File> inputFiles)
-            throws FileNotFoundException, FileConversionException {
-        Optional<ArDoCoApiResult> result = service.runPipeline(runner, requestId, inputFiles);
+    protected ResponseEntity<ArdocoResultResponse> handleRunPipeLineResult(String requestId, Supplier<PipelineRequest> request) throws
+            FileNotFoundException, FileConversionException, TooManyRequestsException {
+        Optional<ArDoCoApiResult> result = service.runPipeline(requestId, request);
         ArdocoResultResponse response;
         if (result.isEmpty()) {
             response = new ArdocoResultResponse(requestId, HttpStatus.OK, ResultMessages.RESULT_IS_BEING_PROCESSED);
+            addJobDetails(response);
         } else {
             response = new ArdocoResultResponse(requestId, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY);
         }
@@ -96,42 +110,93 @@ public abstract class AbstractController {
 
     /**
      * Handles the process of running a pipeline and waiting for the result, building a response accordingly.
+     * <p>
+     * The waiting is asynchronous: the request thread is released right after the pipeline has been submitted, and the response is
+     * sent once the pipeline has finished or the timeout has been reached. If the result is already in the database, it is returned
+     * without creating the request.
      *
-     * @param runner     the {@link ArdocoRunner} instance to execute
-     * @param requestId  the unique request ID associated with the pipeline run
-     * @param inputFiles the list of input files for the pipeline run
-     * @return a {@link ResponseEntity} containing the {@link ArdocoResultResponse} with the status and result message
-     * @throws ArdocoException if an error occurs during the pipeline process or waiting for the result
+     * @param requestId the unique identifier of the request
+     * @param request   creates the request of the pipeline run, including its temporary input files
+     * @return a {@link DeferredResult} completed with a {@link ResponseEntity} containing the {@link ArdocoResultResponse} with the status and
+     *         result message
+     * @throws ArdocoException          if an error occurs during the pipeline process or waiting for the result
+     * @throws TooManyRequestsException if the pipeline queue is full
      */
-    protected ResponseEntity<ArdocoResultResponse> handleRunPipelineAndWaitForResult(ArdocoRunner runner, String requestId, List<File> inputFiles)
-            throws ArdocoException {
-        Optional<ArDoCoApiResult> result = service.runPipeline(runner, requestId, inputFiles);
-        if (result.isEmpty()) {
-            result = resultService.waitForResult(requestId);
-        }
-        ArdocoResultResponse response;
-        if (result.isEmpty()) {
-            response = new ArdocoResultResponse(requestId, HttpStatus.ACCEPTED, ResultMessages.REQUEST_TIMED_OUT_START_AND_WAIT);
-        } else {
-            response = new ArdocoResultResponse(requestId, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY);
+    protected DeferredResult<ResponseEntity<ArdocoResultResponse>> handleRunPipelineAndWaitForResult(String requestId,
+            Supplier<PipelineRequest> request) throws ArdocoException, TooManyRequestsException {
+        Optional<ArDoCoApiResult> result = service.runPipeline(requestId, request);
+        CompletableFuture<Optional<ArDoCoApiResult>> pendingResult = result.isPresent() ?
+                CompletableFuture.completedFuture(result) :
+                resultService.waitForResult(requestId);
+        return DeferredResponses.of(pendingResult, resultService.getSecondsUntilTimeout(), finalResult -> {
+            ArdocoResultResponse response;
+            if (finalResult.isEmpty()) {
+                response = new ArdocoResultResponse(requestId, HttpStatus.ACCEPTED, ResultMessages.REQUEST_TIMED_OUT_START_AND_WAIT);
+                addJobDetails(response);
+            } else {
+                response = new ArdocoResultResponse(requestId, HttpStatus.OK, finalResult.get(), ResultMessages.RESULT_IS_READY);
+            }
+            return new ResponseEntity<>(response, response.getStatus());
+        });
+    }
 
-        }
-        return new ResponseEntity<>(response, response.getStatus());
+    /**
+     * Adds the queue position and the number of submissions sharing the run to the response of a request that is still in flight.
+     *
+     * @param response the response of the request
+     */
+    private void addJobDetails(ArdocoResultResponse response) {
+        service.getRunningJob(response.getRequestId()).ifPresent(job -> {
+            response.setQueuePosition(service.getQueuePosition(job.getId()));
+            response.setSharedBy(job.getSubmitterCount());
+        });
     }
 
     /**
-     * Generates a unique request ID based on the provided files and project name.
+     * Hashes the uploaded input files of a request without storing them; they are stored once the pipeline has to run.
      *
-     * @param files       the list of files to be processed
-     * @param projectName the name of the project associated with the request
+     * @param uploads the uploaded files by input
+     * @return the uploaded files and the hash of their contents
+     * @throws FileNotFoundException   if an uploaded file is empty
+     * @throws FileConversionException if an uploaded file cannot be read
+     */
+    protected HashedUploads hashInputFiles(Map<PipelineInput, MultipartFile> uploads) throws FileNotFoundException, FileConversionException {
+        return uploadIngestionService.hash(uploads);
+    }
+
+    /**
+     * Generates a unique request ID based on the hash of the input files, the project name and the additional configuration.
+     *
+     * @param hash              the hash of the input files, see {@link HashedUploads#hash()}
+     * @param projectName       the name of the project associated with the request
+     * @param additionalConfigs the canonical additional configuration of the request, see {@link #readAdditionalConfigs(String)}
      * @return a unique request ID as a string
-     * @throws FileNotFoundException   if any of the input files cannot be found
-     * @throws FileConversionException if there's an error converting any file during the process
      */
-    protected String generateRequestId(List<File> files, String projectName) throws FileNotFoundException, FileConversionException {
-        logger.info("Generating ID...");
-        String hash = HashGenerator.getMD5HashFromFiles(files);
-        return traceLinkType.getKeyPrefix() + ":" + projectName + hash;
+    protected String generateRequestId(String hash, String projectName, SortedMap<String, String> additionalConfigs) {
+        return traceLinkType.requestIdOf(projectName, HashGenerator.getMD5HashWithConfiguration(hash, additionalConfigs));
+    }
+
+    /**
+     * Parses the additional configuration of a request and brings it into its canonical form, see
+     * {@link ConfigurationProviderService#canonicalize(Map)}, so that equivalent configurations get the same request ID.
+     *
+     * @param additionalConfigsJson the JSON string containing additional configurations
+     * @return the canonical configuration
+     * @throws FileConversionException if the JSON format is invalid
+     */
+    protected SortedMap<String, String> readAdditionalConfigs(String additionalConfigsJson) {
+        return configurationProviderService.canonicalize(parseAdditionalConfigs(additionalConfigsJson));
+    }
+
+    /**
+     * Determines the tenant a pipeline run is scheduled for: the API client if it sent a key, otherwise the project.
+     *
+     * @param clientKey   the value of the {@value #CLIENT_KEY_HEADER} header, may be {@code null}
+     * @param projectName the name of the project associated with the request
+     * @return the tenant of the request
+     */
+    protected static String resolveTenant(String clientKey, String projectName) {
+        return clientKey == null || clientKey.isBlank() ? projectName : clientKey.strip();
     }
 
     /**
@@ -141,7 +206,7 @@ public abstract class AbstractController {
      * @return a sorted map containing the parsed configurations
      * @throws FileConversionException if the JSON format is invalid
      */
-    protected SortedMap<String, String> parseAdditionalConfigs(String additionalConfigsJson) {
+    protected static SortedMap<String, String> parseAdditionalConfigs(String additionalConfigsJson) {
         SortedMap<String, String> additionalConfigs = new TreeMap<>();
         if (additionalConfigsJson != null && !additionalConfigsJson.isBlank()) {
             ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,208 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ADDITIONAL_CONFIGURATION_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ARCHITECTURE_MODEL_FORMAT_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ARCHITECTURE_MODEL_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.CLIENT_KEY_HEADER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.CODE_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.DEADLINE_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.PROJECT_NAME_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.TEXTUAL_DOCUMENTATION_PARAMETER;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.AnalysisGroupResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.AnalysisGroup;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.AnalysisGroupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * This controller runs several analyses on one upload of text, architecture model and code, e.g. for CI pipelines that need the results
+ * of several trace link recovery approaches.
+ */
+@Tag(name = "Multiple Analyses")
+@RequestMapping("/api/analyses")
+@RestController
+public class AnalysisGroupController {
+
+    public static final String ANALYSES_PARAMETER = "analyses";
+
+    private static final String UPLOAD_ID_PREFIX = "upload:";
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisGroupController.class);
+
+    private final AnalysisGroupService service;
+
+    /**
+     * Constructs a new {@code AnalysisGroupController} with the specified service.
+     *
+     * @param service the service that runs the analyses
+     */
+    public AnalysisGroupController(AnalysisGroupService service) {
+        this.service = service;
+    }
+
+    /**
+     * Starts the pipelines of the requested analyses on the uploaded files.
+     *
+     * @param projectName            the name of the project
+     * @param analyses               the requested analyses
+     * @param inputText              the textual documentation of the project (optional)
+     * @param inputArchitectureModel the architecture model of the project (optional)
+     * @param modelType              the type of architecture model that is uploaded (optional)
+     * @param inputCode              the code of the project (optional)
+     * @param additionalConfigsJson  JSON string containing additional ArDoCo configuration (optional)
+     * @param deadlineSeconds        Maximum run time of each pipeline in seconds (optional)
+     * @param clientKey              Key of the API client (optional)
+     * @return a ResponseEntity containing the id of the group and the ids of the results of the analyses
+     * @throws FileNotFoundException   if an uploaded file is empty
+     * @throws FileConversionException if an uploaded file cannot be stored
+     */
+    @Operation(summary = "Starts several analyses on one upload", description = "Starts the pipelines of the requested analyses with the given project name and files. Every file is uploaded to the input store and hashed once, results that one pipeline computes for another are shared. Returns the id of the result of every analysis and the id of the group to wait for all of them.")
+    @PostMapping(value = "/start", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AnalysisGroupResponse> startAnalyses(
+            @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
+            @Parameter(description = "The analyses to run", required = true) @RequestParam(ANALYSES_PARAMETER) List<Analysis> analyses,
+            @Parameter(description = "The textual documentation of the project, needed by all analyses except ARCOTL", required = false) @RequestParam(value = TEXTUAL_DOCUMENTATION_PARAMETER, required = false) MultipartFile inputText,
+            @Parameter(description = "The architectureModel of the project, needed by all analyses except ARDOCODE", required = false) @RequestParam(value = ARCHITECTURE_MODEL_PARAMETER, required = false) MultipartFile inputArchitectureModel,
+            @Parameter(description = "The type of architectureModel that is uploaded.", required = false) @RequestParam(value = ARCHITECTURE_MODEL_FORMAT_PARAMETER, required = false) ModelFormat modelType,
+            @Parameter(description = "The code of the project, needed by ARCOTL, ARDOCODE and TRANSARC", required = false) @RequestParam(value = CODE_PARAMETER, required = false) MultipartFile inputCode,
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of each pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
+            throws FileNotFoundException, FileConversionException {
+
+        SortedMap<String, String> additionalConfigs = AbstractController.parseAdditionalConfigs(additionalConfigsJson);
+        String tenant = AbstractController.resolveTenant(clientKey, projectName);
+        EnumSet<Analysis> requestedAnalyses = analyses.isEmpty() ? EnumSet.noneOf(Analysis.class) : EnumSet.copyOf(analyses);
+
+        // the uploaded files are kept until the pipelines have linked them
+        String uploadId = UPLOAD_ID_PREFIX + UUID.randomUUID();
+        AnalysisGroup group;
+        try {
+            Map<PipelineInput, String> digests = new EnumMap<>(PipelineInput.class);
+            storeInputFile(inputText, uploadId).ifPresent(digest -> digests.put(PipelineInput.TEXTUAL_DOCUMENTATION, digest));
+            storeInputFile(inputArchitectureModel, uploadId).ifPresent(digest -> digests.put(PipelineInput.ARCHITECTURE_MODEL, digest));
+            storeInputFile(inputCode, uploadId).ifPresent(digest -> digests.put(PipelineInput.CODE, digest));
+            group = service.start(requestedAnalyses, projectName, digests, modelType, additionalConfigs, deadlineSeconds, tenant);
+        } finally {
+            service.release(uploadId);
+        }
+
+        Map<Analysis, String> requestIds = new EnumMap<>(Analysis.class);
+        group.members().forEach((analysis, member) -> requestIds.put(analysis, member.requestId()));
+        AnalysisGroupResponse response = new AnalysisGroupResponse(group.groupId(), HttpStatus.OK, requestIds, ResultMessages.RESULT_IS_BEING_PROCESSED);
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    /**
+     * Waits for the results of all analyses of a group.
+     *
+     * @param groupId the unique identifier of the group
+     * @return a DeferredResult completed with a ResponseEntity containing the results of the analyses
+     * @throws IllegalArgumentException if the group does not exist
+     */
+    @Operation(summary = "Waits for the results of all analyses of a group", description = "Waits until the pipelines of all analyses of the group have finished and returns their results. Analyses that have not finished within the timeout are reported as not ready, failed analyses with their error.")
+    @GetMapping("/wait-for-group/{groupId}")
+    public DeferredResult<ResponseEntity<AnalysisGroupResponse>> waitForGroup(
+            @Parameter(description = "The ID of the group", required = true) @PathVariable("groupId") String groupId) throws IllegalArgumentException {
+        AnalysisGroup group = service.getGroup(groupId);
+        CompletableFuture<AnalysisGroupResponse> response = toGroupResponse(group, service.waitForGroup(group), ResultMessages.REQUEST_TIMED_OUT);
+        return DeferredResponses.of(response, buildGroupResponse(group, Map.of(), ResultMessages.REQUEST_TIMED_OUT), service.getSecondsUntilTimeout(),
+                groupResponse -> new ResponseEntity<>(groupResponse, groupResponse.getStatus()));
+    }
+
+    /**
+     * Combines the results of the analyses of a group into one response, once all of them are available.
+     *
+     * @param group           the group
+     * @param results         the futures of the results by analysis, see {@link AnalysisGroupService#waitForGroup(AnalysisGroup)}
+     * @param notReadyMessage the message of the analyses whose results are not available
+     * @return the future of the response
+     */
+    static CompletableFuture<AnalysisGroupResponse> toGroupResponse(AnalysisGroup group, Map<Analysis, CompletableFuture<Optional<ArDoCoApiResult>>> results,
+            String notReadyMessage) {
+        Map<Analysis, CompletableFuture<ArdocoResultResponse>> responses = new EnumMap<>(Analysis.class);
+        results.forEach((analysis, result) -> {
+            String requestId = group.members().get(analysis).requestId();
+            responses.put(analysis, result.handle((value, error) -> buildMemberResponse(requestId, value, error, notReadyMessage)));
+        });
+        return CompletableFuture.allOf(responses.values().toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<Analysis, ArdocoResultResponse> memberResponses = new EnumMap<>(Analysis.class);
+            responses.forEach((analysis, response) -> memberResponses.put(analysis, response.join()));
+            return buildGroupResponse(group, memberResponses, notReadyMessage);
+        });
+    }
+
+    private static AnalysisGroupResponse buildGroupResponse(AnalysisGroup group, Map<Analysis, ArdocoResultResponse> results, String notReadyMessage) {
+        Map<Analysis, String> requestIds = new EnumMap<>(Analysis.class);
+        Map<Analysis, ArdocoResultResponse> memberResponses = new EnumMap<>(Analysis.class);
+        group.members().forEach((analysis, member) -> {
+            requestIds.put(analysis, member.requestId());
+            memberResponses.put(analysis, Objects.requireNonNullElseGet(results.get(analysis), () -> buildMemberResponse(member.requestId(),
+                    Optional.empty(), null, notReadyMessage)));
+        });
+        boolean complete = memberResponses.values().stream().noneMatch(response -> response.getStatus() == HttpStatus.ACCEPTED);
+        AnalysisGroupResponse response = new AnalysisGroupResponse(group.groupId(), complete ? HttpStatus.OK : HttpStatus.ACCEPTED, requestIds,
+                complete ? ResultMessages.RESULT_IS_READY : notReadyMessage);
+        response.setResults(memberResponses);
+        return response;
+    }
+
+    private static ArdocoResultResponse buildMemberResponse(String requestId, Optional<ArDoCoApiResult> result, Throwable error, String notReadyMessage) {
+        if (error != null) {
+            RuntimeException cause = DeferredResponses.unwrap(error);
+            if (cause instanceof JobCancelledException) {
+                return new ArdocoResultResponse(requestId, HttpStatus.GONE, ResultMessages.JOB_CANCELLED);
+            }
+            return new ArdocoResultResponse(requestId, HttpStatus.INTERNAL_SERVER_ERROR, cause.getMessage());
+        }
+        if (result.isEmpty()) {
+            return new ArdocoResultResponse(requestId, HttpStatus.ACCEPTED, notReadyMessage);
+        }
+        return new ArdocoResultResponse(requestId, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY);
+    }
+
+    private Optional<String> storeInputFile(MultipartFile multipartFile, String uploadId) throws FileNotFoundException, FileConversionException {
+        if (multipartFile == null) {
+            return Optional.empty();
+        }
+        logger.debug("Storing the uploaded file {}", multipartFile.getOriginalFilename());
+        return Optional.of(service.upload(multipartFile, uploadId).digest());
+    }
+}
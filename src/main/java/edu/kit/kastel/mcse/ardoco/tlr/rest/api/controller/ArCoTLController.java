@@ -1,37 +1,32 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.function.Supplier;
 
-import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
-import org.eclipse.collections.impl.factory.SortedMaps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
-import edu.kit.kastel.mcse.ardoco.tlr.execution.Arcotl;
-import edu.kit.kastel.mcse.ardoco.tlr.models.agents.ArchitectureConfiguration;
-import edu.kit.kastel.mcse.ardoco.tlr.models.agents.CodeConfiguration;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
-import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ArCoTLService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.UploadIngestionService.HashedUploads;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -65,6 +60,8 @@ public class ArCoTLController extends AbstractController {
      * @param architectureModelType  the type of architecture model
      * @param inputCode              the code file
      * @param additionalConfigsJson  JSON string containing additional ArDoCo configuration
+     * @param deadlineSeconds        Maximum run time of the pipeline in seconds
+     * @param clientKey              Key of the API client
      * @return ResponseEntity containing the result of the processing pipeline
      * @throws FileNotFoundException   if a required file is not found
      * @throws FileConversionException if there is an error converting files
@@ -76,17 +73,20 @@ public class ArCoTLController extends AbstractController {
             @Parameter(description = "The architectureModel of the project", required = true) @RequestParam(ARCHITECTURE_MODEL_PARAMETER) MultipartFile inputArchitectureModel,
             @Parameter(description = "The type of architectureModel that is uploaded.", required = true) @RequestParam(ARCHITECTURE_MODEL_FORMAT_PARAMETER) ModelFormat architectureModelType,
             @Parameter(description = "The code of the project", required = true) @RequestParam(CODE_PARAMETER) MultipartFile inputCode,
-            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
-            throws FileNotFoundException, FileConversionException, IOException {
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
+            throws FileNotFoundException, FileConversionException {
 
-        Map<String, File> inputFileMap = convertInputFiles(inputCode, inputArchitectureModel);
-        List<File> inputFiles = new ArrayList<>(inputFileMap.values());
-        SortedMap<String, String> additionalConfigs = parseAdditionalConfigs(additionalConfigsJson);
+        HashedUploads inputFiles = convertInputFiles(inputCode, inputArchitectureModel);
+        SortedMap<String, String> additionalConfigs = readAdditionalConfigs(additionalConfigsJson);
 
-        String id = generateRequestId(inputFiles, projectName);
-        Arcotl runner = setUpRunner(additionalConfigs, inputFileMap, architectureModelType, projectName);
+        String id = generateRequestId(inputFiles.hash(), projectName, additionalConfigs);
+        String tenant = resolveTenant(clientKey, projectName);
+        Supplier<PipelineRequest> request = () -> new PipelineRequest(id, projectName, inputFiles.store(), inputFiles.digests(),
+                architectureModelType, additionalConfigs, deadlineSeconds, tenant);
 
-        return handleRunPipeLineResult(runner, id, inputFiles);
+        return handleRunPipeLineResult(id, request);
     }
 
     /**
@@ -97,51 +97,44 @@ public class ArCoTLController extends AbstractController {
      * @param architectureModelType  the type of architecture model
      * @param inputCode              the code file
      * @param additionalConfigsJson  JSON string containing additional ArDoCo configuration
-     * @return ResponseEntity containing the result of the processing pipeline
+     * @param deadlineSeconds        Maximum run time of the pipeline in seconds
+     * @param clientKey              Key of the API client
+     * @return DeferredResult completed with a ResponseEntity containing the result of the processing pipeline
      * @throws FileNotFoundException   if a required file is not found
      * @throws FileConversionException if there is an error converting files
      */
     @Operation(summary = "Starts the ArCoTL (sam-code) processing pipeline and waits until the result is obtained", description = "Starts the ArCoTL (sam-code) processing pipeline with the given project name, the type of the architecture model and files. and waits until the SamCodeTraceLinks are obtained.")
     @PostMapping(value = "/start-and-wait", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ArdocoResultResponse> runPipelineAndWaitForResult(
+    public DeferredResult<ResponseEntity<ArdocoResultResponse>> runPipelineAndWaitForResult(
             @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
             @Parameter(description = "The architectureModel of the project", required = true) @RequestParam(ARCHITECTURE_MODEL_PARAMETER) MultipartFile inputArchitectureModel,
             @Parameter(description = "The type of architectureModel that is uploaded.", required = true) @RequestParam(ARCHITECTURE_MODEL_FORMAT_PARAMETER) ModelFormat architectureModelType,
             @Parameter(description = "The code of the project", required = true) @RequestParam(CODE_PARAMETER) MultipartFile inputCode,
-            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
 
-            throws FileNotFoundException, FileConversionException, IOException {
+            throws FileNotFoundException, FileConversionException {
 
-        Map<String, File> inputFileMap = convertInputFiles(inputCode, inputArchitectureModel);
-        List<File> inputFiles = new ArrayList<>(inputFileMap.values());
-        SortedMap<String, String> additionalConfigs = parseAdditionalConfigs(additionalConfigsJson);
+        HashedUploads inputFiles = convertInputFiles(inputCode, inputArchitectureModel);
+        SortedMap<String, String> additionalConfigs = readAdditionalConfigs(additionalConfigsJson);
 
-        String id = generateRequestId(inputFiles, projectName);
-        Arcotl runner = setUpRunner(additionalConfigs, inputFileMap, architectureModelType, projectName);
+        String id = generateRequestId(inputFiles.hash(), projectName, additionalConfigs);
+        String tenant = resolveTenant(clientKey, projectName);
+        Supplier<PipelineRequest> request = () -> new PipelineRequest(id, projectName, inputFiles.store(), inputFiles.digests(),
+                architectureModelType, additionalConfigs, deadlineSeconds, tenant);
 
-        return handleRunPipelineAndWaitForResult(runner, id, inputFiles);
+        return handleRunPipelineAndWaitForResult(id, request);
     }
 
-    private Map<String, File> convertInputFiles(MultipartFile inputCode, MultipartFile inputArchitectureModel) {
-        logger.debug("Convert multipartFiles to files...");
-        Map<String, File> inputFiles = new HashMap<>();
+    private HashedUploads convertInputFiles(MultipartFile inputCode, MultipartFile inputArchitectureModel) {
+        logger.debug("Hash multipartFiles...");
+        Map<PipelineInput, MultipartFile> inputFiles = new EnumMap<>(PipelineInput.class);
 
-        inputFiles.put(CODE_PARAMETER, FileConverter.convertMultipartFileToFile(inputCode));
-        inputFiles.put(ARCHITECTURE_MODEL_PARAMETER, FileConverter.convertMultipartFileToFile(inputArchitectureModel));
+        inputFiles.put(PipelineInput.CODE, inputCode);
+        inputFiles.put(PipelineInput.ARCHITECTURE_MODEL, inputArchitectureModel);
 
-        return inputFiles;
+        return hashInputFiles(inputFiles);
     }
 
-    private Arcotl setUpRunner(SortedMap<String, String> additionalConfigs, Map<String, File> inputFileMap, ModelFormat modelType, String projectName)
-            throws IOException {
-        logger.info("Setting up Runner...");
-        Arcotl runner = new Arcotl(projectName);
-
-        ArchitectureConfiguration architectureConfiguration = new ArchitectureConfiguration(inputFileMap.get(ARCHITECTURE_MODEL_PARAMETER), modelType);
-        CodeConfiguration codeConfiguration = new CodeConfiguration(inputFileMap.get(CODE_PARAMETER), CodeConfiguration.CodeConfigurationType.ACM_FILE);
-        ImmutableSortedMap<String, String> additionalConfigsImmutable = SortedMaps.immutable.withSortedMap(additionalConfigs);
-
-        runner.setUp(architectureConfiguration, codeConfiguration, additionalConfigsImmutable, Files.createTempDirectory("ardoco-sam-code").toFile());
-        return runner;
-    }
 }
@@ -1,37 +1,33 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.function.Supplier;
 
-import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
-import org.eclipse.collections.impl.factory.SortedMaps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
-import edu.kit.kastel.mcse.ardoco.tlr.execution.Ardocode;
-import edu.kit.kastel.mcse.ardoco.tlr.models.agents.CodeConfiguration;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
-import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TimeoutException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ArDoCodeService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.UploadIngestionService.HashedUploads;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -66,6 +62,8 @@ public class ArDoCodeController extends AbstractController {
      * @param inputText             the documentation of the project as a MultipartFile
      * @param inputCode             the code of the project as a MultipartFile
      * @param additionalConfigsJson JSON string containing additional ArDoCo configuration
+     * @param deadlineSeconds       Maximum run time of the pipeline in seconds
+     * @param clientKey             Key of the API client
      * @return ResponseEntity containing the result response with the request ID
      * @throws FileNotFoundException   if a required file is not found
      * @throws FileConversionException if there is an error converting files
@@ -80,18 +78,21 @@ public class ArDoCodeController extends AbstractController {
             @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
             @Parameter(description = "The documentation of the project", required = true) @RequestParam(TEXTUAL_DOCUMENTATION_PARAMETER) MultipartFile inputText,
             @Parameter(description = "The code of the project", required = true) @RequestParam(CODE_PARAMETER) MultipartFile inputCode,
-            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
 
-            throws FileNotFoundException, FileConversionException, IOException {
+            throws FileNotFoundException, FileConversionException {
 
-        Map<String, File> inputFileMap = convertInputFiles(inputText, inputCode);
-        List<File> inputFiles = new ArrayList<>(inputFileMap.values());
-        SortedMap<String, String> additionalConfigs = parseAdditionalConfigs(additionalConfigsJson);
+        HashedUploads inputFiles = convertInputFiles(inputText, inputCode);
+        SortedMap<String, String> additionalConfigs = readAdditionalConfigs(additionalConfigsJson);
 
-        String id = generateRequestId(inputFiles, projectName);
-        Ardocode runner = setUpRunner(additionalConfigs, inputFileMap, projectName);
+        String id = generateRequestId(inputFiles.hash(), projectName, additionalConfigs);
+        String tenant = resolveTenant(clientKey, projectName);
+        Supplier<PipelineRequest> request = () -> new PipelineRequest(id, projectName, inputFiles.store(), inputFiles.digests(), null,
+                additionalConfigs, deadlineSeconds, tenant);
 
-        return handleRunPipeLineResult(runner, id, inputFiles);
+        return handleRunPipeLineResult(id, request);
     }
 
     /**
@@ -101,7 +102,9 @@ public class ArDoCodeController extends AbstractController {
      * @param inputText             the documentation of the project as a MultipartFile
      * @param inputCode             the code of the project as a MultipartFile
      * @param additionalConfigsJson JSON string containing additional ArDoCo configuration
-     * @return ResponseEntity containing the result response with the sadCodeTraceLinks
+     * @param deadlineSeconds       Maximum run time of the pipeline in seconds
+     * @param clientKey             Key of the API client
+     * @return DeferredResult completed with a ResponseEntity containing the result response with the sadCodeTraceLinks
      * @throws FileConversionException if there is an error converting files
      * @throws ArdocoException         if there is an error during processing
      * @throws TimeoutException        if waiting for the result times out
@@ -110,42 +113,35 @@ public class ArDoCodeController extends AbstractController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "the sadCodeTraceLinks found by ardoco", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArdocoResultResponse.class))), })
     @PostMapping(value = "/start-and-wait", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ArdocoResultResponse> runPipelineAndWaitForResult(
+    public DeferredResult<ResponseEntity<ArdocoResultResponse>> runPipelineAndWaitForResult(
             @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
             @Parameter(description = "The documentation of the project", required = true) @RequestParam(TEXTUAL_DOCUMENTATION_PARAMETER) MultipartFile inputText,
             @Parameter(description = "The code of the project", required = true) @RequestParam(CODE_PARAMETER) MultipartFile inputCode,
-            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
 
-            throws FileConversionException, ArdocoException, TimeoutException, IOException {
+            throws FileConversionException, ArdocoException, TimeoutException {
 
-        Map<String, File> inputFileMap = convertInputFiles(inputText, inputCode);
-        List<File> inputFiles = new ArrayList<>(inputFileMap.values());
-        SortedMap<String, String> additionalConfigs = parseAdditionalConfigs(additionalConfigsJson);
+        HashedUploads inputFiles = convertInputFiles(inputText, inputCode);
+        SortedMap<String, String> additionalConfigs = readAdditionalConfigs(additionalConfigsJson);
 
-        String id = generateRequestId(inputFiles, projectName);
-        Ardocode runner = setUpRunner(additionalConfigs, inputFileMap, projectName);
+        String id = generateRequestId(inputFiles.hash(), projectName, additionalConfigs);
+        String tenant = resolveTenant(clientKey, projectName);
+        Supplier<PipelineRequest> request = () -> new PipelineRequest(id, projectName, inputFiles.store(), inputFiles.digests(), null,
+                additionalConfigs, deadlineSeconds, tenant);
 
-        return handleRunPipelineAndWaitForResult(runner, id, inputFiles);
+        return handleRunPipelineAndWaitForResult(id, request);
     }
 
-    private Map<String, File> convertInputFiles(MultipartFile inputText, MultipartFile inputCode) {
-        logger.info("Convert multipartFiles to files");
-        Map<String, File> inputFiles = new HashMap<>();
+    private HashedUploads convertInputFiles(MultipartFile inputText, MultipartFile inputCode) {
+        logger.info("Hash multipartFiles");
+        Map<PipelineInput, MultipartFile> inputFiles = new EnumMap<>(PipelineInput.class);
 
-        inputFiles.put(TEXTUAL_DOCUMENTATION_PARAMETER, FileConverter.convertMultipartFileToFile(inputText));
-        inputFiles.put(CODE_PARAMETER, FileConverter.convertMultipartFileToFile(inputCode));
+        inputFiles.put(PipelineInput.TEXTUAL_DOCUMENTATION, inputText);
+        inputFiles.put(PipelineInput.CODE, inputCode);
 
-        return inputFiles;
+        return hashInputFiles(inputFiles);
     }
 
-    private Ardocode setUpRunner(SortedMap<String, String> additionalConfigs, Map<String, File> inputFileMap, String projectName) throws IOException {
-        logger.info("Setting up Runner...");
-        Ardocode runner = new Ardocode(projectName);
-        CodeConfiguration codeConfiguration = new CodeConfiguration(inputFileMap.get(CODE_PARAMETER), CodeConfiguration.CodeConfigurationType.ACM_FILE);
-        ImmutableSortedMap<String, String> additionalConfigsImmutable = SortedMaps.immutable.withSortedMap(additionalConfigs);
-
-        runner.setUp(inputFileMap.get(TEXTUAL_DOCUMENTATION_PARAMETER), codeConfiguration, additionalConfigsImmutable, Files.createTempDirectory(
-                "ardoco-sad-code").toFile());
-        return runner;
-    }
 }
@@ -0,0 +1,151 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.CLIENT_KEY_HEADER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.DEADLINE_PARAMETER;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.AnalysisGroupResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.BatchItemResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.BatchResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.AnalysisGroup;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.Batch;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.AnalysisGroupService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * This controller submits many projects in one call, e.g. for the nightly re-analysis of a catalogue of projects, and returns their
+ * results in bulk or per project.
+ */
+@Tag(name = "Batches")
+@RequestMapping("/api/batches")
+@RestController
+public class BatchController {
+
+    public static final String ZIP_MEDIA_TYPE = "application/zip";
+
+    private final BatchService batchService;
+    private final AnalysisGroupService analysisGroupService;
+
+    /**
+     * Constructs a new {@code BatchController} with the specified services.
+     *
+     * @param batchService         the service that submits the batches
+     * @param analysisGroupService the service that runs the analyses of the projects
+     */
+    public BatchController(BatchService batchService, AnalysisGroupService analysisGroupService) {
+        this.batchService = batchService;
+        this.analysisGroupService = analysisGroupService;
+    }
+
+    /**
+     * Starts the projects of a batch archive while it is uploaded.
+     *
+     * @param archive         the ZIP archive of the batch
+     * @param deadlineSeconds Maximum run time of each pipeline in seconds (optional)
+     * @param clientKey       Key of the API client (optional)
+     * @return a ResponseEntity containing the id of the batch and the id of the group of every started project
+     * @throws IllegalArgumentException if the archive does not start with a valid manifest or has too many projects
+     * @throws FileConversionException  if the archive cannot be read
+     */
+    @Operation(summary = "Starts the projects of a batch", description = "Starts the analyses of every project of a ZIP archive. The first entry of the archive is manifest.json with the projects, e.g. {\"projects\": [{\"projectName\": \"mediastore\", \"analyses\": [\"SWATTR\", \"TRANSARC\"], \"inputs\": {\"TEXTUAL_DOCUMENTATION\": \"mediastore/doc.txt\", \"ARCHITECTURE_MODEL\": \"mediastore/model.uml\", \"CODE\": \"mediastore/code.acm\"}, \"modelFormat\": \"UML\"}]}, followed by the input files. Every project is started as soon as its files have been uploaded. Projects that cannot be started, e.g. because an input file is too large, are reported with the reason. Once the pipeline queue is full, the remaining projects wait in the batch and are started as the queue drains.")
+    @PostMapping(value = "/start", consumes = ZIP_MEDIA_TYPE)
+    public ResponseEntity<BatchResponse> startBatch(InputStream archive,
+            @Parameter(description = "Maximum run time of each pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
+            throws IllegalArgumentException, FileConversionException {
+        Batch batch = batchService.submit(archive, projectName -> AbstractController.resolveTenant(clientKey, projectName), deadlineSeconds);
+
+        List<BatchItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < batch.items().size(); i++) {
+            Batch.Item item = batch.items().get(i);
+            if (item.pending() != null) {
+                items.add(new BatchItemResponse(i, item.projectName()));
+            } else if (item.groupId() == null) {
+                items.add(new BatchItemResponse(i, item.projectName(), item.error()));
+            } else {
+                AnalysisGroupResponse group = new AnalysisGroupResponse(item.groupId(), HttpStatus.OK, Map.of(), ResultMessages.RESULT_IS_BEING_PROCESSED);
+                items.add(new BatchItemResponse(i, item.projectName(), group));
+            }
+        }
+        BatchResponse response = new BatchResponse(batch.batchId(), HttpStatus.OK, items, ResultMessages.RESULT_IS_BEING_PROCESSED);
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    /**
+     * Returns the results of all projects of a batch that are available so far.
+     *
+     * @param batchId the unique identifier of the batch
+     * @return a ResponseEntity containing the results of the projects
+     * @throws IllegalArgumentException if the batch does not exist
+     */
+    @Operation(summary = "Returns the results of all projects of a batch", description = "Returns the results of every project of the batch that are available so far. The batch is complete once its status is OK.")
+    @GetMapping("/{batchId}")
+    public ResponseEntity<BatchResponse> getBatch(@Parameter(description = "The ID of the batch", required = true) @PathVariable("batchId") String batchId)
+            throws IllegalArgumentException {
+        Batch batch = batchService.getBatch(batchId);
+        List<BatchItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < batch.items().size(); i++) {
+            items.add(buildItemResponse(i, batch.items().get(i)));
+        }
+        boolean complete = items.stream().noneMatch(item -> item.getStatus() == HttpStatus.ACCEPTED);
+        BatchResponse response = new BatchResponse(batch.batchId(), complete ? HttpStatus.OK : HttpStatus.ACCEPTED, items, complete ?
+                ResultMessages.RESULT_IS_READY :
+                ResultMessages.RESULT_NOT_READY);
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    /**
+     * Returns the results of one project of a batch that are available so far.
+     *
+     * @param batchId the unique identifier of the batch
+     * @param index   the position of the project in the manifest of the batch
+     * @return a ResponseEntity containing the results of the project
+     * @throws IllegalArgumentException if the batch or the project does not exist
+     */
+    @Operation(summary = "Returns the results of one project of a batch", description = "Returns the results of the project at the given position of the manifest of the batch that are available so far.")
+    @GetMapping("/{batchId}/items/{index}")
+    public ResponseEntity<BatchItemResponse> getBatchItem(
+            @Parameter(description = "The ID of the batch", required = true) @PathVariable("batchId") String batchId,
+            @Parameter(description = "The position of the project in the manifest, starting at 0", required = true) @PathVariable("index") int index)
+            throws IllegalArgumentException {
+        Batch batch = batchService.getBatch(batchId);
+        if (index < 0 || index >= batch.items().size()) {
+            throw new IllegalArgumentException(String.format("The batch %s has no project at position %d.", batchId, index));
+        }
+        BatchItemResponse response = buildItemResponse(index, batch.items().get(index));
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    private BatchItemResponse buildItemResponse(int index, Batch.Item item) {
+        if (item.pending() != null) {
+            return new BatchItemResponse(index, item.projectName());
+        }
+        if (item.groupId() == null) {
+            return new BatchItemResponse(index, item.projectName(), item.error());
+        }
+        AnalysisGroup group = analysisGroupService.getGroup(item.groupId());
+        AnalysisGroupResponse groupResponse = AnalysisGroupController.toGroupResponse(group, analysisGroupService.getResults(group),
+                ResultMessages.RESULT_NOT_READY).join();
+        return new BatchItemResponse(index, item.projectName(), groupResponse);
+    }
+}
@@ -0,0 +1,155 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ADDITIONAL_CONFIGURATION_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ARCHITECTURE_MODEL_FORMAT_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ARCHITECTURE_MODEL_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.CLIENT_KEY_HEADER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.CODE_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.DEADLINE_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.PROJECT_NAME_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.TEXTUAL_DOCUMENTATION_PARAMETER;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.BlobResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore.Blob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.InputBlobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * This controller stores input files once and starts the pipelines of all analyses on stored files, so that clients that run several
+ * analyses or iterate on one of their files do not upload the same files again and again.
+ */
+@Tag(name = "Input Store")
+@RequestMapping("/api/blobs")
+@RestController
+public class BlobController {
+
+    public static final String FILE_PARAMETER = "file";
+
+    private final InputBlobService service;
+
+    /**
+     * Constructs a new {@code BlobController} with the specified service.
+     *
+     * @param service the service of the input store
+     */
+    public BlobController(InputBlobService service) {
+        this.service = service;
+    }
+
+    /**
+     * Stores an input file, unless a file with the same content is already stored.
+     *
+     * @param file the input file
+     * @return a ResponseEntity containing the digest under which the file is stored
+     * @throws FileNotFoundException   if the file is empty
+     * @throws FileConversionException if the file cannot be stored
+     */
+    @Operation(summary = "Stores an input file", description = "Stores a textual documentation, architecture model or code model and returns its MD5 digest, by which pipelines can be started on the file without uploading it again. Identical files are stored once. Stored files that have not been used for a while are deleted once the store is full.")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BlobResponse> uploadBlob(
+            @Parameter(description = "The input file", required = true) @RequestParam(FILE_PARAMETER) MultipartFile file) throws FileNotFoundException,
+            FileConversionException {
+        Blob blob = service.upload(file);
+        BlobResponse response = new BlobResponse(blob.digest(), blob.fileName(), blob.size(), HttpStatus.OK);
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    /**
+     * Checks whether an input file is stored.
+     *
+     * @param digest the MD5 digest of the file
+     * @return a ResponseEntity containing the stored file, or the status 404 if it is not stored
+     */
+    @Operation(summary = "Checks whether an input file is stored", description = "Returns the stored file with the given MD5 digest, so that clients only upload files that are not stored (anymore).")
+    @GetMapping("/{digest}")
+    public ResponseEntity<BlobResponse> getBlob(@Parameter(description = "The MD5 digest of the file", required = true) @PathVariable("digest") String digest) {
+        BlobResponse response = service.getBlob(digest)
+                .map(blob -> new BlobResponse(blob.digest(), blob.fileName(), blob.size(), HttpStatus.OK))
+                .orElseGet(() -> new BlobResponse(digest, null, 0, HttpStatus.NOT_FOUND));
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+
+    /**
+     * Starts the pipeline of an analysis on stored input files.
+     *
+     * @param analysis              the analysis to run
+     * @param projectName           the name of the project
+     * @param documentationDigest   the MD5 digest of the stored textual documentation (optional)
+     * @param modelDigest           the MD5 digest of the stored architecture model (optional)
+     * @param modelType             the type of the architecture model (optional)
+     * @param codeDigest            the MD5 digest of the stored code model (optional)
+     * @param additionalConfigsJson JSON string containing additional ArDoCo configuration (optional)
+     * @param deadlineSeconds       Maximum run time of the pipeline in seconds (optional)
+     * @param clientKey             Key of the API client (optional)
+     * @return a ResponseEntity containing the id of the result, and the result if it is already available
+     * @throws ArdocoException          if the result cannot be read
+     * @throws TooManyRequestsException if the pipeline queue is full
+     */
+    @Operation(summary = "Starts the pipeline of an analysis on stored input files", description = "Starts the pipeline of the analysis with the given project name on the stored files with the given MD5 digests, as if the files had been uploaded to the controller of the pipeline. Returns the id of the result, which can be queried as usual.")
+    @PostMapping("/start/{analysis}")
+    public ResponseEntity<ArdocoResultResponse> runPipeline(
+            @Parameter(description = "The analysis to run", required = true) @PathVariable("analysis") Analysis analysis,
+            @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
+            @Parameter(description = "The MD5 digest of the stored textual documentation, needed by all analyses except ARCOTL", required = false) @RequestParam(value = TEXTUAL_DOCUMENTATION_PARAMETER, required = false) String documentationDigest,
+            @Parameter(description = "The MD5 digest of the stored architecture model, needed by all analyses except ARDOCODE", required = false) @RequestParam(value = ARCHITECTURE_MODEL_PARAMETER, required = false) String modelDigest,
+            @Parameter(description = "The type of the architecture model.", required = false) @RequestParam(value = ARCHITECTURE_MODEL_FORMAT_PARAMETER, required = false) ModelFormat modelType,
+            @Parameter(description = "The MD5 digest of the stored code model, needed by ARCOTL, ARDOCODE and TRANSARC", required = false) @RequestParam(value = CODE_PARAMETER, required = false) String codeDigest,
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
+            throws ArdocoException, TooManyRequestsException {
+
+        Map<PipelineInput, String> digests = new EnumMap<>(PipelineInput.class);
+        if (documentationDigest != null) {
+            digests.put(PipelineInput.TEXTUAL_DOCUMENTATION, documentationDigest);
+        }
+        if (modelDigest != null) {
+            digests.put(PipelineInput.ARCHITECTURE_MODEL, modelDigest);
+        }
+        if (codeDigest != null) {
+            digests.put(PipelineInput.CODE, codeDigest);
+        }
+        SortedMap<String, String> additionalConfigs = AbstractController.parseAdditionalConfigs(additionalConfigsJson);
+        String tenant = AbstractController.resolveTenant(clientKey, projectName);
+
+        String id = service.requestIdOf(analysis, projectName, digests, additionalConfigs);
+        Optional<ArDoCoApiResult> result = service.start(analysis, id, projectName, digests, modelType, additionalConfigs, deadlineSeconds, tenant);
+        ArdocoResultResponse response;
+        if (result.isEmpty()) {
+            response = new ArdocoResultResponse(id, HttpStatus.OK, ResultMessages.RESULT_IS_BEING_PROCESSED);
+        } else {
+            response = new ArdocoResultResponse(id, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY);
+        }
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+}
@@ -0,0 +1,88 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+
+/**
+ * Bridges the futures of waiting for a result to asynchronous servlet responses, so that no request thread is parked while a pipeline
+ * runs.
+ */
+final class DeferredResponses {
+
+    /**
+     * Additional time the servlet container waits for the future before it answers with the timeout response itself.
+     */
+    private static final long TIMEOUT_GRACE_MILLIS = 5_000;
+
+    private DeferredResponses() {
+    }
+
+    /**
+     * Creates a deferred response that is completed once the given future completes.
+     * <p>
+     * Errors of the future are handed to the {@link edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.GlobalExceptionHandler}. Should the
+     * future not complete within the timeout plus a short grace period, the response is built from an empty result.
+     *
+     * @param result              the future of the result, completed with an empty optional when waiting timed out
+     * @param secondsUntilTimeout the time the future is expected to complete in, in seconds
+     * @param responseBuilder     builds the response from the (possibly empty) result
+     * @return the deferred response
+     */
+    static DeferredResult<ResponseEntity<ArdocoResultResponse>> of(CompletableFuture<Optional<ArDoCoApiResult>> result, int secondsUntilTimeout,
+            Function<Optional<ArDoCoApiResult>, ResponseEntity<ArdocoResultResponse>> responseBuilder) {
+        return of(result, Optional.empty(), secondsUntilTimeout, responseBuilder);
+    }
+
+    /**
+     * Creates a deferred response that is completed once the given future completes, like
+     * {@link #of(CompletableFuture, int, Function)}, for any kind of result.
+     *
+     * @param result              the future of the result
+     * @param timeoutValue        the result the response is built from should the future not complete in time
+     * @param secondsUntilTimeout the time the future is expected to complete in, in seconds
+     * @param responseBuilder     builds the response from the result
+     * @param <T>                 the type of the result
+     * @param <R>                 the type of the response body
+     * @return the deferred response
+     */
+    static <T, R> DeferredResult<ResponseEntity<R>> of(CompletableFuture<T> result, T timeoutValue, int secondsUntilTimeout,
+            Function<T, ResponseEntity<R>> responseBuilder) {
+        DeferredResult<ResponseEntity<R>> deferredResult = new DeferredResult<>(secondsUntilTimeout * 1000L + TIMEOUT_GRACE_MILLIS);
+        deferredResult.onTimeout(() -> deferredResult.setResult(responseBuilder.apply(timeoutValue)));
+        result.whenComplete((value, error) -> {
+            if (error == null) {
+                deferredResult.setResult(responseBuilder.apply(value));
+            } else {
+                deferredResult.setErrorResult(unwrap(error));
+            }
+        });
+        return deferredResult;
+    }
+
+    /**
+     * Returns the exception that is handed to the {@link edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.GlobalExceptionHandler} for
+     * an error of a future.
+     *
+     * @param error the error of the future
+     * @return the exception
+     */
+    static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ArdocoException || cause instanceof TooManyRequestsException || cause instanceof JobCancelledException) {
+            return (RuntimeException) cause;
+        }
+        return new ArdocoException(cause.getMessage(), cause);
+    }
+}
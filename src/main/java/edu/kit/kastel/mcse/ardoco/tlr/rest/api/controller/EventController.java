@@ -0,0 +1,181 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ErrorResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ResultService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * This controller streams the progress of a pipeline as Server-Sent Events, so that clients do not need to poll for the result.
+ * <p>
+ * The stream sends a {@value #STATE_EVENT} event for every state of the pipeline (queued, running, converting, saving, done, error or
+ * cancelled),
+ * followed by one {@value #RESULT_EVENT} event that contains the {@link ArdocoResultResponse}, or an {@link ErrorResponse} if the pipeline
+ * failed. If neither a pipeline nor a result with the id is known, the stream only sends a {@value #RESULT_EVENT} event with a
+ * {@link ArdocoResultResponse} of status 404. The stream is closed afterward.
+ */
+@Tag(name = "Result Events")
+@RestController
+@RequestMapping("/api")
+public class EventController {
+
+    /**
+     * Name of the events that contain a state of the pipeline.
+     */
+    public static final String STATE_EVENT = "state";
+
+    /**
+     * Name of the final event that contains the result of the pipeline.
+     */
+    public static final String RESULT_EVENT = "result";
+
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+
+    @Autowired
+    private ResultService service;
+
+    @Value("${tlr.events.timeout.seconds}")
+    private long timeoutSeconds;
+
+    @Operation(summary = "Streams the progress and the result of a pipeline as Server-Sent Events", description = "Sends a 'state' event for every state of the pipeline with the given id (queued, running, converting, saving, done, error or cancelled) and a final 'result' event with the result. If the pipeline has already finished, the result is sent right away; if the id is not known, only a 'result' event with status 404 is sent.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "the event stream of the pipeline", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)) })
+    @GetMapping(value = "/events/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@Parameter(description = "The ID of the result to follow", required = true) @PathVariable("id") String id) {
+        SseEmitter emitter = new SseEmitter(timeoutSeconds * 1000);
+        emitter.onTimeout(emitter::complete);
+        Optional<PipelineJob> job = service.getRunningJob(id);
+        if (job.isPresent()) {
+            subscribe(emitter, job.get());
+        } else {
+            sendFinishedResult(emitter, id);
+        }
+        return emitter;
+    }
+
+    private void subscribe(SseEmitter emitter, PipelineJob job) {
+        String id = job.getId();
+        StateEvents stateEvents = new StateEvents(emitter);
+        stateEvents.send(job.getState());
+        Consumer<JobState> listener = stateEvents::send;
+        job.addStateListener(listener);
+        emitter.onCompletion(() -> job.removeStateListener(listener));
+        emitter.onError(error -> job.removeStateListener(listener));
+        // the job might have moved on before the listener has been registered
+        stateEvents.send(job.getState());
+
+        job.getFuture().whenComplete((result, error) -> stateEvents.finish(() -> {
+            if (error == null) {
+                sendResult(emitter, JobState.DONE, new ArdocoResultResponse(id, HttpStatus.OK, result, ResultMessages.RESULT_IS_READY));
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof JobCancelledException) {
+                    sendResult(emitter, JobState.CANCELLED, new ErrorResponse(HttpStatus.GONE, cause.getMessage()));
+                } else {
+                    sendResult(emitter, JobState.ERROR, new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, cause.getMessage()));
+                }
+            }
+        }));
+    }
+
+    private void sendFinishedResult(SseEmitter emitter, String id) {
+        try {
+            Optional<ArDoCoApiResult> result = service.findResult(id);
+            if (result.isEmpty()) {
+                // a pipeline has been started right after the first lookup
+                Optional<PipelineJob> job = service.getRunningJob(id);
+                if (job.isPresent()) {
+                    subscribe(emitter, job.get());
+                    return;
+                }
+                // or has finished in the meantime
+                result = service.findResult(id);
+            }
+            if (result.isPresent()) {
+                sendResult(emitter, JobState.DONE, new ArdocoResultResponse(id, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY));
+            } else if (send(emitter, RESULT_EVENT, new ArdocoResultResponse(id, HttpStatus.NOT_FOUND, ResultMessages.RESULT_NOT_FOUND),
+                    MediaType.APPLICATION_JSON)) {
+                // no pipeline has a state to report
+                emitter.complete();
+            }
+        } catch (ArdocoException e) {
+            sendResult(emitter, JobState.ERROR, new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()));
+        }
+    }
+
+    private void sendResult(SseEmitter emitter, JobState finalState, Object response) {
+        if (send(emitter, STATE_EVENT, finalState.getDisplayName(), MediaType.TEXT_PLAIN) && send(emitter, RESULT_EVENT, response,
+                MediaType.APPLICATION_JSON)) {
+            emitter.complete();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String eventName, Object data, MediaType mediaType) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data, mediaType));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client has disconnected or the stream timed out
+            logger.debug("Could not send {} event: {}", eventName, e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * The state events of one stream. Every state is sent once and in the order of the pipeline: states that are not newer than the last
+     * sent one are dropped, e.g. the current state of the job if the listener has already reported it. Final states are sent together with
+     * the result, after which no other state is sent.
+     */
+    private final class StateEvents {
+        private final SseEmitter emitter;
+        private JobState lastSent;
+        private boolean finished;
+
+        private StateEvents(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized void send(JobState state) {
+            if (finished || state.isFinal() || (lastSent != null && state.compareTo(lastSent) <= 0)) {
+                return;
+            }
+            lastSent = state;
+            EventController.this.send(emitter, STATE_EVENT, state.getDisplayName(), MediaType.TEXT_PLAIN);
+        }
+
+        private synchronized void finish(Runnable sendResult) {
+            finished = true;
+            sendResult.run();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * This controller manages pipeline runs that are currently in flight.
+ */
+@Tag(name = "Job Management")
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private JobService service;
+
+    /**
+     * Constructs a new {@code JobController}.
+     */
+    public JobController() {
+        // Default constructor
+    }
+
+    /**
+     * Cancels the pipeline run with the given id.
+     *
+     * @param id the unique identifier of the request
+     * @return a ResponseEntity containing an {@link ArdocoResultResponse} that confirms the cancellation
+     * @throws IllegalArgumentException if no run with the id is in flight
+     */
+    @Operation(summary = "Cancels a queued or running pipeline", description = "Detaches the pipeline with the given id from its clients and deletes its temporary files. A queued pipeline never runs; a pipeline that is already computing is not stopped and keeps its slot until it returns. The result of a cancelled pipeline is not stored. Pipelines whose result is already being saved cannot be cancelled.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "the pipeline has been cancelled", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArdocoResultResponse.class))) })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ArdocoResultResponse> cancelJob(
+            @Parameter(description = "The ID of the pipeline to cancel", required = true) @PathVariable("id") String id) throws IllegalArgumentException {
+        if (service.cancel(id).isEmpty()) {
+            throw new IllegalArgumentException(String.format("No running pipeline with key %s found.", id));
+        }
+        ArdocoResultResponse response = new ArdocoResultResponse(id, HttpStatus.OK, ResultMessages.JOB_CANCELLED);
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+}
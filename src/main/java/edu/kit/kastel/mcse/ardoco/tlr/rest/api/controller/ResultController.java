@@ -1,7 +1,16 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
 
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ADDITIONAL_CONFIGURATION_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.ARCHITECTURE_MODEL_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.CODE_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.PROJECT_NAME_PARAMETER;
+import static edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController.TEXTUAL_DOCUMENTATION_PARAMETER;
+
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,13 +18,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TimeoutException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages.ResultMessages;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ConfigurationProviderService;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.ResultService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,6 +47,9 @@ public class ResultController {
     @Autowired
     private ResultService service;
 
+    @Autowired
+    private ConfigurationProviderService configurationProviderService;
+
     @Operation(summary = "Queries the TraceLinks for a given resultID, and returns it if it is ready", description = "Queries whether the TraceLinks are ready using the id, which was returned by tue runPipeline method. " + "In case the result is not yet ready, the user gets informed about it via an appropriate message and the user retrieves the unique id to query the result later")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "the sadCodeTraceLinks found by ardoco", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArdocoResultResponse.class))),
@@ -51,12 +68,42 @@ public class ResultController {
 
     })
     @GetMapping("/wait-for-result/{id}")
-    public ResponseEntity<ArdocoResultResponse> waitForResult(
+    public DeferredResult<ResponseEntity<ArdocoResultResponse>> waitForResult(
             @Parameter(description = "The ID of the result to query", required = true) @PathVariable("id") String id) throws ArdocoException,
             IllegalArgumentException, TimeoutException {
         return handleWaitForResult(id);
     }
 
+    @Operation(summary = "Looks up the TraceLinks of an analysis by the MD5 digests of the input files, without uploading them", description = "Computes the id that starting the analysis with the files would return from the hex-encoded MD5 digests of the raw files and returns the result if it is already known. "
+            + "Only if the result is not found (404), the client has to upload the files to start the pipeline.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "the sadCodeTraceLinks found by ardoco", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArdocoResultResponse.class))),
+            @ApiResponse(responseCode = "202", description = "the pipeline for these files is running, the result can be queried using the id", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArdocoResultResponse.class))),
+            @ApiResponse(responseCode = "404", description = "there is no result for these files, they have to be uploaded", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArdocoResultResponse.class))), })
+    @GetMapping("/lookup/{analysis}")
+    public ResponseEntity<ArdocoResultResponse> lookupResult(
+            @Parameter(description = "The analysis whose result is looked up", required = true) @PathVariable("analysis") Analysis analysis,
+            @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
+            @Parameter(description = "The MD5 digest of the documentation, as 32 hex digits") @RequestParam(value = TEXTUAL_DOCUMENTATION_PARAMETER, required = false) String documentationDigest,
+            @Parameter(description = "The MD5 digest of the architecture model, as 32 hex digits") @RequestParam(value = ARCHITECTURE_MODEL_PARAMETER, required = false) String modelDigest,
+            @Parameter(description = "The MD5 digest of the code model, as 32 hex digits") @RequestParam(value = CODE_PARAMETER, required = false) String codeDigest,
+            @Parameter(description = "JSON string containing the additional ArDoCo configuration the pipeline would be started with") @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
+            throws ArdocoException, IllegalArgumentException {
+        Map<PipelineInput, String> digests = new EnumMap<>(PipelineInput.class);
+        if (documentationDigest != null) {
+            digests.put(PipelineInput.TEXTUAL_DOCUMENTATION, documentationDigest);
+        }
+        if (modelDigest != null) {
+            digests.put(PipelineInput.ARCHITECTURE_MODEL, modelDigest);
+        }
+        if (codeDigest != null) {
+            digests.put(PipelineInput.CODE, codeDigest);
+        }
+        SortedMap<String, String> additionalConfigs = configurationProviderService.canonicalize(AbstractController.parseAdditionalConfigs(
+                additionalConfigsJson));
+        return handleLookupResult(analysis, projectName, digests, additionalConfigs);
+    }
+
     /**
      * Handles the retrieval of a result and builds an appropriate response based on the result status.
      *
@@ -78,20 +125,51 @@ public class ResultController {
 
     /**
      * Handles the process of waiting for a result to become available, building a response based on the status.
+     * The request thread is not blocked while waiting; the response is sent once the result is available or the timeout has been reached.
      *
      * @param requestId the unique request ID for retrieving the result
-     * @return a {@link ResponseEntity} containing the {@link ArdocoResultResponse} with the status and result message
+     * @return a {@link DeferredResult} completed with a {@link ResponseEntity} containing the {@link ArdocoResultResponse} with the status and
+     *         result message
      * @throws ArdocoException          if an error occurs while waiting for the result
      * @throws IllegalArgumentException if the provided requestId is invalid
      * @throws TimeoutException         if waiting for the result times out
      */
-    protected ResponseEntity<ArdocoResultResponse> handleWaitForResult(String requestId) throws ArdocoException, IllegalArgumentException, TimeoutException {
-        Optional<ArDoCoApiResult> result = service.waitForResult(requestId);
+    protected DeferredResult<ResponseEntity<ArdocoResultResponse>> handleWaitForResult(String requestId) throws ArdocoException, IllegalArgumentException,
+            TimeoutException {
+        return DeferredResponses.of(service.waitForResult(requestId), service.getSecondsUntilTimeout(), result -> {
+            ArdocoResultResponse response;
+            if (result.isEmpty()) {
+                response = new ArdocoResultResponse(requestId, HttpStatus.ACCEPTED, ResultMessages.REQUEST_TIMED_OUT);
+            } else {
+                response = new ArdocoResultResponse(requestId, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY);
+            }
+            return new ResponseEntity<>(response, response.getStatus());
+        });
+    }
+
+    /**
+     * Handles the lookup of a result by the digests of its input files and builds an appropriate response based on the result status.
+     *
+     * @param analysis          the analysis whose result is looked up
+     * @param projectName       the name of the project
+     * @param digests           the hex-encoded MD5 digests of the input files of the analysis
+     * @param additionalConfigs the canonical additional configuration of the request
+     * @return a {@link ResponseEntity} containing the {@link ArdocoResultResponse} with the status, the id and the result if it is known
+     * @throws ArdocoException          if an error occurs while fetching the result
+     * @throws IllegalArgumentException if the digests do not match the inputs of the analysis or are not valid MD5 digests
+     */
+    protected ResponseEntity<ArdocoResultResponse> handleLookupResult(Analysis analysis, String projectName, Map<PipelineInput, String> digests,
+            SortedMap<String, String> additionalConfigs) throws ArdocoException, IllegalArgumentException {
+        String requestId = analysis.requestIdOfDigests(projectName, digests, additionalConfigs);
+
+        Optional<ArDoCoApiResult> result = service.findResult(requestId);
         ArdocoResultResponse response;
-        if (result.isEmpty()) {
-            response = new ArdocoResultResponse(requestId, HttpStatus.ACCEPTED, ResultMessages.REQUEST_TIMED_OUT);
-        } else {
+        if (result.isPresent()) {
             response = new ArdocoResultResponse(requestId, HttpStatus.OK, result.get(), ResultMessages.RESULT_IS_READY);
+        } else if (service.getRunningJob(requestId).isPresent()) {
+            response = new ArdocoResultResponse(requestId, HttpStatus.ACCEPTED, ResultMessages.RESULT_IS_BEING_PROCESSED);
+        } else {
+            response = new ArdocoResultResponse(requestId, HttpStatus.NOT_FOUND, ResultMessages.RESULT_NOT_FOUND);
         }
         return new ResponseEntity<>(response, response.getStatus());
     }
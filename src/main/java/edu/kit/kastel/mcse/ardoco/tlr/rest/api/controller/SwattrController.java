@@ -1,36 +1,32 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.function.Supplier;
 
-import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
-import org.eclipse.collections.impl.factory.SortedMaps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
-import edu.kit.kastel.mcse.ardoco.tlr.execution.Swattr;
-import edu.kit.kastel.mcse.ardoco.tlr.models.agents.ArchitectureConfiguration;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
-import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.SwattrService;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.service.UploadIngestionService.HashedUploads;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -62,6 +58,8 @@ public class SwattrController extends AbstractController {
      * @param inputArchitectureModel The architecture model of the project.
      * @param modelType              The type of architecture model that is uploaded.
      * @param additionalConfigsJson  JSON string containing additional ArDoCo configuration.
+     * @param deadlineSeconds        Maximum run time of the pipeline in seconds.
+     * @param clientKey              Key of the API client.
      * @return ResponseEntity containing the result of the processing pipeline.
      * @throws FileNotFoundException   if a required file is not found.
      * @throws FileConversionException if there is an error converting files.
@@ -73,17 +71,20 @@ public class SwattrController extends AbstractController {
             @Parameter(description = "The textual documentation of the project", required = true) @RequestParam(TEXTUAL_DOCUMENTATION_PARAMETER) MultipartFile inputText,
             @Parameter(description = "The architectureModel of the project", required = true) @RequestParam(ARCHITECTURE_MODEL_PARAMETER) MultipartFile inputArchitectureModel,
             @Parameter(description = "The type of architectureModel that is uploaded.", required = true) @RequestParam(ARCHITECTURE_MODEL_FORMAT_PARAMETER) ModelFormat modelType,
-            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
-            throws FileNotFoundException, FileConversionException, IOException {
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
+            throws FileNotFoundException, FileConversionException {
 
-        Map<String, File> inputFileMap = convertInputFiles(inputText, inputArchitectureModel);
-        List<File> inputFiles = new ArrayList<>(inputFileMap.values());
-        SortedMap<String, String> additionalConfigs = parseAdditionalConfigs(additionalConfigsJson);
+        HashedUploads inputFiles = convertInputFiles(inputText, inputArchitectureModel);
+        SortedMap<String, String> additionalConfigs = readAdditionalConfigs(additionalConfigsJson);
 
-        String id = generateRequestId(inputFiles, projectName);
-        Swattr runner = setUpRunner(inputFileMap, modelType, projectName, additionalConfigs);
+        String id = generateRequestId(inputFiles.hash(), projectName, additionalConfigs);
+        String tenant = resolveTenant(clientKey, projectName);
+        Supplier<PipelineRequest> request = () -> new PipelineRequest(id, projectName, inputFiles.store(), inputFiles.digests(), modelType,
+                additionalConfigs, deadlineSeconds, tenant);
 
-        return handleRunPipeLineResult(runner, id, inputFiles);
+        return handleRunPipeLineResult(id, request);
     }
 
     /**
@@ -94,50 +95,43 @@ public class SwattrController extends AbstractController {
      * @param inputArchitectureModel The architecture model of the project.
      * @param modelType              The type of architecture model that is uploaded.
      * @param additionalConfigsJson  JSON string containing additional ArDoCo configuration.
-     * @return ResponseEntity containing the result of the processing pipeline.
+     * @param deadlineSeconds        Maximum run time of the pipeline in seconds.
+     * @param clientKey              Key of the API client.
+     * @return DeferredResult completed with a ResponseEntity containing the result of the processing pipeline.
      * @throws FileNotFoundException   if a required file is not found.
      * @throws FileConversionException if there is an error converting files.
      */
     @Operation(summary = "Starts the SWATTR (sad-sam) processing pipeline and waits until the result is obtained", description = "performs the SadSamTraceLinks link recovery of ArDoCo with the given project name and files and waits until the SadSamTraceLinks are obtained.")
     @PostMapping(value = "/start-and-wait", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ArdocoResultResponse> runPipelineAndWaitForResult(
+    public DeferredResult<ResponseEntity<ArdocoResultResponse>> runPipelineAndWaitForResult(
             @Parameter(description = "The name of the project", required = true) @RequestParam(PROJECT_NAME_PARAMETER) String projectName,
             @Parameter(description = "The textual documentation of the project", required = true) @RequestParam(TEXTUAL_DOCUMENTATION_PARAMETER) MultipartFile inputText,
             @Parameter(description = "The architectureModel of the project", required = true) @RequestParam(ARCHITECTURE_MODEL_PARAMETER) MultipartFile inputArchitectureModel,
             @Parameter(description = "The type of architectureModel that is uploaded.", required = true) @RequestParam(ARCHITECTURE_MODEL_FORMAT_PARAMETER) ModelFormat modelType,
-            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson)
-            throws FileNotFoundException, FileConversionException, IOException {
+            @Parameter(description = "JSON string containing additional ArDoCo configuration. If not provided, the default configuration of ArDoCo is used.", required = false) @RequestParam(value = ADDITIONAL_CONFIGURATION_PARAMETER, required = false) String additionalConfigsJson,
+            @Parameter(description = "Maximum run time of the pipeline in seconds. It can only lower the time budget configured for the pipeline.", required = false) @RequestParam(value = DEADLINE_PARAMETER, required = false) Integer deadlineSeconds,
+            @Parameter(description = "Key of the API client. Waiting pipelines are started fairly across clients; without a key, the project name is used.", required = false) @RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey)
+            throws FileNotFoundException, FileConversionException {
 
-        Map<String, File> inputFileMap = convertInputFiles(inputText, inputArchitectureModel);
-        List<File> inputFiles = new ArrayList<>(inputFileMap.values());
-        SortedMap<String, String> additionalConfigs = parseAdditionalConfigs(additionalConfigsJson);
+        HashedUploads inputFiles = convertInputFiles(inputText, inputArchitectureModel);
+        SortedMap<String, String> additionalConfigs = readAdditionalConfigs(additionalConfigsJson);
 
-        String id = generateRequestId(inputFiles, projectName);
-        Swattr runner = setUpRunner(inputFileMap, modelType, projectName, additionalConfigs);
+        String id = generateRequestId(inputFiles.hash(), projectName, additionalConfigs);
+        String tenant = resolveTenant(clientKey, projectName);
+        Supplier<PipelineRequest> request = () -> new PipelineRequest(id, projectName, inputFiles.store(), inputFiles.digests(), modelType,
+                additionalConfigs, deadlineSeconds, tenant);
 
-        return handleRunPipelineAndWaitForResult(runner, id, inputFiles);
+        return handleRunPipelineAndWaitForResult(id, request);
     }
 
-    private Map<String, File> convertInputFiles(MultipartFile inputText, MultipartFile inputArchitectureModel) {
-        logger.info("Convert multipartFiles to files");
-        Map<String, File> inputFiles = new HashMap<>();
+    private HashedUploads convertInputFiles(MultipartFile inputText, MultipartFile inputArchitectureModel) {
+        logger.info("Hash multipartFiles");
+        Map<PipelineInput, MultipartFile> inputFiles = new EnumMap<>(PipelineInput.class);
 
-        inputFiles.put(TEXTUAL_DOCUMENTATION_PARAMETER, FileConverter.convertMultipartFileToFile(inputText));
-        inputFiles.put(ARCHITECTURE_MODEL_PARAMETER, FileConverter.convertMultipartFileToFile(inputArchitectureModel));
+        inputFiles.put(PipelineInput.TEXTUAL_DOCUMENTATION, inputText);
+        inputFiles.put(PipelineInput.ARCHITECTURE_MODEL, inputArchitectureModel);
 
-        return inputFiles;
+        return hashInputFiles(inputFiles);
     }
 
-    private Swattr setUpRunner(Map<String, File> inputFileMap, ModelFormat modelType, String projectName, SortedMap<String, String> additionalConfigs)
-            throws FileNotFoundException, FileConversionException, IOException {
-        logger.info("Setting up Runner...");
-        Swattr runner = new Swattr(projectName);
-
-        ArchitectureConfiguration architectureConfiguration = new ArchitectureConfiguration(inputFileMap.get(ARCHITECTURE_MODEL_PARAMETER), modelType);
-        ImmutableSortedMap<String, String> additionalConfigsImmutable = SortedMaps.immutable.withSortedMap(additionalConfigs);
-
-        runner.setUp(inputFileMap.get(TEXTUAL_DOCUMENTATION_PARAMETER), architectureConfiguration, additionalConfigsImmutable, Files.createTempDirectory(
-                "ardoco-sad-sam").toFile());
-        return runner;
-    }
 }
@@ -1,16 +1,25 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
 
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
 
 /**
  * This is a utility class for converting files and handling file-related operations.
@@ -19,6 +28,10 @@ import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
  */
 public final class FileConverter {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileConverter.class);
+    private static final String CONVERTED_FILE_DIRECTORY_PREFIX = "ardoco-input";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private FileConverter() {
     }
 
@@ -51,7 +64,8 @@ public final class FileConverter {
     /**
      * Converts a {@link MultipartFile} to a {@link File} object.
      * If the multipart file is empty or null, an exception is thrown.
-     * Otherwise, the file is saved in the system’s temporary directory.
+     * Otherwise, the file is saved under its original name in a new directory within the system’s temporary directory, so that
+     * uploads of different requests never overwrite each other.
      *
      * @param multipartFile the {@link MultipartFile} to convert
      * @return a {@link File} object containing the contents of the {@link MultipartFile}
@@ -68,8 +82,10 @@ public final class FileConverter {
         }
 
         try {
-            // Create a temporary file
-            File convertedFile = new File(System.getProperty("java.io.tmpdir") + File.separator + multipartFile.getOriginalFilename());
+            // Create a temporary file in its own directory
+            File directory = Files.createTempDirectory(CONVERTED_FILE_DIRECTORY_PREFIX).toFile();
+            String fileName = Objects.requireNonNullElse(multipartFile.getOriginalFilename(), "input");
+            File convertedFile = new File(directory, new File(fileName).getName());
             convertedFile.createNewFile();
 
             // Transfer content to the file
@@ -80,4 +96,117 @@ public final class FileConverter {
             throw new FileConversionException("Error occurred while transferring the MultipartFile to File: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Computes the MD5 digest of the content of a {@link MultipartFile} without storing it, see
+     * {@link HashGenerator#getMD5HashFromDigests(List)}. Like {@link #convertMultipartFileToFile(MultipartFile)}, empty files are rejected.
+     *
+     * @param multipartFile the {@link MultipartFile} to hash
+     * @return the digest of its content
+     * @throws FileNotFoundException   if the file is empty or null
+     * @throws FileConversionException if an error occurs while reading the file
+     */
+    public static byte[] digestMultipartFile(MultipartFile multipartFile) throws FileNotFoundException, FileConversionException {
+        if (multipartFile == null) {
+            throw new FileConversionException("Multipart file is null.");
+        }
+
+        if (multipartFile.isEmpty()) {
+            throw new FileNotFoundException("The file with name " + multipartFile.getOriginalFilename() + " is empty.");
+        }
+
+        HashGenerator.ContentHasher hasher = new HashGenerator.ContentHasher();
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                hasher.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while hashing the MultipartFile: " + e.getMessage(), e);
+        }
+        return hasher.digest();
+    }
+
+    /**
+     * Writes the content of an uploaded file, e.g. one received from another node, to a {@link File} object.
+     * Like {@link #convertMultipartFileToFile(MultipartFile)}, the file is saved under its original name in a new directory within the
+     * system’s temporary directory.
+     *
+     * @param fileName the original name of the file
+     * @param content  the content of the file
+     * @return a {@link File} object containing the content
+     * @throws FileConversionException if an error occurs while writing the file
+     */
+    public static File writeInputFile(String fileName, byte[] content) throws FileConversionException {
+        try {
+            File directory = Files.createTempDirectory(CONVERTED_FILE_DIRECTORY_PREFIX).toFile();
+            File file = new File(directory, new File(fileName).getName());
+            Files.write(file.toPath(), content);
+            return file;
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while writing the file with name " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Shares a stored file with a run as input file, e.g. one of the {@link edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore}.
+     * Like {@link #writeInputFile(String, byte[])}, the input file gets the given name in a new directory within the system’s temporary
+     * directory. It is a hard link to the stored file, so that no content is copied and deleting the input file keeps the stored file;
+     * if the file system does not support the link, the file is copied instead.
+     *
+     * @param source   the stored file
+     * @param fileName the name of the input file
+     * @return the input file
+     * @throws FileConversionException if the input file cannot be created, e.g. because the stored file has been deleted
+     */
+    public static File linkInputFile(Path source, String fileName) throws FileConversionException {
+        File directory = null;
+        try {
+            directory = Files.createTempDirectory(CONVERTED_FILE_DIRECTORY_PREFIX).toFile();
+            Path file = directory.toPath().resolve(new File(fileName).getName());
+            try {
+                Files.createLink(file, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                logger.debug("Could not link the input file {}, copying it: {}", fileName, e.getMessage());
+                Files.copy(source, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file.toFile();
+        } catch (IOException e) {
+            deleteDirectory(directory);
+            throw new FileConversionException("Error occurred while providing the file with name " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes files created by {@link #convertMultipartFileToFile(MultipartFile)}, {@link #writeInputFile(String, byte[])} or
+     * {@link #linkInputFile(Path, String)} together with their temporary directories.
+     *
+     * @param files the converted files to delete
+     */
+    public static void deleteConvertedFiles(List<File> files) {
+        for (File file : files) {
+            file.delete();
+            File directory = file.getParentFile();
+            if (directory != null && directory.getName().startsWith(CONVERTED_FILE_DIRECTORY_PREFIX)) {
+                directory.delete();
+            }
+        }
+    }
+
+    /**
+     * Deletes a directory together with its content. Files that cannot be deleted are skipped.
+     *
+     * @param directory the directory to delete, may be {@code null}
+     */
+    public static void deleteDirectory(File directory) {
+        if (directory == null || !directory.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            logger.warn("Could not delete directory {}: {}", directory, e.getMessage());
+        }
+    }
 }
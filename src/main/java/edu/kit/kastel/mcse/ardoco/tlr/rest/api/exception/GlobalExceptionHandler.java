@@ -1,4 +1,4 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception;
 
 import org.slf4j.Logger;
@@ -104,6 +104,34 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(error, error.getStatus());
     }
 
+    /**
+     * Handles {@link TooManyRequestsException} exceptions.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity containing an ErrorResponse with the error details
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ApiResponse(responseCode = "429", description = "All pipeline slots and the pipeline queue are occupied.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+        logger.warn(ex.getMessage());
+        ErrorResponse error = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        return new ResponseEntity<>(error, error.getStatus());
+    }
+
+    /**
+     * Handles {@link JobCancelledException} exceptions.
+     *
+     * @param ex the exception to handle
+     * @return a ResponseEntity containing an ErrorResponse with the error details
+     */
+    @ExceptionHandler(JobCancelledException.class)
+    @ApiResponse(responseCode = "410", description = "The pipeline run has been cancelled.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    public ResponseEntity<ErrorResponse> handleJobCancelledException(JobCancelledException ex) {
+        logger.info(ex.getMessage());
+        ErrorResponse error = new ErrorResponse(HttpStatus.GONE, ex.getMessage());
+        return new ResponseEntity<>(error, error.getStatus());
+    }
+
     /**
      * Handles general exceptions that are not specifically caught by other handlers.
      *
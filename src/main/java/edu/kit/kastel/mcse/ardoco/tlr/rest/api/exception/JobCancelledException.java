@@ -0,0 +1,17 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception;
+
+/**
+ * Exception thrown when the result of a pipeline run is requested after the run has been cancelled.
+ */
+public class JobCancelledException extends RuntimeException {
+
+    /**
+     * Constructs a new JobCancelledException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public JobCancelledException(String message) {
+        super(message);
+    }
+}
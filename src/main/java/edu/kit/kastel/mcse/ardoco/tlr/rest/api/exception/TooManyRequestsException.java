@@ -0,0 +1,27 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception;
+
+/**
+ * Exception thrown when a pipeline run cannot be accepted because all execution slots and the wait queue are occupied.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * Constructs a new TooManyRequestsException with the specified message.
+     *
+     * @param message the detail message
+     */
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new TooManyRequestsException with the specified message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the cause of the exception
+     */
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,4 +1,4 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.messages;
 
 public final class ResultMessages {
@@ -9,6 +9,11 @@ public final class ResultMessages {
     public static final String RESULT_IS_READY = "The result is ready.";
     public static final String RESULT_IS_BEING_PROCESSED = "The result is being processed and can be queried using the id.";
     public static final String RESULT_NOT_READY = "Result is still being processed. Please try again later.";
+    public static final String RESULT_NOT_FOUND = "There is no result for these files yet. Please start the pipeline by uploading them.";
+
+    public static final String PROJECT_IS_WAITING = "The pipeline queue is full. The project is started as soon as the queue has room.";
+
+    public static final String JOB_CANCELLED = "The pipeline has been cancelled. Its result will not be stored.";
 
     public static final String REQUEST_TIMED_OUT = "The request timed out before the traceLinks could be retrieved. Please try again using the projectId.";
     public static final String REQUEST_TIMED_OUT_START_AND_WAIT = "The request timed out before the traceLinks could be retrieved. Please try querying only the result using the projectId.";
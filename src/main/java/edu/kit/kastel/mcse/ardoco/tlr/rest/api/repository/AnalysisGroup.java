@@ -0,0 +1,25 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.util.Map;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+
+/**
+ * The analyses that have been requested for one upload at once.
+ *
+ * @param groupId the unique identifier of the group
+ * @param members the requested analyses
+ */
+public record AnalysisGroup(String groupId, Map<Analysis, Member> members) {
+
+    /**
+     * One requested analysis of the group.
+     *
+     * @param requestId  the id under which the result of the analysis is stored
+     * @param providerId the id of the pipeline run that stores the result; differs from the request id if the result is derived from the
+     *                   run of another analysis of the group
+     */
+    public record Member(String requestId, String providerId) {
+    }
+}
@@ -0,0 +1,44 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+
+/**
+ * The projects that have been submitted in one batch, e.g. for a nightly re-analysis of a catalogue of projects.
+ *
+ * @param batchId the unique identifier of the batch
+ * @param items   the submitted projects, in the order of the manifest of the batch
+ */
+public record Batch(String batchId, List<Item> items) {
+
+    /**
+     * One submitted project of the batch. A project is either started, failed, or waiting for a free place in the pipeline queue.
+     *
+     * @param projectName the name of the project
+     * @param groupId     the id of the {@link AnalysisGroup} of the project, or {@code null} if the project has not been started
+     * @param error       the reason why the project has not been started, or {@code null} if it has been started or is waiting
+     * @param pending     what is needed to start the project once the pipeline queue has room, or {@code null} if it is not waiting
+     */
+    public record Item(String projectName, String groupId, String error, Pending pending) {
+    }
+
+    /**
+     * A project whose input files have been stored, but that has not been started yet because the pipeline queue was full.
+     *
+     * @param analyses          the analyses to run on the project
+     * @param digests           the MD5 digests of the stored input files, see {@link InputBlobStore}
+     * @param modelFormat       the format of the architecture model, or {@code null} if no analysis needs an architecture model
+     * @param additionalConfigs additional ArDoCo configuration
+     * @param deadlineSeconds   the maximum run time of each pipeline in seconds, or {@code null} to use the configured budgets
+     * @param tenant            the API client or project the pipelines are scheduled for
+     */
+    public record Pending(List<Analysis> analyses, Map<PipelineInput, String> digests, ModelFormat modelFormat, SortedMap<String, String> additionalConfigs,
+                          Integer deadlineSeconds, String tenant) {
+    }
+}
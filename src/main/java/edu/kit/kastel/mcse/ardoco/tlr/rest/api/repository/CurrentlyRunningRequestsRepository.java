@@ -1,14 +1,15 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
 
-import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
 
 /**
  * Repository for managing asynchronous requests that are currently being processed by ardoco.
@@ -18,7 +19,7 @@ import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
 public class CurrentlyRunningRequestsRepository {
 
-    private final ConcurrentHashMap<String, CompletableFuture<ArDoCoApiResult>> asyncRequests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PipelineJob> asyncRequests = new ConcurrentHashMap<>();
 
     /**
      * Default constructor for CurrentlyRunningRequestsRepository.
@@ -28,23 +29,25 @@ public class CurrentlyRunningRequestsRepository {
     }
 
     /**
-     * Adds a new request to the repository.
+     * Atomically returns the job of a request, registering a new one if none is in flight.
+     * Concurrent callers with the same identifier all receive the same job; the factory is invoked at most once.
      *
-     * @param id      the identifier for the request
-     * @param request the request to add
+     * @param id         the identifier for the request
+     * @param jobFactory creates the job if no job with the identifier is in flight
+     * @return the job registered for the identifier
      */
-    public void addRequest(String id, CompletableFuture<ArDoCoApiResult> request) {
-        asyncRequests.put(id, request);
+    public PipelineJob computeIfAbsent(String id, Function<String, PipelineJob> jobFactory) {
+        return asyncRequests.computeIfAbsent(id, jobFactory);
     }
 
     /**
      * Retrieves a request by its identifier.
      *
      * @param id the identifier of the request
-     * @return the request, or null if not found
+     * @return the job of the request, or empty if not found
      */
-    public CompletableFuture<ArDoCoApiResult> getRequest(String id) {
-        return asyncRequests.get(id);
+    public Optional<PipelineJob> getRequest(String id) {
+        return Optional.ofNullable(asyncRequests.get(id));
     }
 
     /**
@@ -58,11 +61,11 @@ public class CurrentlyRunningRequestsRepository {
     }
 
     /**
-     * Removes a request by its identifier.
+     * Removes a request, provided that the given job is still the one registered for its identifier.
      *
-     * @param id the identifier of the request to remove
+     * @param job the job of the request to remove
      */
-    public void removeRequest(String id) {
-        asyncRequests.remove(id);
+    public void removeRequest(PipelineJob job) {
+        asyncRequests.remove(job.getId(), job);
     }
 }
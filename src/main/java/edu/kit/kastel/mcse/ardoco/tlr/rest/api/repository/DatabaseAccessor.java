@@ -1,6 +1,8 @@
 /* Licensed under MIT 2025. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
 
+import java.time.Duration;
+
 /**
  * Interface for the repository of the used database to implement, allowing for easy database switching.
  * This interface provides methods to store, retrieve, check, and delete results by key.
@@ -39,4 +41,23 @@ public interface DatabaseAccessor {
      * @return {@code true} if the result was successfully deleted; {@code false} if the key does not exist
      */
     boolean deleteResult(String id);
+
+    /**
+     * Records for a limited time that the pipeline for a key has been aborted because it exceeded its time budget. The record is kept
+     * apart from the result, so that the same request can be run again once the record is forgotten; until then, submissions of the
+     * request are answered with the message instead of starting another run that cannot be stopped either.
+     *
+     * @param id         the unique key of the result whose pipeline has timed out
+     * @param message    the message that requests for the result are answered with
+     * @param timeToLive the time after which the record is forgotten
+     */
+    void saveTimeout(String id, String message, Duration timeToLive);
+
+    /**
+     * Retrieves the record that the pipeline for a key has timed out, see {@link #saveTimeout(String, String, Duration)}.
+     *
+     * @param id the unique key of the result
+     * @return the message of the record, or null if the pipeline for the key has not timed out recently
+     */
+    String getTimeout(String id);
 }
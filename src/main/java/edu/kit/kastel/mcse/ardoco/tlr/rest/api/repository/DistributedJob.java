@@ -0,0 +1,103 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+/**
+ * A pipeline run as it is handed from the node that received the request to the node that executes it, or kept in the
+ * {@link RedisJobJournal} until it has finished. Unlike a {@link PipelineRequest}, it refers to its input files by their digests in the
+ * {@link InputBlobStore} instead of by local paths, so that it stays small and its inputs are stored once.
+ *
+ * @param id                the unique identifier of the request
+ * @param serviceName       the bean name of the service that executes the run
+ * @param projectName       the name of the project
+ * @param modelFormat       the format of the architecture model, or {@code null} if the run has no architecture model
+ * @param additionalConfigs additional ArDoCo configuration
+ * @param deadlineSeconds   the maximum run time requested by the client in seconds, or {@code null} to use the configured budget
+ * @param tenant            the API client or project the run is scheduled for
+ * @param inputs            the uploaded input files
+ */
+public record DistributedJob(String id, String serviceName, String projectName, ModelFormat modelFormat, SortedMap<String, String> additionalConfigs,
+                             Integer deadlineSeconds, String tenant, Map<PipelineInput, InputFile> inputs) {
+
+    /**
+     * Creates the run of a request. Its input files are stored in the input store, unless they are stored already, and are retained for
+     * the given owner until the owner releases them, see {@link InputBlobStore#retain(File, String, String)}.
+     *
+     * @param request     the request of the run
+     * @param serviceName the bean name of the service that executes the run
+     * @param blobStore   the store of the input files
+     * @param owner       the owner of the input files in the store
+     * @return the run
+     * @throws FileConversionException  if an input file cannot be stored; the files retained so far are released
+     * @throws IllegalArgumentException if an input file is larger than the store; the files retained so far are released
+     */
+    public static DistributedJob fromRequest(PipelineRequest request, String serviceName, InputBlobStore blobStore, String owner)
+            throws FileConversionException, IllegalArgumentException {
+        Map<PipelineInput, InputFile> inputs = new EnumMap<>(PipelineInput.class);
+        try {
+            for (var entry : request.inputFiles().entrySet()) {
+                File file = entry.getValue();
+                InputBlobStore.Blob blob = blobStore.retain(file, request.inputDigest(entry.getKey()), owner);
+                inputs.put(entry.getKey(), new InputFile(file.getName(), blob.digest()));
+            }
+        } catch (RuntimeException e) {
+            blobStore.release(owner);
+            throw e;
+        }
+        return new DistributedJob(request.id(), serviceName, request.projectName(), request.modelFormat(), request.additionalConfigs(), request
+                .deadlineSeconds(), request.tenant(), inputs);
+    }
+
+    /**
+     * Checks whether all input files of this run are in the input store of this node.
+     *
+     * @param blobStore the store of the input files
+     * @return true if the run can be executed on this node
+     */
+    public boolean inputsAreStored(InputBlobStore blobStore) {
+        return inputs.values().stream().allMatch(input -> blobStore.get(input.digest()).isPresent());
+    }
+
+    /**
+     * Creates the request of this run, with its input files linked from the input store to temporary files on this node.
+     *
+     * @param blobStore the store of the input files
+     * @return the request
+     * @throws IllegalArgumentException if an input file is not stored on this node; files linked so far are deleted
+     * @throws FileConversionException  if an input file cannot be linked; files linked so far are deleted
+     */
+    public PipelineRequest toRequest(InputBlobStore blobStore) throws IllegalArgumentException, FileConversionException {
+        Map<PipelineInput, File> inputFiles = new EnumMap<>(PipelineInput.class);
+        Map<PipelineInput, String> inputDigests = new EnumMap<>(PipelineInput.class);
+        try {
+            for (var input : inputs.entrySet()) {
+                inputFiles.put(input.getKey(), blobStore.link(input.getValue().digest(), input.getValue().fileName()));
+                inputDigests.put(input.getKey(), input.getValue().digest());
+            }
+        } catch (RuntimeException e) {
+            FileConverter.deleteConvertedFiles(new ArrayList<>(inputFiles.values()));
+            throw e;
+        }
+        return new PipelineRequest(id, projectName, inputFiles, inputDigests, modelFormat, additionalConfigs, deadlineSeconds, tenant);
+    }
+
+    /**
+     * An uploaded input file.
+     *
+     * @param fileName the original name of the file
+     * @param digest   the MD5 digest of the file in the {@link InputBlobStore}, as 32 hex digits
+     */
+    public record InputFile(String fileName, String digest) {
+    }
+}
@@ -0,0 +1,466 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.LruCache;
+
+/**
+ * Content-addressed store of uploaded input files on the local disk, so that clients upload a file once and start any number of runs by
+ * the MD5 digest of the file. Every content is stored once and read-only, as {@code <directory>/<digest>/<name of the first upload>}.
+ * Runs get hard links to the stored files (see {@link FileConverter#linkInputFile(Path, String)}), so that they delete their input files
+ * as usual without touching the store.
+ * <p>
+ * The store is bounded by {@code tlr.blobs.max-megabytes}: once it is full, the least recently uploaded or used files are deleted. Runs
+ * that have linked a deleted file keep its content until they have finished. Files stored before a restart of the node are kept, the
+ * least recently modified ones are deleted first.
+ * <p>
+ * Files can be retained for an owner, e.g. a run in the {@link RedisJobJournal}: a retained file is kept, also beyond the quota and across
+ * restarts, until all its owners have released it. The owners are recorded as empty files {@code <directory>/.owners/<owner>/<digest>}.
+ */
+@Repository
+public class InputBlobStore {
+
+    private static final String UPLOAD_PREFIX = ".upload-";
+    private static final String OWNERS_DIRECTORY = ".owners";
+    private static final String DEFAULT_FILE_NAME = "input";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(InputBlobStore.class);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LruCache<Blob> blobs;
+    private final Map<String, Set<String>> digestsByOwner = new HashMap<>();
+    private final Map<String, Blob> evictedRetainedBlobs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the store.
+     *
+     * @param directory    the directory of the stored files
+     * @param maxMegabytes the maximum total size of the stored files, in megabytes
+     * @throws IllegalArgumentException if the maximum size is not positive
+     * @throws FileConversionException  if the directory cannot be created or read
+     */
+    @Autowired
+    public InputBlobStore(@Value("${tlr.blobs.directory}") String directory, @Value("${tlr.blobs.max-megabytes}") long maxMegabytes)
+            throws IllegalArgumentException, FileConversionException {
+        this(Path.of(directory), maxMegabytes * 1024 * 1024);
+    }
+
+    /**
+     * Creates the store with the given quota in bytes.
+     *
+     * @param directory the directory of the stored files
+     * @param maxBytes  the maximum total size of the stored files, in bytes
+     * @throws IllegalArgumentException if the maximum size is not positive
+     * @throws FileConversionException  if the directory cannot be created or read
+     */
+    public InputBlobStore(Path directory, long maxBytes) throws IllegalArgumentException, FileConversionException {
+        if (maxBytes <= 0) {
+            // batches, analysis groups, distributed runs and the job journal cannot work without the store
+            throw new IllegalArgumentException("The input store needs a positive quota, see tlr.blobs.max-megabytes.");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.blobs = new LruCache<>(maxBytes, Blob::size, this::evict);
+        try {
+            Files.createDirectories(directory);
+            loadOwners();
+            loadStoredBlobs();
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while opening the input store in " + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stores an uploaded file, unless a file with the same content is already stored. The upload is hashed while it is written to the
+     * store, so it is read only once.
+     *
+     * @param multipartFile the uploaded file
+     * @return the stored file, with the name of the first upload of its content
+     * @throws FileNotFoundException    if the file is empty or null
+     * @throws FileConversionException  if an error occurs while storing the file
+     * @throws IllegalArgumentException if the file is larger than the store
+     */
+    public Blob store(MultipartFile multipartFile) throws FileNotFoundException, FileConversionException, IllegalArgumentException {
+        if (multipartFile == null) {
+            throw new FileConversionException("Multipart file is null.");
+        }
+        if (multipartFile.isEmpty()) {
+            throw new FileNotFoundException("The file with name " + multipartFile.getOriginalFilename() + " is empty.");
+        }
+        if (multipartFile.getSize() > maxBytes) {
+            throw new IllegalArgumentException("The file with name " + multipartFile.getOriginalFilename() + " is larger than the input store.");
+        }
+
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            return store(inputStream, multipartFile.getOriginalFilename());
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while storing the file with name " + multipartFile.getOriginalFilename() + ": " + e
+                    .getMessage(), e);
+        }
+    }
+
+    /**
+     * Stores a file that is read from a stream, e.g. an entry of an archive, unless a file with the same content is already stored. The
+     * stream is hashed while it is written to the store and is not closed.
+     *
+     * @param inputStream      the content of the file
+     * @param originalFilename the name of the file
+     * @return the stored file, with the name of the first upload of its content
+     * @throws FileConversionException  if an error occurs while storing the file
+     * @throws IllegalArgumentException if the file is larger than the store
+     */
+    public Blob store(InputStream inputStream, String originalFilename) throws FileConversionException, IllegalArgumentException {
+        return store(inputStream, originalFilename, maxBytes);
+    }
+
+    /**
+     * Stores a file that is read from a stream like {@link #store(InputStream, String)}, but only up to the given size. Nothing is stored
+     * if the stream is longer; the rest of the stream is not read.
+     *
+     * @param inputStream      the content of the file
+     * @param originalFilename the name of the file
+     * @param maxSize          the maximum size of the file in bytes
+     * @return the stored file, with the name of the first upload of its content
+     * @throws FileConversionException  if an error occurs while storing the file
+     * @throws IllegalArgumentException if the file is larger than the maximum size or the store
+     */
+    public Blob store(InputStream inputStream, String originalFilename, long maxSize) throws FileConversionException, IllegalArgumentException {
+        Path upload = null;
+        try {
+            upload = Files.createTempFile(directory, UPLOAD_PREFIX, null);
+            HashGenerator.ContentHasher hasher = new HashGenerator.ContentHasher();
+            long size = 0;
+            try (OutputStream outputStream = Files.newOutputStream(upload)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) >= 0) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("The file with name " + originalFilename + " is larger than the input store.");
+                    }
+                    if (size > maxSize) {
+                        throw new IllegalArgumentException("The file with name " + originalFilename + " is larger than " + maxSize + " bytes.");
+                    }
+                    hasher.update(buffer, 0, read);
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+            return add(upload, new Blob(HexFormat.of().formatHex(hasher.digest()), fileNameOf(originalFilename), size));
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while storing the file with name " + originalFilename + ": " + e.getMessage(), e);
+        } finally {
+            if (upload != null) {
+                upload.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Returns a stored file and marks it as recently used.
+     *
+     * @param digest the MD5 digest of the file, as 32 hex digits
+     * @return the stored file, or empty if no file with this digest is stored
+     */
+    public Optional<Blob> get(String digest) {
+        String normalizedDigest = digest.toLowerCase(Locale.ROOT);
+        return blobs.get(normalizedDigest).or(() -> Optional.ofNullable(evictedRetainedBlobs.get(normalizedDigest)));
+    }
+
+    /**
+     * Provides a stored file as input file of a run, see {@link FileConverter#linkInputFile(Path, String)}. The input file is deleted like
+     * any other input file once the run has finished.
+     *
+     * @param digest the MD5 digest of the file, as 32 hex digits
+     * @return the input file
+     * @throws IllegalArgumentException if no file with this digest is stored
+     * @throws FileConversionException  if the input file cannot be created, e.g. because the stored file has just been deleted
+     */
+    public File link(String digest) throws IllegalArgumentException, FileConversionException {
+        Blob blob = get(digest).orElseThrow(() -> new IllegalArgumentException("No input file with digest " + digest
+                + " is stored. Please upload it first."));
+        return FileConverter.linkInputFile(pathOf(blob), blob.fileName());
+    }
+
+    /**
+     * Provides a stored file as input file of a run under the given name, see {@link #link(String)}.
+     *
+     * @param digest   the MD5 digest of the file, as 32 hex digits
+     * @param fileName the name of the input file
+     * @return the input file
+     * @throws IllegalArgumentException if no file with this digest is stored
+     * @throws FileConversionException  if the input file cannot be created, e.g. because the stored file has just been deleted
+     */
+    public File link(String digest, String fileName) throws IllegalArgumentException, FileConversionException {
+        Blob blob = get(digest).orElseThrow(() -> new IllegalArgumentException("No input file with digest " + digest + " is stored."));
+        return FileConverter.linkInputFile(pathOf(blob), fileName);
+    }
+
+    /**
+     * Opens a stored file for reading, e.g. to hand it to another node. The content stays readable if the file is deleted from the store
+     * while it is read.
+     *
+     * @param digest the MD5 digest of the file, as 32 hex digits
+     * @return the content of the file
+     * @throws IllegalArgumentException if no file with this digest is stored
+     * @throws FileConversionException  if the file cannot be opened, e.g. because it has just been deleted
+     */
+    public InputStream open(String digest) throws IllegalArgumentException, FileConversionException {
+        Blob blob = get(digest).orElseThrow(() -> new IllegalArgumentException("No input file with digest " + digest + " is stored."));
+        try {
+            return Files.newInputStream(pathOf(blob));
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while reading the file with name " + blob.fileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stores an input file of a run unless it is stored already, and keeps it for the given owner until the owner releases it.
+     *
+     * @param file   the input file
+     * @param digest the MD5 digest of the file as 32 hex digits, or {@code null} if it is not known; the file is hashed then
+     * @param owner  the owner of the file, e.g. the journal entry of the run
+     * @return the stored file
+     * @throws FileConversionException  if the file cannot be stored
+     * @throws IllegalArgumentException if the file is larger than the store
+     */
+    public Blob retain(File file, String digest, String owner) throws FileConversionException, IllegalArgumentException {
+        Optional<Blob> stored = digest == null ? Optional.empty() : get(digest);
+        // the stored file might be deleted before it is retained, then it is stored again
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Blob blob = stored.isPresent() ? stored.get() : store(file);
+            if (addOwner(blob, owner)) {
+                return blob;
+            }
+            stored = Optional.empty();
+        }
+        throw new FileConversionException("Could not retain the file with name " + file.getName() + " in the input store.");
+    }
+
+    /**
+     * Keeps a stored file for the given owner until the owner releases it.
+     *
+     * @param digest the MD5 digest of the file, as 32 hex digits
+     * @param owner  the owner of the file
+     * @return true if the file is retained, false if no file with this digest is stored
+     * @throws FileConversionException if the owner of the file cannot be recorded
+     */
+    public boolean retain(String digest, String owner) throws FileConversionException {
+        Optional<Blob> blob = get(digest);
+        return blob.isPresent() && addOwner(blob.get(), owner);
+    }
+
+    /**
+     * Releases all files that have been retained for an owner. Files that no owner retains anymore and that have been pushed out of the
+     * quota in the meantime are deleted.
+     *
+     * @param owner the owner of the files
+     */
+    public synchronized void release(String owner) {
+        Set<String> digests = digestsByOwner.remove(owner);
+        if (digests == null) {
+            return;
+        }
+        FileConverter.deleteDirectory(ownerDirectory(owner).toFile());
+        for (String digest : digests) {
+            if (!isRetained(digest)) {
+                Blob evicted = evictedRetainedBlobs.remove(digest);
+                if (evicted != null) {
+                    delete(evicted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the owners that retain files.
+     *
+     * @return the owners
+     */
+    public synchronized Set<String> getOwners() {
+        return Set.copyOf(digestsByOwner.keySet());
+    }
+
+    /**
+     * Returns the total size of the stored files.
+     *
+     * @return the size in bytes
+     */
+    public long size() {
+        return blobs.weight();
+    }
+
+    private synchronized Blob add(Path upload, Blob blob) throws IOException {
+        Optional<Blob> stored = blobs.get(blob.digest());
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        Blob retained = evictedRetainedBlobs.remove(blob.digest());
+        if (retained != null) {
+            // uploaded again while it is only kept for its owners
+            blobs.put(retained.digest(), retained);
+            return retained;
+        }
+        Path blobDirectory = directory.resolve(blob.digest());
+        // leftovers of a store that was interrupted
+        FileConverter.deleteDirectory(blobDirectory.toFile());
+        Files.createDirectories(blobDirectory);
+        Path path = pathOf(blob);
+        Files.move(upload, path, StandardCopyOption.ATOMIC_MOVE);
+        path.toFile().setReadOnly();
+        blobs.put(blob.digest(), blob);
+        logger.debug("Stored the input file {} with digest {}", blob.fileName(), blob.digest());
+        return blob;
+    }
+
+    private synchronized boolean addOwner(Blob blob, String owner) throws FileConversionException {
+        if (get(blob.digest()).isEmpty()) {
+            return false;
+        }
+        try {
+            Path ownerDirectory = ownerDirectory(owner);
+            Files.createDirectories(ownerDirectory);
+            Path marker = ownerDirectory.resolve(blob.digest());
+            if (!Files.exists(marker)) {
+                Files.createFile(marker);
+            }
+        } catch (IOException e) {
+            throw new FileConversionException("Could not retain the file with name " + blob.fileName() + " in the input store: " + e.getMessage(), e);
+        }
+        digestsByOwner.computeIfAbsent(owner, key -> new HashSet<>()).add(blob.digest());
+        return true;
+    }
+
+    private boolean isRetained(String digest) {
+        return digestsByOwner.values().stream().anyMatch(digests -> digests.contains(digest));
+    }
+
+    /**
+     * Called by the LRU cache while the store is locked, see {@link #add(Path, Blob)}.
+     */
+    private void evict(String digest, Blob blob) {
+        if (isRetained(digest)) {
+            evictedRetainedBlobs.put(digest, blob);
+        } else {
+            delete(blob);
+        }
+    }
+
+    private void delete(Blob blob) {
+        logger.debug("Deleting the input file {} with digest {} from the input store", blob.fileName(), blob.digest());
+        FileConverter.deleteDirectory(directory.resolve(blob.digest()).toFile());
+    }
+
+    private Path pathOf(Blob blob) {
+        return directory.resolve(blob.digest()).resolve(blob.fileName());
+    }
+
+    private Path ownerDirectory(String owner) {
+        return directory.resolve(OWNERS_DIRECTORY).resolve(URLEncoder.encode(owner, StandardCharsets.UTF_8));
+    }
+
+    private Blob store(File file) throws FileConversionException, IllegalArgumentException {
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            return store(inputStream, file.getName());
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while storing the file with name " + file.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void loadOwners() throws IOException {
+        Path ownersDirectory = directory.resolve(OWNERS_DIRECTORY);
+        if (!Files.isDirectory(ownersDirectory)) {
+            return;
+        }
+        try (Stream<Path> ownerDirectories = Files.list(ownersDirectory)) {
+            for (Path ownerDirectory : ownerDirectories.toList()) {
+                String owner = URLDecoder.decode(ownerDirectory.getFileName().toString(), StandardCharsets.UTF_8);
+                try (Stream<Path> markers = Files.list(ownerDirectory)) {
+                    markers.map(marker -> marker.getFileName().toString())
+                            .filter(InputBlobStore::isDigest)
+                            .forEach(digest -> digestsByOwner.computeIfAbsent(owner, key -> new HashSet<>()).add(digest));
+                }
+            }
+        }
+    }
+
+    private void loadStoredBlobs() throws IOException {
+        List<Path> storedFiles = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : entries.toList()) {
+                if (entry.getFileName().toString().startsWith(UPLOAD_PREFIX)) {
+                    // an upload that was interrupted
+                    Files.deleteIfExists(entry);
+                } else if (isDigest(entry.getFileName().toString()) && Files.isDirectory(entry)) {
+                    try (Stream<Path> files = Files.list(entry)) {
+                        files.filter(Files::isRegularFile).findFirst().ifPresent(storedFiles::add);
+                    }
+                }
+            }
+        }
+        storedFiles.sort(Comparator.comparing(file -> file.toFile().lastModified()));
+        for (Path file : storedFiles) {
+            Blob blob = new Blob(file.getParent().getFileName().toString(), file.getFileName().toString(), Files.size(file));
+            if (blob.size() > maxBytes) {
+                // the quota has been lowered since the file was stored
+                evict(blob.digest(), blob);
+            } else {
+                blobs.put(blob.digest(), blob);
+            }
+        }
+        logger.info("Opened the input store in {} with {} files", directory, blobs.size());
+    }
+
+    private static boolean isDigest(String name) {
+        return name.length() == 32 && name.equals(name.toLowerCase(Locale.ROOT)) && name.chars().allMatch(HexFormat::isHexDigit);
+    }
+
+    private static String fileNameOf(String originalFilename) {
+        String fileName = originalFilename == null ? "" : new File(originalFilename).getName();
+        return fileName.isBlank() || fileName.equals(".") || fileName.equals("..") ? DEFAULT_FILE_NAME : fileName;
+    }
+
+    /**
+     * A stored input file.
+     *
+     * @param digest   the MD5 digest of the content, as 32 lower-case hex digits
+     * @param fileName the name of the file, as it is provided to runs
+     * @param size     the size of the file in bytes
+     */
+    public record Blob(String digest, String fileName, long size) {
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -14,6 +15,8 @@ import java.util.concurrent.TimeUnit;
 @Repository
 public class RedisAccessor implements DatabaseAccessor {
 
+    private static final String TIMEOUT_KEY_PREFIX = "tlr:timed-out:";
+
     @Value("${redis.time-to-live.hours}")
     private long timeToLive;
 
@@ -43,4 +46,14 @@ public class RedisAccessor implements DatabaseAccessor {
     public boolean deleteResult(String id) {
         return Boolean.TRUE.equals(template.delete(id));
     }
+
+    @Override
+    public void saveTimeout(String id, String message, Duration timeToLive) {
+        template.opsForValue().set(TIMEOUT_KEY_PREFIX + id, message, timeToLive);
+    }
+
+    @Override
+    public String getTimeout(String id) {
+        return template.opsForValue().get(TIMEOUT_KEY_PREFIX + id);
+    }
 }
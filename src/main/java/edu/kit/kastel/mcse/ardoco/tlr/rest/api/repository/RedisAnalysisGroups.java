@@ -0,0 +1,75 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+
+/**
+ * The {@link AnalysisGroup analysis groups} of the cluster, kept in Redis as long as the results of their analyses.
+ */
+@Repository
+public class RedisAnalysisGroups {
+
+    private static final String GROUP_KEY_PREFIX = "tlr:group:";
+
+    private final StringRedisTemplate template;
+    private final Duration timeToLive;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Creates the repository.
+     *
+     * @param template        the template to access Redis
+     * @param timeToLiveHours the time after which groups are forgotten, in hours
+     */
+    public RedisAnalysisGroups(StringRedisTemplate template, @Value("${redis.time-to-live.hours}") long timeToLiveHours) {
+        this.template = template;
+        this.timeToLive = Duration.ofHours(timeToLiveHours);
+    }
+
+    /**
+     * Saves a group, replacing a group with the same id.
+     *
+     * @param group the group
+     * @throws ArdocoException if the group cannot be serialized
+     */
+    public void save(AnalysisGroup group) throws ArdocoException {
+        try {
+            template.opsForValue().set(groupKey(group.groupId()), mapper.writeValueAsString(group), timeToLive);
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not save the analysis group with ID " + group.groupId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a group.
+     *
+     * @param groupId the unique identifier of the group
+     * @return the group, or empty if it does not exist (anymore)
+     * @throws ArdocoException if the group cannot be deserialized
+     */
+    public Optional<AnalysisGroup> get(String groupId) throws ArdocoException {
+        String json = template.opsForValue().get(groupKey(groupId));
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.readValue(json, AnalysisGroup.class));
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not read the analysis group with ID " + groupId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String groupKey(String groupId) {
+        return GROUP_KEY_PREFIX + groupId;
+    }
+}
@@ -0,0 +1,129 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+
+/**
+ * The {@link Batch batches} of the cluster, kept in Redis as long as the results of their projects.
+ * <p>
+ * Batches with projects that wait for a free place in the pipeline queue are registered as pending, so that any node can start their
+ * projects later on. A node feeds a pending batch only while it holds the feeding lock of the batch.
+ */
+@Repository
+public class RedisBatches {
+
+    private static final String BATCH_KEY_PREFIX = "tlr:batch:";
+    private static final String PENDING_BATCHES_KEY = "tlr:batches:pending";
+    private static final String FEED_LOCK_KEY_PREFIX = "tlr:batch-feed:";
+
+    private final StringRedisTemplate template;
+    private final Duration timeToLive;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Creates the repository.
+     *
+     * @param template        the template to access Redis
+     * @param timeToLiveHours the time after which batches are forgotten, in hours
+     */
+    public RedisBatches(StringRedisTemplate template, @Value("${redis.time-to-live.hours}") long timeToLiveHours) {
+        this.template = template;
+        this.timeToLive = Duration.ofHours(timeToLiveHours);
+    }
+
+    /**
+     * Saves a batch, replacing a batch with the same id.
+     *
+     * @param batch the batch
+     * @throws ArdocoException if the batch cannot be serialized
+     */
+    public void save(Batch batch) throws ArdocoException {
+        try {
+            template.opsForValue().set(batchKey(batch.batchId()), mapper.writeValueAsString(batch), timeToLive);
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not save the batch with ID " + batch.batchId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a batch.
+     *
+     * @param batchId the unique identifier of the batch
+     * @return the batch, or empty if it does not exist (anymore)
+     * @throws ArdocoException if the batch cannot be deserialized
+     */
+    public Optional<Batch> get(String batchId) throws ArdocoException {
+        String json = template.opsForValue().get(batchKey(batchId));
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.readValue(json, Batch.class));
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not read the batch with ID " + batchId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registers a batch with waiting projects, see {@link Batch.Item#pending()}.
+     *
+     * @param batchId the unique identifier of the batch
+     */
+    public void addPending(String batchId) {
+        template.opsForSet().add(PENDING_BATCHES_KEY, batchId);
+    }
+
+    /**
+     * Unregisters a batch whose projects are no longer waiting.
+     *
+     * @param batchId the unique identifier of the batch
+     */
+    public void removePending(String batchId) {
+        template.opsForSet().remove(PENDING_BATCHES_KEY, batchId);
+    }
+
+    /**
+     * Returns the ids of all batches with waiting projects.
+     *
+     * @return the unique identifiers of the batches
+     */
+    public Set<String> getPendingIds() {
+        Set<String> batchIds = template.opsForSet().members(PENDING_BATCHES_KEY);
+        return batchIds == null ? Set.of() : batchIds;
+    }
+
+    /**
+     * Acquires the lock to feed the waiting projects of a batch into the pipeline queue.
+     *
+     * @param batchId the unique identifier of the batch
+     * @param lease   the time after which the lock expires if it is not released, e.g. because the node has died
+     * @return true if the lock has been acquired, false if another node holds it
+     */
+    public boolean tryLockFeeding(String batchId, Duration lease) {
+        return Boolean.TRUE.equals(template.opsForValue().setIfAbsent(FEED_LOCK_KEY_PREFIX + batchId, "locked", lease));
+    }
+
+    /**
+     * Releases the lock to feed the waiting projects of a batch.
+     *
+     * @param batchId the unique identifier of the batch
+     */
+    public void unlockFeeding(String batchId) {
+        template.delete(FEED_LOCK_KEY_PREFIX + batchId);
+    }
+
+    private static String batchKey(String batchId) {
+        return BATCH_KEY_PREFIX + batchId;
+    }
+}
@@ -0,0 +1,252 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+/**
+ * Journal of the pipeline runs that have been accepted but have not finished yet, kept in Redis, so that runs survive a restart of the
+ * node that executes them. Every entry holds the runner configuration of a run and the digests of its input files, which are retained in
+ * the {@link InputBlobStore} of the node until the entry is removed once the run has finished. The journal is enabled by
+ * {@code tlr.journal.enabled}.
+ * <p>
+ * Every entry also names the node that has recorded it ({@code tlr.journal.node-name}, the host name by default), so that a node that
+ * has lost the input files of its own runs, e.g. because its input store is not on a persistent volume, can tell so after a restart.
+ * <p>
+ * The journal can be closed on shutdown: afterward, runs that finish (or are interrupted) are no longer removed, so that they are executed
+ * again once a node is back.
+ */
+@Repository
+@ConditionalOnProperty(name = "tlr.journal.enabled", havingValue = "true")
+public class RedisJobJournal {
+
+    private static final String JOURNAL_KEY_PREFIX = "tlr:journal:";
+
+    private final StringRedisTemplate template;
+    private final InputBlobStore blobStore;
+    private final Duration timeToLive;
+    private final String nodeName;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Set<String> recordedIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Creates the journal.
+     *
+     * @param template        the template to access Redis
+     * @param blobStore       the store that keeps the input files of the recorded runs
+     * @param timeToLiveHours the time after which runs that have never finished are forgotten, in hours
+     * @param nodeName        the name of this node, which must stay the same across restarts; the host name if empty
+     */
+    public RedisJobJournal(StringRedisTemplate template, InputBlobStore blobStore, @Value("${redis.time-to-live.hours}") long timeToLiveHours,
+            @Value("${tlr.journal.node-name:}") String nodeName) {
+        this.template = template;
+        this.blobStore = blobStore;
+        this.timeToLive = Duration.ofHours(timeToLiveHours);
+        this.nodeName = nodeName == null || nodeName.isBlank() ? localHostName() : nodeName;
+    }
+
+    /**
+     * Records the run of a request that this node is about to execute. Its input files are stored in the input store unless they are
+     * stored already, and are kept there until the run is removed from the journal. Nothing happens once the journal has been closed.
+     *
+     * @param request     the request of the run
+     * @param serviceName the bean name of the service that executes the run
+     * @return true if the run has been recorded, false if the journal has been closed
+     * @throws ArdocoException          if the run cannot be serialized
+     * @throws FileConversionException  if an input file cannot be stored
+     * @throws IllegalArgumentException if an input file is larger than the input store
+     */
+    public boolean record(PipelineRequest request, String serviceName) throws ArdocoException, FileConversionException, IllegalArgumentException {
+        if (closed) {
+            return false;
+        }
+        recordedIds.add(request.id());
+        try {
+            write(DistributedJob.fromRequest(request, serviceName, blobStore, ownerOf(request.id())));
+        } catch (RuntimeException e) {
+            recordedIds.remove(request.id());
+            blobStore.release(ownerOf(request.id()));
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Records a run of the journal that this node is about to execute again, e.g. after a restart. Nothing happens once the journal has
+     * been closed.
+     *
+     * @param job the run, with input files that are stored in the input store of this node
+     * @return true if the run has been recorded, false if the journal has been closed
+     * @throws ArdocoException if the run cannot be serialized or an input file is not stored on this node
+     */
+    public boolean record(DistributedJob job) throws ArdocoException {
+        if (closed) {
+            return false;
+        }
+        recordedIds.add(job.id());
+        try {
+            for (DistributedJob.InputFile input : job.inputs().values()) {
+                if (!blobStore.retain(input.digest(), ownerOf(job.id()))) {
+                    throw new ArdocoException("Could not record the pipeline for ID " + job.id() + ": the input file " + input.fileName()
+                            + " is not stored on this node.");
+                }
+            }
+            write(job);
+        } catch (RuntimeException e) {
+            // the input files stay retained as long as the run is in the journal
+            recordedIds.remove(job.id());
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a run that has finished and releases its input files. Nothing happens once the journal has been closed.
+     *
+     * @param id the unique identifier of the request
+     * @return true if the run has been removed, false if the journal has been closed
+     */
+    public boolean remove(String id) {
+        if (closed) {
+            return false;
+        }
+        template.delete(journalKey(id));
+        recordedIds.remove(id);
+        blobStore.release(ownerOf(id));
+        return true;
+    }
+
+    /**
+     * Releases the input files of runs that are no longer in the journal, e.g. because their entries have expired or have been removed by
+     * another node. Nothing happens once the journal has been closed.
+     */
+    public void releaseForgottenInputs() {
+        if (closed) {
+            return;
+        }
+        Set<String> ids = new HashSet<>(getIds());
+        for (String owner : blobStore.getOwners()) {
+            if (owner.startsWith(JOURNAL_KEY_PREFIX)) {
+                String id = owner.substring(JOURNAL_KEY_PREFIX.length());
+                // runs are registered before their input files are retained
+                if (!ids.contains(id) && !recordedIds.contains(id)) {
+                    blobStore.release(owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of all runs in the journal, recorded by any node.
+     *
+     * @return the unique identifiers of the requests
+     */
+    public List<String> getIds() {
+        List<String> ids = new ArrayList<>();
+        try (Cursor<String> keys = template.scan(ScanOptions.scanOptions().match(JOURNAL_KEY_PREFIX + "*").build())) {
+            keys.forEachRemaining(key -> ids.add(key.substring(JOURNAL_KEY_PREFIX.length())));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns a run of the journal.
+     *
+     * @param id the unique identifier of the request
+     * @return the run, or empty if it is not in the journal
+     * @throws ArdocoException if the run cannot be deserialized
+     */
+    public Optional<DistributedJob> get(String id) throws ArdocoException {
+        return getEntry(id).map(Entry::job);
+    }
+
+    /**
+     * Checks whether a run of the journal has been recorded by this node, i.e. whether its input files have been stored on this node.
+     *
+     * @param id the unique identifier of the request
+     * @return true if the run is in the journal and has been recorded by this node
+     * @throws ArdocoException if the run cannot be deserialized
+     */
+    public boolean isRecordedByThisNode(String id) throws ArdocoException {
+        return getEntry(id).filter(entry -> nodeName.equals(entry.node())).isPresent();
+    }
+
+    /**
+     * Returns the ids of the runs that this node has recorded and that have not finished yet.
+     *
+     * @return the unique identifiers of the requests
+     */
+    public Set<String> getRecordedIds() {
+        return Set.copyOf(recordedIds);
+    }
+
+    /**
+     * Closes the journal, so that the runs in it are kept from now on.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    private Optional<Entry> getEntry(String id) throws ArdocoException {
+        String json = template.opsForValue().get(journalKey(id));
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.readValue(json, Entry.class));
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not read the recorded pipeline for ID " + id + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void write(DistributedJob job) throws ArdocoException {
+        String json;
+        try {
+            json = mapper.writeValueAsString(new Entry(nodeName, job));
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not record the pipeline for ID " + job.id() + ": " + e.getMessage(), e);
+        }
+        template.opsForValue().set(journalKey(job.id()), json, timeToLive);
+    }
+
+    private static String journalKey(String id) {
+        return JOURNAL_KEY_PREFIX + id;
+    }
+
+    private static String ownerOf(String id) {
+        return journalKey(id);
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Could not determine the host name, set tlr.journal.node-name instead: " + e.getMessage(), e);
+        }
+    }
+
+    private record Entry(String node, DistributedJob job) {
+    }
+}
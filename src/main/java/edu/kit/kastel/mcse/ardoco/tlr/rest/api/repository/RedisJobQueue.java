@@ -0,0 +1,411 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+
+/**
+ * Queue of pipeline runs that is shared by all nodes of a cluster, backed by a Redis stream with a consumer group.
+ * <p>
+ * Every run is published as a stream entry that only holds the request id; the run itself and its current {@link JobState} are kept in a
+ * hash per request, so that every node can answer status requests. A worker claims entries from the consumer group and acknowledges them
+ * once the run has finished. Entries of a worker that has died stay pending and are claimed by another worker once they have not been
+ * renewed for the length of a lease.
+ * <p>
+ * A run refers to its input files by their digests in the {@link InputBlobStore}. On publishing, every input file is handed to the other
+ * nodes once per content under {@code tlr:job-input:<digest>}, where it expires like the results; a worker that does not store a file
+ * yet streams it into its own input store before it executes the run.
+ */
+@Repository
+@ConditionalOnProperty(name = "tlr.distributed.enabled", havingValue = "true")
+public class RedisJobQueue {
+
+    /**
+     * Key of the stream of waiting and in-flight runs.
+     */
+    public static final String STREAM_KEY = "tlr:jobs";
+
+    /**
+     * Name of the consumer group all workers belong to.
+     */
+    public static final String CONSUMER_GROUP = "tlr-workers";
+
+    private static final String JOB_KEY_PREFIX = "tlr:job:";
+    private static final String INPUT_KEY_PREFIX = "tlr:job-input:";
+    private static final String ID_FIELD = "id";
+    private static final String JOB_FIELD = "job";
+    private static final String STATE_FIELD = "state";
+    private static final int PENDING_SCAN_LIMIT = 100;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofMinutes(10);
+    private static final int TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private static final RedisScript<Long> CANCEL_QUEUED = new DefaultRedisScript<>("if redis.call('HGET', KEYS[1], 'state') ~= 'QUEUED' then "
+            + "return 0 end redis.call('HSET', KEYS[1], 'state', 'CANCELLED') redis.call('HDEL', KEYS[1], 'job') "
+            + "redis.call('PEXPIRE', KEYS[1], ARGV[1]) return 1", Long.class);
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisJobQueue.class);
+
+    private final StringRedisTemplate template;
+    private final InputBlobStore blobStore;
+    private final Duration timeToLive;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Creates the queue.
+     *
+     * @param template        the template to access Redis
+     * @param blobStore       the store of the input files of the runs on this node
+     * @param timeToLiveHours the time after which runs that have never finished and their input files are forgotten, in hours
+     */
+    public RedisJobQueue(StringRedisTemplate template, InputBlobStore blobStore, @Value("${redis.time-to-live.hours}") long timeToLiveHours) {
+        this.template = template;
+        this.blobStore = blobStore;
+        this.timeToLive = Duration.ofHours(timeToLiveHours);
+    }
+
+    /**
+     * Creates the stream and the consumer group, unless they already exist.
+     */
+    public void createConsumerGroup() {
+        try {
+            template.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(STREAM_KEY.getBytes(StandardCharsets.UTF_8), CONSUMER_GROUP, ReadOffset.from("0"), true));
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+            logger.debug("Consumer group {} already exists", CONSUMER_GROUP);
+        }
+    }
+
+    /**
+     * Publishes a run, so that any worker can claim it. Its input files are handed to the other nodes unless they have been handed over by
+     * an earlier run already.
+     *
+     * @param job the run to publish, with input files that are stored in the input store of this node
+     * @return the id of the stream entry
+     * @throws ArdocoException          if the run cannot be serialized
+     * @throws IllegalArgumentException if an input file is not stored on this node
+     * @throws FileConversionException  if an input file cannot be read
+     */
+    public RecordId publish(DistributedJob job) throws ArdocoException, IllegalArgumentException, FileConversionException {
+        for (DistributedJob.InputFile input : job.inputs().values()) {
+            publishInput(input);
+        }
+        String key = jobKey(job.id());
+        template.opsForHash().putAll(key, Map.of(JOB_FIELD, toJson(job), STATE_FIELD, JobState.QUEUED.name()));
+        template.expire(key, timeToLive);
+        return template.opsForStream().add(StreamRecords.newRecord().in(STREAM_KEY).ofMap(Map.of(ID_FIELD, job.id())));
+    }
+
+    /**
+     * Claims runs that have not been delivered to any worker yet.
+     *
+     * @param consumer the name of the claiming worker
+     * @param count    the maximum number of runs to claim
+     * @return the claimed runs
+     */
+    public List<ClaimedJob> claimNew(String consumer, int count) {
+        return toClaimedJobs(template.opsForStream()
+                .read(Consumer.from(CONSUMER_GROUP, consumer), StreamReadOptions.empty().count(count), StreamOffset.create(STREAM_KEY, ReadOffset
+                        .lastConsumed())));
+    }
+
+    /**
+     * Claims runs whose worker has not renewed its claim for at least the length of a lease, e.g. because the worker has died.
+     *
+     * @param consumer the name of the claiming worker
+     * @param lease    the time after which an unrenewed claim is considered abandoned
+     * @param count    the maximum number of runs to claim
+     * @return the claimed runs
+     */
+    public List<ClaimedJob> claimAbandoned(String consumer, Duration lease, int count) {
+        RecordId[] abandoned = template.opsForStream()
+                .pending(STREAM_KEY, CONSUMER_GROUP, Range.unbounded(), PENDING_SCAN_LIMIT)
+                .stream()
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(lease) >= 0)
+                .limit(count)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (abandoned.length == 0) {
+            return List.of();
+        }
+        // the minimum idle time makes sure that claims renewed in the meantime are not taken over
+        return toClaimedJobs(template.opsForStream().claim(STREAM_KEY, CONSUMER_GROUP, consumer, lease, abandoned));
+    }
+
+    /**
+     * Renews the claims of a worker on the runs it is executing, so that no other worker takes them over.
+     *
+     * @param consumer  the name of the worker
+     * @param recordIds the stream entries of the runs
+     */
+    public void renewClaims(String consumer, Collection<RecordId> recordIds) {
+        if (!recordIds.isEmpty()) {
+            template.opsForStream().claim(STREAM_KEY, CONSUMER_GROUP, consumer, Duration.ZERO, recordIds.toArray(RecordId[]::new));
+        }
+    }
+
+    /**
+     * Acknowledges a finished run and removes it from the stream.
+     *
+     * @param recordId the stream entry of the run
+     */
+    public void acknowledge(RecordId recordId) {
+        template.opsForStream().acknowledge(STREAM_KEY, CONSUMER_GROUP, recordId);
+        template.opsForStream().delete(STREAM_KEY, recordId);
+    }
+
+    /**
+     * Returns a published run that has not finished yet.
+     *
+     * @param id the unique identifier of the request
+     * @return the run, or empty if it has finished or is not known
+     * @throws ArdocoException if the run cannot be deserialized
+     */
+    public Optional<DistributedJob> getJob(String id) throws ArdocoException {
+        Object json = template.opsForHash().get(jobKey(id), JOB_FIELD);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.readValue(json.toString(), DistributedJob.class));
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not read the published pipeline for ID " + id + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stores the input files of a run that are not stored on this node yet in the input store of this node, so that the run can be
+     * executed here.
+     *
+     * @param job the run
+     * @throws ArdocoException          if an input file is no longer available in Redis or has changed while it has been read
+     * @throws IllegalArgumentException if an input file is larger than the input store
+     * @throws FileConversionException  if an input file cannot be stored
+     */
+    public void fetchInputs(DistributedJob job) throws ArdocoException, IllegalArgumentException, FileConversionException {
+        for (DistributedJob.InputFile input : job.inputs().values()) {
+            if (blobStore.get(input.digest()).isPresent()) {
+                continue;
+            }
+            String key = inputKey(input.digest());
+            Long size = Boolean.TRUE.equals(template.hasKey(key)) ? template.execute((RedisCallback<Long>) connection -> connection.stringCommands()
+                    .strLen(key.getBytes(StandardCharsets.UTF_8))) : null;
+            if (size == null) {
+                throw new ArdocoException("The input file " + input.fileName() + " of the pipeline for ID " + job.id()
+                        + " is no longer available in the cluster.");
+            }
+            InputBlobStore.Blob blob = blobStore.store(new PublishedInputStream(key, size), input.fileName());
+            if (!blob.digest().equals(input.digest())) {
+                throw new ArdocoException("The input file " + input.fileName() + " of the pipeline for ID " + job.id()
+                        + " has expired while it has been fetched.");
+            }
+            logger.debug("Fetched the input file {} with digest {} from the cluster", input.fileName(), input.digest());
+        }
+    }
+
+    /**
+     * Cancels a run that no worker has started yet: its state becomes {@link JobState#CANCELLED} and it is dropped, so that workers skip
+     * it. Runs that are already executed are cancelled through their claim, see {@link RedisRunLock#requestCancel(String)}.
+     *
+     * @param id the unique identifier of the request
+     * @return true if the run has been cancelled, false if it is not waiting
+     */
+    public boolean cancel(String id) {
+        Long result = template.execute(CANCEL_QUEUED, List.of(jobKey(id)), String.valueOf(FINISHED_JOB_RETENTION.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    /**
+     * Records the current state of a run. Nothing happens if the run is not known (anymore).
+     *
+     * @param id    the unique identifier of the request
+     * @param state the current state of the run
+     */
+    public void setState(String id, JobState state) {
+        String key = jobKey(id);
+        if (Boolean.TRUE.equals(template.hasKey(key))) {
+            template.opsForHash().put(key, STATE_FIELD, state.name());
+        }
+    }
+
+    /**
+     * Returns the state of a run that has been published by any node.
+     *
+     * @param id the unique identifier of the request
+     * @return the state of the run, or empty if the run is not known
+     */
+    public Optional<JobState> getState(String id) {
+        Object state = template.opsForHash().get(jobKey(id), STATE_FIELD);
+        return Optional.ofNullable(state).map(Object::toString).map(JobState::valueOf);
+    }
+
+    /**
+     * Records the final state of a run and drops the run. The state is kept for a while, so that followers on other nodes learn how the
+     * run has ended.
+     *
+     * @param id         the unique identifier of the request
+     * @param finalState the final state of the run
+     */
+    public void finish(String id, JobState finalState) {
+        String key = jobKey(id);
+        template.opsForHash().put(key, STATE_FIELD, finalState.name());
+        template.opsForHash().delete(key, JOB_FIELD);
+        template.expire(key, FINISHED_JOB_RETENTION);
+    }
+
+    /**
+     * Hands an input file to the other nodes. The content is written in chunks to a temporary key that is renamed once it is complete, so
+     * that workers never read a partial file.
+     */
+    private void publishInput(DistributedJob.InputFile input) throws IllegalArgumentException, FileConversionException {
+        String key = inputKey(input.digest());
+        if (Boolean.TRUE.equals(template.expire(key, timeToLive))) {
+            // handed over by an earlier run
+            return;
+        }
+        byte[] upload = (key + ":upload:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        try (InputStream content = blobStore.open(input.digest())) {
+            byte[] chunk = content.readNBytes(TRANSFER_CHUNK_SIZE);
+            // abandoned uploads of a node that has died expire as well
+            template.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(upload, chunk, Expiration.from(timeToLive), SetOption.upsert()));
+            byte[] nextChunk;
+            while ((nextChunk = content.readNBytes(TRANSFER_CHUNK_SIZE)).length > 0) {
+                byte[] appended = nextChunk;
+                template.execute((RedisCallback<Long>) connection -> connection.stringCommands().append(upload, appended));
+            }
+        } catch (IOException e) {
+            template.delete(new String(upload, StandardCharsets.UTF_8));
+            throw new FileConversionException("Error occurred while publishing the file with name " + input.fileName() + ": " + e.getMessage(), e);
+        }
+        template.execute((RedisCallback<Void>) connection -> {
+            connection.keyCommands().rename(upload, key.getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+
+    private String toJson(DistributedJob job) throws ArdocoException {
+        try {
+            return mapper.writeValueAsString(job);
+        } catch (JsonProcessingException e) {
+            throw new ArdocoException("Could not publish the pipeline for ID " + job.id() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<ClaimedJob> toClaimedJobs(List<MapRecord<String, Object, Object>> records) {
+        if (records == null) {
+            return List.of();
+        }
+        return records.stream().map(record -> new ClaimedJob(record.getId(), String.valueOf(record.getValue().get(ID_FIELD)))).toList();
+    }
+
+    private static String jobKey(String id) {
+        return JOB_KEY_PREFIX + id;
+    }
+
+    private static String inputKey(String digest) {
+        return INPUT_KEY_PREFIX + digest;
+    }
+
+    /**
+     * Reads an input file that has been handed to the other nodes chunk by chunk, so that large files are never held in memory at once.
+     */
+    private final class PublishedInputStream extends InputStream {
+        private final byte[] key;
+        private final long size;
+        private long position;
+        private byte[] chunk = new byte[0];
+        private int chunkPosition;
+
+        private PublishedInputStream(String key, long size) {
+            this.key = key.getBytes(StandardCharsets.UTF_8);
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? chunk[chunkPosition++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int read = Math.min(length, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, buffer, offset, read);
+            chunkPosition += read;
+            return read;
+        }
+
+        private boolean fill() {
+            if (chunkPosition < chunk.length) {
+                return true;
+            }
+            if (position >= size) {
+                return false;
+            }
+            long start = position;
+            long end = Math.min(position + TRANSFER_CHUNK_SIZE, size) - 1;
+            byte[] next = template.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().getRange(key, start, end));
+            if (next == null || next.length == 0) {
+                // expired while it has been read
+                return false;
+            }
+            chunk = next;
+            chunkPosition = 0;
+            position += next.length;
+            return true;
+        }
+    }
+
+    /**
+     * A run claimed by a worker.
+     *
+     * @param recordId the stream entry of the run, needed to renew the claim and to acknowledge the run
+     * @param jobId    the unique identifier of the request
+     */
+    public record ClaimedJob(RecordId recordId, String jobId) {
+    }
+}
@@ -0,0 +1,96 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+
+/**
+ * Cache of intermediate pipeline data in Redis that is shared by all nodes, e.g. the preprocessed text of a documentation. The values are
+ * stored in Java serialization form and expire like the results.
+ * <p>
+ * Everybody who can write to Redis can place a value in the cache, so values are only deserialized if all of their classes match the
+ * allow-list {@code tlr.cache.redis.allowed-classes}; values with any other class are rejected before the class is loaded.
+ */
+@Repository
+public class RedisObjectCache {
+
+    private static final String CACHE_KEY_PREFIX = "tlr:cache:";
+
+    private final StringRedisTemplate template;
+    private final Duration timeToLive;
+    private final ObjectInputFilter filter;
+
+    /**
+     * Creates the cache.
+     *
+     * @param template        the template to access Redis
+     * @param timeToLiveHours the time after which cached values are forgotten, in hours
+     * @param allowedClasses  the classes that cached values may consist of, as patterns of {@link ObjectInputFilter.Config#createFilter}
+     *                        separated by semicolons, e.g. {@code java.util.*;edu.kit.kastel.mcse.ardoco.**}
+     */
+    public RedisObjectCache(StringRedisTemplate template, @Value("${redis.time-to-live.hours}") long timeToLiveHours,
+            @Value("${tlr.cache.redis.allowed-classes}") String allowedClasses) {
+        this.template = template;
+        this.timeToLive = Duration.ofHours(timeToLiveHours);
+        this.filter = ObjectInputFilter.Config.createFilter(allowedClasses + ";!*");
+    }
+
+    /**
+     * Returns a cached value.
+     *
+     * @param namespace the kind of the cached data
+     * @param key       the key of the value within its namespace
+     * @param type      the type of the value
+     * @param <T>       the type of the value
+     * @return the value, or empty if it is not cached
+     * @throws ArdocoException if the cached value cannot be read or contains a class that is not allowed
+     */
+    public <T extends Serializable> Optional<T> get(String namespace, String key, Class<T> type) throws ArdocoException {
+        String encoded = template.opsForValue().get(cacheKey(namespace, key));
+        if (encoded == null) {
+            return Optional.empty();
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            input.setObjectInputFilter(filter);
+            return Optional.of(type.cast(input.readObject()));
+        } catch (IOException | ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+            throw new ArdocoException("Could not read the cached " + namespace + " with key " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Caches a value.
+     *
+     * @param namespace the kind of the cached data
+     * @param key       the key of the value within its namespace
+     * @param value     the value
+     * @throws ArdocoException if the value cannot be serialized
+     */
+    public void put(String namespace, String key, Serializable value) throws ArdocoException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (IOException e) {
+            throw new ArdocoException("Could not cache the " + namespace + " with key " + key + ": " + e.getMessage(), e);
+        }
+        template.opsForValue().set(cacheKey(namespace, key), Base64.getEncoder().encodeToString(bytes.toByteArray()), timeToLive);
+    }
+
+    private static String cacheKey(String namespace, String key) {
+        return CACHE_KEY_PREFIX + namespace + ":" + key;
+    }
+}
@@ -0,0 +1,177 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+
+/**
+ * Cluster-wide claims on request ids, held in Redis, so that several nodes never compute the same request at the same time.
+ * <p>
+ * A claim is a lease: it expires unless its owner renews it in time, so that the request can be taken over once the owning node has
+ * died. The claim also carries the current {@link JobState} of the run, so that other nodes can follow its progress. Once the run has
+ * finished, its final state is kept for a while and the request can be claimed again. Any node can ask the owner of a claim to cancel the
+ * run; the owner looks for such requests while it renews its claims. Like the {@code ClusterJobService}, the lock only
+ * exists with replicas that share one Redis, distributed execution or the journal of runs.
+ */
+@Repository
+@ConditionalOnExpression("${tlr.cluster.enabled:false} or ${tlr.distributed.enabled:false} or ${tlr.journal.enabled:false}")
+public class RedisRunLock {
+
+    private static final String LOCK_KEY_PREFIX = "tlr:lock:";
+    private static final Duration FINISHED_RUN_RETENTION = Duration.ofMinutes(10);
+
+    private static final String FINAL_STATE_CHECK = "local state = redis.call('HGET', KEYS[1], 'state') "
+            + "if state and state ~= 'DONE' and state ~= 'ERROR' and state ~= 'CANCELLED' then return 0 end ";
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(FINAL_STATE_CHECK + "redis.call('DEL', KEYS[1]) "
+            + "redis.call('HSET', KEYS[1], 'owner', ARGV[1], 'state', ARGV[2]) redis.call('PEXPIRE', KEYS[1], ARGV[3]) return 1", Long.class);
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then return 0 end "
+            + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) return 1", Long.class);
+    private static final RedisScript<Long> SET_STATE = new DefaultRedisScript<>("if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then return 0 end "
+            + "redis.call('HSET', KEYS[1], 'state', ARGV[2]) return 1", Long.class);
+    private static final RedisScript<Long> FINISH = new DefaultRedisScript<>("if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then return 0 end "
+            + "redis.call('HSET', KEYS[1], 'state', ARGV[2]) redis.call('PEXPIRE', KEYS[1], ARGV[3]) return 1", Long.class);
+    private static final RedisScript<Long> REQUEST_CANCEL = new DefaultRedisScript<>("local state = redis.call('HGET', KEYS[1], 'state') "
+            + "if not state or state == 'DONE' or state == 'ERROR' or state == 'CANCELLED' then return 0 end "
+            + "redis.call('HSET', KEYS[1], 'cancel', '1') return 1", Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then return 0 end "
+            + "redis.call('DEL', KEYS[1]) return 1", Long.class);
+
+    private final StringRedisTemplate template;
+    private final Duration lease;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID();
+
+    /**
+     * Creates the lock.
+     *
+     * @param template     the template to access Redis
+     * @param leaseSeconds the time after which a claim that has not been renewed expires, in seconds
+     */
+    @Autowired
+    public RedisRunLock(StringRedisTemplate template, @Value("${tlr.cluster.lease-seconds}") long leaseSeconds) {
+        this(template, Duration.ofSeconds(leaseSeconds));
+    }
+
+    /**
+     * Creates the lock with the given lease.
+     *
+     * @param template the template to access Redis
+     * @param lease    the time after which a claim that has not been renewed expires
+     */
+    public RedisRunLock(StringRedisTemplate template, Duration lease) {
+        this.template = template;
+        this.lease = lease;
+    }
+
+    /**
+     * Getter for the lease of a claim.
+     *
+     * @return the time after which a claim that has not been renewed expires
+     */
+    public Duration getLease() {
+        return lease;
+    }
+
+    /**
+     * Claims a request for this node, unless another node holds a claim on it.
+     *
+     * @param id    the unique identifier of the request
+     * @param state the current state of the run
+     * @return true if this node now holds the claim
+     */
+    public boolean tryAcquire(String id, JobState state) {
+        return run(ACQUIRE, id, owner, state.name(), String.valueOf(lease.toMillis()));
+    }
+
+    /**
+     * Renews a claim of this node for another lease.
+     *
+     * @param id the unique identifier of the request
+     * @return true if the claim has been renewed, false if it has expired and may have been taken over
+     */
+    public boolean renew(String id) {
+        return run(RENEW, id, owner, String.valueOf(lease.toMillis()));
+    }
+
+    /**
+     * Records the current state of a run that this node has claimed.
+     *
+     * @param id    the unique identifier of the request
+     * @param state the current state of the run
+     */
+    public void setState(String id, JobState state) {
+        run(SET_STATE, id, owner, state.name());
+    }
+
+    /**
+     * Records the final state of a run that this node has claimed. The state is kept for a while, so that other nodes learn how the run has
+     * ended, but the request can be claimed again right away.
+     *
+     * @param id         the unique identifier of the request
+     * @param finalState the final state of the run
+     */
+    public void finish(String id, JobState finalState) {
+        run(FINISH, id, owner, finalState.name(), String.valueOf(FINISHED_RUN_RETENTION.toMillis()));
+    }
+
+    /**
+     * Asks the node that holds the claim on a request to cancel its run. Nothing happens if no node holds a claim or the run has finished.
+     *
+     * @param id the unique identifier of the request
+     * @return true if the cancellation has been requested, false if no run of the request is in flight
+     */
+    public boolean requestCancel(String id) {
+        return run(REQUEST_CANCEL, id);
+    }
+
+    /**
+     * Checks whether the cancellation of the run of a request has been requested by any node.
+     *
+     * @param id the unique identifier of the request
+     * @return true if the run is to be cancelled
+     */
+    public boolean isCancelRequested(String id) {
+        return template.opsForHash().get(lockKey(id), "cancel") != null;
+    }
+
+    /**
+     * Gives up a claim of this node without recording a final state, so that another node can take the request over.
+     *
+     * @param id the unique identifier of the request
+     */
+    public void release(String id) {
+        run(RELEASE, id, owner);
+    }
+
+    /**
+     * Returns the state of the run of a request that is or has recently been claimed by any node.
+     *
+     * @param id the unique identifier of the request
+     * @return the state of the run, or empty if no node holds a claim on the request
+     */
+    public Optional<JobState> getState(String id) {
+        Object state = template.opsForHash().get(lockKey(id), "state");
+        return Optional.ofNullable(state).map(Object::toString).map(JobState::valueOf);
+    }
+
+    private boolean run(RedisScript<Long> script, String id, String... arguments) {
+        Long result = template.execute(script, List.of(lockKey(id)), (Object[]) arguments);
+        return result != null && result == 1L;
+    }
+
+    private static String lockKey(String id) {
+        return LOCK_KEY_PREFIX + id;
+    }
+}
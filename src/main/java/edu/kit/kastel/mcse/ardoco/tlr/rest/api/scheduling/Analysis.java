@@ -0,0 +1,98 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+
+/**
+ * The analyses that can be requested for one upload at once, each run by one pipeline.
+ */
+public enum Analysis {
+    SWATTR(TraceLinkType.SAD_SAM, EnumSet.of(PipelineInput.TEXTUAL_DOCUMENTATION, PipelineInput.ARCHITECTURE_MODEL)),
+    INCONSISTENCIES(TraceLinkType.SAD_SAM, EnumSet.of(PipelineInput.TEXTUAL_DOCUMENTATION, PipelineInput.ARCHITECTURE_MODEL)),
+    ARCOTL(TraceLinkType.SAM_CODE, EnumSet.of(PipelineInput.ARCHITECTURE_MODEL, PipelineInput.CODE)),
+    ARDOCODE(TraceLinkType.SAD_CODE, EnumSet.of(PipelineInput.TEXTUAL_DOCUMENTATION, PipelineInput.CODE)),
+    TRANSARC(TraceLinkType.SAD_SAM_CODE, EnumSet.of(PipelineInput.TEXTUAL_DOCUMENTATION, PipelineInput.ARCHITECTURE_MODEL, PipelineInput.CODE));
+
+    private final TraceLinkType traceLinkType;
+    private final Set<PipelineInput> inputs;
+
+    Analysis(TraceLinkType traceLinkType, Set<PipelineInput> inputs) {
+        this.traceLinkType = traceLinkType;
+        this.inputs = inputs;
+    }
+
+    /**
+     * Getter for the trace link type of the pipeline.
+     *
+     * @return the trace link type
+     */
+    public TraceLinkType getTraceLinkType() {
+        return traceLinkType;
+    }
+
+    /**
+     * Returns the inputs the pipeline of the analysis needs.
+     *
+     * @return the kinds of input, in the order in which they are hashed for the request id
+     */
+    public Set<PipelineInput> getInputs() {
+        return EnumSet.copyOf(inputs);
+    }
+
+    /**
+     * Builds the id of a request for this analysis, as the controller of its pipeline does.
+     *
+     * @param projectName the name of the project
+     * @param inputHash   the hash of the input files and the additional configuration of the request
+     * @return the id, under which the result of the request is stored
+     */
+    public String requestIdOf(String projectName, String inputHash) {
+        if (this == INCONSISTENCIES) {
+            return traceLinkType.getKeyPrefix() + "Inconsistency:" + projectName + inputHash;
+        }
+        return traceLinkType.requestIdOf(projectName, inputHash);
+    }
+
+    /**
+     * Builds the id of a request for this analysis from the MD5 digests of its input files, e.g. ones that a client has computed without
+     * uploading the files, see {@link HashGenerator#parseMD5Digest(String)}.
+     *
+     * @param projectName       the name of the project
+     * @param hexDigests        the hex-encoded MD5 digests of the input files, by input
+     * @param additionalConfigs the canonical additional configuration of the request
+     * @return the id, under which the result of the request is stored
+     * @throws IllegalArgumentException if the digests do not match the inputs of the analysis or are not valid MD5 digests
+     */
+    public String requestIdOfDigests(String projectName, Map<PipelineInput, String> hexDigests, SortedMap<String, String> additionalConfigs)
+            throws IllegalArgumentException {
+        if (!hexDigests.keySet().equals(inputs)) {
+            throw new IllegalArgumentException("The analysis " + this + " needs the digests of exactly the inputs " + inputs);
+        }
+        List<byte[]> digests = new ArrayList<>();
+        new EnumMap<>(hexDigests).values().forEach(digest -> digests.add(HashGenerator.parseMD5Digest(digest)));
+        return requestIdOf(projectName, HashGenerator.getMD5HashWithConfiguration(HashGenerator.getMD5HashFromDigests(digests), additionalConfigs));
+    }
+
+    /**
+     * Returns the analyses whose pipelines save the result of this analysis as well, see
+     * {@code AbstractRunnerTLRService#convertDerivedResults}.
+     *
+     * @return the analyses, preferred first
+     */
+    public List<Analysis> getDerivedFrom() {
+        return switch (this) {
+        case SWATTR -> List.of(TRANSARC, INCONSISTENCIES);
+        case ARCOTL -> List.of(TRANSARC);
+        default -> List.of();
+        };
+    }
+}
@@ -0,0 +1,163 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * A queue that hands out its elements fairly across tenants using weighted round-robin.
+ * <p>
+ * Every tenant has its own FIFO queue. The tenants with waiting elements take turns; a tenant with weight {@code w} may hand out up to
+ * {@code w} elements in a row before the next tenant gets its turn. Like this, a tenant that enqueues a large batch only delays the
+ * other tenants by its weight, not by the size of its batch. The queue is not thread-safe.
+ *
+ * @param <T> the type of the elements
+ */
+final class FairShareQueue<T> {
+
+    private final ToIntFunction<String> weights;
+    private final Map<String, Deque<T>> queues = new HashMap<>();
+    private final Deque<String> turns = new ArrayDeque<>();
+    private final Map<String, Integer> remainingTurns = new HashMap<>();
+    private int size;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param weights the weight of every tenant; weights below 1 are treated as 1
+     */
+    FairShareQueue(ToIntFunction<String> weights) {
+        this.weights = weights;
+    }
+
+    /**
+     * Appends an element to the queue of the given tenant.
+     *
+     * @param tenant  the tenant the element belongs to
+     * @param element the element to append
+     */
+    void add(String tenant, T element) {
+        Deque<T> queue = queues.computeIfAbsent(tenant, key -> {
+            turns.addLast(key);
+            return new ArrayDeque<>();
+        });
+        queue.addLast(element);
+        size++;
+    }
+
+    /**
+     * Removes the next element in weighted round-robin order.
+     *
+     * @return the next element, or {@code null} if the queue is empty
+     */
+    T poll() {
+        String tenant = turns.peekFirst();
+        if (tenant == null) {
+            return null;
+        }
+        Deque<T> queue = queues.get(tenant);
+        T element = queue.pollFirst();
+        size--;
+
+        int remaining = remainingTurns.getOrDefault(tenant, Math.max(1, weights.applyAsInt(tenant))) - 1;
+        if (queue.isEmpty()) {
+            removeTenant(tenant);
+        } else if (remaining == 0) {
+            remainingTurns.remove(tenant);
+            turns.addLast(turns.pollFirst());
+        } else {
+            remainingTurns.put(tenant, remaining);
+        }
+        return element;
+    }
+
+    /**
+     * Removes the given element from the queue.
+     *
+     * @param element the element to remove
+     * @return true if the element has been in the queue
+     */
+    boolean remove(T element) {
+        for (var entry : queues.entrySet()) {
+            if (entry.getValue().remove(element)) {
+                size--;
+                if (entry.getValue().isEmpty()) {
+                    removeTenant(entry.getKey());
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns all elements in the order in which {@link #poll()} would hand them out, without removing them.
+     *
+     * @return the elements in dispatch order
+     */
+    List<T> inDispatchOrder() {
+        FairShareQueue<T> copy = new FairShareQueue<>(weights);
+        for (String tenant : turns) {
+            copy.queues.put(tenant, new ArrayDeque<>(queues.get(tenant)));
+            copy.turns.addLast(tenant);
+        }
+        copy.remainingTurns.putAll(remainingTurns);
+        copy.size = size;
+
+        List<T> order = new ArrayList<>(size);
+        while (!copy.isEmpty()) {
+            order.add(copy.poll());
+        }
+        return order;
+    }
+
+    /**
+     * Removes all elements.
+     */
+    void clear() {
+        queues.clear();
+        turns.clear();
+        remainingTurns.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of waiting elements.
+     *
+     * @return the number of elements of all tenants
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of waiting elements of a tenant.
+     *
+     * @param tenant the tenant
+     * @return the number of elements of the tenant
+     */
+    int size(String tenant) {
+        Deque<T> queue = queues.get(tenant);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Returns whether no element is waiting.
+     *
+     * @return true if the queue is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void removeTenant(String tenant) {
+        queues.remove(tenant);
+        turns.remove(tenant);
+        remainingTurns.remove(tenant);
+    }
+}
@@ -0,0 +1,29 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.util.Locale;
+
+/**
+ * The states a {@link PipelineJob} passes through. {@link #DONE}, {@link #ERROR} and {@link #CANCELLED} are final.
+ */
+public enum JobState {
+    QUEUED, RUNNING, CONVERTING, SAVING, DONE, ERROR, CANCELLED;
+
+    /**
+     * Returns whether no further state follows this state.
+     *
+     * @return true if the state is final
+     */
+    public boolean isFinal() {
+        return this == DONE || this == ERROR || this == CANCELLED;
+    }
+
+    /**
+     * Returns the name of the state as it is shown to clients.
+     *
+     * @return the lower case name of the state
+     */
+    public String getDisplayName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
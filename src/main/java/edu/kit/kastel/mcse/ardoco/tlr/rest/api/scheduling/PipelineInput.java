@@ -0,0 +1,9 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+/**
+ * The kinds of input files a pipeline run can receive.
+ */
+public enum PipelineInput {
+    TEXTUAL_DOCUMENTATION, ARCHITECTURE_MODEL, CODE
+}
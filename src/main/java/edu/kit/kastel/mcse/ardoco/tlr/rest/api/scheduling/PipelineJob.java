@@ -0,0 +1,234 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+
+/**
+ * A pipeline run that is currently in flight. All submissions of the same request id share one job and therefore one future.
+ * <p>
+ * The job also tracks the {@link JobState} of the run and notifies registered listeners about every change. Once a job has been
+ * cancelled, its state does not change anymore.
+ */
+public class PipelineJob {
+
+    private final String id;
+    private final TraceLinkType traceLinkType;
+    private final CompletableFuture<ArDoCoApiResult> future = new CompletableFuture<>();
+    private final AtomicInteger submitters = new AtomicInteger(1);
+    private final List<Consumer<JobState>> stateListeners = new CopyOnWriteArrayList<>();
+    private volatile List<File> inputFiles;
+    private volatile File outputDirectory;
+    private volatile JobState state = JobState.QUEUED;
+    private boolean cancelled;
+
+    /**
+     * Creates a new job on behalf of its first submitter.
+     *
+     * @param id            the unique identifier of the request
+     * @param traceLinkType the type of trace links the job recovers
+     */
+    public PipelineJob(String id, TraceLinkType traceLinkType) {
+        this(id, traceLinkType, List.of(), null);
+    }
+
+    /**
+     * Creates a new job on behalf of its first submitter.
+     *
+     * @param id              the unique identifier of the request
+     * @param traceLinkType   the type of trace links the job recovers
+     * @param inputFiles      the temporary input files of the run
+     * @param outputDirectory the temporary output directory of the run, may be {@code null}
+     */
+    public PipelineJob(String id, TraceLinkType traceLinkType, List<File> inputFiles, File outputDirectory) {
+        this.id = id;
+        this.traceLinkType = traceLinkType;
+        this.inputFiles = List.copyOf(inputFiles);
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Registers another submitter of the same request with this job.
+     *
+     * @return the number of submitters sharing this job, including the new one
+     */
+    public int join() {
+        return submitters.incrementAndGet();
+    }
+
+    /**
+     * Getter for the number of submitters sharing this job.
+     *
+     * @return the number of submitters
+     */
+    public int getSubmitterCount() {
+        return submitters.get();
+    }
+
+    /**
+     * Getter for id.
+     *
+     * @return the unique identifier of the request
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Getter for traceLinkType.
+     *
+     * @return the type of trace links the job recovers
+     */
+    public TraceLinkType getTraceLinkType() {
+        return traceLinkType;
+    }
+
+    /**
+     * Getter for the future that is completed once the pipeline has finished.
+     *
+     * @return the future of the job
+     */
+    public CompletableFuture<ArDoCoApiResult> getFuture() {
+        return future;
+    }
+
+    /**
+     * Getter for the current state of the job.
+     *
+     * @return the state of the job
+     */
+    public JobState getState() {
+        return state;
+    }
+
+    /**
+     * Changes the state of the job and notifies the state listeners. The state of a cancelled job is not changed.
+     *
+     * @param state the new state of the job
+     */
+    public void setState(JobState state) {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            this.state = state;
+        }
+        notifyStateListeners(state);
+    }
+
+    /**
+     * Moves the job to {@link JobState#SAVING}, unless it has been cancelled. Once saving has begun, the job cannot be cancelled anymore.
+     *
+     * @return true if the result may be saved, false if the job has been cancelled
+     */
+    public boolean beginSaving() {
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            this.state = JobState.SAVING;
+        }
+        notifyStateListeners(JobState.SAVING);
+        return true;
+    }
+
+    /**
+     * Cancels the job, unless its result is already being saved or the job has already finished.
+     *
+     * @return true if the job has been cancelled by this call
+     */
+    public boolean cancel() {
+        return abort(JobState.CANCELLED);
+    }
+
+    /**
+     * Cancels the job because it has exceeded its time budget, unless its result is already being saved or the job has already finished.
+     * Unlike a job cancelled by a client, a timed-out job ends in {@link JobState#ERROR}.
+     *
+     * @return true if the job has been timed out by this call
+     */
+    public boolean timeOut() {
+        return abort(JobState.ERROR);
+    }
+
+    private boolean abort(JobState finalState) {
+        synchronized (this) {
+            if (cancelled || state == JobState.SAVING || state.isFinal()) {
+                return false;
+            }
+            cancelled = true;
+            this.state = finalState;
+        }
+        notifyStateListeners(finalState);
+        return true;
+    }
+
+    /**
+     * Returns whether the job has been cancelled, either by a client or because it has timed out.
+     *
+     * @return true if the job has been cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Getter for the temporary input files of the run.
+     *
+     * @return the input files
+     */
+    public List<File> getInputFiles() {
+        return inputFiles;
+    }
+
+    /**
+     * Getter for the temporary output directory of the run.
+     *
+     * @return the output directory, or {@code null} if unknown
+     */
+    public File getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Replaces the temporary files of the run, e.g. once the run has created its output directory or received its inputs from another node.
+     *
+     * @param inputFiles      the temporary input files of the run
+     * @param outputDirectory the temporary output directory of the run, may be {@code null}
+     */
+    public void setTemporaryFiles(List<File> inputFiles, File outputDirectory) {
+        this.inputFiles = List.copyOf(inputFiles);
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Registers a listener that is notified about every state change of the job.
+     *
+     * @param listener the listener to register
+     */
+    public void addStateListener(Consumer<JobState> listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered state listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeStateListener(Consumer<JobState> listener) {
+        stateListeners.remove(listener);
+    }
+
+    private void notifyStateListeners(JobState newState) {
+        for (Consumer<JobState> listener : stateListeners) {
+            listener.accept(newState);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+
+/**
+ * Everything needed to set up and run a pipeline: the uploaded input files and the configuration of the runner. Unlike an ArDoCo runner,
+ * a request can be handed to another thread or node, which sets up the runner right before the run starts.
+ *
+ * @param id                the unique identifier of the request
+ * @param projectName       the name of the project
+ * @param inputFiles        the temporary input files of the run
+ * @param inputDigests      the MD5 digests of the input files as 32 hex digits, as far as they are known already; the other input files
+ *                          are hashed when their hash is needed
+ * @param modelFormat       the format of the architecture model, or {@code null} if the run has no architecture model
+ * @param additionalConfigs additional ArDoCo configuration
+ * @param deadlineSeconds   the maximum run time requested by the client in seconds, or {@code null} to use the configured budget
+ * @param tenant            the API client or project the run is scheduled for
+ */
+public record PipelineRequest(String id, String projectName, Map<PipelineInput, File> inputFiles, Map<PipelineInput, String> inputDigests,
+                              ModelFormat modelFormat, SortedMap<String, String> additionalConfigs, Integer deadlineSeconds, String tenant) {
+
+    /**
+     * Creates a new request; the maps are copied.
+     */
+    public PipelineRequest {
+        inputFiles = inputFiles.isEmpty() ? Map.of() : Map.copyOf(new EnumMap<>(inputFiles));
+        inputDigests = inputDigests.isEmpty() ? Map.of() : Map.copyOf(new EnumMap<>(inputDigests));
+        additionalConfigs = Collections.unmodifiableSortedMap(new TreeMap<>(additionalConfigs));
+    }
+
+    /**
+     * Returns the input file of the given kind.
+     *
+     * @param input the kind of input
+     * @return the input file, or {@code null} if the request has no such input
+     */
+    public File inputFile(PipelineInput input) {
+        return inputFiles.get(input);
+    }
+
+    /**
+     * Returns the MD5 digest of the input file of the given kind, if it is known without hashing the file.
+     *
+     * @param input the kind of input
+     * @return the digest as 32 hex digits, or {@code null} if the digest is not known or the request has no such input
+     */
+    public String inputDigest(PipelineInput input) {
+        return inputDigests.get(input);
+    }
+
+    /**
+     * Returns all input files of the request.
+     *
+     * @return the input files
+     */
+    public List<File> inputFileList() {
+        return new ArrayList<>(inputFiles.values());
+    }
+}
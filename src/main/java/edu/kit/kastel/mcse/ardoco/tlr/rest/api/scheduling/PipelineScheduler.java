@@ -0,0 +1,469 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Executes ArDoCo pipeline runs on a dedicated pool of platform threads.
+ * <p>
+ * The pipelines are CPU-bound, so they run on platform threads even when request handling uses virtual threads
+ * ({@code spring.threads.virtual.enabled}); the pool has one thread per slot of all lanes.
+ * <p>
+ * Every {@link TraceLinkType} has its own lane with a number of concurrent runs and a bounded wait queue, configured by
+ * {@code tlr.pipeline.lanes.<endpoint-name>.max-concurrent-runs} and {@code tlr.pipeline.lanes.<endpoint-name>.queue-capacity}.
+ * Lanes without own settings use {@code tlr.pipeline.max-concurrent-runs} and {@code tlr.pipeline.queue-capacity}.
+ * Slow runs (e.g. TransArC) therefore cannot occupy the slots of fast runs (e.g. SWATTR). If {@code tlr.pipeline.borrowing-enabled}
+ * is set, a lane may additionally use the free slots of lanes that have nothing to do. The number of running pipelines never exceeds
+ * the sum of the slots of all lanes, so a lane whose slot is lent waits until a run finishes and then gets the free slot before any
+ * borrowing lane. Once the queue of a lane is full, new runs of that lane are rejected with a {@link TooManyRequestsException}.
+ * <p>
+ * Within a lane, waiting runs are handed out fairly across tenants (API clients or projects) with weighted round-robin, see
+ * {@link FairShareQueue}. A tenant with weight {@code w} ({@code tlr.pipeline.tenant-weights.<tenant>}, default 1) may start up to
+ * {@code w} runs in a row before the next tenant gets its turn, so a batch of one tenant cannot monopolize the slots. The number of waiting
+ * runs is published as gauge {@value #QUEUE_DEPTH_METRIC}, tagged with the tenants that have a configured weight and with
+ * {@value #OTHER_TENANTS} for all other tenants, so that the number of gauges does not grow with the number of clients.
+ * <p>
+ * Runs can be cancelled: waiting runs are removed from their queue, running runs are interrupted. ArDoCo does not react to interrupts, so
+ * a cancelled run keeps its slot until its thread has actually returned; only then the next waiting run starts. The number of such runs
+ * is published as gauge {@value #ABANDONED_RUNS_METRIC}.
+ */
+@Component
+public class PipelineScheduler {
+
+    /**
+     * Name of the gauge with the number of waiting runs per tenant with a configured weight, and of all other tenants.
+     */
+    public static final String QUEUE_DEPTH_METRIC = "tlr.pipeline.queue.depth";
+
+    /**
+     * Tag of the queue depth gauge that counts the waiting runs of all tenants without a configured weight.
+     */
+    public static final String OTHER_TENANTS = "other";
+
+    /**
+     * Name of the gauge with the number of cancelled runs whose pipeline still computes and occupies a slot.
+     */
+    public static final String ABANDONED_RUNS_METRIC = "tlr.pipeline.runs.abandoned";
+
+    /**
+     * Tenant of runs that are submitted without one.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineScheduler.class);
+
+    private final Map<TraceLinkType, Lane> lanes = new EnumMap<>(TraceLinkType.class);
+    private final boolean borrowingEnabled;
+    private final int totalSlots;
+    private final Map<String, Integer> tenantWeights;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService workers;
+
+    private int runningTotal;
+    private boolean shutDown;
+
+    /**
+     * Creates the scheduler with the lane settings and tenant weights from the application properties.
+     *
+     * @param environment   the environment containing the lane settings and tenant weights
+     * @param meterRegistry the registry for the queue depth gauges
+     */
+    @Autowired
+    public PipelineScheduler(Environment environment, MeterRegistry meterRegistry) {
+        this(readLaneSettings(environment), environment.getProperty("tlr.pipeline.borrowing-enabled", Boolean.class, true), Binder.get(environment)
+                .bind("tlr.pipeline.tenant-weights", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of()), meterRegistry);
+    }
+
+    /**
+     * Creates the scheduler with the given lane settings, in which all tenants have the same weight.
+     *
+     * @param laneSettings     the settings of every lane
+     * @param borrowingEnabled whether lanes may use the free slots of idle lanes
+     */
+    public PipelineScheduler(Map<TraceLinkType, LaneSettings> laneSettings, boolean borrowingEnabled) {
+        this(laneSettings, borrowingEnabled, Map.of(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates the scheduler with the given lane settings and tenant weights.
+     *
+     * @param laneSettings     the settings of every lane
+     * @param borrowingEnabled whether lanes may use the free slots of idle lanes
+     * @param tenantWeights    the weights of tenants that deviate from the default weight 1
+     * @param meterRegistry    the registry for the queue depth gauges
+     */
+    public PipelineScheduler(Map<TraceLinkType, LaneSettings> laneSettings, boolean borrowingEnabled, Map<String, Integer> tenantWeights,
+            MeterRegistry meterRegistry) {
+        this.borrowingEnabled = borrowingEnabled;
+        this.tenantWeights = Map.copyOf(tenantWeights);
+        this.meterRegistry = meterRegistry;
+        int slots = 0;
+        for (var entry : laneSettings.entrySet()) {
+            lanes.put(entry.getKey(), new Lane(entry.getKey(), entry.getValue(), this.tenantWeights));
+            slots += entry.getValue().maxConcurrentRuns();
+            logger.info("Pipeline lane {} allows {} concurrent runs and {} waiting runs", entry.getKey(), entry.getValue().maxConcurrentRuns(), entry
+                    .getValue()
+                    .queueCapacity());
+        }
+        this.totalSlots = slots;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, slots), new PipelineThreadFactory());
+        for (String tenant : this.tenantWeights.keySet()) {
+            registerQueueDepthGauge(tenant, scheduler -> scheduler.getQueueDepth(tenant));
+        }
+        registerQueueDepthGauge(OTHER_TENANTS, PipelineScheduler::getQueueDepthOfOtherTenants);
+        Gauge.builder(ABANDONED_RUNS_METRIC, this, PipelineScheduler::getAbandonedRuns)
+                .description("Number of cancelled or timed-out pipeline runs that still compute and occupy a slot")
+                .register(meterRegistry);
+        if (!this.tenantWeights.isEmpty()) {
+            logger.info("Pipeline tenant weights: {}", this.tenantWeights);
+        }
+    }
+
+    private void registerQueueDepthGauge(String tag, ToDoubleFunction<PipelineScheduler> depth) {
+        Gauge.builder(QUEUE_DEPTH_METRIC, this, depth)
+                .description("Number of pipeline runs of a tenant that wait for a free slot")
+                .tag("tenant", tag)
+                .register(meterRegistry);
+    }
+
+    private static Map<TraceLinkType, LaneSettings> readLaneSettings(Environment environment) {
+        int defaultConcurrentRuns = environment.getRequiredProperty("tlr.pipeline.max-concurrent-runs", Integer.class);
+        int defaultQueueCapacity = environment.getRequiredProperty("tlr.pipeline.queue-capacity", Integer.class);
+
+        Map<TraceLinkType, LaneSettings> settings = new EnumMap<>(TraceLinkType.class);
+        for (TraceLinkType type : TraceLinkType.values()) {
+            String prefix = "tlr.pipeline.lanes." + type.getEndpointName().toLowerCase(Locale.ROOT) + ".";
+            int concurrentRuns = environment.getProperty(prefix + "max-concurrent-runs", Integer.class, defaultConcurrentRuns);
+            int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+            settings.put(type, new LaneSettings(concurrentRuns, queueCapacity));
+        }
+        return settings;
+    }
+
+    /**
+     * Submits a pipeline run for the given request to the lane of its trace link type, on behalf of the {@link #DEFAULT_TENANT}.
+     *
+     * @param id            the unique identifier of the request
+     * @param traceLinkType the trace link type which determines the lane
+     * @param task          the work to execute
+     * @param <T>           the type of the result
+     * @return a future that is completed with the result of the task, or exceptionally if the task fails
+     * @throws TooManyRequestsException if the wait queue of the lane is full
+     */
+    public <T> CompletableFuture<T> submit(String id, TraceLinkType traceLinkType, Supplier<T> task) throws TooManyRequestsException {
+        return submit(id, traceLinkType, DEFAULT_TENANT, task);
+    }
+
+    /**
+     * Submits a pipeline run for the given request to the lane of its trace link type.
+     *
+     * @param id            the unique identifier of the request
+     * @param traceLinkType the trace link type which determines the lane
+     * @param tenant        the API client or project the run is scheduled for
+     * @param task          the work to execute
+     * @param <T>           the type of the result
+     * @return a future that is completed with the result of the task, or exceptionally if the task fails
+     * @throws TooManyRequestsException if the wait queue of the lane is full
+     */
+    public <T> CompletableFuture<T> submit(String id, TraceLinkType traceLinkType, String tenant, Supplier<T> task) throws TooManyRequestsException {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        PipelineTask pipelineTask = new PipelineTask(id, future, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        synchronized (this) {
+            Lane lane = lanes.get(traceLinkType);
+            if (shutDown) {
+                throw new TooManyRequestsException("The pipeline scheduler is shutting down.");
+            }
+            // a run that can start right away never counts against the capacity of the queue
+            lane.queue.add(tenant, pipelineTask);
+            dispatch();
+            if (!lane.running.contains(pipelineTask) && lane.queue.size() > lane.settings.queueCapacity()) {
+                lane.queue.remove(pipelineTask);
+                throw new TooManyRequestsException("The pipeline queue for " + traceLinkType + " is full. Please try again later.");
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Returns the position of the request in the wait queue of its lane.
+     *
+     * @param id the unique identifier of the request
+     * @return the 1-based queue position if the request is waiting, {@code 0} if it is already running or not known
+     */
+    public synchronized int getQueuePosition(String id) {
+        for (Lane lane : lanes.values()) {
+            int position = 1;
+            for (PipelineTask queued : lane.queue.inDispatchOrder()) {
+                if (queued.id.equals(id)) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of runs of a tenant that wait for a free slot in any lane.
+     *
+     * @param tenant the tenant
+     * @return the number of waiting runs of the tenant
+     */
+    public synchronized int getQueueDepth(String tenant) {
+        int depth = 0;
+        for (Lane lane : lanes.values()) {
+            depth += lane.queue.size(tenant);
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of runs of all tenants without a configured weight that wait for a free slot in any lane.
+     *
+     * @return the number of waiting runs of tenants without a configured weight
+     */
+    public synchronized int getQueueDepthOfOtherTenants() {
+        int depth = 0;
+        for (Lane lane : lanes.values()) {
+            depth += lane.queue.size();
+        }
+        for (String tenant : tenantWeights.keySet()) {
+            depth -= getQueueDepth(tenant);
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of cancelled runs whose pipeline has not returned yet. They occupy their slots until it does.
+     *
+     * @return the number of cancelled runs that still compute
+     */
+    public synchronized int getAbandonedRuns() {
+        int abandoned = 0;
+        for (Lane lane : lanes.values()) {
+            for (PipelineTask running : lane.running) {
+                if (running.cancelled) {
+                    abandoned++;
+                }
+            }
+        }
+        return abandoned;
+    }
+
+    /**
+     * Returns whether a cancelled run of the given request still computes. Its slot is not free until the pipeline returns, so that a new
+     * run of the same request would be a second computation of the same result.
+     *
+     * @param id the unique identifier of the request
+     * @return true if a cancelled run of the request still occupies a slot
+     */
+    public synchronized boolean isAbandoned(String id) {
+        for (Lane lane : lanes.values()) {
+            for (PipelineTask running : lane.running) {
+                if (running.cancelled && running.id.equals(id)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancels the run of the given request. A waiting run is removed from its queue and its future is completed with a
+     * {@link CancellationException}. A running run is interrupted and its future is completed with a {@link CancellationException} right
+     * away, but it keeps its slot until its thread returns, so that a pipeline that ignores the interruption is still counted.
+     *
+     * @param id the unique identifier of the request
+     * @return true if a waiting or running run has been cancelled, false if no run of the request is known
+     */
+    public synchronized boolean cancel(String id) {
+        for (Lane lane : lanes.values()) {
+            for (PipelineTask queued : lane.queue.inDispatchOrder()) {
+                if (queued.id.equals(id)) {
+                    lane.queue.remove(queued);
+                    queued.future.completeExceptionally(new CancellationException("The run of " + id + " has been cancelled."));
+                    return true;
+                }
+            }
+            for (PipelineTask running : lane.running) {
+                if (running.id.equals(id)) {
+                    running.cancelled = true;
+                    if (running.thread != null) {
+                        running.thread.interrupt();
+                    }
+                    running.future.completeExceptionally(new CancellationException("The run of " + id + " has been cancelled."));
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops accepting new runs, discards waiting runs and interrupts running ones.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        shutDown = true;
+        for (Lane lane : lanes.values()) {
+            for (PipelineTask queued : lane.queue.inDispatchOrder()) {
+                queued.future.completeExceptionally(new CancellationException("The scheduler has been shut down."));
+            }
+            lane.queue.clear();
+        }
+        workers.shutdownNow();
+    }
+
+    /**
+     * Checks whether the scheduler has been shut down, so that runs that fail now may have been interrupted by the shutdown.
+     *
+     * @return true if the scheduler has been shut down
+     */
+    public synchronized boolean isShutDown() {
+        return shutDown;
+    }
+
+    /**
+     * Starts queued runs. Free slots first go to lanes that run fewer runs than their own slots, so a busy lane never delays another lane
+     * for longer than a borrowed slot is in use. Afterward, if borrowing is enabled, the slots left unused by idle lanes are handed out
+     * round-robin to lanes that still have queued runs. In both cases, no more than {@code totalSlots} runs are started.
+     */
+    private void dispatch() {
+        if (shutDown) {
+            return;
+        }
+        for (Lane lane : lanes.values()) {
+            while (!lane.queue.isEmpty() && lane.running.size() < lane.settings.maxConcurrentRuns() && runningTotal < totalSlots) {
+                start(lane);
+            }
+        }
+        if (!borrowingEnabled) {
+            return;
+        }
+        boolean started = true;
+        while (started && runningTotal < totalSlots) {
+            started = false;
+            for (Lane lane : lanes.values()) {
+                if (!lane.queue.isEmpty() && runningTotal < totalSlots) {
+                    logger.debug("Lane {} borrows a free slot", lane.type);
+                    start(lane);
+                    started = true;
+                }
+            }
+        }
+    }
+
+    private void start(Lane lane) {
+        PipelineTask task = lane.queue.poll();
+        lane.running.add(task);
+        runningTotal++;
+        workers.execute(() -> {
+            try {
+                synchronized (this) {
+                    if (task.cancelled) {
+                        // cancelled before the thread picked up the run
+                        return;
+                    }
+                    task.thread = Thread.currentThread();
+                }
+                task.work.run();
+            } finally {
+                finished(lane, task);
+            }
+        });
+    }
+
+    private synchronized void finished(Lane lane, PipelineTask task) {
+        release(lane, task);
+        dispatch();
+    }
+
+    private void release(Lane lane, PipelineTask task) {
+        if (lane.running.remove(task)) {
+            runningTotal--;
+        }
+    }
+
+    /**
+     * Settings of a lane.
+     *
+     * @param maxConcurrentRuns the number of runs of the lane that may run at the same time without borrowing
+     * @param queueCapacity     the number of runs of the lane that may wait for a free slot; with {@code 0}, runs are only accepted if they
+     *                          can start right away
+     */
+    public record LaneSettings(int maxConcurrentRuns, int queueCapacity) {
+    }
+
+    private static final class Lane {
+        private final TraceLinkType type;
+        private final LaneSettings settings;
+        private final FairShareQueue<PipelineTask> queue;
+        private final Set<PipelineTask> running = new HashSet<>();
+
+        private Lane(TraceLinkType type, LaneSettings settings, Map<String, Integer> tenantWeights) {
+            this.type = type;
+            this.settings = settings;
+            this.queue = new FairShareQueue<>(tenant -> tenantWeights.getOrDefault(tenant, 1));
+        }
+    }
+
+    private static final class PipelineTask {
+        private final String id;
+        private final CompletableFuture<?> future;
+        private final Runnable work;
+        private Thread thread;
+        private boolean cancelled;
+
+        private PipelineTask(String id, CompletableFuture<?> future, Runnable work) {
+            this.id = id;
+            this.future = future;
+            this.work = work;
+        }
+    }
+
+    private static final class PipelineThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ardoco-pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Enforces a maximum run time for pipeline runs.
+ * <p>
+ * Every {@link TraceLinkType} has a time budget, configured by {@code tlr.pipeline.lanes.<endpoint-name>.max-run-seconds}, or
+ * {@code tlr.pipeline.max-run-seconds} for lanes without own settings. A value of {@code 0} disables the budget. Clients may lower, but
+ * never raise, the budget of their run with a deadline. The watchdog only measures the time a run is executing, not the time it waits in
+ * the queue, and calls the given overrun action once the budget is used up.
+ * <p>
+ * The watchdog bounds how long clients wait for a result, not how long a pipeline computes: ArDoCo does not react to interrupts, so an
+ * aborted run keeps computing and keeps its slot until it returns (see {@link PipelineScheduler#ABANDONED_RUNS_METRIC}).
+ */
+@Component
+public class PipelineWatchdog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineWatchdog.class);
+
+    private final Map<TraceLinkType, Duration> timeBudgets = new EnumMap<>(TraceLinkType.class);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ardoco-pipeline-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the watchdog with the time budgets from the application properties.
+     *
+     * @param environment the environment containing the time budgets
+     */
+    @Autowired
+    public PipelineWatchdog(Environment environment) {
+        this(readTimeBudgets(environment));
+    }
+
+    /**
+     * Creates the watchdog with the given time budgets. Trace link types without a budget may run without limit.
+     *
+     * @param timeBudgets the maximum run time of every trace link type
+     */
+    public PipelineWatchdog(Map<TraceLinkType, Duration> timeBudgets) {
+        for (var entry : timeBudgets.entrySet()) {
+            if (!entry.getValue().isZero() && !entry.getValue().isNegative()) {
+                this.timeBudgets.put(entry.getKey(), entry.getValue());
+                logger.info("Pipeline runs of {} may run at most {} seconds", entry.getKey(), entry.getValue().toSeconds());
+            }
+        }
+    }
+
+    private static Map<TraceLinkType, Duration> readTimeBudgets(Environment environment) {
+        long defaultSeconds = environment.getRequiredProperty("tlr.pipeline.max-run-seconds", Long.class);
+
+        Map<TraceLinkType, Duration> budgets = new EnumMap<>(TraceLinkType.class);
+        for (TraceLinkType type : TraceLinkType.values()) {
+            String property = "tlr.pipeline.lanes." + type.getEndpointName().toLowerCase(Locale.ROOT) + ".max-run-seconds";
+            budgets.put(type, Duration.ofSeconds(environment.getProperty(property, Long.class, defaultSeconds)));
+        }
+        return budgets;
+    }
+
+    /**
+     * Determines the time budget of a run: the budget of its trace link type, lowered to the deadline of the client if that is shorter.
+     *
+     * @param traceLinkType   the trace link type of the run
+     * @param deadlineSeconds the maximum run time requested by the client in seconds, or {@code null} if the client has none
+     * @return the time budget, or empty if the run may run without limit
+     * @throws IllegalArgumentException if the deadline is not positive
+     */
+    public Optional<Duration> getTimeBudget(TraceLinkType traceLinkType, Integer deadlineSeconds) throws IllegalArgumentException {
+        Optional<Duration> budget = Optional.ofNullable(timeBudgets.get(traceLinkType));
+        if (deadlineSeconds == null) {
+            return budget;
+        }
+        if (deadlineSeconds <= 0) {
+            throw new IllegalArgumentException("The deadline must be a positive number of seconds, but was " + deadlineSeconds + ".");
+        }
+        Duration deadline = Duration.ofSeconds(deadlineSeconds);
+        return Optional.of(budget.filter(limit -> limit.compareTo(deadline) < 0).orElse(deadline));
+    }
+
+    /**
+     * Starts watching a run. The overrun action is executed on the watchdog thread once the budget is used up, unless the returned
+     * future has been cancelled before.
+     *
+     * @param id        the unique identifier of the request
+     * @param budget    the time budget of the run
+     * @param onOverrun the action that aborts the run
+     * @return the future of the scheduled overrun action, to be cancelled when the run finishes in time
+     */
+    public ScheduledFuture<?> watch(String id, Duration budget, Runnable onOverrun) {
+        return timer.schedule(() -> {
+            logger.warn("The pipeline for ID {} has exceeded its time budget of {} seconds", id, budget.toSeconds());
+            try {
+                onOverrun.run();
+            } catch (RuntimeException e) {
+                logger.error("Could not abort the pipeline for ID {}", id, e);
+            }
+        }, budget.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching all runs.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,238 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisObjectCache;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.LruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Template for caches of intermediate pipeline data that several runs can share, e.g. the preprocessed text of a documentation.
+ * <p>
+ * Values are kept in a bounded in-memory {@link LruCache} and, if enabled, additionally in the {@link RedisObjectCache}, so that they
+ * survive evictions and restarts and are shared by all nodes. Every lookup is counted in {@value #CACHE_METRIC}, tagged with the name of
+ * the cache and whether it was a hit or a miss. A failing Redis never fails a run; the value is computed again instead. The in-memory
+ * cache publishes its number of entries as well, and {@value #RUN_TIME_METRIC} records how long runs took with and without a hit, which
+ * shows how much time the cache saves.
+ * <p>
+ * The in-memory cache keeps values in their serialized form, and every lookup deserializes a copy of its own. The values end up in the
+ * mutable data repository of a run, so concurrent runs must never share an instance; the copy costs a fraction of computing the value
+ * again.
+ * <p>
+ * Every run consults all caches: before the run, {@link #restore(String, ArdocoRunner)} hands a cached value to the runner, and after a run
+ * without a hit, {@link #store(String, ArdocoResult)} caches the value from its result.
+ *
+ * @param <V> the type of the cached values
+ */
+public abstract class AbstractPipelineCache<V extends Serializable> {
+
+    /**
+     * Name of the counter of cache lookups.
+     */
+    public static final String CACHE_METRIC = "tlr.cache.requests";
+
+    /**
+     * Name of the timer of the runs that have looked up a value, tagged with the name of the cache and whether it was a hit or a miss.
+     */
+    public static final String RUN_TIME_METRIC = "tlr.cache.run-time";
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractPipelineCache.class);
+
+    private final String name;
+    private final Class<V> type;
+    private final LruCache<byte[]> memory;
+    private final RedisObjectCache redisCache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer hitRunTime;
+    private final Timer missRunTime;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name          the name of the cache, used as metric tag and Redis namespace
+     * @param type          the type of the cached values
+     * @param maxEntries    the maximum number of values kept in memory
+     * @param redisCache    the cache in Redis, or {@code null} if values are only kept in memory
+     * @param meterRegistry the registry for the lookup counters
+     */
+    protected AbstractPipelineCache(String name, Class<V> type, int maxEntries, RedisObjectCache redisCache, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.memory = new LruCache<>(maxEntries);
+        this.redisCache = redisCache;
+        this.hits = lookupCounter(meterRegistry, name, "hit");
+        this.misses = lookupCounter(meterRegistry, name, "miss");
+        this.hitRunTime = runTimer(meterRegistry, name, "hit");
+        this.missRunTime = runTimer(meterRegistry, name, "miss");
+        Gauge.builder("tlr.cache.entries", memory, LruCache::size)
+                .description("Number of values in the in-memory caches of intermediate pipeline data")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Determines the key of the cached value for a request.
+     *
+     * @param request the request of a run
+     * @return the key, or empty if the request has nothing to cache
+     */
+    public abstract Optional<String> keyOf(PipelineRequest request);
+
+    /**
+     * Hands a cached value to a runner that has been set up but not run yet.
+     *
+     * @param key    the key of the value
+     * @param runner the runner
+     * @return true if the value has been cached and the runner does not need to compute it
+     */
+    public abstract boolean restore(String key, ArdocoRunner runner);
+
+    /**
+     * Caches the value from the result of a run.
+     *
+     * @param key    the key of the value
+     * @param result the result of the run
+     */
+    public abstract void store(String key, ArdocoResult result);
+
+    /**
+     * Records the duration of a run that has looked up a value in this cache.
+     *
+     * @param hit     whether the value has been cached
+     * @param runTime the duration of the run
+     */
+    public void recordRunTime(boolean hit, Duration runTime) {
+        (hit ? hitRunTime : missRunTime).record(runTime);
+    }
+
+    /**
+     * Getter for the name of the cache.
+     *
+     * @return the name, used as metric tag and Redis namespace
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a copy of a cached value that the caller may change.
+     *
+     * @param key the key of the value
+     * @return the value, or empty if it is not cached
+     */
+    public Optional<V> get(String key) {
+        Optional<V> value = memory.get(key).flatMap(bytes -> deserialize(key, bytes));
+        if (value.isEmpty() && redisCache != null) {
+            try {
+                value = redisCache.get(name, key, type);
+                value.ifPresent(found -> memory.put(key, serialize(key, found)));
+            } catch (RuntimeException e) {
+                logger.warn("Could not read the {} cache from Redis: {}", name, e.getMessage());
+            }
+        }
+        (value.isPresent() ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Caches a copy of a value, so that later changes of the value do not change the cached one.
+     *
+     * @param key   the key of the value
+     * @param value the value
+     * @throws ArdocoException if the value cannot be serialized
+     */
+    public void put(String key, V value) throws ArdocoException {
+        memory.put(key, serialize(key, value));
+        if (redisCache != null) {
+            try {
+                redisCache.put(name, key, value);
+            } catch (RuntimeException e) {
+                logger.warn("Could not write the {} cache to Redis: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hashes an input file of a request. The digest of the file is taken from the request if it is known, so that the file is only read
+     * again for requests without digests, e.g. warm-up runs.
+     *
+     * @param request the request of a run
+     * @param input   the kind of input
+     * @return the hash of the file content, or empty if the request has no such input or it cannot be read
+     */
+    protected static Optional<String> hashOf(PipelineRequest request, PipelineInput input) {
+        File file = request.inputFile(input);
+        if (file == null) {
+            return Optional.empty();
+        }
+        try {
+            String digest = request.inputDigest(input);
+            if (digest != null) {
+                return Optional.of(HashGenerator.getMD5HashFromDigests(List.of(HashGenerator.parseMD5Digest(digest))));
+            }
+            return Optional.of(HashGenerator.getMD5HashFromFiles(List.of(file)));
+        } catch (RuntimeException e) {
+            logger.warn("Could not hash the {} of the pipeline for ID {}: {}", input, request.id(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] serialize(String key, V value) throws ArdocoException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (IOException e) {
+            throw new ArdocoException("Could not cache the " + name + " with key " + key + ": " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Optional<V> deserialize(String key, byte[] bytes) {
+        // the bytes have been written by this cache, so unlike the values in Redis, they need no filter
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return Optional.of(type.cast(input.readObject()));
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warn("Could not read the {} with key {} from memory: {}", name, key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder(CACHE_METRIC)
+                .description("Number of lookups in the caches of intermediate pipeline data")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer runTimer(MeterRegistry meterRegistry, String name, String result) {
+        return Timer.builder(RUN_TIME_METRIC)
+                .description("Duration of the pipeline runs that have looked up intermediate pipeline data")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -2,12 +2,24 @@
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -16,9 +28,22 @@ import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
 import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DatabaseAccessor;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobJournal;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineWatchdog;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * The {@code AbstractRunnerTLRService} provides a template for services that
@@ -29,20 +54,49 @@ import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DatabaseAccessor;
  * results.
  * <p>
  * Implementing classes are responsible for defining how the {@link ArdocoResult} is
- * converted to JSON format by implementing the {@link #convertResultToJsonString(ArdocoResult)} method.
+ * converted to JSON format by implementing the {@link #convertResultToJsonString(ArdocoResult)} method, and how the
+ * ArDoCo runner is set up by implementing the {@link #createRunner(PipelineRequest, File)} method.
  */
-public abstract class AbstractRunnerTLRService extends AbstractService {
+public abstract class AbstractRunnerTLRService extends AbstractService implements BeanNameAware {
 
     /**
      * Prefix for error messages stored in the database.
      */
     protected static final String ERROR_PREFIX = "Error: ";
 
+    private static final String OUTPUT_DIRECTORY_PREFIX = "ardoco-output";
+
+    /**
+     * Time for which the timeout of a run is recorded, so that clients asking for its result or submitting it again are told about it.
+     */
+    private static final Duration TIMED_OUT_RUN_RETENTION = Duration.ofMinutes(10);
+
     private static final Logger logger = LoggerFactory.getLogger(AbstractRunnerTLRService.class);
 
     @Autowired
     private CurrentlyRunningRequestsRepository currentlyRunningRequestsRepository;
 
+    @Autowired
+    private PipelineScheduler pipelineScheduler;
+
+    @Autowired
+    private PipelineWatchdog pipelineWatchdog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Optional<DistributedJobService> distributedJobService;
+
+    @Autowired
+    private Optional<ClusterJobService> clusterJobService;
+
+    @Autowired
+    private Optional<RedisJobJournal> jobJournal;
+
+    @Autowired
+    private List<AbstractPipelineCache<?>> pipelineCaches;
+
     /**
      * Database accessor to save and retrieve results from the database.
      */
@@ -54,6 +108,8 @@ public abstract class AbstractRunnerTLRService extends AbstractService {
      */
     protected final TraceLinkType traceLinkType;
 
+    private String serviceName;
+
     /**
      * Constructor to initialize database accessor and trace link type.
      *
@@ -73,56 +129,652 @@ public abstract class AbstractRunnerTLRService extends AbstractService {
     abstract protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) throws JsonProcessingException;
 
     /**
-     * Starts a new pipeline asynchronously, if the result is not already available or in progress.
+     * Creates the ArDoCo runner of a run and sets it up with the inputs and the configuration of the request.
      *
-     * @param runner     the ArDoCoRunner to execute the pipeline
-     * @param id         the unique identifier of the pipeline
-     * @param inputFiles the input files for the pipeline
+     * @param request         the request of the run
+     * @param outputDirectory the temporary output directory of the run
+     * @return the runner, ready to run
+     * @throws IOException if the runner cannot be set up
+     */
+    abstract protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException;
+
+    /**
+     * Converts the results of other pipelines that can be derived from the result of this pipeline, e.g. the SAD-SAM trace links that
+     * TransArC computes on the way. The derived results are saved under the ids of {@link #getDerivedRequestIds(PipelineRequest)}. By
+     * default, nothing is derived.
+     *
+     * @param request the request of the run
+     * @param result  the result of the run
+     * @return the derived results, by request id
+     * @throws JsonProcessingException if a result cannot be converted
+     */
+    protected Map<String, ArDoCoApiResult> convertDerivedResults(PipelineRequest request, ArdocoResult result) throws JsonProcessingException {
+        return Map.of();
+    }
+
+    /**
+     * Determines the ids of the results that {@link #convertDerivedResults(PipelineRequest, ArdocoResult)} derives from a run: the ids that
+     * requests for the other pipelines on the same inputs would have, see {@link #derivedRequestId(TraceLinkType, PipelineRequest,
+     * PipelineInput...)}. By default, nothing is derived.
+     *
+     * @param request the request of the run
+     * @return the request ids of the derived results, by the trace link type of the other pipeline
+     */
+    protected Map<TraceLinkType, String> getDerivedRequestIds(PipelineRequest request) {
+        return Map.of();
+    }
+
+    /**
+     * Builds the id that a request for another pipeline on a subset of the inputs of a request would have.
+     *
+     * @param type    the trace link type of the other pipeline
+     * @param request the request of this pipeline
+     * @param inputs  the inputs of the other pipeline
+     * @return the request id of the other pipeline
+     */
+    protected static String derivedRequestId(TraceLinkType type, PipelineRequest request, PipelineInput... inputs) {
+        // the controllers hash the input files in the order of the input kinds
+        List<File> files = new ArrayList<>();
+        List<byte[]> digests = new ArrayList<>();
+        for (PipelineInput input : EnumSet.copyOf(List.of(inputs))) {
+            files.add(request.inputFile(input));
+            String digest = request.inputDigest(input);
+            if (digest != null) {
+                digests.add(HashGenerator.parseMD5Digest(digest));
+            }
+        }
+        // the files are only read again if the request does not know their digests
+        String inputHash = digests.size() == files.size() ? HashGenerator.getMD5HashFromDigests(digests) : HashGenerator.getMD5HashFromFiles(files);
+        // the additional configuration of a request is canonical already
+        return type.requestIdOf(request.projectName(), HashGenerator.getMD5HashWithConfiguration(inputHash, request.additionalConfigs()));
+    }
+
+    @Override
+    public void setBeanName(String name) {
+        this.serviceName = name;
+    }
+
+    /**
+     * Returns the result of a request if it is already in the database, and runs the pipeline as {@link #runPipeline(PipelineRequest)}
+     * otherwise. The request is only created if the pipeline has to run, so that repeated submissions cost a single database read
+     * instead of storing their input files. As the database has just been checked, only the check after registering the run remains.
+     * Submissions that {@link #runPipeline(PipelineRequest)} rejects because of an abandoned run are rejected before their input files
+     * are stored as well.
+     *
+     * @param id      the unique identifier of the request
+     * @param request creates the request of the pipeline, including its temporary input files
+     * @return an optional containing the result if available, otherwise empty
+     * @throws ArdocoException          if an earlier run of the request has recently timed out
+     * @throws TooManyRequestsException if the pipeline queue is full, or an abandoned run of the request still occupies a slot
+     * @throws IllegalArgumentException if the deadline is not positive
+     */
+    public Optional<ArDoCoApiResult> runPipeline(String id, Supplier<PipelineRequest> request) throws ArdocoException, TooManyRequestsException,
+            IllegalArgumentException {
+        Optional<ArDoCoApiResult> result = findResultInDatabase(id);
+        if (result.isPresent()) {
+            return result;
+        }
+        rejectIfAbandoned(id);
+        return startPipeline(request.get(), false);
+    }
+
+    /**
+     * Starts a new pipeline asynchronously on the {@link PipelineScheduler}, if the result is not already available or in progress.
+     * <p>
+     * Checking for a running pipeline and registering a new one is a single atomic step, so that concurrent identical submissions
+     * never start the same pipeline twice. Submissions that find a pipeline in flight join it and discard their own temporary files.
+     * <p>
+     * The run is aborted by the {@link PipelineWatchdog} once it exceeds the time budget of its trace link type or the deadline of the
+     * client, whichever is shorter. Deadlines of submissions that join a pipeline in flight are ignored.
+     * <p>
+     * While an earlier run of the same request has timed out (see {@link #TIMED_OUT_RUN_RETENTION}), the submission is answered with the
+     * timeout, and while a cancelled or timed-out run of the request still computes on this node, it is rejected as the queue is full:
+     * neither run can be stopped (ArDoCo ignores interrupts), so running the pipeline again would only add a second computation of the
+     * same request that holds a slot.
+     * <p>
+     * Waiting runs are started fairly across tenants, so that many submissions of one tenant do not delay the runs of other tenants.
+     * A run that is shared by several submissions is scheduled for the tenant of the first submission.
+     * <p>
+     * Across the nodes of a cluster (see {@link ClusterJobService}), runs are single-flight as well: the request is claimed in Redis
+     * before it is submitted; if the claim cannot be made, the job is discarded and its input files are deleted. If another
+     * node holds the claim, the local job follows the run of that node and keeps the inputs, so that it can take the run over once the
+     * claim of the other node expires. If distributed execution is enabled, the run is published to the queue of the cluster instead and
+     * may be executed by any node; the local job follows its progress. Otherwise, the run is recorded in the {@link RedisJobJournal} until
+     * it has finished.
+     *
+     * @param request the request of the pipeline, including its temporary input files
      * @return an optional containing the result if available, otherwise empty
+     * @throws ArdocoException          if an earlier run of the request has recently timed out
+     * @throws TooManyRequestsException if the pipeline queue is full, or an abandoned run of the request still occupies a slot
+     * @throws IllegalArgumentException if the deadline is not positive
      */
-    public Optional<ArDoCoApiResult> runPipeline(ArdocoRunner runner, String id, List<File> inputFiles) throws ArdocoException {
-        if (!resultIsInDatabase(id) && !resultIsOnItsWay(id)) {
-            logger.info("Start new TLR of type {} for {}", this.traceLinkType, id);
-            CompletableFuture<ArDoCoApiResult> future = CompletableFuture.supplyAsync(() -> runPipelineAsync(runner, id, inputFiles));
-            currentlyRunningRequestsRepository.addRequest(id, future);
-        } else if (resultIsInDatabase(id)) {
+    public Optional<ArDoCoApiResult> runPipeline(PipelineRequest request) throws ArdocoException, TooManyRequestsException, IllegalArgumentException {
+        return startPipeline(request, true);
+    }
+
+    private Optional<ArDoCoApiResult> startPipeline(PipelineRequest request, boolean checkDatabaseFirst) throws ArdocoException,
+            TooManyRequestsException, IllegalArgumentException {
+        String id = request.id();
+        List<File> inputFiles = request.inputFileList();
+        Optional<Duration> timeBudget;
+        try {
+            timeBudget = pipelineWatchdog.getTimeBudget(this.traceLinkType, request.deadlineSeconds());
+        } catch (IllegalArgumentException e) {
+            FileConverter.deleteConvertedFiles(inputFiles);
+            throw e;
+        }
+
+        if (checkDatabaseFirst && resultIsInDatabase(id)) {
+            FileConverter.deleteConvertedFiles(inputFiles);
             return Optional.of(getResultFromDatabase(id));
         }
+
+        try {
+            rejectIfAbandoned(id);
+        } catch (ArdocoException | TooManyRequestsException e) {
+            FileConverter.deleteConvertedFiles(inputFiles);
+            throw e;
+        }
+
+        PipelineJob newJob = new PipelineJob(id, this.traceLinkType, inputFiles, null);
+        PipelineJob job = currentlyRunningRequestsRepository.computeIfAbsent(id, key -> newJob);
+        if (job != newJob) {
+            logger.info("Joining TLR of type {} for {}, now shared by {} submissions", this.traceLinkType, id, job.join());
+            FileConverter.deleteConvertedFiles(inputFiles);
+            return Optional.empty();
+        }
+
+        // a pipeline for the same id might have finished between the database check and the registration
+        if (resultIsInDatabase(id)) {
+            currentlyRunningRequestsRepository.removeRequest(job);
+            FileConverter.deleteConvertedFiles(inputFiles);
+            ArDoCoApiResult result = getResultFromDatabase(id);
+            job.setState(JobState.DONE);
+            job.getFuture().complete(result);
+            return Optional.of(result);
+        }
+
+        if (distributedJobService.isPresent()) {
+            logger.info("Publish TLR of type {} for {} on behalf of {}", this.traceLinkType, id, request.tenant());
+            try {
+                distributedJobService.get().publish(request, serviceName, job);
+            } catch (RuntimeException e) {
+                discard(job, List.of(), e);
+                throw e;
+            } finally {
+                // the executing node works on its own copy of the inputs
+                FileConverter.deleteConvertedFiles(inputFiles);
+            }
+            return Optional.empty();
+        }
+
+        boolean claimed;
+        try {
+            claimed = tryClaim(job);
+        } catch (RuntimeException e) {
+            discard(job, inputFiles, e);
+            throw e;
+        }
+        if (!claimed) {
+            logger.info("TLR of type {} for {} is already processed by another node, following it", this.traceLinkType, id);
+            clusterJobService.get().follow(job, () -> takeOver(request, job, timeBudget));
+            return Optional.empty();
+        }
+
+        logger.info("Start new TLR of type {} for {} on behalf of {}", this.traceLinkType, id, request.tenant());
+        recordInJournal(request);
+        try {
+            submit(request, job, timeBudget);
+        } catch (TooManyRequestsException e) {
+            removeFromJournal(id);
+            clusterJobService.ifPresent(service -> service.release(job));
+            discard(job, inputFiles, e);
+            throw e;
+        }
         return Optional.empty();
     }
 
     /**
-     * Asynchronously runs the pipeline and processes the results.
+     * Executes a run that this node has claimed from the queue of the cluster. If the run is already followed on this node, the
+     * following job becomes the job of the run, so that local waiters are completed right away. Nothing is executed if another node
+     * already runs the same request.
+     *
+     * @param request the request of the run, with input files materialized on this node
+     * @return the job of the run, or empty if another node already runs the request
+     * @throws TooManyRequestsException if the pipeline queue is full; the input files are deleted and the run can be claimed again
+     * @throws IllegalArgumentException if the deadline is not positive
+     */
+    public Optional<PipelineJob> execute(PipelineRequest request) throws TooManyRequestsException, IllegalArgumentException {
+        List<File> inputFiles = request.inputFileList();
+        Optional<Duration> timeBudget;
+        try {
+            timeBudget = pipelineWatchdog.getTimeBudget(this.traceLinkType, request.deadlineSeconds());
+        } catch (IllegalArgumentException e) {
+            FileConverter.deleteConvertedFiles(inputFiles);
+            throw e;
+        }
+
+        PipelineJob newJob = new PipelineJob(request.id(), this.traceLinkType, inputFiles, null);
+        PipelineJob job = currentlyRunningRequestsRepository.computeIfAbsent(request.id(), key -> newJob);
+        if (job != newJob && clusterJobService.isEmpty()) {
+            logger.info("TLR of type {} for {} is already processed by this node", this.traceLinkType, request.id());
+            FileConverter.deleteConvertedFiles(inputFiles);
+            return Optional.empty();
+        }
+        boolean claimed;
+        try {
+            claimed = tryClaim(job);
+        } catch (RuntimeException e) {
+            if (job == newJob) {
+                discard(job, inputFiles, e);
+            } else {
+                // the job that follows the run keeps its own inputs
+                FileConverter.deleteConvertedFiles(inputFiles);
+            }
+            throw e;
+        }
+        if (!claimed) {
+            logger.info("TLR of type {} for {} is already processed by another node", this.traceLinkType, request.id());
+            FileConverter.deleteConvertedFiles(inputFiles);
+            if (job == newJob) {
+                clusterJobService.get().follow(job, null);
+            }
+            return Optional.empty();
+        }
+        job.setTemporaryFiles(inputFiles, null);
+
+        logger.info("Start claimed TLR of type {} for {} on behalf of {}", this.traceLinkType, request.id(), request.tenant());
+        try {
+            submit(request, job, timeBudget);
+        } catch (TooManyRequestsException e) {
+            FileConverter.deleteConvertedFiles(inputFiles);
+            if (clusterJobService.isEmpty()) {
+                discard(job, List.of(), e);
+                throw e;
+            }
+            clusterJobService.get().release(job);
+            // the run stays in the queue of the cluster
+            clusterJobService.get().follow(job, null);
+            throw e;
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Runs a request on this node whose run on another node has been abandoned, e.g. because that node has died.
+     *
+     * @param request    the request of the run, including its temporary input files
+     * @param job        the local job that has followed the abandoned run
+     * @param timeBudget the maximum run time of the pipeline, or empty if it may run without limit
+     * @return true if the run has been started on this node, false if another node has been faster or the pipeline queue is full
+     */
+    private boolean takeOver(PipelineRequest request, PipelineJob job, Optional<Duration> timeBudget) {
+        if (!tryClaim(job)) {
+            return false;
+        }
+        logger.info("Taking over TLR of type {} for {} that has been abandoned by another node", this.traceLinkType, request.id());
+        recordInJournal(request);
+        try {
+            submit(request, job, timeBudget);
+            return true;
+        } catch (TooManyRequestsException e) {
+            removeFromJournal(request.id());
+            clusterJobService.get().release(job);
+            return false;
+        }
+    }
+
+    /**
+     * Claims the request of a job for this node, see {@link ClusterJobService#tryClaim(PipelineJob)}. Without a cluster, every job
+     * belongs to this node.
+     *
+     * @param job the job that is about to be run on this node
+     * @return true if this node may run the job, false if another node is already running it
+     */
+    private boolean tryClaim(PipelineJob job) {
+        return clusterJobService.isEmpty() || clusterJobService.get().tryClaim(job);
+    }
+
+    /**
+     * Gives up a job that will not run: it is no longer in flight, its temporary input files are deleted, and everyone waiting for it
+     * receives the error.
      *
-     * @param runner     the ArDoCoRunner to execute the pipeline
-     * @param id         the unique identifier of the pipeline
-     * @param inputFiles the input files for the pipeline
-     * @return the result in JSON format, or null if an error occurred
+     * @param job        the job
+     * @param inputFiles the temporary input files of the job
+     * @param error      the reason why the job will not run
      */
-    private ArDoCoApiResult runPipelineAsync(ArdocoRunner runner, String id, List<File> inputFiles) throws ArdocoException {
+    private void discard(PipelineJob job, List<File> inputFiles, Throwable error) {
+        currentlyRunningRequestsRepository.removeRequest(job);
+        FileConverter.deleteConvertedFiles(inputFiles);
+        job.setState(JobState.ERROR);
+        job.getFuture().completeExceptionally(error);
+    }
+
+    private void submit(PipelineRequest request, PipelineJob job, Optional<Duration> timeBudget) throws TooManyRequestsException {
+        pipelineScheduler.submit(request.id(), this.traceLinkType, request.tenant(), () -> runPipelineAsync(request, job, timeBudget)).whenComplete((
+                result, error) -> {
+            if (error == null || !pipelineScheduler.isShutDown()) {
+                // runs that the shutdown interrupts or discards stay in the journal and are executed again after the restart
+                removeFromJournal(request.id());
+            }
+            if (error != null) {
+                job.setState(JobState.ERROR);
+                job.getFuture().completeExceptionally(error);
+            } else {
+                job.setState(JobState.DONE);
+                job.getFuture().complete(result);
+            }
+        });
+    }
+
+    /**
+     * Runs the pipeline once without saving its result, so that the models and classes it needs are loaded before the first real request
+     * arrives. The run is scheduled in the lane of this pipeline like any other run, so that it takes one of its slots instead of running
+     * next to them.
+     *
+     * @param request the request of the warm-up run; its input files are not deleted
+     * @throws ArdocoException if the pipeline fails or the run cannot be scheduled
+     */
+    public void warmUp(PipelineRequest request) throws ArdocoException {
+        try {
+            pipelineScheduler.submit(request.id(), this.traceLinkType, request.tenant(), () -> {
+                runWarmUp(request);
+                return null;
+            }).get();
+        } catch (TooManyRequestsException e) {
+            throw new ArdocoException("Could not schedule the warm-up of the pipeline of type " + this.traceLinkType + ": " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ArdocoException cause) {
+                throw cause;
+            }
+            throw new ArdocoException("Error occurred while warming up the pipeline of type " + this.traceLinkType + ": " + e.getCause()
+                    .getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArdocoException("Interrupted while warming up the pipeline of type " + this.traceLinkType, e);
+        }
+    }
+
+    private void runWarmUp(PipelineRequest request) throws ArdocoException {
+        File outputDirectory = null;
+        try {
+            outputDirectory = Files.createTempDirectory(OUTPUT_DIRECTORY_PREFIX).toFile();
+            ArdocoRunner runner = createRunner(request, outputDirectory);
+            convertResultToJsonString(runner.run());
+        } catch (IOException | RuntimeException e) {
+            throw new ArdocoException("Error occurred while warming up the pipeline of type " + this.traceLinkType + ": " + e.getMessage(), e);
+        } finally {
+            FileConverter.deleteDirectory(outputDirectory);
+        }
+    }
+
+    /**
+     * Getter for the type of trace links this service recovers.
+     *
+     * @return the trace link type
+     */
+    public TraceLinkType getTraceLinkType() {
+        return traceLinkType;
+    }
+
+    /**
+     * Records a run in the journal, so that it is executed again if this node stops before the run has finished. A run that cannot be
+     * recorded is executed anyway.
+     *
+     * @param request the request of the run
+     */
+    private void recordInJournal(PipelineRequest request) {
+        try {
+            jobJournal.ifPresent(journal -> journal.record(request, serviceName));
+        } catch (RuntimeException e) {
+            logger.warn("Could not record the pipeline for ID {} in the journal: {}", request.id(), e.getMessage());
+        }
+    }
+
+    private void removeFromJournal(String id) {
+        try {
+            jobJournal.ifPresent(journal -> journal.remove(id));
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove the pipeline for ID {} from the journal: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Getter for the bean name of this service, which identifies the service on every node of a cluster.
+     *
+     * @return the bean name
+     */
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    /**
+     * Returns the job of a pipeline that is currently in flight.
+     *
+     * @param id the unique identifier of the pipeline
+     * @return the job if the pipeline is queued or running, otherwise empty
+     */
+    public Optional<PipelineJob> getRunningJob(String id) {
+        return currentlyRunningRequestsRepository.getRequest(id);
+    }
+
+    /**
+     * Returns the position of a pipeline run in the wait queue.
+     *
+     * @param id the unique identifier of the pipeline
+     * @return the 1-based queue position if the run is waiting, {@code 0} if it is already running or not known
+     */
+    public int getQueuePosition(String id) {
+        return pipelineScheduler.getQueuePosition(id);
+    }
+
+    /**
+     * Asynchronously sets up the runner, runs the pipeline and processes the results. The result of a cancelled or timed-out job is not
+     * saved, and neither is the error of a run that the shutdown of the {@link PipelineScheduler} interrupts.
+     *
+     * @param request    the request of the pipeline
+     * @param job        the job of the pipeline
+     * @param timeBudget the maximum run time of the pipeline, or empty if it may run without limit
+     * @return the result in JSON format
+     * @throws ArdocoException       if the pipeline fails
+     * @throws JobCancelledException if the job has been cancelled, has timed out or has been interrupted by a shutdown
+     */
+    private ArDoCoApiResult runPipelineAsync(PipelineRequest request, PipelineJob job, Optional<Duration> timeBudget) throws ArdocoException,
+            JobCancelledException {
+        String id = job.getId();
+        ScheduledFuture<?> watch = timeBudget.map(budget -> pipelineWatchdog.watch(id, budget, () -> abortOverrunningJob(job, budget))).orElse(null);
         ArDoCoApiResult traceLinkJson;
         try {
+            job.setState(JobState.RUNNING);
+            logger.info("Setting up Runner...");
+            File outputDirectory = Files.createTempDirectory(OUTPUT_DIRECTORY_PREFIX).toFile();
+            job.setTemporaryFiles(request.inputFileList(), outputDirectory);
+            ArdocoRunner runner = createRunner(request, outputDirectory);
+            Map<AbstractPipelineCache<?>, String> cacheKeys = cacheKeysOf(request);
+            Set<AbstractPipelineCache<?>> cacheHits = restoreFromCaches(cacheKeys, runner);
+
+            checkNotCancelled(job);
             logger.info("Starting Pipeline...");
+            long start = System.nanoTime();
             ArdocoResult result = runner.run();
+            Duration runTime = Duration.ofNanos(System.nanoTime() - start);
+            cacheKeys.forEach((cache, key) -> {
+                boolean hit = cacheHits.contains(cache);
+                cache.recordRunTime(hit, runTime);
+                if (!hit) {
+                    cache.store(key, result);
+                }
+            });
 
+            checkNotCancelled(job);
             logger.debug("Converting found TraceLinks...");
+            job.setState(JobState.CONVERTING);
             traceLinkJson = convertResultToJsonString(result);
 
+            if (!job.beginSaving()) {
+                throw cancelled(job);
+            }
             logger.info("Saving found TraceLinks...");
             databaseAccessor.saveResult(id, traceLinkJson.buildJsonString());
+            saveDerivedResults(request, result);
 
+        } catch (JobCancelledException e) {
+            logger.info(e.getMessage());
+            throw e;
         } catch (Exception e) {
+            if (job.isCancelled()) {
+                logger.info("The pipeline for ID {} stopped after it has been cancelled or timed out: {}", id, e.getMessage());
+                throw new JobCancelledException(String.format("The pipeline for ID %s has been cancelled.", id));
+            }
+            if (pipelineScheduler.isShutDown()) {
+                // not a failure of the pipeline, so no error is saved that would keep it from running again
+                logger.info("The pipeline for ID {} has been interrupted by the shutdown of this node: {}", id, e.getMessage());
+                throw new JobCancelledException(String.format("The pipeline for ID %s has been interrupted by a shutdown.", id));
+            }
             String message = String.format("Error occurred while running the pipeline asynchronously for ID %s : %s", id, e.getMessage());
             logger.error(message, e);
             databaseAccessor.saveResult(id, ERROR_PREFIX + message);
             throw new ArdocoException(message, e);
         } finally {
-            currentlyRunningRequestsRepository.removeRequest(id);
-            for (File file : inputFiles) {
-                file.delete();
+            if (watch != null) {
+                watch.cancel(false);
             }
+            currentlyRunningRequestsRepository.removeRequest(job);
+            deleteTemporaryFiles(job.getInputFiles(), job.getOutputDirectory());
         }
         return traceLinkJson;
     }
 
+    /**
+     * Ends a run that has been cancelled or has timed out before it starts ArDoCo, or before its result is converted and saved. These are
+     * the only points at which a run stops: ArDoCo ignores interrupts and runs its whole pipeline in one call, so a run that is cancelled
+     * while ArDoCo computes is only detached from its clients. It keeps computing and keeps its slot until ArDoCo returns, and its
+     * result is discarded.
+     *
+     * @param job the job of the run
+     * @throws JobCancelledException if the job has been cancelled or has timed out
+     */
+    private static void checkNotCancelled(PipelineJob job) throws JobCancelledException {
+        if (job.isCancelled()) {
+            throw cancelled(job);
+        }
+    }
+
+    private static JobCancelledException cancelled(PipelineJob job) {
+        return new JobCancelledException(String.format("The pipeline for ID %s has been cancelled.", job.getId()));
+    }
+
+    /**
+     * Saves the results of other pipelines that can be derived from the result of a run, unless they are already in the database, so that
+     * later requests for them are answered without running their pipelines. A failure is logged and does not fail the run.
+     *
+     * @param request the request of the run
+     * @param result  the result of the run
+     */
+    private void saveDerivedResults(PipelineRequest request, ArdocoResult result) {
+        try {
+            for (var derivedResult : convertDerivedResults(request, result).entrySet()) {
+                String derivedId = derivedResult.getKey();
+                if (!resultIsInDatabase(derivedId)) {
+                    databaseAccessor.saveResult(derivedId, derivedResult.getValue().buildJsonString());
+                    logger.info("Saved the result for ID {} derived from the pipeline for ID {}", derivedId, request.id());
+                }
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Could not save the results derived from the pipeline for ID {}: {}", request.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * Determines the keys of the intermediate data of a request in the caches.
+     *
+     * @param request the request of the run
+     * @return the caches that may hold data of the request, with the keys of the data
+     */
+    private Map<AbstractPipelineCache<?>, String> cacheKeysOf(PipelineRequest request) {
+        Map<AbstractPipelineCache<?>, String> keys = new LinkedHashMap<>();
+        for (AbstractPipelineCache<?> cache : pipelineCaches) {
+            cache.keyOf(request).ifPresent(key -> keys.put(cache, key));
+        }
+        return keys;
+    }
+
+    /**
+     * Hands the cached intermediate data of a request, e.g. its preprocessed text, to a runner.
+     *
+     * @param keys   the caches that may hold data of the request, with the keys of the data
+     * @param runner the runner that has been set up for the request
+     * @return the caches that have handed data to the runner
+     */
+    private static Set<AbstractPipelineCache<?>> restoreFromCaches(Map<AbstractPipelineCache<?>, String> keys, ArdocoRunner runner) {
+        Set<AbstractPipelineCache<?>> hits = new HashSet<>();
+        keys.forEach((cache, key) -> {
+            if (cache.restore(key, runner)) {
+                hits.add(cache);
+            }
+        });
+        return hits;
+    }
+
+    /**
+     * Rejects a submission whose request has an earlier run that could not be stopped: a recorded timeout is answered to the client, like
+     * {@link #getResultFromDatabase(String)} does, and a cancelled or timed-out run that still computes on this node makes the submission
+     * wait until its slot is free. The recorded timeout also covers runs that still compute on other nodes of the cluster.
+     *
+     * @param id the unique identifier of the request
+     * @throws ArdocoException          if an earlier run of the request has recently timed out
+     * @throws TooManyRequestsException if a cancelled or timed-out run of the request still occupies a slot
+     */
+    private void rejectIfAbandoned(String id) throws ArdocoException, TooManyRequestsException {
+        String timeout = databaseAccessor.getTimeout(id);
+        if (timeout != null) {
+            throw new ArdocoException(timeout);
+        }
+        if (pipelineScheduler.isAbandoned(id)) {
+            throw new TooManyRequestsException(String.format(
+                    "An aborted run of the pipeline for ID %s is still computing. Please try again later.", id));
+        }
+    }
+
+    /**
+     * Aborts a job that has exceeded its time budget, like a cancelled job: everyone waiting for the job receives an
+     * {@link ArdocoException}, the run is interrupted and its temporary files are deleted. The run is only detached: once ArDoCo is
+     * running, it computes until the whole pipeline has returned and keeps its slot until then, its result is discarded. No result is written to the database, as the time budget depends on the
+     * deadline of the client and on the load of the node, which are not part of the request id. Instead, the timeout is recorded apart
+     * from the result for {@link #TIMED_OUT_RUN_RETENTION}, so that clients that ask for the result afterwards learn about it, and
+     * submissions of the same request are answered with it rather than starting another run that cannot be stopped either. Nothing
+     * happens if the result is already being saved.
+     *
+     * @param job    the job that has exceeded its time budget
+     * @param budget the time budget of the job
+     */
+    private void abortOverrunningJob(PipelineJob job, Duration budget) {
+        if (!job.timeOut()) {
+            return;
+        }
+        String id = job.getId();
+        String message = String.format("The pipeline for ID %s has been aborted because it exceeded its time budget of %d seconds.", id, budget
+                .toSeconds());
+        Counter.builder("tlr.pipeline.runs.timed-out")
+                .description("Number of pipeline runs that have been aborted because they exceeded their time budget")
+                .tag("type", this.traceLinkType.name())
+                .register(meterRegistry)
+                .increment();
+        try {
+            // recorded before the job is removed, so that clients always find either the job or the timeout
+            databaseAccessor.saveTimeout(id, message, TIMED_OUT_RUN_RETENTION);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record the timeout of the pipeline for ID {}: {}", id, e.getMessage());
+        }
+        currentlyRunningRequestsRepository.removeRequest(job);
+        job.getFuture().completeExceptionally(new ArdocoException(message));
+        pipelineScheduler.cancel(id);
+        deleteTemporaryFiles(job.getInputFiles(), job.getOutputDirectory());
+    }
+
+    private static void deleteTemporaryFiles(List<File> inputFiles, File outputDirectory) {
+        FileConverter.deleteConvertedFiles(inputFiles);
+        FileConverter.deleteDirectory(outputDirectory);
+    }
+
 }
@@ -1,6 +1,8 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
+import java.util.Optional;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,14 +55,34 @@ public abstract class AbstractService {
      * @param id the unique identifier of the result
      * @return the result in JSON format
      * @throws IllegalArgumentException if the result is not in the database
-     * @throws ArdocoException          if there is an error with the retrieved result
+     * @throws ArdocoException          if there is an error with the retrieved result, or if its pipeline has recently exceeded its time
+     *                                  budget
      */
     protected ArDoCoApiResult getResultFromDatabase(String id) throws IllegalArgumentException, ArdocoException {
         if (!resultIsInDatabase(id)) {
+            String timeout = databaseAccessor.getTimeout(id);
+            if (timeout != null) {
+                throw new ArdocoException(timeout);
+            }
             throw new IllegalArgumentException(String.format("No result with key %s found.", id));
         }
 
+        return parseResult(id, databaseAccessor.getResult(id));
+    }
+
+    /**
+     * Retrieves the result from the database with a single read, if it is available.
+     *
+     * @param id the unique identifier of the result
+     * @return the result, or empty if it is not in the database
+     * @throws ArdocoException if there is an error with the retrieved result
+     */
+    protected Optional<ArDoCoApiResult> findResultInDatabase(String id) throws ArdocoException {
         String result = databaseAccessor.getResult(id);
+        return result == null ? Optional.empty() : Optional.of(parseResult(id, result));
+    }
+
+    private static ArDoCoApiResult parseResult(String id, String result) throws ArdocoException {
         if (result == null || result.startsWith(ERROR_PREFIX)) {
             throw new ArdocoException(result);
         }
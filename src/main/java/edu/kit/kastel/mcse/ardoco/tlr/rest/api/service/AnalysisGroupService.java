@@ -0,0 +1,372 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.AnalysisGroup;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore.Blob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisAnalysisGroups;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+
+/**
+ * Service for running several analyses on one upload at once.
+ * <p>
+ * The uploaded files are streamed into the {@link InputBlobStore} and hashed once; every analysis gets the request id that a request to
+ * the controller of its pipeline would have, so that results are shared with such requests. The runs get links to the stored files, so
+ * an upload is neither held in memory nor copied per analysis. Analyses whose results another requested pipeline saves as derived results
+ * (e.g. SWATTR, whose trace links TransArC computes on the way) are not run on their own, unless the providing pipeline finishes without
+ * having saved them, e.g. because it has failed; then they are started on their own as long as their files are still stored. The
+ * remaining pipelines run concurrently and share the preprocessed text through the {@link TextPreprocessingCache}. The requested analyses are kept as {@link AnalysisGroup}, so that clients can wait for all of them by the id of the group.
+ */
+@Service
+public class AnalysisGroupService {
+
+    private static final String GROUP_ID_PREFIX = "analysisGroup:";
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisGroupService.class);
+
+    private final RedisAnalysisGroups analysisGroups;
+    private final ResultService resultService;
+    private final InputBlobService inputBlobService;
+    private final ConfigurationProviderService configurationProviderService;
+    private final Map<String, CompletableFuture<Void>> pendingOwnRuns = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service.
+     *
+     * @param analysisGroups               the repository of the analysis groups
+     * @param resultService                the service to wait for results
+     * @param inputBlobService             the service that stores the uploaded files and starts the pipelines on them
+     * @param configurationProviderService the service that brings additional configurations into their canonical form
+     */
+    @Autowired
+    public AnalysisGroupService(RedisAnalysisGroups analysisGroups, ResultService resultService, InputBlobService inputBlobService,
+            ConfigurationProviderService configurationProviderService) {
+        this.analysisGroups = analysisGroups;
+        this.resultService = resultService;
+        this.inputBlobService = inputBlobService;
+        this.configurationProviderService = configurationProviderService;
+    }
+
+    /**
+     * Stores an uploaded input file of a group and keeps it for the upload until the upload is released, so that it is not deleted from
+     * the store before the pipelines of the group have linked it, see {@link InputBlobStore#store(MultipartFile)}.
+     *
+     * @param multipartFile the uploaded file
+     * @param uploadId      the unique identifier of the upload the file belongs to
+     * @return the stored file with its digest
+     * @throws FileNotFoundException    if the file is empty
+     * @throws FileConversionException  if the file cannot be stored
+     * @throws IllegalArgumentException if the file is larger than the store
+     */
+    public Blob upload(MultipartFile multipartFile, String uploadId) throws FileNotFoundException, FileConversionException,
+            IllegalArgumentException {
+        return inputBlobService.upload(multipartFile, uploadId);
+    }
+
+    /**
+     * Releases the input files of an upload once the pipelines of its group have been started, see
+     * {@link #upload(MultipartFile, String)}.
+     *
+     * @param uploadId the unique identifier of the upload
+     */
+    public void release(String uploadId) {
+        inputBlobService.release(uploadId);
+    }
+
+    /**
+     * Starts the pipelines of the requested analyses on one upload. Pipelines whose results are already stored are not started again. An
+     * analysis whose result another pipeline provides is started on its own once the providing pipeline has finished without saving it.
+     *
+     * @param analyses          the requested analyses
+     * @param projectName       the name of the project
+     * @param digests           the MD5 digests of the stored input files, see {@link #upload(MultipartFile, String)}
+     * @param modelFormat       the format of the architecture model, or {@code null} if no analysis needs an architecture model
+     * @param additionalConfigs additional ArDoCo configuration
+     * @param deadlineSeconds   the maximum run time of each pipeline in seconds, or {@code null} to use the configured budgets
+     * @param tenant            the API client or project the pipelines are scheduled for
+     * @return the group of the analyses
+     * @throws IllegalArgumentException if no analysis is requested, or an input of a requested analysis is missing
+     * @throws TooManyRequestsException if the pipeline queue is full; the pipelines started so far keep running
+     * @throws FileConversionException  if an input file cannot be linked into a run
+     */
+    public AnalysisGroup start(Set<Analysis> analyses, String projectName, Map<PipelineInput, String> digests, ModelFormat modelFormat,
+            SortedMap<String, String> additionalConfigs, Integer deadlineSeconds, String tenant) throws IllegalArgumentException,
+            TooManyRequestsException, FileConversionException {
+        if (analyses.isEmpty()) {
+            throw new IllegalArgumentException("At least one analysis must be requested.");
+        }
+        for (Analysis analysis : analyses) {
+            for (PipelineInput input : analysis.getInputs()) {
+                if (!digests.containsKey(input)) {
+                    throw new IllegalArgumentException(String.format("The analysis %s needs the input %s.", analysis, input));
+                }
+            }
+            if (analysis.getInputs().contains(PipelineInput.ARCHITECTURE_MODEL) && modelFormat == null) {
+                throw new IllegalArgumentException(String.format("The analysis %s needs the format of the architecture model.", analysis));
+            }
+        }
+
+        SortedMap<String, String> canonicalConfigs = configurationProviderService.canonicalize(additionalConfigs);
+        Map<Analysis, Map<PipelineInput, String>> analysisDigests = new EnumMap<>(Analysis.class);
+        Map<Analysis, String> requestIds = new EnumMap<>(Analysis.class);
+        for (Analysis analysis : analyses) {
+            Map<PipelineInput, String> inputDigests = new EnumMap<>(PipelineInput.class);
+            analysis.getInputs().forEach(input -> inputDigests.put(input, digests.get(input)));
+            analysisDigests.put(analysis, inputDigests);
+            requestIds.put(analysis, analysis.requestIdOfDigests(projectName, inputDigests, canonicalConfigs));
+        }
+
+        Map<Analysis, AnalysisGroup.Member> members = new EnumMap<>(Analysis.class);
+        for (Analysis analysis : analyses) {
+            String providerId = providerOf(analysis, requestIds, resultService::resultIsInDatabase).map(requestIds::get).orElse(requestIds.get(analysis));
+            members.put(analysis, new AnalysisGroup.Member(requestIds.get(analysis), providerId));
+        }
+        AnalysisGroup group = new AnalysisGroup(groupIdOf(analyses, projectName, digests, canonicalConfigs), members);
+        analysisGroups.save(group);
+
+        // the providers are started first, so that the analyses they provide find their runs
+        for (Analysis analysis : analyses) {
+            if (members.get(analysis).providerId().equals(requestIds.get(analysis))) {
+                logger.info("Starting the analysis {} of group {}", analysis, group.groupId());
+                inputBlobService.start(analysis, requestIds.get(analysis), projectName, analysisDigests.get(analysis), modelFormat, canonicalConfigs,
+                        deadlineSeconds, tenant);
+            }
+        }
+        for (Analysis analysis : analyses) {
+            AnalysisGroup.Member member = members.get(analysis);
+            if (!member.providerId().equals(member.requestId())) {
+                CompletableFuture<?> providerRun = resultService.getRunningJob(member.providerId())
+                        .<CompletableFuture<?>>map(PipelineJob::getFuture)
+                        .orElseGet(() -> CompletableFuture.completedFuture(null));
+                CompletableFuture<Void> ownRun = runOnItsOwnIfNotProvided(analysis, member, providerRun, resultService::resultIsInDatabase, () -> {
+                    logger.warn("The result of the analysis {} of group {} has not been provided by {}, starting it on its own", analysis, group
+                            .groupId(), member.providerId());
+                    inputBlobService.start(analysis, member.requestId(), projectName, analysisDigests.get(analysis), modelFormat, canonicalConfigs,
+                            deadlineSeconds, tenant);
+                });
+                pendingOwnRuns.put(member.requestId(), ownRun);
+                ownRun.whenComplete((ignored, error) -> {
+                    pendingOwnRuns.remove(member.requestId(), ownRun);
+                    if (error != null) {
+                        logger.warn("Could not start the analysis {} of group {} on its own: {}", analysis, group.groupId(), error.getMessage());
+                    }
+                });
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Returns a group of analyses.
+     *
+     * @param groupId the unique identifier of the group
+     * @return the group
+     * @throws IllegalArgumentException if the group does not exist
+     * @throws ArdocoException          if the group cannot be read
+     */
+    public AnalysisGroup getGroup(String groupId) throws IllegalArgumentException, ArdocoException {
+        return analysisGroups.get(groupId)
+                .orElseThrow(() -> new IllegalArgumentException(String.format("No analysis group with key %s found.", groupId)));
+    }
+
+    /**
+     * Waits for the results of the analyses of a group. The waiting does not block the calling thread.
+     *
+     * @param group the group
+     * @return the futures of the results by analysis, completed with an empty optional when waiting timed out, or exceptionally if the
+     *         analysis has failed
+     */
+    public Map<Analysis, CompletableFuture<Optional<ArDoCoApiResult>>> waitForGroup(AnalysisGroup group) {
+        Map<Analysis, CompletableFuture<Optional<ArDoCoApiResult>>> results = new EnumMap<>(Analysis.class);
+        group.members()
+                .forEach((analysis, member) -> results.put(analysis, waitForMember(member, resultService, pendingOwnRuns.getOrDefault(member
+                        .requestId(), CompletableFuture.completedFuture(null)))));
+        return results;
+    }
+
+    /**
+     * Returns the results of the analyses of a group that are available, without waiting for the others.
+     *
+     * @param group the group
+     * @return the completed futures of the results by analysis, with an empty optional if the analysis has not finished yet, or failed if
+     *         the analysis has failed
+     */
+    public Map<Analysis, CompletableFuture<Optional<ArDoCoApiResult>>> getResults(AnalysisGroup group) {
+        Map<Analysis, CompletableFuture<Optional<ArDoCoApiResult>>> results = new EnumMap<>(Analysis.class);
+        group.members().forEach((analysis, member) -> results.put(analysis, getMemberResult(member, resultService)));
+        return results;
+    }
+
+    /**
+     * Getter for the time a client waits for the results of a group.
+     *
+     * @return the timeout in seconds
+     */
+    public int getSecondsUntilTimeout() {
+        return resultService.getSecondsUntilTimeout();
+    }
+
+    /**
+     * Waits for the result of one analysis of a group. The result of an analysis that another pipeline provides is read once the
+     * providing pipeline has finished; if it has finished without saving the result, the run of the analysis on its own is waited for.
+     *
+     * @param member        the analysis
+     * @param resultService the service to wait for results
+     * @param ownRun        completed once the analysis has been started on its own if its provider has not saved its result, see
+     *                      {@link #runOnItsOwnIfNotProvided(Analysis, AnalysisGroup.Member, CompletableFuture, Predicate, Runnable)}
+     * @return the future of the result
+     */
+    static CompletableFuture<Optional<ArDoCoApiResult>> waitForMember(AnalysisGroup.Member member, ResultService resultService,
+            CompletableFuture<?> ownRun) {
+        try {
+            CompletableFuture<Optional<ArDoCoApiResult>> providerResult = resultService.waitForResult(member.providerId());
+            if (member.providerId().equals(member.requestId())) {
+                return providerResult;
+            }
+            return providerResult.handle((result, error) -> {
+                if (error == null && result.isEmpty()) {
+                    // waiting for the provider has timed out
+                    return CompletableFuture.completedFuture(result);
+                }
+                if (error == null && resultService.resultIsInDatabase(member.requestId())) {
+                    // the provider has saved the derived result before its own run completed
+                    return CompletableFuture.completedFuture(resultService.getResult(member.requestId()));
+                }
+                return ownRun.thenCompose(ignored -> {
+                    if (error != null && resultService.getRunningJob(member.requestId()).isEmpty() && !resultService.resultIsInDatabase(member
+                            .requestId())) {
+                        return CompletableFuture.<Optional<ArDoCoApiResult>>failedFuture(error);
+                    }
+                    return resultService.waitForResult(member.requestId());
+                });
+            }).thenCompose(Function.identity());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Returns the result of one analysis of a group if it is available, without waiting for it.
+     *
+     * @param member        the analysis
+     * @param resultService the service to read results
+     * @return the completed future of the result
+     */
+    static CompletableFuture<Optional<ArDoCoApiResult>> getMemberResult(AnalysisGroup.Member member, ResultService resultService) {
+        try {
+            if (member.providerId().equals(member.requestId())) {
+                return CompletableFuture.completedFuture(resultService.getResult(member.requestId()));
+            }
+            if (resultService.getRunningJob(member.requestId()).isPresent()) {
+                // the analysis runs on its own, because its provider has not saved its result
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            Optional<ArDoCoApiResult> providerResult;
+            try {
+                providerResult = resultService.getResult(member.providerId());
+            } catch (RuntimeException e) {
+                if (!resultService.resultIsInDatabase(member.requestId())) {
+                    throw e;
+                }
+                // the provider has failed, and the analysis has run on its own
+                return CompletableFuture.completedFuture(resultService.getResult(member.requestId()));
+            }
+            if (providerResult.isEmpty()) {
+                return CompletableFuture.completedFuture(providerResult);
+            }
+            return CompletableFuture.completedFuture(resultService.getResult(member.requestId()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Starts an analysis on its own once the pipeline that was to provide its result has finished without saving it, e.g. because the
+     * pipeline has failed, has been cancelled or could not save its derived results.
+     *
+     * @param analysis       the analysis
+     * @param member         the analysis within its group
+     * @param providerRun    completed once the providing pipeline has finished, successfully or not
+     * @param resultIsStored tells whether the result of a request id is already stored
+     * @param startOwnRun    starts the pipeline of the analysis itself on its stored input files
+     * @return completed once the result has been provided or the analysis has been started on its own, or exceptionally if it could not
+     *         be started
+     */
+    static CompletableFuture<Void> runOnItsOwnIfNotProvided(Analysis analysis, AnalysisGroup.Member member, CompletableFuture<?> providerRun,
+            Predicate<String> resultIsStored, Runnable startOwnRun) {
+        return providerRun.handle((result, error) -> null).thenRun(() -> {
+            if (resultIsStored.test(member.requestId())) {
+                return;
+            }
+            try {
+                startOwnRun.run();
+            } catch (IllegalArgumentException e) {
+                throw new ArdocoException(String.format("The analysis %s could not be started on its own after %s had not provided its result, "
+                        + "because its input files are no longer stored. Please upload them again.", analysis, member.providerId()), e);
+            }
+        });
+    }
+
+    /**
+     * Determines the requested analysis whose pipeline saves the result of an analysis as well, if its pipeline is going to run.
+     *
+     * @param analysis       the analysis
+     * @param requestIds     the request ids of the requested analyses
+     * @param resultIsStored tells whether the result of a request id is already stored
+     * @return the providing analysis, or empty if the analysis has to be run on its own
+     */
+    static Optional<Analysis> providerOf(Analysis analysis, Map<Analysis, String> requestIds, Predicate<String> resultIsStored) {
+        if (resultIsStored.test(requestIds.get(analysis))) {
+            return Optional.empty();
+        }
+        return analysis.getDerivedFrom()
+                .stream()
+                .filter(requestIds::containsKey)
+                .filter(provider -> !resultIsStored.test(requestIds.get(provider)))
+                .findFirst();
+    }
+
+    /**
+     * Builds the id of a group from its analyses and inputs. Every digest is hashed together with the kind of its input, so that groups
+     * that swap e.g. the text and the architecture model get different ids.
+     */
+    static String groupIdOf(Set<Analysis> analyses, String projectName, Map<PipelineInput, String> digests,
+            SortedMap<String, String> additionalConfigs) {
+        List<byte[]> contents = new ArrayList<>();
+        new EnumMap<>(digests).forEach((kind, digest) -> {
+            contents.add(kind.name().getBytes(StandardCharsets.UTF_8));
+            contents.add(HashGenerator.parseMD5Digest(digest));
+        });
+        contents.add(EnumSet.copyOf(analyses).toString().getBytes(StandardCharsets.UTF_8));
+        return GROUP_ID_PREFIX + projectName + HashGenerator.getMD5HashWithConfiguration(HashGenerator.getMD5HashFromContents(contents), additionalConfigs);
+    }
+}
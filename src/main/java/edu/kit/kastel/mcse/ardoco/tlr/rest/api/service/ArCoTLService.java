@@ -1,7 +1,12 @@
 /* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
+import org.eclipse.collections.impl.factory.SortedMaps;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -10,9 +15,15 @@ import edu.kit.kastel.mcse.ardoco.core.api.entity.ArchitectureEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.entity.ModelEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
 import edu.kit.kastel.mcse.ardoco.core.api.tracelink.TraceLink;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.execution.Arcotl;
+import edu.kit.kastel.mcse.ardoco.tlr.models.agents.ArchitectureConfiguration;
+import edu.kit.kastel.mcse.ardoco.tlr.models.agents.CodeConfiguration;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.TraceLinkConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 
 /**
  * Service for handling trace links of type SAM_CODE in the ArDoCo API.
@@ -35,4 +46,17 @@ public class ArCoTLService extends AbstractRunnerTLRService {
         String traceLinkJson = TraceLinkConverter.convertListOfSamCodeTraceLinksToJsonString(traceLinks);
         return new ArDoCoApiResult(traceLinkJson);
     }
+
+    @Override
+    protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException {
+        Arcotl runner = new Arcotl(request.projectName());
+
+        ArchitectureConfiguration architectureConfiguration = new ArchitectureConfiguration(request.inputFile(PipelineInput.ARCHITECTURE_MODEL), request
+                .modelFormat());
+        CodeConfiguration codeConfiguration = new CodeConfiguration(request.inputFile(PipelineInput.CODE), CodeConfiguration.CodeConfigurationType.ACM_FILE);
+        ImmutableSortedMap<String, String> additionalConfigs = SortedMaps.immutable.withSortedMap(request.additionalConfigs());
+
+        runner.setUp(architectureConfiguration, codeConfiguration, additionalConfigs, outputDirectory);
+        return runner;
+    }
 }
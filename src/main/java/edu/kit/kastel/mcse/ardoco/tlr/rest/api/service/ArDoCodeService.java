@@ -1,7 +1,12 @@
 /* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
+import org.eclipse.collections.impl.factory.SortedMaps;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -10,9 +15,14 @@ import edu.kit.kastel.mcse.ardoco.core.api.entity.ModelEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
 import edu.kit.kastel.mcse.ardoco.core.api.text.SentenceEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.tracelink.TraceLink;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.execution.Ardocode;
+import edu.kit.kastel.mcse.ardoco.tlr.models.agents.CodeConfiguration;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.TraceLinkConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 
 /**
  * Service for handling trace links of type SAD_CODE in the ArDoCo API.
@@ -35,4 +45,15 @@ public class ArDoCodeService extends AbstractRunnerTLRService {
         String traceLinksJson = TraceLinkConverter.convertListOfSadCodeTraceLinksToJsonString(traceLinks);
         return new ArDoCoApiResult(traceLinksJson);
     }
+
+    @Override
+    protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException {
+        Ardocode runner = new Ardocode(request.projectName());
+
+        CodeConfiguration codeConfiguration = new CodeConfiguration(request.inputFile(PipelineInput.CODE), CodeConfiguration.CodeConfigurationType.ACM_FILE);
+        ImmutableSortedMap<String, String> additionalConfigs = SortedMaps.immutable.withSortedMap(request.additionalConfigs());
+
+        runner.setUp(request.inputFile(PipelineInput.TEXTUAL_DOCUMENTATION), codeConfiguration, additionalConfigs, outputDirectory);
+        return runner;
+    }
 }
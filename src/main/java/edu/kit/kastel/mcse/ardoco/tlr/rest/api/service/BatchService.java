@@ -0,0 +1,452 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.AnalysisGroup;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.Batch;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisBatches;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service for submitting many projects in one call, e.g. for the nightly re-analysis of a catalogue of projects.
+ * <p>
+ * A batch is a ZIP archive whose first entry is a {@value #MANIFEST_FILE_NAME} with the projects, their analyses and the paths of their
+ * input files within the archive (see {@link Manifest}). The archive is read as a stream: every entry is streamed into the
+ * {@link InputBlobStore}, and every project is started as an {@link AnalysisGroup} as soon as its last input file has been stored. The
+ * manifest and every entry may have at most {@code tlr.batch.max-entry-megabytes}, all entries together at most
+ * {@code tlr.batch.max-total-megabytes}. Projects that cannot be started, e.g. because an input file is too large, are recorded with the
+ * reason and do not stop the batch; an archive that breaks off keeps the projects started so far.
+ * <p>
+ * Once the pipeline queue is full, the remaining projects wait in the batch instead of failing. Every
+ * {@code tlr.batch.feed-interval-seconds}, the waiting projects of all batches are started in the order of their manifests until the queue
+ * is full again.
+ * <p>
+ * The stored input files are retained for the batch while the archive is read, and the input files of a waiting project are retained for
+ * the project until it has been started (see {@link InputBlobStore#retain(String, String)}), so that they are not pushed out of the store
+ * in the meantime. As the input files are only stored on the node that has read the archive, only this node feeds the batch; its waiting
+ * projects are started once the node is back after a restart.
+ */
+@Service
+public class BatchService {
+
+    /**
+     * Name of the manifest entry of a batch archive.
+     */
+    public static final String MANIFEST_FILE_NAME = "manifest.json";
+
+    private static final String BATCH_ID_PREFIX = "batch:";
+    private static final String PROJECT_OWNER_SEPARATOR = "/";
+    private static final Duration FEED_LOCK_LEASE = Duration.ofMinutes(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+
+    private final AnalysisGroupService analysisGroupService;
+    private final InputBlobStore blobStore;
+    private final RedisBatches batches;
+    private final int maxProjects;
+    private final long maxEntryMegabytes;
+    private final long maxTotalMegabytes;
+    private final long feedIntervalSeconds;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ardoco-batch-feeder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the service.
+     *
+     * @param analysisGroupService the service that starts the analyses of a project
+     * @param blobStore            the store of the input files
+     * @param batches              the repository of the batches
+     * @param maxProjects          the maximum number of projects of one batch
+     * @param maxEntryMegabytes    the maximum size of the manifest and of every input file of a batch, in megabytes
+     * @param maxTotalMegabytes    the maximum size of all input files of a batch, in megabytes
+     * @param feedIntervalSeconds  the time between two attempts to start the waiting projects, in seconds
+     */
+    @Autowired
+    public BatchService(AnalysisGroupService analysisGroupService, InputBlobStore blobStore, RedisBatches batches, @Value(
+            "${tlr.batch.max-projects}") int maxProjects, @Value("${tlr.batch.max-entry-megabytes}") long maxEntryMegabytes, @Value(
+                    "${tlr.batch.max-total-megabytes}") long maxTotalMegabytes, @Value("${tlr.batch.feed-interval-seconds}") long feedIntervalSeconds) {
+        this.analysisGroupService = analysisGroupService;
+        this.blobStore = blobStore;
+        this.batches = batches;
+        this.maxProjects = maxProjects;
+        this.maxEntryMegabytes = maxEntryMegabytes;
+        this.maxTotalMegabytes = maxTotalMegabytes;
+        this.feedIntervalSeconds = feedIntervalSeconds;
+    }
+
+    /**
+     * Starts feeding the waiting projects of all batches into the pipeline queue.
+     */
+    @PostConstruct
+    public void start() {
+        timer.scheduleWithFixedDelay(this::feedPendingBatches, feedIntervalSeconds, feedIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops feeding the waiting projects; they are fed by another node or after the restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Starts the projects of a batch archive while it is read.
+     *
+     * @param archive         the ZIP archive of the batch
+     * @param tenantOf        determines the tenant a project is scheduled for from its name
+     * @param deadlineSeconds the maximum run time of each pipeline in seconds, or {@code null} to use the configured budgets
+     * @return the batch
+     * @throws IllegalArgumentException if the archive does not start with a valid manifest or has too many projects
+     * @throws FileConversionException  if the manifest cannot be read
+     */
+    public Batch submit(InputStream archive, UnaryOperator<String> tenantOf, Integer deadlineSeconds) throws IllegalArgumentException,
+            FileConversionException {
+        String batchId = BATCH_ID_PREFIX + UUID.randomUUID();
+        List<Manifest.Project> projects;
+        Batch.Item[] items;
+        String unreadReason = null;
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            projects = readManifest(zip).projects();
+            if (projects.size() > maxProjects) {
+                throw new IllegalArgumentException(String.format("A batch may have at most %d projects, but has %d.", maxProjects, projects.size()));
+            }
+            logger.info("Submitting batch {} with {} projects", batchId, projects.size());
+
+            items = new Batch.Item[projects.size()];
+            Map<String, Set<Integer>> projectsByPath = new HashMap<>();
+            List<Map<PipelineInput, String>> receivedInputs = new ArrayList<>();
+            for (int i = 0; i < projects.size(); i++) {
+                Manifest.Project project = projects.get(i);
+                receivedInputs.add(new EnumMap<>(PipelineInput.class));
+                if (project.projectName() == null || project.projectName().isBlank() || project.inputs() == null || project.inputs().isEmpty()) {
+                    items[i] = failed(project, "The project needs a name and input files.");
+                    continue;
+                }
+                for (String path : project.inputs().values()) {
+                    projectsByPath.computeIfAbsent(path, key -> new LinkedHashSet<>()).add(i);
+                }
+            }
+
+            try {
+                unreadReason = readInputs(batchId, zip, projects, projectsByPath, receivedInputs, items, tenantOf, deadlineSeconds);
+            } catch (IOException e) {
+                unreadReason = "The archive could not be read to its end: " + e.getMessage();
+            }
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while reading the batch archive: " + e.getMessage(), e);
+        } finally {
+            // the waiting projects keep their own input files
+            blobStore.release(batchId);
+        }
+
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) {
+                Manifest.Project project = projects.get(i);
+                items[i] = failed(project, unreadReason != null ?
+                        unreadReason :
+                        "The archive does not contain all input files of the project: " + project.inputs().values());
+            }
+        }
+        Batch batch = new Batch(batchId, List.of(items));
+        batches.save(batch);
+        if (batch.items().stream().anyMatch(item -> item.pending() != null)) {
+            logger.info("Batch {} has projects that wait for a free place in the pipeline queue", batchId);
+            batches.addPending(batchId);
+        }
+        return batch;
+    }
+
+    /**
+     * Returns a batch.
+     *
+     * @param batchId the unique identifier of the batch
+     * @return the batch
+     * @throws IllegalArgumentException if the batch does not exist
+     * @throws ArdocoException          if the batch cannot be read
+     */
+    public Batch getBatch(String batchId) throws IllegalArgumentException, ArdocoException {
+        return batches.get(batchId).orElseThrow(() -> new IllegalArgumentException(String.format("No batch with key %s found.", batchId)));
+    }
+
+    /**
+     * Starts the waiting projects of all batches, see {@link #feed(String)}.
+     */
+    void feedPendingBatches() {
+        try {
+            for (String batchId : batches.getPendingIds()) {
+                if (!feed(batchId)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not start the waiting projects of the batches: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the waiting projects of a batch in the order of its manifest until the pipeline queue is full. Nothing happens while another
+     * node feeds the batch, or if the input files of the batch are not stored on this node.
+     *
+     * @param batchId the unique identifier of the batch
+     * @return false if the pipeline queue is full, true otherwise
+     */
+    boolean feed(String batchId) {
+        Set<String> owners = blobStore.getOwners();
+        if (owners.stream().noneMatch(owner -> owner.startsWith(batchId + PROJECT_OWNER_SEPARATOR))) {
+            // fed by the node that has read the archive
+            return true;
+        }
+        if (!batches.tryLockFeeding(batchId, FEED_LOCK_LEASE)) {
+            return true;
+        }
+        try {
+            Optional<Batch> batch = batches.get(batchId);
+            if (batch.isEmpty()) {
+                logger.info("Batch {} has expired before all its projects have been started", batchId);
+                owners.stream().filter(owner -> owner.startsWith(batchId + PROJECT_OWNER_SEPARATOR)).forEach(blobStore::release);
+                batches.removePending(batchId);
+                return true;
+            }
+            List<Batch.Item> items = new ArrayList<>(batch.get().items());
+            boolean queueIsFull = false;
+            boolean changed = false;
+            for (int i = 0; i < items.size() && !queueIsFull; i++) {
+                Batch.Item item = items.get(i);
+                if (item.pending() != null && owners.contains(projectOwner(batchId, i))) {
+                    Batch.Item started = start(item.projectName(), item.pending());
+                    queueIsFull = started.pending() != null;
+                    if (!queueIsFull) {
+                        blobStore.release(projectOwner(batchId, i));
+                        changed = true;
+                    }
+                    items.set(i, started);
+                }
+            }
+            if (changed) {
+                batches.save(new Batch(batchId, List.copyOf(items)));
+            }
+            if (items.stream().noneMatch(item -> item.pending() != null)) {
+                logger.info("All projects of batch {} have been started", batchId);
+                batches.removePending(batchId);
+            }
+            return !queueIsFull;
+        } finally {
+            batches.unlockFeeding(batchId);
+        }
+    }
+
+    /**
+     * Streams the input files of the archive into the store and starts every project once all its input files have been stored.
+     *
+     * @return the reason why the rest of the archive has not been read, or {@code null} if it has been read to its end
+     * @throws IOException if the archive breaks off
+     */
+    private String readInputs(String batchId, ZipInputStream zip, List<Manifest.Project> projects, Map<String, Set<Integer>> projectsByPath,
+            List<Map<PipelineInput, String>> receivedInputs, Batch.Item[] items, UnaryOperator<String> tenantOf, Integer deadlineSeconds)
+            throws IOException {
+        long maxEntryBytes = maxEntryMegabytes * 1024 * 1024;
+        long remainingBytes = maxTotalMegabytes * 1024 * 1024;
+        boolean queueIsFull = false;
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            Set<Integer> waitingProjects = entry.isDirectory() ? null : projectsByPath.remove(entry.getName());
+            if (waitingProjects == null) {
+                continue;
+            }
+            if (remainingBytes <= 0) {
+                return String.format("The archive exceeds the maximum size of %d megabytes.", maxTotalMegabytes);
+            }
+            String digest;
+            try {
+                InputBlobStore.Blob blob = blobStore.store(zip, entry.getName(), Math.min(maxEntryBytes, remainingBytes));
+                remainingBytes -= blob.size();
+                digest = blob.digest();
+                if (!blobStore.retain(digest, batchId)) {
+                    // pushed out of the store by other uploads before it could be retained
+                    for (int i : waitingProjects) {
+                        items[i] = failed(projects.get(i), "The input file " + entry.getName() + " could not be kept in the input store.");
+                    }
+                    continue;
+                }
+            } catch (FileConversionException e) {
+                // the archive has broken off within the entry
+                return "The archive could not be read to its end: " + e.getMessage();
+            } catch (IllegalArgumentException e) {
+                if (remainingBytes < maxEntryBytes) {
+                    return String.format("The archive exceeds the maximum size of %d megabytes.", maxTotalMegabytes);
+                }
+                // the rest of the entry is skipped with the next entry
+                for (int i : waitingProjects) {
+                    items[i] = failed(projects.get(i), String.format("The input file %s exceeds the maximum size of %d megabytes.", entry.getName(),
+                            maxEntryMegabytes));
+                }
+                continue;
+            }
+
+            for (int i : waitingProjects) {
+                Manifest.Project project = projects.get(i);
+                Map<PipelineInput, String> inputs = receivedInputs.get(i);
+                String path = entry.getName();
+                project.inputs().forEach((kind, inputPath) -> {
+                    if (inputPath.equals(path)) {
+                        inputs.put(kind, digest);
+                    }
+                });
+                if (items[i] == null && inputs.size() == project.inputs().size()) {
+                    Batch.Item item = pendingItem(project, inputs, tenantOf.apply(project.projectName()), deadlineSeconds);
+                    // projects keep the order of the manifest once the queue is full
+                    items[i] = queueIsFull ? item : start(project.projectName(), item.pending());
+                    queueIsFull = items[i].pending() != null;
+                    if (items[i].pending() != null) {
+                        items[i] = retainInputs(projectOwner(batchId, i), items[i]);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts the analyses of a project.
+     *
+     * @param projectName the name of the project
+     * @param pending     what is needed to start the project
+     * @return the started or failed project, or the project itself if it has to wait because the pipeline queue is full
+     */
+    private Batch.Item start(String projectName, Batch.Pending pending) {
+        try {
+            Set<Analysis> analyses = pending.analyses().isEmpty() ? EnumSet.noneOf(Analysis.class) : EnumSet.copyOf(pending.analyses());
+            AnalysisGroup group = analysisGroupService.start(analyses, projectName, pending.digests(), pending.modelFormat(), new TreeMap<>(pending
+                    .additionalConfigs()), pending.deadlineSeconds(), pending.tenant());
+            return new Batch.Item(projectName, group.groupId(), null, null);
+        } catch (TooManyRequestsException e) {
+            logger.debug("The project {} of a batch waits for a free place in the pipeline queue", projectName);
+            return new Batch.Item(projectName, null, null, pending);
+        } catch (RuntimeException e) {
+            // a project that cannot be started does not stop the others
+            logger.warn("Could not start the project {} of a batch: {}", projectName, e.getMessage());
+            return new Batch.Item(projectName, null, e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Retains the input files of a waiting project until it has been started.
+     *
+     * @return the waiting project, or the failed project if its input files are no longer stored
+     */
+    private Batch.Item retainInputs(String owner, Batch.Item item) {
+        boolean retained;
+        try {
+            retained = item.pending().digests().values().stream().allMatch(digest -> blobStore.retain(digest, owner));
+        } catch (FileConversionException e) {
+            retained = false;
+        }
+        if (!retained) {
+            blobStore.release(owner);
+            return new Batch.Item(item.projectName(), null, "An input file of the project could not be kept in the input store.", null);
+        }
+        return item;
+    }
+
+    private static String projectOwner(String batchId, int index) {
+        return batchId + PROJECT_OWNER_SEPARATOR + index;
+    }
+
+    private static Batch.Item pendingItem(Manifest.Project project, Map<PipelineInput, String> digests, String tenant, Integer deadlineSeconds) {
+        List<Analysis> analyses = project.analyses() == null ? List.of() : List.copyOf(project.analyses());
+        TreeMap<String, String> additionalConfigs = project.additionalConfigs() == null ? new TreeMap<>() : new TreeMap<>(project.additionalConfigs());
+        return new Batch.Item(project.projectName(), null, null, new Batch.Pending(analyses, Map.copyOf(digests), project.modelFormat(),
+                additionalConfigs, deadlineSeconds, tenant));
+    }
+
+    private static Batch.Item failed(Manifest.Project project, String error) {
+        return new Batch.Item(project.projectName(), null, error, null);
+    }
+
+    private Manifest readManifest(ZipInputStream zip) throws IOException {
+        ZipEntry entry = zip.getNextEntry();
+        while (entry != null && entry.isDirectory()) {
+            entry = zip.getNextEntry();
+        }
+        if (entry == null || !MANIFEST_FILE_NAME.equals(entry.getName())) {
+            throw new IllegalArgumentException("The first file of a batch archive must be " + MANIFEST_FILE_NAME + ".");
+        }
+        long maxEntryBytes = maxEntryMegabytes * 1024 * 1024;
+        byte[] content = zip.readNBytes((int) Math.min(maxEntryBytes + 1, Integer.MAX_VALUE - 8));
+        if (content.length > maxEntryBytes) {
+            throw new IllegalArgumentException(String.format("%s exceeds the maximum size of %d megabytes.", MANIFEST_FILE_NAME, maxEntryMegabytes));
+        }
+        Manifest manifest;
+        try {
+            manifest = mapper.readValue(content, Manifest.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON format in " + MANIFEST_FILE_NAME + ": " + e.getMessage(), e);
+        }
+        if (manifest.projects() == null) {
+            throw new IllegalArgumentException(MANIFEST_FILE_NAME + " must list the projects of the batch.");
+        }
+        return manifest;
+    }
+
+    /**
+     * The manifest of a batch archive.
+     *
+     * @param projects the projects of the batch
+     */
+    public record Manifest(List<Project> projects) {
+
+        /**
+         * A project of a batch.
+         *
+         * @param projectName       the name of the project
+         * @param analyses          the analyses to run on the project
+         * @param inputs            the paths of the input files within the archive
+         * @param modelFormat       the format of the architecture model, or {@code null} if no analysis needs an architecture model
+         * @param additionalConfigs additional ArDoCo configuration, may be {@code null}
+         */
+        public record Project(String projectName, List<Analysis> analyses, Map<PipelineInput, String> inputs, ModelFormat modelFormat,
+                              Map<String, String> additionalConfigs) {
+        }
+    }
+}
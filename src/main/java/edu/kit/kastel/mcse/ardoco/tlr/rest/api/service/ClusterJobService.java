@@ -0,0 +1,346 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobQueue;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisRunLock;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service that keeps pipeline runs single-flight across all nodes that share one Redis.
+ * <p>
+ * Before a node runs a pipeline, it claims the request id with the {@link RedisRunLock} and renews the claim with a heartbeat while the
+ * run is in flight; the claim also publishes the state of the run. A node that finds the request claimed by another node does not run
+ * the pipeline itself but follows the run of the other node with a local job, which mirrors the published state and is completed once
+ * the result shows up in the database. If the claim expires because the owning node has died, a following node that still holds the
+ * inputs takes the run over. A run is cancelled on every node: a node that cancels its local job asks the owner of the claim to cancel the
+ * run as well.
+ * <p>
+ * Claims are only needed if several nodes may work on the same runs: with replicas that share one Redis ({@code tlr.cluster.enabled}),
+ * with distributed execution ({@code tlr.distributed.enabled}) or with the journal of runs ({@code tlr.journal.enabled}). Without any of
+ * them, the service is not created and single-node runs do not touch Redis before they start.
+ */
+@Service
+@ConditionalOnExpression("${tlr.cluster.enabled:false} or ${tlr.distributed.enabled:false} or ${tlr.journal.enabled:false}")
+public class ClusterJobService extends AbstractService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobService.class);
+
+    @Autowired
+    private RedisRunLock runLock;
+
+    @Autowired
+    private Optional<RedisJobQueue> jobQueue;
+
+    @Autowired
+    private CurrentlyRunningRequestsRepository currentlyRunningRequestsRepository;
+
+    @Value("${tlr.cluster.poll-interval-millis}")
+    private long pollIntervalMillis;
+
+    private final Map<String, PipelineJob> claimedJobs = new ConcurrentHashMap<>();
+    private final Map<PipelineJob, Follower> followers = new ConcurrentHashMap<>();
+    private volatile Consumer<PipelineJob> cancelListener = job -> {
+    };
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ardoco-cluster-jobs");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new {@code ClusterJobService}.
+     */
+    public ClusterJobService() {
+        // Default constructor
+    }
+
+    /**
+     * Starts the heartbeat of the claims of this node and following the runs of other nodes.
+     */
+    @PostConstruct
+    public void start() {
+        long heartbeatMillis = Math.max(1, runLock.getLease().toMillis() / 3);
+        timer.scheduleWithFixedDelay(this::renewClaims, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        timer.scheduleWithFixedDelay(this::pollFollowers, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        timer.scheduleWithFixedDelay(this::pollCancelRequests, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the action that cancels a job of this node whose cancellation has been requested by another node, see
+     * {@link #requestCancel(String)}.
+     *
+     * @param cancelListener cancels the given job on this node
+     */
+    public void setCancelListener(Consumer<PipelineJob> cancelListener) {
+        this.cancelListener = cancelListener;
+    }
+
+    /**
+     * Stops the heartbeat and following. Claims of runs still in flight expire after their lease.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Claims the request of a job for this node. While the claim is held, every state change of the job is published; once the job has
+     * finished, its final state is recorded and the request can be claimed again.
+     *
+     * @param job the job that is about to be run on this node
+     * @return true if this node may run the job, false if another node is already running it
+     */
+    public boolean tryClaim(PipelineJob job) {
+        String id = job.getId();
+        if (!runLock.tryAcquire(id, job.getState())) {
+            return false;
+        }
+        if (jobQueue.flatMap(queue -> queue.getState(id)).filter(state -> state == JobState.CANCELLED).isPresent()) {
+            // cancelled after the worker has read the run from the queue, but before it has claimed the run
+            runLock.requestCancel(id);
+        }
+        followers.remove(job);
+        claimedJobs.put(id, job);
+        Consumer<JobState> statePublisher = state -> publishState(id, state);
+        job.addStateListener(statePublisher);
+        job.getFuture().whenComplete((result, error) -> {
+            job.removeStateListener(statePublisher);
+            if (claimedJobs.remove(id, job)) {
+                runLock.finish(id, finalState(error));
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Gives up the claim of a job that will not be run on this node after all, e.g. because the pipeline queue is full, so that another
+     * node can take the request over. The job itself is not changed.
+     *
+     * @param job the job whose claim to give up
+     */
+    public void release(PipelineJob job) {
+        if (claimedJobs.remove(job.getId(), job)) {
+            runLock.release(job.getId());
+        }
+    }
+
+    /**
+     * Asks the node that executes a run to cancel it, or drops the run from the queue of the cluster if no worker has started it yet. The
+     * node that holds the claim cancels the run within {@code tlr.cluster.poll-interval-millis}. Failures are logged, the run then goes on.
+     *
+     * @param id the unique identifier of the request
+     */
+    public void requestCancel(String id) {
+        try {
+            // the queue first, so that a worker that starts the run right now finds the cancellation in the queue or in its claim
+            jobQueue.ifPresent(queue -> queue.cancel(id));
+            runLock.requestCancel(id);
+        } catch (RuntimeException e) {
+            logger.warn("Could not request the cancellation of the pipeline for ID {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Lets a local job follow a run that another node executes.
+     *
+     * @param job      the local job
+     * @param takeOver tries to run the job on this node once the run of the other node has been abandoned, and returns whether it did;
+     *                 {@code null} if this node cannot run the job
+     */
+    public void follow(PipelineJob job, BooleanSupplier takeOver) {
+        followers.put(job, new Follower(takeOver));
+    }
+
+    /**
+     * Returns the local job of a run, registering a follower if the run is in flight on another node.
+     *
+     * @param id the unique identifier of the request
+     * @return the job if the run is queued or running on any node, otherwise empty
+     */
+    public Optional<PipelineJob> followRemoteJob(String id) {
+        Optional<PipelineJob> localJob = currentlyRunningRequestsRepository.getRequest(id);
+        if (localJob.isPresent()) {
+            return localJob;
+        }
+        Optional<JobState> state = getRemoteState(id);
+        if (state.isEmpty() || state.get().isFinal()) {
+            return Optional.empty();
+        }
+
+        PipelineJob newJob = new PipelineJob(id, TraceLinkType.fromId(id));
+        PipelineJob job = currentlyRunningRequestsRepository.computeIfAbsent(id, key -> newJob);
+        if (job == newJob) {
+            logger.debug("Following TLR for {} that runs on another node", id);
+            job.setState(state.get());
+            follow(job, null);
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Determines the final state of a job from the outcome of its future.
+     *
+     * @param error the exception the future has been completed with, or {@code null} if the job succeeded
+     * @return the final state of the job
+     */
+    static JobState finalState(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            return JobState.DONE;
+        }
+        return cause instanceof JobCancelledException ? JobState.CANCELLED : JobState.ERROR;
+    }
+
+    private Optional<JobState> getRemoteState(String id) {
+        Optional<JobState> state = runLock.getState(id);
+        if (state.isEmpty() && jobQueue.isPresent()) {
+            // published, but not claimed by any worker yet
+            state = jobQueue.get().getState(id).filter(queuedState -> !queuedState.isFinal());
+        }
+        return state;
+    }
+
+    private void publishState(String id, JobState state) {
+        if (state.isFinal()) {
+            // recorded once the future has completed
+            return;
+        }
+        try {
+            runLock.setState(id, state);
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish the state {} of the pipeline for ID {}: {}", state, id, e.getMessage());
+        }
+    }
+
+    private void renewClaims() {
+        for (String id : claimedJobs.keySet()) {
+            try {
+                if (!runLock.renew(id)) {
+                    logger.warn("The claim on the pipeline for ID {} has expired, another node might run it as well", id);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not renew the claim on the pipeline for ID {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void pollCancelRequests() {
+        for (var entry : claimedJobs.entrySet()) {
+            try {
+                if (!entry.getValue().getFuture().isDone() && runLock.isCancelRequested(entry.getKey())) {
+                    logger.info("Another node has requested the cancellation of the pipeline for ID {}", entry.getKey());
+                    cancelListener.accept(entry.getValue());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not check the pipeline for ID {} for cancellation: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void pollFollowers() {
+        for (var entry : followers.entrySet()) {
+            try {
+                poll(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                logger.warn("Could not update the pipeline for ID {}: {}", entry.getKey().getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void poll(PipelineJob job, Follower follower) {
+        String id = job.getId();
+        if (job.getFuture().isDone()) {
+            stopFollowing(job);
+            return;
+        }
+        if (resultIsInDatabase(id)) {
+            complete(job);
+            return;
+        }
+        Optional<JobState> state = getRemoteState(id);
+        if (state.isPresent() && !state.get().isFinal()) {
+            follower.missingSince = 0;
+            job.setState(state.get());
+            return;
+        }
+        // the result might have been saved right before the run has been finished
+        if (resultIsInDatabase(id)) {
+            complete(job);
+        } else if (state.isPresent() && state.get() == JobState.CANCELLED) {
+            job.cancel();
+            stopFollowing(job);
+            job.getFuture().completeExceptionally(new JobCancelledException(String.format("The pipeline for ID %s has been cancelled.", id)));
+        } else if (state.isPresent()) {
+            fail(job, String.format("The pipeline for ID %s has ended without a result.", id));
+        } else if (follower.takeOver != null) {
+            // a successful take over claims the job, which ends following
+            if (!follower.takeOver.getAsBoolean()) {
+                followers.putIfAbsent(job, follower);
+            }
+        } else if (follower.missingSince == 0) {
+            follower.missingSince = System.currentTimeMillis();
+        } else if (System.currentTimeMillis() - follower.missingSince > runLock.getLease().toMillis()) {
+            // nobody has taken the run over within a lease
+            fail(job, String.format("The pipeline for ID %s has been lost.", id));
+        }
+    }
+
+    private void complete(PipelineJob job) {
+        stopFollowing(job);
+        try {
+            ArDoCoApiResult result = getResultFromDatabase(job.getId());
+            job.setState(JobState.DONE);
+            job.getFuture().complete(result);
+        } catch (ArdocoException e) {
+            job.setState(JobState.ERROR);
+            job.getFuture().completeExceptionally(e);
+        }
+    }
+
+    private void fail(PipelineJob job, String message) {
+        job.setState(JobState.ERROR);
+        stopFollowing(job);
+        job.getFuture().completeExceptionally(new ArdocoException(message));
+    }
+
+    private void stopFollowing(PipelineJob job) {
+        followers.remove(job);
+        currentlyRunningRequestsRepository.removeRequest(job);
+        FileConverter.deleteConvertedFiles(job.getInputFiles());
+    }
+
+    private static final class Follower {
+        private final BooleanSupplier takeOver;
+        private long missingSince;
+
+        private Follower(BooleanSupplier takeOver) {
+            this.takeOver = takeOver;
+        }
+    }
+}
@@ -1,13 +1,17 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -19,17 +23,23 @@ import org.springframework.stereotype.Service;
 import edu.kit.kastel.mcse.ardoco.core.configuration.AbstractConfigurable;
 import edu.kit.kastel.mcse.ardoco.core.configuration.Configurable;
 import edu.kit.kastel.mcse.ardoco.core.configuration.ConfigurationInstantiatorUtils;
+import jakarta.annotation.PostConstruct;
 
 /**
- * Service for providing the default configuration of all configurable classes in the ArDoCo project.
+ * Service for providing the default configuration of all configurable classes in the ArDoCo project, and for bringing the additional
+ * configuration of requests into a canonical form based on it.
  */
 @Service("configurationProviderService")
 public class ConfigurationProviderService {
 
     private static final String ARDOCO = "edu.kit.kastel.mcse.ardoco";
+    private static final String TEXT_PREPROCESSING_PACKAGE = "edu.kit.kastel.mcse.ardoco.tlr.text.";
 
     private static final Logger logger = LoggerFactory.getLogger(ResultService.class);
 
+    private Map<String, String> defaultConfiguration;
+    private Set<String> preprocessingConfigurationKeys;
+
     /**
      * Constructs a new {@code ConfigurationProviderService}.
      */
@@ -38,37 +48,141 @@ public class ConfigurationProviderService {
     }
 
     /**
-     * Retrieves the default configuration for all configurable classes in the ArDoCo project.
+     * Determines the default configuration and the configuration keys of the text preprocessing once at startup. The node does not start
+     * if they cannot be determined, as it would otherwise compute other request ids and cache keys than the other nodes.
+     *
+     * @throws IllegalStateException if the configurable classes of ArDoCo cannot be instantiated or read
+     */
+    @PostConstruct
+    public void determineDefaultConfiguration() throws IllegalStateException {
+        try {
+            Map<String, String> configs = new TreeMap<>();
+            Set<String> preprocessingKeys = new HashSet<>();
+            for (var clazz : getClassesThatMayBeConfigured()) {
+                List<String> keys = processConfigurationOfClass(configs, clazz);
+                if (clazz.getPackageName().startsWith(TEXT_PREPROCESSING_PACKAGE)) {
+                    preprocessingKeys.addAll(keys);
+                }
+            }
+            defaultConfiguration = Map.copyOf(configs);
+            preprocessingConfigurationKeys = Set.copyOf(preprocessingKeys);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Could not determine the default configuration of ArDoCo: " + e.getMessage(), e);
+        }
+        logger.info("Determined the default values of {} configuration keys", defaultConfiguration.size());
+    }
+
+    /**
+     * Retrieves the default configuration for all configurable classes in the ArDoCo project, as determined at startup.
+     *
+     * @return a map containing the configuration keys and their default values, sorted by key
+     */
+    public Map<String, String> getDefaultConfiguration() {
+        return new TreeMap<>(defaultConfiguration);
+    }
+
+    /**
+     * Returns the entries of a canonical configuration that configure the text preprocessing of ArDoCo, e.g. to key preprocessed texts
+     * by the configuration that has produced them.
+     *
+     * @param canonicalConfigs the canonical additional configuration of a request, see {@link #canonicalize(Map)}
+     * @return the entries whose keys belong to the configurable classes of the text preprocessing, sorted by key
+     */
+    public SortedMap<String, String> preprocessingConfiguration(SortedMap<String, String> canonicalConfigs) {
+        SortedMap<String, String> preprocessingConfigs = new TreeMap<>();
+        canonicalConfigs.forEach((key, value) -> {
+            if (preprocessingConfigurationKeys.contains(key)) {
+                preprocessingConfigs.put(key, value);
+            }
+        });
+        return preprocessingConfigs;
+    }
+
+    /**
+     * Brings the additional configuration of a request into a canonical form, so that equivalent configurations share results and cached
+     * data: entries without a value or with the default value of ArDoCo are removed, and numbers and booleans are written in one form (e.g. {@code 0.50}
+     * as {@code 0.5}) as long as ArDoCo reads them as the type of their default value. The remaining entries are sorted by key.
      *
-     * @return a map containing the configuration keys and their default values
-     * @throws InvocationTargetException if an error occurs during instantiation
-     * @throws InstantiationException    if an error occurs during instantiation
-     * @throws IllegalAccessException    if an error occurs during access to fields
+     * @param additionalConfigs the additional configuration of a request
+     * @return the canonical configuration, which configures ArDoCo like the given one
      */
-    public Map<String, String> getDefaultConfiguration() throws InvocationTargetException, InstantiationException, IllegalAccessException {
-        Map<String, String> configs = new TreeMap<>();
+    public SortedMap<String, String> canonicalize(Map<String, String> additionalConfigs) {
+        SortedMap<String, String> canonical = new TreeMap<>();
+        additionalConfigs.forEach((key, value) -> {
+            if (value == null) {
+                return;
+            }
+            String defaultValue = defaultConfiguration.get(key);
+            String canonicalValue = canonicalValue(defaultValue, value);
+            if (!canonicalValue.equals(canonicalValue(defaultValue, defaultValue))) {
+                canonical.put(key, canonicalValue);
+            }
+        });
+        return canonical;
+    }
+
+    private static List<Class<? extends AbstractConfigurable>> getClassesThatMayBeConfigured() {
         var reflectAccess = new Reflections(ARDOCO);
-        var classesThatMayBeConfigured = reflectAccess.getSubTypesOf(AbstractConfigurable.class)
+        return reflectAccess.getSubTypesOf(AbstractConfigurable.class)
                 .stream()
                 .filter(c -> c.getPackageName().startsWith(ARDOCO))
                 .filter(c -> !Modifier.isAbstract(c.getModifiers()))
                 .filter(c -> !c.getPackageName().contains("tests"))
                 .toList();
-        for (var clazz : classesThatMayBeConfigured) {
-            processConfigurationOfClass(configs, clazz);
+    }
+
+    /**
+     * Writes a value in the canonical form of the type of its default value, but only if ArDoCo reads it as a value of that type: booleans
+     * are {@code true} or {@code false} in any case, integers parse with {@link Integer#parseInt(String)} and decimals with
+     * {@link Double#parseDouble(String)}. Other values, e.g. {@code 1.0} for an integer, are kept as they are, so that they never share
+     * results with a value that ArDoCo reads differently. Values of unknown keys and other types are kept as well.
+     */
+    private static String canonicalValue(String defaultValue, String value) {
+        if (defaultValue == null) {
+            return value;
+        }
+        if (isBoolean(defaultValue)) {
+            return isBoolean(value) ? value.toLowerCase(Locale.ROOT) : value;
+        }
+        if (parsesAsInteger(defaultValue)) {
+            return parsesAsInteger(value) ? Integer.toString(Integer.parseInt(value)) : value;
+        }
+        try {
+            Double.parseDouble(defaultValue);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+        try {
+            return BigDecimal.valueOf(Double.parseDouble(value)).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            // not a number, or not a finite one
+            return value;
+        }
+    }
+
+    private static boolean isBoolean(String value) {
+        return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+    }
+
+    private static boolean parsesAsInteger(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
         }
-        return configs;
     }
 
-    private void processConfigurationOfClass(Map<String, String> configs, Class<? extends AbstractConfigurable> clazz) throws InvocationTargetException,
-            InstantiationException, IllegalAccessException {
+    private List<String> processConfigurationOfClass(Map<String, String> configs, Class<? extends AbstractConfigurable> clazz)
+            throws InvocationTargetException, InstantiationException, IllegalAccessException {
         var object = ConfigurationInstantiatorUtils.createObject(clazz);
         List<Field> fields = new ArrayList<>();
         findImportantFields(object.getClass(), fields);
-        fillConfigs(object, fields, configs);
+        return fillConfigs(object, fields, configs);
     }
 
-    private void fillConfigs(AbstractConfigurable object, List<Field> fields, Map<String, String> configs) throws IllegalAccessException {
+    private List<String> fillConfigs(AbstractConfigurable object, List<Field> fields, Map<String, String> configs) throws IllegalAccessException {
+        List<String> keys = new ArrayList<>();
         for (Field f : fields) {
             f.setAccessible(true);
             var key = AbstractConfigurable.getKeyOfField(object, f.getDeclaringClass(), f);
@@ -78,7 +192,9 @@ public class ConfigurationProviderService {
                 logger.warn("Found duplicate entry in map: " + key);
             }
             configs.put(key, value);
+            keys.add(key);
         }
+        return keys;
     }
 
     private String getValue(Object rawValue) {
@@ -0,0 +1,75 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DistributedJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobQueue;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+/**
+ * Service for pipeline runs that are executed by any node of a cluster, enabled by {@code tlr.distributed.enabled}.
+ * <p>
+ * Runs are published to the {@link RedisJobQueue} instead of the local
+ * {@link edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler}. The node that received a request follows the run with
+ * its local job, see {@link ClusterJobService}, so waiting, status and event requests behave the same on every node. The run refers to
+ * its input files by their digests; the queue hands the files to the worker that executes the run.
+ */
+@Service
+@ConditionalOnProperty(name = "tlr.distributed.enabled", havingValue = "true")
+public class DistributedJobService {
+
+    private static final String INPUT_OWNER_PREFIX = "tlr:queue:";
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedJobService.class);
+
+    @Autowired
+    private RedisJobQueue jobQueue;
+
+    @Autowired
+    private ClusterJobService clusterJobService;
+
+    @Autowired
+    private InputBlobStore blobStore;
+
+    /**
+     * Constructs a new {@code DistributedJobService}.
+     */
+    public DistributedJobService() {
+        // Default constructor
+    }
+
+    /**
+     * Publishes a run, and lets the given job follow it. The input files of the run are kept in the {@link InputBlobStore} until the job
+     * has finished.
+     *
+     * @param request     the request of the run
+     * @param serviceName the bean name of the service that executes the run
+     * @param job         the local job that follows the run
+     * @throws FileConversionException  if an input file cannot be stored
+     * @throws IllegalArgumentException if an input file is larger than the input store
+     * @throws ArdocoException          if the run cannot be published
+     */
+    public void publish(PipelineRequest request, String serviceName, PipelineJob job) throws FileConversionException, IllegalArgumentException,
+            ArdocoException {
+        String owner = INPUT_OWNER_PREFIX + request.id();
+        DistributedJob distributedJob = DistributedJob.fromRequest(request, serviceName, blobStore, owner);
+        try {
+            jobQueue.publish(distributedJob);
+        } catch (RuntimeException e) {
+            blobStore.release(owner);
+            throw e;
+        }
+        job.getFuture().whenComplete((result, error) -> blobStore.release(owner));
+        logger.debug("Published the pipeline for ID {} to the cluster", request.id());
+        clusterJobService.follow(job, null);
+    }
+}
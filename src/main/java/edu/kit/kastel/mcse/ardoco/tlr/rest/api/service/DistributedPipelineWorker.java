@@ -0,0 +1,205 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.stereotype.Component;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DistributedJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobQueue;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobQueue.ClaimedJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Executes pipeline runs from the {@link RedisJobQueue} of the cluster on this node, enabled by {@code tlr.distributed.enabled}.
+ * <p>
+ * The worker claims at most {@code tlr.distributed.worker.concurrency} runs at a time and hands them to the service that has published
+ * them, which runs them on the local {@link edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler}. Input files that are
+ * not in the {@link InputBlobStore} of this node yet are fetched from the queue first. While a run is in
+ * flight, the worker records its state in Redis and renews its claim; a run is acknowledged once it has finished. If this node dies, its
+ * claims expire after {@code tlr.cluster.lease-seconds} and another worker executes the runs again.
+ * <p>
+ * Claims are renewed on a thread of their own rather than by the poller: fetching the inputs of a run happens on the poller and may take
+ * longer than the lease, which would otherwise let other workers take over all runs of this node in the meantime.
+ */
+@Component
+@ConditionalOnProperty(name = "tlr.distributed.enabled", havingValue = "true")
+public class DistributedPipelineWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedPipelineWorker.class);
+
+    private final RedisJobQueue jobQueue;
+    private final InputBlobStore blobStore;
+    private final Map<String, AbstractRunnerTLRService> services;
+    private final int concurrency;
+    private final Duration lease;
+    private final long pollIntervalMillis;
+    private final String consumerName = ManagementFactory.getRuntimeMXBean().getName();
+    private final Map<String, RecordId> claimedRuns = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ardoco-pipeline-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ardoco-pipeline-worker-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the worker.
+     *
+     * @param jobQueue           the queue of the cluster
+     * @param blobStore          the store of the input files of the runs
+     * @param services           the services that execute the runs, by bean name
+     * @param concurrency        the maximum number of runs claimed at a time
+     * @param leaseSeconds       the time after which unrenewed claims of other workers are taken over, in seconds
+     * @param pollIntervalMillis the time between two polls of the queue, in milliseconds
+     */
+    @Autowired
+    public DistributedPipelineWorker(RedisJobQueue jobQueue, InputBlobStore blobStore, Map<String, AbstractRunnerTLRService> services,
+            @Value("${tlr.distributed.worker.concurrency}") int concurrency, @Value("${tlr.cluster.lease-seconds}") long leaseSeconds,
+            @Value("${tlr.cluster.poll-interval-millis}") long pollIntervalMillis) {
+        this.jobQueue = jobQueue;
+        this.blobStore = blobStore;
+        this.services = Map.copyOf(services);
+        this.concurrency = concurrency;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * Joins the consumer group, starts polling the queue and renewing the claims of this node.
+     */
+    @PostConstruct
+    public void start() {
+        jobQueue.createConsumerGroup();
+        logger.info("Executing up to {} pipeline runs of the cluster as {}", concurrency, consumerName);
+        poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        leaseRenewer.scheduleWithFixedDelay(this::renewClaims, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling the queue. Runs that are still in flight are claimed by another worker once their lease has expired.
+     */
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        leaseRenewer.shutdownNow();
+    }
+
+    private void renewClaims() {
+        try {
+            jobQueue.renewClaims(consumerName, List.copyOf(claimedRuns.values()));
+        } catch (RuntimeException e) {
+            logger.warn("Could not renew the claims on the pipeline queue: {}", e.getMessage());
+        }
+    }
+
+    private void poll() {
+        try {
+            int freeSlots = concurrency - claimedRuns.size();
+            if (freeSlots <= 0) {
+                return;
+            }
+            List<ClaimedJob> claimed = new ArrayList<>(jobQueue.claimAbandoned(consumerName, lease, freeSlots));
+            if (claimed.size() < freeSlots) {
+                claimed.addAll(jobQueue.claimNew(consumerName, freeSlots - claimed.size()));
+            }
+            claimed.forEach(this::execute);
+        } catch (RuntimeException e) {
+            logger.warn("Could not poll the pipeline queue: {}", e.getMessage());
+        }
+    }
+
+    private void execute(ClaimedJob claimed) {
+        String id = claimed.jobId();
+        if (claimedRuns.putIfAbsent(id, claimed.recordId()) != null) {
+            // another entry of the same request is already executed here, this one is claimed again after the lease
+            return;
+        }
+
+        Optional<DistributedJob> job = jobQueue.getJob(id);
+        AbstractRunnerTLRService service = job.map(published -> services.get(published.serviceName())).orElse(null);
+        if (service == null || service.resultIsInDatabase(id)) {
+            logger.info("Skipping the pipeline for ID {}, it has already finished or is not known", id);
+            release(claimed);
+            return;
+        }
+
+        Optional<PipelineJob> executedJob;
+        try {
+            logger.info("Claimed the pipeline for ID {}", id);
+            jobQueue.fetchInputs(job.get());
+            executedJob = service.execute(job.get().toRequest(blobStore));
+        } catch (TooManyRequestsException e) {
+            logger.info("Cannot execute the pipeline for ID {} right now, leaving it to other workers: {}", id, e.getMessage());
+            claimedRuns.remove(id, claimed.recordId());
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Could not execute the pipeline for ID {}", id, e);
+            jobQueue.finish(id, JobState.ERROR);
+            release(claimed);
+            return;
+        }
+
+        if (executedJob.isEmpty()) {
+            // another node runs the same request, its outcome is recorded by that node
+            release(claimed);
+            return;
+        }
+
+        PipelineJob pipelineJob = executedJob.get();
+        Consumer<JobState> stateRecorder = state -> recordState(id, state);
+        pipelineJob.addStateListener(stateRecorder);
+        recordState(id, pipelineJob.getState());
+        pipelineJob.getFuture().whenComplete((result, error) -> {
+            pipelineJob.removeStateListener(stateRecorder);
+            try {
+                jobQueue.finish(id, ClusterJobService.finalState(error));
+            } finally {
+                release(claimed);
+            }
+        });
+    }
+
+    private void recordState(String id, JobState state) {
+        try {
+            jobQueue.setState(id, state);
+        } catch (RuntimeException e) {
+            logger.warn("Could not record the state {} of the pipeline for ID {}: {}", state, id, e.getMessage());
+        }
+    }
+
+    private void release(ClaimedJob claimed) {
+        try {
+            jobQueue.acknowledge(claimed.recordId());
+        } catch (RuntimeException e) {
+            logger.warn("Could not acknowledge the pipeline for ID {}: {}", claimed.jobId(), e.getMessage());
+        } finally {
+            claimedRuns.remove(claimed.jobId(), claimed.recordId());
+        }
+    }
+}
@@ -1,7 +1,13 @@
 /* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
 import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
+import org.eclipse.collections.impl.factory.SortedMaps;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -11,10 +17,14 @@ import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
 import edu.kit.kastel.mcse.ardoco.core.api.stage.inconsistency.Inconsistency;
 import edu.kit.kastel.mcse.ardoco.core.api.text.SentenceEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.tracelink.TraceLink;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.id.execution.runner.InconsistencyDetection;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.InconsistencyConverter;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.TraceLinkConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 
 @Service("InconsistencyService")
 public class InconsistencyService extends AbstractRunnerTLRService {
@@ -35,4 +45,32 @@ public class InconsistencyService extends AbstractRunnerTLRService {
 
         return new ArDoCoApiResult(traceLinksJson, inconsistenciesJson);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The inconsistency detection recovers the same SAD_SAM trace links as SWATTR, which are saved as result of SWATTR.
+     */
+    @Override
+    protected Map<String, ArDoCoApiResult> convertDerivedResults(PipelineRequest request, ArdocoResult result) throws JsonProcessingException {
+        ImmutableList<TraceLink<SentenceEntity, ModelEntity>> traceLinks = result.getArchitectureTraceLinks();
+        String traceLinksJson = TraceLinkConverter.convertListOfSadSamTraceLinksToJsonString(traceLinks);
+        return Map.of(getDerivedRequestIds(request).get(TraceLinkType.SAD_SAM), new ArDoCoApiResult(traceLinksJson));
+    }
+
+    @Override
+    protected Map<TraceLinkType, String> getDerivedRequestIds(PipelineRequest request) {
+        String sadSamId = derivedRequestId(TraceLinkType.SAD_SAM, request, PipelineInput.TEXTUAL_DOCUMENTATION, PipelineInput.ARCHITECTURE_MODEL);
+        return Map.of(TraceLinkType.SAD_SAM, sadSamId);
+    }
+
+    @Override
+    protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException {
+        InconsistencyDetection runner = new InconsistencyDetection(request.projectName());
+        ImmutableSortedMap<String, String> additionalConfigs = SortedMaps.immutable.withSortedMap(request.additionalConfigs());
+
+        runner.setUp(request.inputFile(PipelineInput.TEXTUAL_DOCUMENTATION), request.inputFile(PipelineInput.ARCHITECTURE_MODEL), request.modelFormat(),
+                additionalConfigs, outputDirectory);
+        return runner;
+    }
 }
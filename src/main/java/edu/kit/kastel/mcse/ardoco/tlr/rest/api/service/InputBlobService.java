@@ -0,0 +1,172 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore.Blob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+/**
+ * Service for uploading input files once to the {@link InputBlobStore} and starting the pipelines of any analysis on them by their
+ * digests. A run that references stored files gets the same request id as a request that uploads the files to the controller of its
+ * pipeline, so that results are shared with such requests.
+ */
+@Service
+public class InputBlobService {
+
+    private final Map<Analysis, AbstractRunnerTLRService> services = new EnumMap<>(Analysis.class);
+    private final InputBlobStore blobStore;
+    private final ConfigurationProviderService configurationProviderService;
+
+    /**
+     * Creates the service.
+     *
+     * @param swattrService                the service of SWATTR
+     * @param inconsistencyService         the service of the inconsistency detection
+     * @param arCoTLService                the service of ArCoTL
+     * @param arDoCodeService              the service of ArDoCode
+     * @param transArCService              the service of TransArC
+     * @param blobStore                    the store of the uploaded input files
+     * @param configurationProviderService the service that brings additional configurations into their canonical form
+     */
+    @Autowired
+    public InputBlobService(SwattrService swattrService, InconsistencyService inconsistencyService, ArCoTLService arCoTLService,
+            ArDoCodeService arDoCodeService, TransArCService transArCService, InputBlobStore blobStore,
+            ConfigurationProviderService configurationProviderService) {
+        services.put(Analysis.SWATTR, swattrService);
+        services.put(Analysis.INCONSISTENCIES, inconsistencyService);
+        services.put(Analysis.ARCOTL, arCoTLService);
+        services.put(Analysis.ARDOCODE, arDoCodeService);
+        services.put(Analysis.TRANSARC, transArCService);
+        this.blobStore = blobStore;
+        this.configurationProviderService = configurationProviderService;
+    }
+
+    /**
+     * Stores an uploaded input file, see {@link InputBlobStore#store(MultipartFile)}.
+     *
+     * @param multipartFile the uploaded file
+     * @return the stored file with its digest
+     * @throws FileNotFoundException    if the file is empty
+     * @throws FileConversionException  if the file cannot be stored
+     * @throws IllegalArgumentException if the file is larger than the store
+     */
+    public Blob upload(MultipartFile multipartFile) throws FileNotFoundException, FileConversionException, IllegalArgumentException {
+        return blobStore.store(multipartFile);
+    }
+
+    /**
+     * Stores an uploaded input file and keeps it for the given owner until the owner releases it, see
+     * {@link InputBlobStore#retain(String, String)}.
+     *
+     * @param multipartFile the uploaded file
+     * @param owner         the owner of the file, e.g. the request that has uploaded it
+     * @return the stored file with its digest
+     * @throws FileNotFoundException    if the file is empty
+     * @throws FileConversionException  if the file cannot be stored or retained
+     * @throws IllegalArgumentException if the file is larger than the store
+     */
+    public Blob upload(MultipartFile multipartFile, String owner) throws FileNotFoundException, FileConversionException, IllegalArgumentException {
+        Blob blob = blobStore.store(multipartFile);
+        if (!blobStore.retain(blob.digest(), owner)) {
+            throw new FileConversionException("The file with name " + multipartFile.getOriginalFilename()
+                    + " has been deleted from the input store before it could be used.");
+        }
+        return blob;
+    }
+
+    /**
+     * Releases the input files that have been retained for an owner, see {@link InputBlobStore#release(String)}.
+     *
+     * @param owner the owner of the files
+     */
+    public void release(String owner) {
+        blobStore.release(owner);
+    }
+
+    /**
+     * Returns a stored input file.
+     *
+     * @param digest the MD5 digest of the file, as 32 hex digits
+     * @return the stored file, or empty if no file with this digest is stored (anymore)
+     */
+    public Optional<Blob> getBlob(String digest) {
+        return blobStore.get(digest);
+    }
+
+    /**
+     * Builds the id of a run of an analysis on stored input files.
+     *
+     * @param analysis          the analysis
+     * @param projectName       the name of the project
+     * @param digests           the MD5 digests of the input files, as 32 hex digits
+     * @param additionalConfigs additional ArDoCo configuration
+     * @return the id of the run
+     * @throws IllegalArgumentException if the digests do not match the inputs of the analysis or are not valid MD5 digests
+     */
+    public String requestIdOf(Analysis analysis, String projectName, Map<PipelineInput, String> digests, Map<String, String> additionalConfigs)
+            throws IllegalArgumentException {
+        return analysis.requestIdOfDigests(projectName, digests, configurationProviderService.canonicalize(additionalConfigs));
+    }
+
+    /**
+     * Starts the pipeline of an analysis on stored input files, unless its result is already available. The stored files are only
+     * linked into the run if the pipeline has to run, so a result is returned even if its files have been deleted from the store since.
+     *
+     * @param analysis          the analysis
+     * @param requestId         the id of the run, see {@link #requestIdOf(Analysis, String, Map, Map)}
+     * @param projectName       the name of the project
+     * @param digests           the MD5 digests of the input files, as 32 hex digits
+     * @param modelFormat       the format of the architecture model, or {@code null} if the analysis needs no architecture model
+     * @param additionalConfigs additional ArDoCo configuration
+     * @param deadlineSeconds   the maximum run time of the pipeline in seconds, or {@code null} to use the configured budget
+     * @param tenant            the API client or project the run is scheduled for
+     * @return an optional containing the result if available, otherwise empty
+     * @throws IllegalArgumentException if the pipeline has to run but an input file is not stored, or the format of the architecture
+     *                                  model is missing
+     * @throws TooManyRequestsException if the pipeline queue is full
+     * @throws ArdocoException          if the result cannot be read
+     */
+    public Optional<ArDoCoApiResult> start(Analysis analysis, String requestId, String projectName, Map<PipelineInput, String> digests,
+            ModelFormat modelFormat, SortedMap<String, String> additionalConfigs, Integer deadlineSeconds, String tenant) throws IllegalArgumentException,
+            TooManyRequestsException, ArdocoException {
+        if (digests.containsKey(PipelineInput.ARCHITECTURE_MODEL) && modelFormat == null) {
+            throw new IllegalArgumentException(String.format("The analysis %s needs the format of the architecture model.", analysis));
+        }
+        SortedMap<String, String> canonicalConfigs = configurationProviderService.canonicalize(additionalConfigs);
+        return services.get(analysis).runPipeline(requestId, () -> new PipelineRequest(requestId, projectName, linkInputs(digests), digests,
+                modelFormat, canonicalConfigs, deadlineSeconds, tenant));
+    }
+
+    private Map<PipelineInput, File> linkInputs(Map<PipelineInput, String> digests) throws IllegalArgumentException, FileConversionException {
+        Map<PipelineInput, File> inputFiles = new EnumMap<>(PipelineInput.class);
+        try {
+            for (var digest : digests.entrySet()) {
+                inputFiles.put(digest.getKey(), blobStore.link(digest.getValue()));
+            }
+        } catch (RuntimeException e) {
+            FileConverter.deleteConvertedFiles(new ArrayList<>(inputFiles.values()));
+            throw e;
+        }
+        return inputFiles;
+    }
+}
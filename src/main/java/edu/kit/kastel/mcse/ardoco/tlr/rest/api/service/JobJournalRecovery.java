@@ -0,0 +1,202 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DistributedJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobJournal;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisRunLock;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Executes the runs of the {@link RedisJobJournal} that no node is working on, e.g. because the node that accepted them has been
+ * restarted or has died, enabled by {@code tlr.journal.enabled}.
+ * <p>
+ * On startup and every {@code tlr.journal.recovery-interval-seconds}, the journal is scanned for runs without a valid claim in the
+ * {@link RedisRunLock}; such runs are executed on this node again if their input files are in the {@link InputBlobStore} of this node,
+ * which keeps them across restarts until their runs are removed from the journal. A run whose input files are missing on the node that
+ * has recorded it cannot be executed by anyone: it is logged, ends with {@link JobState#ERROR} for the clients that follow it, and is
+ * removed. On graceful shutdown, the runs of this node get up to
+ * {@code tlr.journal.drain-seconds} to finish. The runs that are still in flight afterward are checkpointed: they stay in the journal and
+ * their claims are released, so that they are executed again right after the restart.
+ */
+@Component
+@ConditionalOnProperty(name = "tlr.journal.enabled", havingValue = "true")
+public class JobJournalRecovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobJournalRecovery.class);
+
+    private final RedisJobJournal journal;
+    private final InputBlobStore blobStore;
+    private final RedisRunLock runLock;
+    private final ClusterJobService clusterJobService;
+    private final CurrentlyRunningRequestsRepository currentlyRunningRequestsRepository;
+    private final Map<String, AbstractRunnerTLRService> services;
+    private final long recoveryIntervalSeconds;
+    private final Duration drainTimeout;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ardoco-job-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the recovery.
+     *
+     * @param journal                            the journal of accepted runs
+     * @param blobStore                          the store of the input files of the runs
+     * @param runLock                            the claims of the nodes on their runs
+     * @param clusterJobService                  the service that manages the claims of this node
+     * @param currentlyRunningRequestsRepository the jobs in flight on this node
+     * @param services                           the services that execute the runs, by bean name
+     * @param recoveryIntervalSeconds            the time between two scans of the journal, in seconds
+     * @param drainSeconds                       the time runs get to finish on shutdown, in seconds
+     */
+    @Autowired
+    public JobJournalRecovery(RedisJobJournal journal, InputBlobStore blobStore, RedisRunLock runLock, ClusterJobService clusterJobService,
+            CurrentlyRunningRequestsRepository currentlyRunningRequestsRepository, Map<String, AbstractRunnerTLRService> services, @Value(
+                    "${tlr.journal.recovery-interval-seconds}") long recoveryIntervalSeconds, @Value("${tlr.journal.drain-seconds}") long drainSeconds) {
+        this.journal = journal;
+        this.blobStore = blobStore;
+        this.runLock = runLock;
+        this.clusterJobService = clusterJobService;
+        this.currentlyRunningRequestsRepository = currentlyRunningRequestsRepository;
+        this.services = Map.copyOf(services);
+        this.recoveryIntervalSeconds = recoveryIntervalSeconds;
+        this.drainTimeout = Duration.ofSeconds(drainSeconds);
+    }
+
+    /**
+     * Starts scanning the journal.
+     */
+    @PostConstruct
+    public void start() {
+        timer.scheduleWithFixedDelay(this::recover, 0, recoveryIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Waits for the runs of this node to finish and checkpoints the ones that do not finish in time.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        List<PipelineJob> inFlight = runningJobs();
+        if (!inFlight.isEmpty()) {
+            logger.info("Waiting up to {} seconds for {} pipeline runs to finish", drainTimeout.toSeconds(), inFlight.size());
+            try {
+                CompletableFuture.allOf(inFlight.stream().map(PipelineJob::getFuture).toArray(CompletableFuture[]::new))
+                        .get(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // failed runs are done as well, the others are checkpointed below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        journal.close();
+        for (PipelineJob job : runningJobs()) {
+            logger.info("Checkpointed the pipeline for ID {}, it is executed again after the restart", job.getId());
+            clusterJobService.release(job);
+        }
+    }
+
+    private List<PipelineJob> runningJobs() {
+        return journal.getRecordedIds()
+                .stream()
+                .map(currentlyRunningRequestsRepository::getRequest)
+                .flatMap(Optional::stream)
+                .filter(job -> !job.getFuture().isDone())
+                .toList();
+    }
+
+    /**
+     * Executes the runs of the journal that no node is working on and releases the input files of runs that have left the journal.
+     */
+    void recover() {
+        try {
+            for (String id : journal.getIds()) {
+                recover(id);
+            }
+            journal.releaseForgottenInputs();
+        } catch (RuntimeException e) {
+            logger.warn("Could not scan the journal of pipeline runs: {}", e.getMessage());
+        }
+    }
+
+    private void recover(String id) {
+        Optional<JobState> state = runLock.getState(id);
+        if (state.isPresent() && !state.get().isFinal()) {
+            // a node is working on the run
+            return;
+        }
+        Optional<DistributedJob> job = journal.get(id);
+        if (job.isEmpty()) {
+            return;
+        }
+        if (!job.get().inputsAreStored(blobStore)) {
+            if (journal.isRecordedByThisNode(id)) {
+                failLostRun(id);
+            } else {
+                // left to the node that has accepted the run, e.g. once it has been restarted
+                logger.debug("The input files of the pipeline for ID {} are not stored on this node", id);
+            }
+            return;
+        }
+        AbstractRunnerTLRService service = services.get(job.get().serviceName());
+        if (service == null || service.resultIsInDatabase(id)) {
+            journal.remove(id);
+            return;
+        }
+
+        logger.info("Recovering the pipeline for ID {} from the journal", id);
+        try {
+            Optional<PipelineJob> recovered = service.execute(job.get().toRequest(blobStore));
+            if (recovered.isPresent() && !recovered.get().getFuture().isDone()) {
+                // keeps the run in the journal until it has finished, also if another node has just removed it
+                journal.record(job.get());
+            }
+        } catch (TooManyRequestsException e) {
+            logger.info("Cannot recover the pipeline for ID {} right now, retrying later: {}", id, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Could not recover the pipeline for ID {}", id, e);
+            journal.remove(id);
+        }
+    }
+
+    /**
+     * Ends a run of this node whose input files are gone, e.g. because the input store has not been kept across the restart. Nobody else
+     * can execute the run, so it is recorded as failed for the clients that follow it and removed from the journal.
+     *
+     * @param id the unique identifier of the request
+     */
+    private void failLostRun(String id) {
+        logger.error("The input files of the pipeline for ID {} are missing on this node, which has accepted the run; it cannot be recovered. "
+                + "Is tlr.blobs.directory on a persistent volume?", id);
+        if (runLock.tryAcquire(id, JobState.QUEUED)) {
+            runLock.finish(id, JobState.ERROR);
+        }
+        journal.remove(id);
+    }
+}
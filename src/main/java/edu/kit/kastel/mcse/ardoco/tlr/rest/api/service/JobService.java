@@ -0,0 +1,95 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service for managing pipeline runs that are currently in flight, independent of their trace link type.
+ */
+@Service("jobService")
+public class JobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    @Autowired
+    private CurrentlyRunningRequestsRepository currentlyRunningRequestsRepository;
+
+    @Autowired
+    private PipelineScheduler pipelineScheduler;
+
+    @Autowired
+    private Optional<ClusterJobService> clusterJobService;
+
+    /**
+     * Constructs a new {@code JobService}.
+     */
+    public JobService() {
+        // Default constructor
+    }
+
+    /**
+     * Lets other nodes of a cluster cancel the runs of this node, see {@link ClusterJobService#requestCancel(String)}.
+     */
+    @PostConstruct
+    public void start() {
+        clusterJobService.ifPresent(service -> service.setCancelListener(this::cancelRequested));
+    }
+
+    /**
+     * Cancels the pipeline run of the given request.
+     * <p>
+     * The job is removed from the in-flight requests, everyone waiting for it receives a {@link JobCancelledException}, the run is
+     * removed from the queue or interrupted, and its temporary
+     * files are deleted. Nothing is written to the database for a cancelled run. A run whose result is already being saved cannot be cancelled anymore.
+     * <p>
+     * A running run is only detached, not stopped: ArDoCo ignores interrupts, so a run that has already started ArDoCo keeps computing
+     * and keeps its slot until the whole pipeline has returned; only then is its result discarded. A run that has not started ArDoCo yet
+     * ends before it does.
+     * <p>
+     * In a cluster, runs of other nodes are cancelled as well: the node that executes the run is asked to cancel it, see
+     * {@link ClusterJobService#requestCancel(String)}.
+     *
+     * @param id the unique identifier of the request
+     * @return the cancelled job, or empty if no run of the request is in flight or it is already finishing
+     */
+    public Optional<PipelineJob> cancel(String id) {
+        Optional<PipelineJob> job = clusterJobService.isPresent() ? clusterJobService.get().followRemoteJob(id) : currentlyRunningRequestsRepository
+                .getRequest(id);
+        if (job.isEmpty() || !job.get().cancel()) {
+            return Optional.empty();
+        }
+
+        logger.info("Cancelling TLR of type {} for {}", job.get().getTraceLinkType(), id);
+        cancelLocally(job.get());
+        clusterJobService.ifPresent(service -> service.requestCancel(id));
+        return job;
+    }
+
+    private void cancelRequested(PipelineJob job) {
+        if (job.cancel()) {
+            logger.info("Cancelling TLR of type {} for {} on request of another node", job.getTraceLinkType(), job.getId());
+            cancelLocally(job);
+        }
+    }
+
+    private void cancelLocally(PipelineJob cancelledJob) {
+        String id = cancelledJob.getId();
+        currentlyRunningRequestsRepository.removeRequest(cancelledJob);
+        cancelledJob.getFuture().completeExceptionally(new JobCancelledException(String.format("The pipeline for ID %s has been cancelled.", id)));
+        pipelineScheduler.cancel(id);
+        FileConverter.deleteConvertedFiles(cancelledJob.getInputFiles());
+        FileConverter.deleteDirectory(cancelledJob.getOutputDirectory());
+    }
+}
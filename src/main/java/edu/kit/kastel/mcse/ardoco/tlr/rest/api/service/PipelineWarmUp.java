@@ -0,0 +1,169 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs every pipeline once on a tiny bundled project at startup, so that the first real request does not pay for loading the
+ * text-preprocessing models and initializing the ArDoCo classes. The warm-up runs take a slot in the lane of their pipeline, so they count
+ * against its concurrency limit.
+ * <p>
+ * The warm-up is configured by {@code tlr.warmup.mode}: {@code eager} warms up before the application reports that it is ready,
+ * {@code background} warms up after startup while the health indicator {@code pipelineWarmUp} reports {@code OUT_OF_SERVICE} (it is part of
+ * the readiness group), and {@code off} skips it. The duration of every warm-up run is published as timer {@value #COLD_START_METRIC},
+ * tagged with the trace link type and the service.
+ */
+@Component
+public class PipelineWarmUp implements ApplicationRunner, HealthIndicator {
+
+    /**
+     * Name of the timer with the duration of the first run of every pipeline.
+     */
+    public static final String COLD_START_METRIC = "tlr.pipeline.cold-start";
+
+    static final String WARM_UP_ID = "warmup";
+    private static final String WARM_UP_PROJECT = "warmup";
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineWarmUp.class);
+
+    private final Map<String, AbstractRunnerTLRService> services;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final Map<String, Long> coldStartMillis = new TreeMap<>();
+    private volatile boolean finished;
+
+    /**
+     * The ways to warm up the pipelines.
+     */
+    public enum Mode {
+        /**
+         * No warm-up.
+         */
+        OFF,
+        /**
+         * Warm-up before the application reports that it is ready.
+         */
+        EAGER,
+        /**
+         * Warm-up after startup, while the application reports that it is not ready yet.
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Creates the warm-up.
+     *
+     * @param services      the services whose pipelines are warmed up, by bean name
+     * @param meterRegistry the registry for the cold-start timers
+     * @param mode          the warm-up mode, see {@link Mode}
+     */
+    @Autowired
+    public PipelineWarmUp(Map<String, AbstractRunnerTLRService> services, MeterRegistry meterRegistry, @Value("${tlr.warmup.mode}") String mode) {
+        this.services = new TreeMap<>(services);
+        this.meterRegistry = meterRegistry;
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        switch (mode) {
+        case OFF -> finished = true;
+        case EAGER -> warmUp();
+        case BACKGROUND -> {
+            Thread thread = new Thread(this::warmUp, "ardoco-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (!finished) {
+            return Health.outOfService().withDetail("mode", mode).build();
+        }
+        synchronized (coldStartMillis) {
+            return Health.up().withDetail("mode", mode).withDetail("coldStartMillis", Map.copyOf(coldStartMillis)).build();
+        }
+    }
+
+    /**
+     * Warms up every pipeline once. Pipelines that fail to warm up are skipped; they are initialized by their first request instead.
+     */
+    void warmUp() {
+        Map<PipelineInput, File> inputFiles = new EnumMap<>(PipelineInput.class);
+        try {
+            inputFiles.put(PipelineInput.TEXTUAL_DOCUMENTATION, writeWarmUpFile("warmup.txt"));
+            inputFiles.put(PipelineInput.ARCHITECTURE_MODEL, writeWarmUpFile("warmup.uml"));
+            inputFiles.put(PipelineInput.CODE, writeWarmUpFile("warmup.acm"));
+            PipelineRequest request = new PipelineRequest(WARM_UP_ID, WARM_UP_PROJECT, inputFiles, Map.of(), ModelFormat.UML, new TreeMap<>(),
+                    null, PipelineScheduler.DEFAULT_TENANT);
+            for (var entry : services.entrySet()) {
+                warmUp(entry.getKey(), entry.getValue(), request);
+            }
+        } catch (FileConversionException e) {
+            logger.warn("Could not prepare the warm-up project: {}", e.getMessage());
+        } finally {
+            FileConverter.deleteConvertedFiles(new ArrayList<>(inputFiles.values()));
+            finished = true;
+        }
+    }
+
+    private void warmUp(String serviceName, AbstractRunnerTLRService service, PipelineRequest request) {
+        logger.info("Warming up the pipeline of {}...", serviceName);
+        long start = System.nanoTime();
+        try {
+            service.warmUp(request);
+        } catch (ArdocoException e) {
+            logger.warn("Could not warm up the pipeline of {}: {}", serviceName, e.getMessage());
+            return;
+        }
+        Duration coldStart = Duration.ofNanos(System.nanoTime() - start);
+        Timer.builder(COLD_START_METRIC)
+                .description("Duration of the first run of a pipeline after startup, on the bundled warm-up project")
+                .tag("type", service.getTraceLinkType().name())
+                .tag("service", serviceName)
+                .register(meterRegistry)
+                .record(coldStart);
+        synchronized (coldStartMillis) {
+            coldStartMillis.put(serviceName, coldStart.toMillis());
+        }
+        logger.info("Warmed up the pipeline of {} in {} ms", serviceName, coldStart.toMillis());
+    }
+
+    private static File writeWarmUpFile(String fileName) throws FileConversionException {
+        try {
+            return FileConverter.writeInputFile(fileName, new ClassPathResource("warmup/" + fileName).getContentAsByteArray());
+        } catch (IOException e) {
+            throw new FileConversionException("Error occurred while reading the warm-up file " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+}
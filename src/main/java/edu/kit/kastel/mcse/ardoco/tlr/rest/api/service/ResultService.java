@@ -1,10 +1,9 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +14,7 @@ import org.springframework.stereotype.Service;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
 
 @Service("resultService")
 public class ResultService extends AbstractService {
@@ -27,6 +27,9 @@ public class ResultService extends AbstractService {
 
     private static final Logger logger = LoggerFactory.getLogger(ResultService.class);
 
+    @Autowired
+    private Optional<ClusterJobService> clusterJobService;
+
     @Autowired
     private CurrentlyRunningRequestsRepository currentlyRunningRequestsRepository;
 
@@ -39,7 +42,7 @@ public class ResultService extends AbstractService {
      * @throws IllegalArgumentException if the id is invalid
      */
     public Optional<ArDoCoApiResult> getResult(String id) throws ArdocoException, IllegalArgumentException {
-        if (resultIsOnItsWay(id)) {
+        if (getRunningJob(id).isPresent()) {
             logger.debug("Result is not yet available for {}", id);
             return Optional.empty();
         }
@@ -47,36 +50,56 @@ public class ResultService extends AbstractService {
     }
 
     /**
-     * Waits for a result until it is available, with a timeout.
+     * Looks up a result without failing if it is unknown, e.g. for ids that the client has computed from the digests of its files.
      *
      * @param id the unique identifier of the result
-     * @return an optional containing the result if available, otherwise empty
-     * @throws ArdocoException          if an error occurs while waiting for the result
+     * @return the result if it is in the database, otherwise empty (see {@link #getRunningJob(String)} whether it is in flight)
+     * @throws ArdocoException if an error occurs retrieving the result from the database
+     */
+    public Optional<ArDoCoApiResult> findResult(String id) throws ArdocoException {
+        return findResultInDatabase(id);
+    }
+
+    /**
+     * Waits for a result until it is available, with a timeout. The waiting does not block the calling thread: the returned future is
+     * completed by the pipeline once it has finished, or with an empty optional once the timeout is reached.
+     *
+     * @param id the unique identifier of the result
+     * @return a future containing the result if available within the timeout, otherwise empty
+     * @throws ArdocoException          if an error occurs retrieving the result from the database
      * @throws IllegalArgumentException if the id is invalid
      */
-    public Optional<ArDoCoApiResult> waitForResult(String id) throws ArdocoException, IllegalArgumentException {
-        if (resultIsOnItsWay(id)) {
-            return waitForResultHelper(id);
+    public CompletableFuture<Optional<ArDoCoApiResult>> waitForResult(String id) throws ArdocoException, IllegalArgumentException {
+        Optional<PipelineJob> job = getRunningJob(id);
+        if (job.isEmpty()) {
+            // no pipeline in flight (anymore), the result is either in the database or does not exist
+            return CompletableFuture.completedFuture(Optional.of(getResultFromDatabase(id)));
         }
-        return Optional.of(getResultFromDatabase(id));
+        logger.info("Waiting for the result of {}", id);
+        return job.get().getFuture().thenApply(Optional::of).completeOnTimeout(Optional.empty(), secondsUntilTimeout, TimeUnit.SECONDS);
     }
 
     /**
-     * Helper method to wait for a result until it is available or the timeout is reached.
+     * Returns the job of a pipeline that is currently in flight. Pipelines running on other nodes of the cluster are found as well, if
+     * this node is part of a cluster (see {@link ClusterJobService}).
      *
      * @param id the unique identifier of the result
-     * @return an optional containing the result if available, otherwise empty
+     * @return the job if the pipeline is queued or running, otherwise empty
      */
-    private Optional<ArDoCoApiResult> waitForResultHelper(String id) {
-        try {
-            logger.info("Waiting for the result of {}", id);
-            return Optional.of(currentlyRunningRequestsRepository.getRequest(id).get(secondsUntilTimeout, TimeUnit.SECONDS));
-        } catch (TimeoutException e) {
-            logger.info("Waiting for {} took too long...", id);
-            return Optional.empty();
-        } catch (ExecutionException | InterruptedException e) {
-            throw new ArdocoException(e.getMessage(), e);
+    public Optional<PipelineJob> getRunningJob(String id) {
+        if (clusterJobService.isEmpty()) {
+            return currentlyRunningRequestsRepository.getRequest(id);
         }
+        return clusterJobService.get().followRemoteJob(id);
+    }
+
+    /**
+     * Getter for the time a client waits for a result.
+     *
+     * @return the timeout in seconds
+     */
+    public int getSecondsUntilTimeout() {
+        return secondsUntilTimeout;
     }
 
 }
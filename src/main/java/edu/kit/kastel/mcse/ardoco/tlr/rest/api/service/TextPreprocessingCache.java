@@ -0,0 +1,95 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.util.Optional;
+import java.util.SortedMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import edu.kit.kastel.mcse.ardoco.core.api.PreprocessingData;
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.common.util.DataRepositoryHelper;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisObjectCache;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of the NLP preprocessing of documentation texts, shared by all runners that process text (SWATTR, ArDoCode, TransArC and the
+ * inconsistency detection).
+ * <p>
+ * The preprocessing is keyed by the hash of the text together with the entries of the additional configuration of the run that configure
+ * the text preprocessing (see {@link ConfigurationProviderService#preprocessingConfiguration(SortedMap)}), so that runs that only configure
+ * later stages share the preprocessed text. On a hit, a copy of the preprocessed text is put into the data repository of the runner before
+ * the run, so that the text preprocessing of ArDoCo finds the text already preprocessed. The hand-over is tested with a stand-in for the pipeline; whether ArDoCo
+ * actually skips its preprocessing shows in the run times of {@value AbstractPipelineCache#RUN_TIME_METRIC}.
+ */
+@Service
+public class TextPreprocessingCache extends AbstractPipelineCache<PreprocessingData> {
+
+    private static final String CACHE_NAME = "preprocessing";
+
+    private static final Logger logger = LoggerFactory.getLogger(TextPreprocessingCache.class);
+
+    private final ConfigurationProviderService configurationProviderService;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxEntries                   the maximum number of preprocessed texts kept in memory
+     * @param redisEnabled                 whether preprocessed texts are additionally kept in Redis
+     * @param redisCache                   the cache in Redis
+     * @param configurationProviderService the service that knows which configuration belongs to the text preprocessing
+     * @param meterRegistry                the registry for the lookup counters
+     */
+    @Autowired
+    public TextPreprocessingCache(@Value("${tlr.cache.preprocessing.max-entries}") int maxEntries,
+            @Value("${tlr.cache.preprocessing.redis-enabled}") boolean redisEnabled, RedisObjectCache redisCache,
+            ConfigurationProviderService configurationProviderService, MeterRegistry meterRegistry) {
+        super(CACHE_NAME, PreprocessingData.class, maxEntries, redisEnabled ? redisCache : null, meterRegistry);
+        this.configurationProviderService = configurationProviderService;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The key is empty if the request has no text or the text cannot be read.
+     */
+    @Override
+    public Optional<String> keyOf(PipelineRequest request) {
+        SortedMap<String, String> preprocessingConfigs = configurationProviderService.preprocessingConfiguration(request.additionalConfigs());
+        return hashOf(request, PipelineInput.TEXTUAL_DOCUMENTATION).map(textHash -> HashGenerator.getMD5HashWithConfiguration(textHash,
+                preprocessingConfigs));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The runner is handed a copy of its own, see {@link #get(String)}, so whatever ArDoCo changes in the preprocessed text during the run
+     * never reaches the cache or other runs.
+     */
+    @Override
+    public boolean restore(String key, ArdocoRunner runner) {
+        Optional<PreprocessingData> preprocessingData = get(key);
+        preprocessingData.ifPresent(data -> DataRepositoryHelper.putPreprocessingData(runner.getArDoCo().getDataRepository(), data));
+        return preprocessingData.isPresent();
+    }
+
+    @Override
+    public void store(String key, ArdocoResult result) {
+        try {
+            PreprocessingData preprocessingData = result.getPreprocessingData();
+            if (preprocessingData != null) {
+                put(key, preprocessingData);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not cache the preprocessed text with key {}: {}", key, e.getMessage());
+        }
+    }
+}
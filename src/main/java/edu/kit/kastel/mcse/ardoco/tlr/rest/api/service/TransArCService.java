@@ -1,23 +1,38 @@
 /* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
 import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.sorted.ImmutableSortedMap;
+import org.eclipse.collections.impl.factory.SortedMaps;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
+import edu.kit.kastel.mcse.ardoco.core.api.entity.ArchitectureEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.entity.ModelEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
 import edu.kit.kastel.mcse.ardoco.core.api.text.SentenceEntity;
 import edu.kit.kastel.mcse.ardoco.core.api.tracelink.TraceLink;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.execution.Transarc;
+import edu.kit.kastel.mcse.ardoco.tlr.models.agents.ArchitectureConfiguration;
+import edu.kit.kastel.mcse.ardoco.tlr.models.agents.CodeConfiguration;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.TraceLinkConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
 
 /**
  * Service for handling trace links of type SAD_CODE in the ArDoCo API.
  * This service extends the AbstractRunnerTLRService to provide functionality
  * specific to SAD_CODE trace links.
+ * <p>
+ * TransArC computes SAD_SAM and SAM_CODE trace links on the way, which are saved as results of SWATTR and ArCoTL as well.
  */
 @Service("transArCService")
 public class TransArCService extends AbstractRunnerTLRService {
@@ -35,4 +50,44 @@ public class TransArCService extends AbstractRunnerTLRService {
         String traceLinksJson = TraceLinkConverter.convertListOfSadCodeTraceLinksToJsonString(traceLinks);
         return new ArDoCoApiResult(traceLinksJson);
     }
+
+    @Override
+    protected Map<String, ArDoCoApiResult> convertDerivedResults(PipelineRequest request, ArdocoResult result) throws JsonProcessingException {
+        Map<TraceLinkType, String> derivedRequestIds = getDerivedRequestIds(request);
+
+        ImmutableList<TraceLink<SentenceEntity, ModelEntity>> sadSamTraceLinks = result.getArchitectureTraceLinks();
+        String sadSamJson = TraceLinkConverter.convertListOfSadSamTraceLinksToJsonString(sadSamTraceLinks);
+
+        ImmutableList<TraceLink<? extends ArchitectureEntity, ? extends ModelEntity>> samCodeTraceLinks = result.getSamCodeTraceLinks();
+        String samCodeJson = TraceLinkConverter.convertListOfSamCodeTraceLinksToJsonString(samCodeTraceLinks);
+
+        return Map.of(derivedRequestIds.get(TraceLinkType.SAD_SAM), new ArDoCoApiResult(sadSamJson), derivedRequestIds.get(TraceLinkType.SAM_CODE),
+                new ArDoCoApiResult(samCodeJson));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * TransArC derives the SAD_SAM trace links of SWATTR and the SAM_CODE trace links of ArCoTL.
+     */
+    @Override
+    protected Map<TraceLinkType, String> getDerivedRequestIds(PipelineRequest request) {
+        String sadSamId = derivedRequestId(TraceLinkType.SAD_SAM, request, PipelineInput.TEXTUAL_DOCUMENTATION, PipelineInput.ARCHITECTURE_MODEL);
+        String samCodeId = derivedRequestId(TraceLinkType.SAM_CODE, request, PipelineInput.ARCHITECTURE_MODEL, PipelineInput.CODE);
+        return Map.of(TraceLinkType.SAD_SAM, sadSamId, TraceLinkType.SAM_CODE, samCodeId);
+    }
+
+    @Override
+    protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException {
+        Transarc runner = new Transarc(request.projectName());
+
+        ArchitectureConfiguration architectureConfiguration = new ArchitectureConfiguration(request.inputFile(PipelineInput.ARCHITECTURE_MODEL), request
+                .modelFormat());
+        CodeConfiguration codeConfiguration = new CodeConfiguration(request.inputFile(PipelineInput.CODE), CodeConfiguration.CodeConfigurationType.ACM_FILE);
+        ImmutableSortedMap<String, String> additionalConfigs = SortedMaps.immutable.withSortedMap(request.additionalConfigs());
+
+        runner.setUp(request.inputFile(PipelineInput.TEXTUAL_DOCUMENTATION), architectureConfiguration, codeConfiguration, additionalConfigs,
+                outputDirectory);
+        return runner;
+    }
 }
@@ -0,0 +1,112 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.util.HashGenerator;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hashes the uploaded input files of a request, so that the id of the request is known before anything is stored for it. The files of a
+ * request are hashed in parallel, each on its own virtual thread.
+ * <p>
+ * The files are only moved to temporary files for the pipeline once it has to run ({@link HashedUploads#store()}), so that repeated
+ * submissions store nothing. As the servlet container keeps uploads in files of its own in the temporary directory, this is a rename
+ * rather than a second read of the content; only uploads kept in memory, or a temporary directory on another file system, are copied.
+ */
+@Service
+public class UploadIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadIngestionService.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Hashes the uploaded input files of a request.
+     *
+     * @param uploads the uploaded files by input
+     * @return the uploaded files, their digests and the hash of their contents, as {@link HashGenerator#getMD5HashFromFiles(List)} computes it
+     * @throws FileNotFoundException   if an uploaded file is empty
+     * @throws FileConversionException if an uploaded file cannot be read
+     */
+    public HashedUploads hash(Map<PipelineInput, MultipartFile> uploads) throws FileNotFoundException, FileConversionException {
+        logger.debug("Hashing {} uploaded files", uploads.size());
+        Map<PipelineInput, Future<byte[]>> pendingDigests = new EnumMap<>(PipelineInput.class);
+        uploads.forEach((input, upload) -> pendingDigests.put(input, executor.submit(() -> FileConverter.digestMultipartFile(upload))));
+
+        List<byte[]> digests = new ArrayList<>();
+        Map<PipelineInput, String> hexDigests = new EnumMap<>(PipelineInput.class);
+        for (var pendingDigest : pendingDigests.entrySet()) {
+            try {
+                byte[] digest = pendingDigest.getValue().get();
+                digests.add(digest);
+                hexDigests.put(pendingDigest.getKey(), HexFormat.of().formatHex(digest));
+            } catch (ExecutionException e) {
+                pendingDigests.values().forEach(digest -> digest.cancel(true));
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new FileConversionException("Error occurred while hashing the uploaded files: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pendingDigests.values().forEach(digest -> digest.cancel(true));
+                throw new FileConversionException("Interrupted while hashing the uploaded files", e);
+            }
+        }
+        return new HashedUploads(new EnumMap<>(uploads), hexDigests, HashGenerator.getMD5HashFromDigests(digests));
+    }
+
+    /**
+     * Stops hashing uploads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The hashed input files of a request, which have not been stored yet.
+     *
+     * @param uploads the uploaded files by input
+     * @param digests the MD5 digests of the files as 32 hex digits, by input
+     * @param hash    the hash of the contents of the files
+     */
+    public record HashedUploads(Map<PipelineInput, MultipartFile> uploads, Map<PipelineInput, String> digests, String hash) {
+
+        /**
+         * Stores the uploaded files in temporary files for the pipeline. Must be called while the request that uploaded them is handled.
+         *
+         * @return the temporary files by input
+         * @throws FileNotFoundException   if an uploaded file is empty
+         * @throws FileConversionException if an uploaded file cannot be stored; the files stored so far are deleted
+         */
+        public Map<PipelineInput, File> store() throws FileNotFoundException, FileConversionException {
+            Map<PipelineInput, File> files = new EnumMap<>(PipelineInput.class);
+            try {
+                uploads.forEach((input, upload) -> files.put(input, FileConverter.convertMultipartFileToFile(upload)));
+            } catch (RuntimeException e) {
+                FileConverter.deleteConvertedFiles(new ArrayList<>(files.values()));
+                throw e;
+            }
+            return files;
+        }
+    }
+}
@@ -1,32 +1,200 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.util;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.SortedMap;
 import java.util.UUID;
 
-import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
 import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
 
 /**
  * This class provides hashing capabilities. It is used as part of generating a unique ID for a request.
+ * <p>
+ * The hash of several files is the MD5 hash of the MD5 digests of the files, formatted like a name-based UUID. As every digest has the
+ * same length, the boundaries between the files are part of the hash, and the digests of the files can be computed independently, e.g.
+ * in parallel while the files are uploaded. Files are streamed through the digest, so hashing needs the same small buffer regardless of
+ * the size of the files.
+ * <p>
+ * Clients can compute the hash without uploading the files: they hash the raw bytes of every file with MD5, and the MD5 hash of the
+ * concatenated 16-byte digests, in the order of {@link edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput}, is the hash of
+ * the files, see {@link #parseMD5Digest(String)}.
  */
 
 public final class HashGenerator {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private HashGenerator() {
     }
 
     /**
-     * Method to generate an MD5 hash for a given string.
+     * Method to generate an MD5 hash for the contents of the given files.
      *
      * @param files The List of Files from which one hash value should be generated
      * @return The MD5 hash as a hex string.
+     * @throws FileNotFoundException   if the list of files is empty
+     * @throws FileConversionException if a file cannot be read
      */
     public static String getMD5HashFromFiles(List<File> files) throws FileNotFoundException, FileConversionException {
-        byte[] filesInByte = FileConverter.convertFilesToByte(files);
-        return UUID.nameUUIDFromBytes(filesInByte).toString();
+        if (files.isEmpty()) {
+            throw new FileNotFoundException("File list is empty");
+        }
+        List<byte[]> digests = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        for (File file : files) {
+            ContentHasher hasher = new ContentHasher();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                while (channel.read(buffer.clear()) >= 0) {
+                    hasher.update(buffer.flip());
+                }
+            } catch (IOException e) {
+                throw new FileConversionException("Error occurred while hashing the file with name " + file.getName() + ": " + e.getMessage(), e);
+            }
+            digests.add(hasher.digest());
+        }
+        return getMD5HashFromDigests(digests);
+    }
+
+    /**
+     * Method to generate the same MD5 hash as {@link #getMD5HashFromFiles(List)} for file contents that have already been read.
+     *
+     * @param contents The contents of the files, in the order of the files
+     * @return The MD5 hash as a hex string.
+     */
+    public static String getMD5HashFromContents(List<byte[]> contents) {
+        List<byte[]> digests = new ArrayList<>();
+        for (byte[] content : contents) {
+            ContentHasher hasher = new ContentHasher();
+            hasher.update(content, 0, content.length);
+            digests.add(hasher.digest());
+        }
+        return getMD5HashFromDigests(digests);
+    }
+
+    /**
+     * Method to generate the same MD5 hash as {@link #getMD5HashFromFiles(List)} from the digests of the files, see
+     * {@link ContentHasher#digest()}.
+     *
+     * @param digests The MD5 digests of the files, in the order of the files
+     * @return The MD5 hash as a hex string.
+     */
+    public static String getMD5HashFromDigests(List<byte[]> digests) {
+        ContentHasher hasher = new ContentHasher();
+        digests.forEach(digest -> hasher.update(digest, 0, digest.length));
+        byte[] md5 = hasher.digest();
+        // the same version and variant bits as UUID.nameUUIDFromBytes
+        md5[6] &= 0x0f;
+        md5[6] |= 0x30;
+        md5[8] &= 0x3f;
+        md5[8] |= (byte) 0x80;
+        ByteBuffer bits = ByteBuffer.wrap(md5);
+        return new UUID(bits.getLong(), bits.getLong()).toString();
+    }
+
+    /**
+     * Method to combine the hash of the input files of a request with its additional configuration, so that requests with different
+     * configurations get different hashes. Keys and values are hashed with their lengths, so that different configurations never share
+     * their hashed bytes. Without additional configuration, the hash of the files is returned unchanged.
+     *
+     * @param inputHash     The hash of the input files, as returned by the other methods of this class
+     * @param configuration The canonical additional configuration of the request
+     * @return The MD5 hash as a hex string.
+     */
+    public static String getMD5HashWithConfiguration(String inputHash, SortedMap<String, String> configuration) {
+        if (configuration.isEmpty()) {
+            return inputHash;
+        }
+        ContentHasher hasher = new ContentHasher();
+        configuration.forEach((key, value) -> {
+            updateWithString(hasher, key);
+            updateWithString(hasher, value);
+        });
+        UUID hash = UUID.fromString(inputHash);
+        byte[] hashBytes = ByteBuffer.allocate(16).putLong(hash.getMostSignificantBits()).putLong(hash.getLeastSignificantBits()).array();
+        return getMD5HashFromDigests(List.of(hashBytes, hasher.digest()));
+    }
+
+    private static void updateWithString(ContentHasher hasher, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        hasher.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).flip());
+        hasher.update(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parses the MD5 digest of a file that has been computed by a client, as 32 hexadecimal digits.
+     *
+     * @param hexDigest The digest as hex string, e.g. {@code ed076287532e86365e841e92bfc50d8c}
+     * @return the 16 bytes of the digest, see {@link ContentHasher#digest()}
+     * @throws IllegalArgumentException if the digest is not 32 hexadecimal digits
+     */
+    public static byte[] parseMD5Digest(String hexDigest) throws IllegalArgumentException {
+        if (hexDigest == null || hexDigest.length() != 32) {
+            throw new IllegalArgumentException("An MD5 digest must consist of 32 hexadecimal digits: " + hexDigest);
+        }
+        try {
+            return HexFormat.of().parseHex(hexDigest);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("An MD5 digest must consist of 32 hexadecimal digits: " + hexDigest, e);
+        }
     }
 
+    /**
+     * Computes the MD5 digest of one file incrementally, for files whose content arrives in chunks. Not thread-safe.
+     */
+    public static final class ContentHasher {
+
+        private final MessageDigest digest;
+
+        /**
+         * Creates a hasher without any content.
+         */
+        public ContentHasher() {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform supports MD5
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Adds the next chunk of the file.
+         *
+         * @param bytes  the array that contains the chunk
+         * @param offset the offset of the chunk in the array
+         * @param length the length of the chunk
+         */
+        public void update(byte[] bytes, int offset, int length) {
+            digest.update(bytes, offset, length);
+        }
+
+        /**
+         * Adds the remaining bytes of the buffer to the file.
+         *
+         * @param buffer the next chunk of the file
+         */
+        public void update(ByteBuffer buffer) {
+            digest.update(buffer);
+        }
+
+        /**
+         * Returns the MD5 digest of the file and resets the hasher.
+         *
+         * @return the 16 bytes of the digest
+         */
+        public byte[] digest() {
+            return digest.digest();
+        }
+    }
 }
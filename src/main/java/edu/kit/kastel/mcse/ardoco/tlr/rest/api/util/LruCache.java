@@ -0,0 +1,131 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe in-memory cache with a bounded total weight. Once the cache is full, the least recently used entries are evicted.
+ * <p>
+ * By default, every entry weighs 1, so that the weight bounds the number of entries. With a weigher, the weight can bound e.g. the
+ * memory used by the entries instead. An eviction listener can release resources that the evicted values hold, e.g. files.
+ *
+ * @param <V> the type of the cached values
+ */
+public final class LruCache<V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final BiConsumer<String, ? super V> evictionListener;
+    private final LinkedHashMap<String, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long evictions;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the maximum number of entries; {@code 0} disables the cache
+     * @throws IllegalArgumentException if the maximum number of entries is negative
+     */
+    public LruCache(int maxEntries) {
+        this(maxEntries, value -> 1);
+    }
+
+    /**
+     * Creates an empty cache whose entries are weighed by the given function.
+     *
+     * @param maxWeight the maximum total weight of the entries; {@code 0} disables the cache
+     * @param weigher   the function that determines the weight of a value, must not be negative
+     * @throws IllegalArgumentException if the maximum weight is negative
+     */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        this(maxWeight, weigher, (key, value) -> {
+        });
+    }
+
+    /**
+     * Creates an empty cache whose entries are weighed by the given function and that notifies the given listener of evicted entries.
+     * The listener is called while the cache is locked, so it should be fast and must not access the cache.
+     *
+     * @param maxWeight        the maximum total weight of the entries; {@code 0} disables the cache
+     * @param weigher          the function that determines the weight of a value, must not be negative
+     * @param evictionListener the listener that is called with the key and value of every evicted entry
+     * @throws IllegalArgumentException if the maximum weight is negative
+     */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher, BiConsumer<String, ? super V> evictionListener) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("The maximum weight must not be negative, but was " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Returns the value of a key and marks it as recently used.
+     *
+     * @param key the key
+     * @return the value, or empty if the key is not cached
+     */
+    public synchronized Optional<V> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    /**
+     * Caches the value of a key, evicting the least recently used entries until the cache does not exceed its maximum weight. Values that
+     * are heavier than the maximum weight are not cached.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public synchronized void put(String key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        V replaced = entries.put(key, value);
+        if (replaced != null) {
+            weight -= weigher.applyAsLong(replaced);
+        }
+        weight += valueWeight;
+        Iterator<Map.Entry<String, V>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            Map.Entry<String, V> entry = eldest.next();
+            weight -= weigher.applyAsLong(entry.getValue());
+            eldest.remove();
+            evictions++;
+            evictionListener.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total weight of the cached entries.
+     *
+     * @return the weight
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of entries that have been evicted to make room for others.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
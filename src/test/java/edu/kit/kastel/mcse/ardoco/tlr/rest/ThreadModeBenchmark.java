@@ -0,0 +1,122 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DatabaseAccessor;
+
+/**
+ * Compares request handling on platform threads (Tomcat thread pool) with request handling on virtual threads
+ * ({@code spring.threads.virtual.enabled}) for many concurrent clients polling for a result.
+ * <p>
+ * The benchmark is not part of the regular build, as its name does not match the tests that Surefire runs by default. Run it with
+ * {@code mvn test -Dtest=ThreadModeBenchmark}; the number of clients and requests can be changed with {@code -Dtlr.benchmark.clients} and
+ * {@code -Dtlr.benchmark.requests}. The results are logged.
+ */
+public class ThreadModeBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModeBenchmark.class);
+
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    private static final String RESULT_ID = "swattrResult:benchmark";
+    private static final String RESULT_JSON = "{\"traceLinks\":[],\"inconsistencies\":[]}";
+
+    private static final int CLIENTS = Integer.getInteger("tlr.benchmark.clients", 2000);
+    private static final int REQUESTS = Integer.getInteger("tlr.benchmark.requests", 20000);
+
+    private static GenericContainer<?> redis;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        redis.stop();
+    }
+
+    @ParameterizedTest(name = "virtual threads: {0}")
+    @ValueSource(booleans = { false, true })
+    void benchmarkPollingClients(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ArDoCoRestApplication.class).properties("server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads, "spring.data.redis.host=" + redis.getHost(), "spring.data.redis.port=" + redis
+                        .getMappedPort(REDIS_PORT), "logging.level.org.springframework.data.redis=INFO", "tlr.warmup.mode=off").run()) {
+            context.getBean(DatabaseAccessor.class).saveResult(RESULT_ID, RESULT_JSON);
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/get-result/" + RESULT_ID);
+
+            // warm up the server and the connection pool
+            runClients(uri, Math.min(CLIENTS, 100), 1000);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            List<Long> latencies = runClients(uri, CLIENTS, REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Collections.sort(latencies);
+            logger.info(String.format(
+                    "virtual threads: %-5s | clients: %5d | requests: %6d | throughput: %8.0f req/s | p50: %6.1f ms | p99: %7.1f ms | peak platform threads: %4d",
+                    virtualThreads, CLIENTS, REQUESTS, REQUESTS / seconds, percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, threads
+                            .getPeakThreadCount()));
+        }
+    }
+
+    private static List<Long> runClients(URI uri, int clients, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).GET().build();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int clientNumber = 0; clientNumber < clients; clientNumber++) {
+                int requestsOfClient = requests / clients + (clientNumber < requests % clients ? 1 : 0);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < requestsOfClient; i++) {
+                        long requestStart = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            assertEquals(200, response.statusCode());
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        latencies.add(System.nanoTime() - requestStart);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+        return latencies;
+    }
+
+    private static long percentile(List<Long> sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, index));
+    }
+}
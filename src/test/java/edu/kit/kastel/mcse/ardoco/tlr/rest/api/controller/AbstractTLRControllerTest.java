@@ -61,6 +61,8 @@ public abstract class AbstractTLRControllerTest {
         redis.start();
         System.setProperty("spring.data.redis.host", redis.getHost());
         System.setProperty("spring.data.redis.port", redis.getMappedPort(REDIS_PORT).toString());
+        // the tests do not wait for the pipelines to be warmed up
+        System.setProperty("tlr.warmup.mode", "off");
         System.out.println(redis.getHost() + ":" + redis.getMappedPort(REDIS_PORT));
     }
 
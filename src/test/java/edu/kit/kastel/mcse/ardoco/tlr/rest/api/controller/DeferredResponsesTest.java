@@ -0,0 +1,52 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArdocoResultResponse;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+
+public class DeferredResponsesTest {
+
+    @Test
+    void testResponseIsSetOnceTheFutureCompletes() {
+        CompletableFuture<Optional<ArDoCoApiResult>> future = new CompletableFuture<>();
+        DeferredResult<ResponseEntity<ArdocoResultResponse>> deferredResult = DeferredResponses.of(future, 60, this::buildResponse);
+        assertFalse(deferredResult.hasResult());
+
+        future.complete(Optional.empty());
+
+        assertTrue(deferredResult.hasResult());
+        ResponseEntity<?> response = (ResponseEntity<?>) deferredResult.getResult();
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+
+    @Test
+    void testErrorIsPassedToExceptionHandling() {
+        CompletableFuture<Optional<ArDoCoApiResult>> future = new CompletableFuture<>();
+        DeferredResult<ResponseEntity<ArdocoResultResponse>> deferredResult = DeferredResponses.of(future.thenApply(result -> result), 60,
+                this::buildResponse);
+
+        future.completeExceptionally(new IllegalStateException("pipeline failed"));
+
+        ArdocoException error = assertInstanceOf(ArdocoException.class, deferredResult.getResult());
+        assertEquals("pipeline failed", error.getMessage());
+    }
+
+    private ResponseEntity<ArdocoResultResponse> buildResponse(Optional<ArDoCoApiResult> result) {
+        ArdocoResultResponse response = new ArdocoResultResponse("id", HttpStatus.ACCEPTED, "not ready");
+        return new ResponseEntity<>(response, response.getStatus());
+    }
+}
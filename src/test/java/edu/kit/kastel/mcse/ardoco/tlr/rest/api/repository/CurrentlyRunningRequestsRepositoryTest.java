@@ -0,0 +1,74 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+
+public class CurrentlyRunningRequestsRepositoryTest {
+
+    private final CurrentlyRunningRequestsRepository repository = new CurrentlyRunningRequestsRepository();
+
+    @Test
+    void testConcurrentSubmissionsShareOneJob() throws Exception {
+        int submitters = 16;
+        AtomicInteger createdJobs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(submitters);
+        try {
+            List<Future<PipelineJob>> jobs = new ArrayList<>();
+            for (int i = 0; i < submitters; i++) {
+                jobs.add(executor.submit(() -> {
+                    start.await();
+                    return repository.computeIfAbsent("id", key -> {
+                        createdJobs.incrementAndGet();
+                        return new PipelineJob(key, TraceLinkType.SAD_SAM);
+                    });
+                }));
+            }
+            start.countDown();
+
+            PipelineJob first = jobs.get(0).get();
+            for (Future<PipelineJob> job : jobs) {
+                assertSame(first, job.get());
+            }
+            assertEquals(1, createdJobs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRemoveOnlyRemovesRegisteredJob() {
+        PipelineJob job = repository.computeIfAbsent("id", key -> new PipelineJob(key, TraceLinkType.SAD_SAM));
+        PipelineJob otherJob = new PipelineJob("id", TraceLinkType.SAD_SAM);
+
+        repository.removeRequest(otherJob);
+        assertTrue(repository.containsRequest("id"));
+
+        repository.removeRequest(job);
+        assertFalse(repository.containsRequest("id"));
+    }
+
+    @Test
+    void testJoinCountsSubmitters() {
+        PipelineJob job = new PipelineJob("id", TraceLinkType.SAD_SAM);
+        assertEquals(1, job.getSubmitterCount());
+        assertEquals(2, job.join());
+        assertEquals(2, job.getSubmitterCount());
+    }
+}
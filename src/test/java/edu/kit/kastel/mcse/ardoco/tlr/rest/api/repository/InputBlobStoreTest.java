@@ -0,0 +1,176 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore.Blob;
+
+public class InputBlobStoreTest {
+
+    // md5sum of "Hello World!"
+    private static final String HELLO_WORLD_DIGEST = "ed076287532e86365e841e92bfc50d8c";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testIdenticalUploadsAreStoredOnce() throws FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 1024);
+
+        Blob first = store.store(upload("text.txt", "Hello World!"));
+        Blob second = store.store(upload("other.txt", "Hello World!"));
+
+        assertEquals(HELLO_WORLD_DIGEST, first.digest());
+        assertEquals(first, second);
+        assertEquals(12, store.size());
+        assertTrue(Files.exists(directory.resolve(HELLO_WORLD_DIGEST).resolve("text.txt")));
+    }
+
+    @Test
+    void testStoreWithoutQuotaIsRejected() {
+        // groups, batches, distributed runs and the journal need the store
+        assertThrows(IllegalArgumentException.class, () -> new InputBlobStore(directory, 0));
+    }
+
+    @Test
+    void testLinkedInputFileOutlivesItsBlobAndKeepsTheStoredFile() throws IOException, FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 20);
+        Blob blob = store.store(upload("text.txt", "Hello World!"));
+
+        File inputFile = store.link(blob.digest());
+        assertEquals("text.txt", inputFile.getName());
+        assertArrayEquals("Hello World!".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(inputFile.toPath()));
+
+        // evicts the blob while the run still reads its input file
+        store.store(upload("model.uml", "Different content"));
+        assertTrue(store.get(blob.digest()).isEmpty());
+        assertArrayEquals("Hello World!".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(inputFile.toPath()));
+
+        FileConverter.deleteConvertedFiles(List.of(inputFile));
+        assertFalse(inputFile.exists());
+    }
+
+    @Test
+    void testLeastRecentlyUsedBlobIsEvicted() throws FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 30);
+        Blob first = store.store(upload("a.txt", "0123456789"));
+        Blob second = store.store(upload("b.txt", "abcdefghij"));
+        store.get(first.digest());
+        Blob third = store.store(upload("c.txt", "ABCDEFGHIJ"));
+        Blob fourth = store.store(upload("d.txt", "klmnopqrst"));
+
+        assertTrue(store.get(first.digest()).isPresent());
+        assertTrue(store.get(second.digest()).isEmpty());
+        assertTrue(store.get(third.digest()).isPresent());
+        assertTrue(store.get(fourth.digest()).isPresent());
+        assertFalse(Files.exists(directory.resolve(second.digest())));
+        assertEquals(30, store.size());
+    }
+
+    @Test
+    void testStoredBlobsAreKeptAcrossRestarts() throws FileConversionException {
+        Blob blob = new InputBlobStore(directory, 1024).store(upload("text.txt", "Hello World!"));
+
+        InputBlobStore restarted = new InputBlobStore(directory, 1024);
+
+        assertEquals(blob, restarted.get(HELLO_WORLD_DIGEST.toUpperCase()).orElseThrow());
+    }
+
+    @Test
+    void testUnknownOrOversizedBlobsAreRejected() throws FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> store.link(HELLO_WORLD_DIGEST));
+        assertThrows(IllegalArgumentException.class, () -> store.store(upload("text.txt", "Hello World!")));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testStreamIsStoredWithoutClosingIt() throws IOException, FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 12);
+        ByteArrayInputStream stream = new ByteArrayInputStream("Hello World!".getBytes(StandardCharsets.UTF_8));
+
+        Blob blob = store.store(stream, "docs/text.txt");
+
+        assertEquals(new Blob(HELLO_WORLD_DIGEST, "text.txt", 12), blob);
+        assertThrows(IllegalArgumentException.class, () -> store.store(new ByteArrayInputStream("Hello World!!".getBytes(StandardCharsets.UTF_8)),
+                "text.txt"));
+        assertEquals(12, store.size());
+        try (Stream<Path> entries = Files.list(directory)) {
+            // the rejected stream leaves nothing behind
+            assertEquals(List.of(directory.resolve(HELLO_WORLD_DIGEST)), entries.toList());
+        }
+    }
+
+    @Test
+    void testRetainedBlobIsKeptBeyondTheQuotaUntilItIsReleased() throws IOException, FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 20);
+        File inputFile = writeInputFile("text.txt", "Hello World!");
+
+        // the digest of the input file is not known, so it is hashed
+        Blob blob = store.retain(inputFile, null, "run1");
+        assertEquals(HELLO_WORLD_DIGEST, blob.digest());
+        assertTrue(store.retain(HELLO_WORLD_DIGEST, "run2"));
+        assertEquals(Set.of("run1", "run2"), store.getOwners());
+
+        store.store(upload("model.uml", "Different content"));
+        assertEquals(blob, store.get(HELLO_WORLD_DIGEST).orElseThrow());
+
+        store.release("run1");
+        assertTrue(store.get(HELLO_WORLD_DIGEST).isPresent());
+        store.release("run2");
+        assertTrue(store.get(HELLO_WORLD_DIGEST).isEmpty());
+        assertFalse(Files.exists(directory.resolve(HELLO_WORLD_DIGEST)));
+        assertTrue(store.getOwners().isEmpty());
+        FileConverter.deleteConvertedFiles(List.of(inputFile));
+    }
+
+    @Test
+    void testRetainedBlobsAreKeptAcrossRestarts() throws IOException, FileConversionException {
+        InputBlobStore store = new InputBlobStore(directory, 1024);
+        File inputFile = writeInputFile("text.txt", "Hello World!");
+        store.retain(inputFile, HELLO_WORLD_DIGEST, "tlr:journal:id1");
+        FileConverter.deleteConvertedFiles(List.of(inputFile));
+
+        // restarted with a quota that is too small for the retained blob
+        InputBlobStore restarted = new InputBlobStore(directory, 10);
+
+        assertEquals(Set.of("tlr:journal:id1"), restarted.getOwners());
+        File linked = restarted.link(HELLO_WORLD_DIGEST, "renamed.txt");
+        assertEquals("renamed.txt", linked.getName());
+        assertArrayEquals("Hello World!".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(linked.toPath()));
+        FileConverter.deleteConvertedFiles(List.of(linked));
+
+        restarted.release("tlr:journal:id1");
+        assertTrue(restarted.get(HELLO_WORLD_DIGEST).isEmpty());
+        assertFalse(restarted.retain(HELLO_WORLD_DIGEST, "tlr:journal:id2"));
+    }
+
+    private static File writeInputFile(String fileName, String content) throws FileConversionException {
+        return FileConverter.writeInputFile(fileName, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile upload(String fileName, String content) {
+        return new MockMultipartFile("file", fileName, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
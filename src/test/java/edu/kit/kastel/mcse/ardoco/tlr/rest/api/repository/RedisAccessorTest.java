@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -90,4 +92,15 @@ public class RedisAccessorTest {
         assertThrows(IllegalArgumentException.class, () -> redisAccessor.saveResult(key, value));
     }
 
+    @Test
+    void testTimeoutIsKeptApartFromTheResult() {
+        String key = "timedOutKey";
+        redisAccessor.saveTimeout(key, "timed out", Duration.ofMinutes(1));
+
+        assertEquals("timed out", redisAccessor.getTimeout(key));
+        assertFalse(redisAccessor.keyExistsInDatabase(key));
+        assertNull(redisAccessor.getResult(key));
+        assertNull(redisAccessor.getTimeout("nonExistentKey"));
+    }
+
 }
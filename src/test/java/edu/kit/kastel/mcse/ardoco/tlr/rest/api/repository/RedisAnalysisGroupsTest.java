@@ -0,0 +1,70 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+
+public class RedisAnalysisGroupsTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    private RedisAnalysisGroups groups;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        groups = new RedisAnalysisGroups(template, 1);
+    }
+
+    @Test
+    void testSavedGroupIsReturnedWithItsMembers() {
+        AnalysisGroup group = new AnalysisGroup("group1", Map.of(Analysis.TRANSARC, new AnalysisGroup.Member("transarc1", "transarc1"),
+                Analysis.SWATTR, new AnalysisGroup.Member("swattr1", "transarc1")));
+        groups.save(group);
+
+        assertEquals(group, groups.get("group1").orElseThrow());
+        assertEquals(group, new RedisAnalysisGroups(template, 1).get("group1").orElseThrow());
+    }
+
+    @Test
+    void testUnknownGroupIsEmpty() {
+        assertTrue(groups.get("unknown").isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+
+public class RedisBatchesTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    private RedisBatches batches;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        batches = new RedisBatches(template, 1);
+    }
+
+    @Test
+    void testSavedBatchKeepsTheOrderOfItsItems() {
+        Batch.Pending pending = new Batch.Pending(List.of(Analysis.SWATTR), Map.of(PipelineInput.TEXTUAL_DOCUMENTATION,
+                "ed076287532e86365e841e92bfc50d8c"), ModelFormat.PCM, new TreeMap<>(Map.of("key", "value")), null, "tenant");
+        Batch batch = new Batch("batch1", List.of(new Batch.Item("project2", "group2", null, null), new Batch.Item("project1", null,
+                "The file is too large", null), new Batch.Item("project3", null, null, pending)));
+        batches.save(batch);
+
+        assertEquals(batch, batches.get("batch1").orElseThrow());
+    }
+
+    @Test
+    void testUnknownBatchIsEmpty() {
+        assertTrue(batches.get("unknown").isEmpty());
+    }
+
+    @Test
+    void testPendingBatchesAreRegisteredUntilRemoved() {
+        batches.addPending("batch1");
+        batches.addPending("batch2");
+        assertEquals(Set.of("batch1", "batch2"), batches.getPendingIds());
+
+        batches.removePending("batch1");
+        assertEquals(Set.of("batch2"), batches.getPendingIds());
+    }
+
+    @Test
+    void testOnlyOneNodeFeedsABatch() {
+        assertTrue(batches.tryLockFeeding("batch1", Duration.ofMinutes(1)));
+        assertFalse(batches.tryLockFeeding("batch1", Duration.ofMinutes(1)));
+        assertTrue(batches.tryLockFeeding("batch2", Duration.ofMinutes(1)));
+
+        batches.unlockFeeding("batch1");
+        assertTrue(batches.tryLockFeeding("batch1", Duration.ofMinutes(1)));
+    }
+}
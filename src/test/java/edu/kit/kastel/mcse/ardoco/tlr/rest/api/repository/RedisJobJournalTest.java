@@ -0,0 +1,176 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+public class RedisJobJournalTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    // md5sum of "text"
+    private static final String TEXT_DIGEST = "1cb251ec0d568de6a929b520c4aed8d1";
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    @TempDir
+    Path blobDirectory;
+
+    private InputBlobStore blobStore;
+    private RedisJobJournal journal;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        blobStore = new InputBlobStore(blobDirectory, 1024);
+        journal = new RedisJobJournal(template, blobStore, 1, "node1");
+    }
+
+    @Test
+    void testRecordedJobIsKeptWithTheDigestsOfItsInputs() {
+        assertTrue(journal.record(createRequest("id1"), "swattrService"));
+
+        assertEquals(List.of("id1"), journal.getIds());
+        assertEquals(Set.of("id1"), journal.getRecordedIds());
+        DistributedJob job = journal.get("id1").orElseThrow();
+        assertEquals("swattrService", job.serviceName());
+        assertEquals(ModelFormat.PCM, job.modelFormat());
+        assertEquals(Map.of("key", "value"), job.additionalConfigs());
+        assertEquals(new DistributedJob.InputFile("text.txt", TEXT_DIGEST), job.inputs().get(PipelineInput.TEXTUAL_DOCUMENTATION));
+        assertEquals(Set.of("tlr:journal:id1"), blobStore.getOwners());
+    }
+
+    @Test
+    void testRecordedJobIsRestoredFromTheInputStore() throws IOException {
+        journal.record(createRequest("id1"), "swattrService");
+
+        PipelineRequest request = journal.get("id1").orElseThrow().toRequest(blobStore);
+
+        File inputFile = request.inputFile(PipelineInput.TEXTUAL_DOCUMENTATION);
+        assertEquals("text.txt", inputFile.getName());
+        assertArrayEquals("text".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(inputFile.toPath()));
+        assertEquals(TEXT_DIGEST, request.inputDigest(PipelineInput.TEXTUAL_DOCUMENTATION));
+        FileConverter.deleteConvertedFiles(request.inputFileList());
+    }
+
+    @Test
+    void testRecordedJobsAreSeenByOtherNodes() {
+        journal.record(createRequest("id1"), "swattrService");
+
+        RedisJobJournal otherNode = new RedisJobJournal(template, blobStore, 1, "node2");
+        assertEquals(List.of("id1"), otherNode.getIds());
+        assertTrue(otherNode.getRecordedIds().isEmpty());
+        assertTrue(otherNode.get("id1").isPresent());
+        assertTrue(journal.isRecordedByThisNode("id1"));
+        assertFalse(otherNode.isRecordedByThisNode("id1"));
+    }
+
+    @Test
+    void testFinishedJobIsRemovedWithItsInputs() {
+        journal.record(createRequest("id1"), "swattrService");
+        journal.record(createRequest("id2"), "swattrService");
+        assertTrue(journal.remove("id1"));
+
+        assertEquals(List.of("id2"), journal.getIds());
+        assertEquals(Set.of("id2"), journal.getRecordedIds());
+        assertTrue(journal.get("id1").isEmpty());
+        assertEquals(Set.of("tlr:journal:id2"), blobStore.getOwners());
+    }
+
+    @Test
+    void testClosedJournalKeepsItsJobsAndTheirInputs() {
+        journal.record(createRequest("id1"), "swattrService");
+        journal.close();
+
+        assertFalse(journal.remove("id1"));
+        assertFalse(journal.record(createRequest("id2"), "swattrService"));
+        assertEquals(List.of("id1"), journal.getIds());
+        assertEquals(Set.of("tlr:journal:id1"), blobStore.getOwners());
+    }
+
+    @Test
+    void testInputsOfForgottenJobsAreReleased() {
+        journal.record(createRequest("id1"), "swattrService");
+        journal.record(createRequest("id2"), "swattrService");
+        // e.g. expired
+        template.delete("tlr:journal:id1");
+
+        // the run is still executed by this node
+        journal.releaseForgottenInputs();
+        assertEquals(Set.of("tlr:journal:id1", "tlr:journal:id2"), blobStore.getOwners());
+
+        // after a restart, the run is gone
+        InputBlobStore restartedStore = new InputBlobStore(blobDirectory, 1024);
+        new RedisJobJournal(template, restartedStore, 1, "node1").releaseForgottenInputs();
+        assertEquals(Set.of("tlr:journal:id2"), restartedStore.getOwners());
+    }
+
+    @Test
+    void testRecoveredJobNeedsItsInputsOnThisNode(@TempDir Path otherBlobDirectory) {
+        journal.record(createRequest("id1"), "swattrService");
+        DistributedJob job = journal.get("id1").orElseThrow();
+
+        InputBlobStore otherStore = new InputBlobStore(otherBlobDirectory, 1024);
+        assertFalse(job.inputsAreStored(otherStore));
+        assertThrows(ArdocoException.class, () -> new RedisJobJournal(template, otherStore, 1, "node2").record(job));
+        assertTrue(job.inputsAreStored(blobStore));
+        assertTrue(journal.record(job));
+    }
+
+    private PipelineRequest createRequest(String id) {
+        TreeMap<String, String> additionalConfigs = new TreeMap<>(Map.of("key", "value"));
+        File inputFile = FileConverter.writeInputFile("text.txt", "text".getBytes(StandardCharsets.UTF_8));
+        return new PipelineRequest(id, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, inputFile), Map.of(), ModelFormat.PCM,
+                additionalConfigs, null, "tenant");
+    }
+}
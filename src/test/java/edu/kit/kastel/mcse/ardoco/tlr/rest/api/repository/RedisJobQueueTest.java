@@ -0,0 +1,224 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobQueue.ClaimedJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+
+public class RedisJobQueueTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    private static final Duration LEASE = Duration.ofMillis(200);
+    // md5sum of "text"
+    private static final String TEXT_DIGEST = "1cb251ec0d568de6a929b520c4aed8d1";
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    @TempDir
+    Path blobDirectory;
+
+    private InputBlobStore blobStore;
+    private RedisJobQueue jobQueue;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        blobStore = new InputBlobStore(blobDirectory, 4 * 1024 * 1024);
+        blobStore.store(new ByteArrayInputStream("text".getBytes(StandardCharsets.UTF_8)), "text.txt");
+        jobQueue = new RedisJobQueue(template, blobStore, 1);
+        jobQueue.createConsumerGroup();
+    }
+
+    @Test
+    void testPublishedJobIsClaimedOnce() {
+        jobQueue.publish(createJob("id1"));
+
+        List<ClaimedJob> claimed = jobQueue.claimNew("node1", 5);
+        assertEquals(1, claimed.size());
+        assertEquals("id1", claimed.get(0).jobId());
+        assertTrue(jobQueue.claimNew("node2", 5).isEmpty());
+
+        DistributedJob job = jobQueue.getJob("id1").orElseThrow();
+        assertEquals("swattrService", job.serviceName());
+        assertEquals(ModelFormat.PCM, job.modelFormat());
+        assertEquals(Map.of("key", "value"), job.additionalConfigs());
+        assertEquals(new DistributedJob.InputFile("text.txt", TEXT_DIGEST), job.inputs().get(PipelineInput.TEXTUAL_DOCUMENTATION));
+        assertEquals(Optional.of(JobState.QUEUED), jobQueue.getState("id1"));
+    }
+
+    @Test
+    void testCreatingTheConsumerGroupTwiceIsAllowed() {
+        jobQueue.createConsumerGroup();
+        jobQueue.publish(createJob("id1"));
+        assertEquals(1, jobQueue.claimNew("node1", 5).size());
+    }
+
+    @Test
+    void testAbandonedJobIsClaimedByAnotherWorker() throws InterruptedException {
+        jobQueue.publish(createJob("id1"));
+        jobQueue.claimNew("node1", 5);
+        assertTrue(jobQueue.claimAbandoned("node2", LEASE, 5).isEmpty());
+
+        Thread.sleep(LEASE.multipliedBy(2).toMillis());
+
+        List<ClaimedJob> claimed = jobQueue.claimAbandoned("node2", LEASE, 5);
+        assertEquals(1, claimed.size());
+        assertEquals("id1", claimed.get(0).jobId());
+    }
+
+    @Test
+    void testRenewedClaimIsNotTakenOver() throws InterruptedException {
+        jobQueue.publish(createJob("id1"));
+        ClaimedJob claimed = jobQueue.claimNew("node1", 5).get(0);
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(LEASE.dividedBy(2).toMillis());
+            jobQueue.renewClaims("node1", List.of(claimed.recordId()));
+        }
+
+        assertTrue(jobQueue.claimAbandoned("node2", LEASE, 5).isEmpty());
+    }
+
+    @Test
+    void testAcknowledgedJobIsNotRedelivered() throws InterruptedException {
+        jobQueue.publish(createJob("id1"));
+        ClaimedJob claimed = jobQueue.claimNew("node1", 5).get(0);
+        jobQueue.finish("id1", JobState.DONE);
+        jobQueue.acknowledge(claimed.recordId());
+
+        Thread.sleep(LEASE.multipliedBy(2).toMillis());
+
+        assertTrue(jobQueue.claimAbandoned("node2", LEASE, 5).isEmpty());
+        assertTrue(jobQueue.getJob("id1").isEmpty());
+        assertEquals(Optional.of(JobState.DONE), jobQueue.getState("id1"));
+    }
+
+    @Test
+    void testStateOfUnknownJobIsNotRecorded() {
+        jobQueue.setState("unknown", JobState.RUNNING);
+        assertTrue(jobQueue.getState("unknown").isEmpty());
+
+        jobQueue.publish(createJob("id1"));
+        jobQueue.setState("id1", JobState.RUNNING);
+        assertEquals(Optional.of(JobState.RUNNING), jobQueue.getState("id1"));
+    }
+
+    @Test
+    void testInputsAreFetchedByAnotherNode(@TempDir Path otherBlobDirectory) throws IOException {
+        // larger than one chunk of the transfer
+        byte[] code = new byte[3 * 1024 * 1024 + 17];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = (byte) (i * 31);
+        }
+        String codeDigest = blobStore.store(new ByteArrayInputStream(code), "code.zip").digest();
+        DistributedJob job = new DistributedJob("id1", "arcotlService", "project", ModelFormat.PCM, new TreeMap<>(), null, "tenant", Map.of(
+                PipelineInput.TEXTUAL_DOCUMENTATION, new DistributedJob.InputFile("text.txt", TEXT_DIGEST), PipelineInput.CODE,
+                new DistributedJob.InputFile("code.zip", codeDigest)));
+        jobQueue.publish(job);
+
+        InputBlobStore otherBlobStore = new InputBlobStore(otherBlobDirectory, 4 * 1024 * 1024);
+        RedisJobQueue otherNode = new RedisJobQueue(template, otherBlobStore, 1);
+        assertFalse(job.inputsAreStored(otherBlobStore));
+        otherNode.fetchInputs(otherNode.getJob("id1").orElseThrow());
+
+        assertTrue(job.inputsAreStored(otherBlobStore));
+        try (InputStream content = otherBlobStore.open(codeDigest)) {
+            assertArrayEquals(code, content.readAllBytes());
+        }
+        try (InputStream content = otherBlobStore.open(TEXT_DIGEST)) {
+            assertArrayEquals("text".getBytes(StandardCharsets.UTF_8), content.readAllBytes());
+        }
+    }
+
+    @Test
+    void testInputsAreHandedOverOncePerContent() {
+        jobQueue.publish(createJob("id1"));
+        jobQueue.publish(createJob("id2"));
+
+        assertEquals(Boolean.TRUE, template.hasKey("tlr:job-input:" + TEXT_DIGEST));
+        assertEquals(1, template.keys("tlr:job-input:*").size());
+    }
+
+    @Test
+    void testExpiredInputCannotBeFetched(@TempDir Path otherBlobDirectory) {
+        jobQueue.publish(createJob("id1"));
+        template.delete("tlr:job-input:" + TEXT_DIGEST);
+
+        RedisJobQueue otherNode = new RedisJobQueue(template, new InputBlobStore(otherBlobDirectory, 1024), 1);
+        DistributedJob job = otherNode.getJob("id1").orElseThrow();
+        assertThrows(ArdocoException.class, () -> otherNode.fetchInputs(job));
+    }
+
+    @Test
+    void testOnlyWaitingJobIsCancelledInTheQueue() {
+        jobQueue.publish(createJob("id1"));
+        jobQueue.publish(createJob("id2"));
+        jobQueue.setState("id2", JobState.RUNNING);
+
+        assertTrue(jobQueue.cancel("id1"));
+        assertFalse(jobQueue.cancel("id2"));
+        assertFalse(jobQueue.cancel("unknown"));
+
+        assertEquals(Optional.of(JobState.CANCELLED), jobQueue.getState("id1"));
+        assertTrue(jobQueue.getJob("id1").isEmpty());
+        assertEquals(Optional.of(JobState.RUNNING), jobQueue.getState("id2"));
+    }
+
+    private static DistributedJob createJob(String id) {
+        TreeMap<String, String> additionalConfigs = new TreeMap<>(Map.of("key", "value"));
+        Map<PipelineInput, DistributedJob.InputFile> inputs = Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, new DistributedJob.InputFile("text.txt",
+                TEXT_DIGEST));
+        return new DistributedJob(id, "swattrService", "project", ModelFormat.PCM, additionalConfigs, null, "tenant", inputs);
+    }
+}
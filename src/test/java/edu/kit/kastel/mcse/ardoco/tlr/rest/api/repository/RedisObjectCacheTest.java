@@ -0,0 +1,83 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+
+public class RedisObjectCacheTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    private static final String ALLOWED_CLASSES = "java.lang.*;java.util.*";
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    private RedisObjectCache cache;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        cache = new RedisObjectCache(template, 1, ALLOWED_CLASSES);
+    }
+
+    @Test
+    void testValueOfAllowedClassesIsRead() {
+        ArrayList<String> value = new ArrayList<>(List.of("a", "b"));
+        cache.put("namespace", "key", value);
+
+        assertEquals(Optional.of(value), cache.get("namespace", "key", ArrayList.class));
+        assertTrue(cache.get("namespace", "other", ArrayList.class).isEmpty());
+        assertTrue(cache.get("other", "key", ArrayList.class).isEmpty());
+    }
+
+    @Test
+    void testValueWithClassOutsideTheAllowListIsRejected() {
+        cache.put("namespace", "key", new ArrayList<>(List.of(new Payload("a"))));
+
+        ArdocoException error = assertThrows(ArdocoException.class, () -> cache.get("namespace", "key", ArrayList.class));
+        assertInstanceOf(InvalidClassException.class, error.getCause());
+    }
+
+    private record Payload(String content) implements Serializable {
+    }
+}
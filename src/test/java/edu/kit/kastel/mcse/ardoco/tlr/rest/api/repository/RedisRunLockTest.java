@@ -0,0 +1,135 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+
+public class RedisRunLockTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    private static final Duration LEASE = Duration.ofMillis(200);
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    private RedisRunLock node1;
+    private RedisRunLock node2;
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        node1 = new RedisRunLock(template, LEASE);
+        node2 = new RedisRunLock(template, LEASE);
+    }
+
+    @Test
+    void testClaimedRequestCannotBeClaimedByAnotherNode() {
+        assertTrue(node1.tryAcquire("id1", JobState.QUEUED));
+        assertFalse(node2.tryAcquire("id1", JobState.QUEUED));
+        assertFalse(node1.tryAcquire("id1", JobState.QUEUED));
+        assertTrue(node2.tryAcquire("id2", JobState.QUEUED));
+        assertEquals(Optional.of(JobState.QUEUED), node2.getState("id1"));
+    }
+
+    @Test
+    void testExpiredClaimIsTakenOver() throws InterruptedException {
+        node1.tryAcquire("id1", JobState.RUNNING);
+
+        Thread.sleep(LEASE.multipliedBy(2).toMillis());
+
+        assertTrue(node2.getState("id1").isEmpty());
+        assertTrue(node2.tryAcquire("id1", JobState.QUEUED));
+        assertFalse(node1.renew("id1"));
+    }
+
+    @Test
+    void testRenewedClaimIsKept() throws InterruptedException {
+        node1.tryAcquire("id1", JobState.RUNNING);
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(LEASE.dividedBy(2).toMillis());
+            assertTrue(node1.renew("id1"));
+        }
+
+        assertFalse(node2.tryAcquire("id1", JobState.QUEUED));
+    }
+
+    @Test
+    void testFinishedRunKeepsItsStateAndCanBeClaimedAgain() throws InterruptedException {
+        node1.tryAcquire("id1", JobState.RUNNING);
+        node1.finish("id1", JobState.CANCELLED);
+
+        Thread.sleep(LEASE.multipliedBy(2).toMillis());
+
+        assertEquals(Optional.of(JobState.CANCELLED), node2.getState("id1"));
+        assertTrue(node2.tryAcquire("id1", JobState.QUEUED));
+        assertEquals(Optional.of(JobState.QUEUED), node1.getState("id1"));
+    }
+
+    @Test
+    void testOnlyTheOwnerChangesTheClaim() {
+        node1.tryAcquire("id1", JobState.QUEUED);
+
+        node2.setState("id1", JobState.RUNNING);
+        node2.finish("id1", JobState.DONE);
+        node2.release("id1");
+        assertEquals(Optional.of(JobState.QUEUED), node1.getState("id1"));
+
+        node1.setState("id1", JobState.RUNNING);
+        assertEquals(Optional.of(JobState.RUNNING), node2.getState("id1"));
+        node1.release("id1");
+        assertTrue(node2.getState("id1").isEmpty());
+    }
+
+    @Test
+    void testCancellationIsRequestedFromTheOwnerOfTheClaim() {
+        assertFalse(node2.requestCancel("id1"));
+
+        node1.tryAcquire("id1", JobState.RUNNING);
+        assertFalse(node1.isCancelRequested("id1"));
+        assertTrue(node2.requestCancel("id1"));
+        assertTrue(node1.isCancelRequested("id1"));
+
+        // a finished run cannot be cancelled anymore, and a new claim starts without the request
+        node1.finish("id1", JobState.DONE);
+        assertFalse(node2.requestCancel("id1"));
+        assertTrue(node2.tryAcquire("id1", JobState.QUEUED));
+        assertFalse(node2.isCancelRequested("id1"));
+    }
+}
@@ -0,0 +1,76 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class FairShareQueueTest {
+
+    @Test
+    void testTenantsTakeTurns() {
+        FairShareQueue<String> queue = new FairShareQueue<>(tenant -> 1);
+        queue.add("ci", "ci1");
+        queue.add("ci", "ci2");
+        queue.add("ci", "ci3");
+        queue.add("alice", "alice1");
+        queue.add("bob", "bob1");
+
+        assertEquals(List.of("ci1", "alice1", "bob1", "ci2", "ci3"), pollAll(queue));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void testWeightAllowsRunsInARow() {
+        Map<String, Integer> weights = Map.of("ci", 2);
+        FairShareQueue<String> queue = new FairShareQueue<>(tenant -> weights.getOrDefault(tenant, 1));
+        queue.add("ci", "ci1");
+        queue.add("ci", "ci2");
+        queue.add("ci", "ci3");
+        queue.add("alice", "alice1");
+        queue.add("alice", "alice2");
+
+        assertEquals(List.of("ci1", "ci2", "alice1", "ci3", "alice2"), pollAll(queue));
+    }
+
+    @Test
+    void testDispatchOrderDoesNotChangeQueue() {
+        FairShareQueue<String> queue = new FairShareQueue<>(tenant -> 1);
+        queue.add("ci", "ci1");
+        queue.add("ci", "ci2");
+        queue.add("alice", "alice1");
+
+        assertEquals(List.of("ci1", "alice1", "ci2"), queue.inDispatchOrder());
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.size("ci"));
+        assertEquals(List.of("ci1", "alice1", "ci2"), pollAll(queue));
+    }
+
+    @Test
+    void testRemove() {
+        FairShareQueue<String> queue = new FairShareQueue<>(tenant -> 1);
+        queue.add("ci", "ci1");
+        queue.add("alice", "alice1");
+
+        assertTrue(queue.remove("alice1"));
+        assertFalse(queue.remove("alice1"));
+        assertEquals(0, queue.size("alice"));
+        assertEquals(List.of("ci1"), pollAll(queue));
+        assertTrue(queue.isEmpty());
+    }
+
+    private static List<String> pollAll(FairShareQueue<String> queue) {
+        List<String> elements = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            elements.add(queue.poll());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,70 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+
+public class PipelineJobTest {
+
+    @Test
+    void testStateListenersAreNotified() {
+        PipelineJob job = new PipelineJob("id", TraceLinkType.SAD_SAM);
+        List<JobState> states = new ArrayList<>();
+        Consumer<JobState> listener = states::add;
+        job.addStateListener(listener);
+
+        assertEquals(JobState.QUEUED, job.getState());
+        job.setState(JobState.RUNNING);
+        job.setState(JobState.CONVERTING);
+        job.removeStateListener(listener);
+        job.setState(JobState.SAVING);
+
+        assertEquals(List.of(JobState.RUNNING, JobState.CONVERTING), states);
+        assertEquals(JobState.SAVING, job.getState());
+    }
+
+    @Test
+    void testCancelledJobKeepsItsState() {
+        PipelineJob job = new PipelineJob("id", TraceLinkType.SAD_SAM);
+        job.setState(JobState.RUNNING);
+
+        assertTrue(job.cancel());
+        assertFalse(job.cancel());
+        job.setState(JobState.CONVERTING);
+
+        assertEquals(JobState.CANCELLED, job.getState());
+        assertFalse(job.beginSaving());
+    }
+
+    @Test
+    void testJobCannotBeCancelledWhileSaving() {
+        PipelineJob job = new PipelineJob("id", TraceLinkType.SAD_SAM);
+
+        assertTrue(job.beginSaving());
+        assertFalse(job.cancel());
+        assertFalse(job.isCancelled());
+    }
+
+    @Test
+    void testTimedOutJobEndsInError() {
+        PipelineJob job = new PipelineJob("id", TraceLinkType.SAD_SAM);
+        job.setState(JobState.RUNNING);
+
+        assertTrue(job.timeOut());
+        assertFalse(job.cancel());
+        job.setState(JobState.CONVERTING);
+
+        assertEquals(JobState.ERROR, job.getState());
+        assertTrue(job.isCancelled());
+        assertFalse(job.beginSaving());
+    }
+}
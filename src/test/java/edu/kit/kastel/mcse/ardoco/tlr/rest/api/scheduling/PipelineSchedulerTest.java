@@ -0,0 +1,298 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler.LaneSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PipelineSchedulerTest {
+
+    private static final TraceLinkType HEAVY = TraceLinkType.SAD_SAM_CODE;
+    private static final TraceLinkType LIGHT = TraceLinkType.SAD_SAM;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PipelineScheduler scheduler = createScheduler(false);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() {
+        scheduler.submit("running", HEAVY, this::block);
+        scheduler.submit("queued1", HEAVY, this::block);
+        scheduler.submit("queued2", HEAVY, this::block);
+
+        assertThrows(TooManyRequestsException.class, () -> scheduler.submit("rejected", HEAVY, this::block));
+    }
+
+    @Test
+    void testLaneWithoutQueueAcceptsRunsThatStartRightAway() throws Exception {
+        PipelineScheduler unqueued = new PipelineScheduler(Map.of(HEAVY, new LaneSettings(1, 0)), false);
+        try {
+            CompletableFuture<String> running = unqueued.submit("running", HEAVY, this::block);
+
+            assertThrows(TooManyRequestsException.class, () -> unqueued.submit("rejected", HEAVY, this::block));
+            assertEquals(0, unqueued.getQueuePosition("rejected"));
+            release.countDown();
+            assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        } finally {
+            unqueued.shutdown();
+        }
+    }
+
+    @Test
+    void testQueuePosition() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit("running", HEAVY, () -> {
+            started.countDown();
+            return block();
+        });
+        scheduler.submit("queued1", HEAVY, this::block);
+        scheduler.submit("queued2", HEAVY, this::block);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, scheduler.getQueuePosition("running"));
+        assertEquals(1, scheduler.getQueuePosition("queued1"));
+        assertEquals(2, scheduler.getQueuePosition("queued2"));
+        assertEquals(0, scheduler.getQueuePosition("unknown"));
+    }
+
+    @Test
+    void testBusyLaneDoesNotBlockOtherLane() throws Exception {
+        scheduler.submit("heavy1", HEAVY, this::block);
+        scheduler.submit("heavy2", HEAVY, this::block);
+        scheduler.submit("heavy3", HEAVY, this::block);
+
+        CompletableFuture<String> light = scheduler.submit("light", LIGHT, () -> "result");
+        assertEquals("result", light.get(5, TimeUnit.SECONDS));
+        assertThrows(TooManyRequestsException.class, () -> scheduler.submit("rejected", HEAVY, this::block));
+    }
+
+    @Test
+    void testIdleLaneCapacityIsBorrowed() throws Exception {
+        scheduler.shutdown();
+        scheduler = createScheduler(true);
+
+        CountDownLatch started = new CountDownLatch(2);
+        scheduler.submit("heavy1", HEAVY, () -> {
+            started.countDown();
+            return block();
+        });
+        scheduler.submit("heavy2", HEAVY, () -> {
+            started.countDown();
+            return block();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getQueuePosition("heavy2"));
+    }
+
+    @Test
+    void testOwningLaneGetsTheNextFreeSlotWhileItsSlotIsLent() throws Exception {
+        scheduler.shutdown();
+        scheduler = createScheduler(true);
+        CountDownLatch releaseBorrowed = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+
+        scheduler.submit("heavy1", HEAVY, () -> {
+            started.countDown();
+            return block();
+        });
+        scheduler.submit("heavy2", HEAVY, () -> {
+            started.countDown();
+            try {
+                releaseBorrowed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "done";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // both slots are in use, so the light lane has to wait although the heavy lane borrows its slot
+        CountDownLatch lightStarted = new CountDownLatch(1);
+        scheduler.submit("light", LIGHT, () -> {
+            lightStarted.countDown();
+            return block();
+        });
+        scheduler.submit("heavy3", HEAVY, this::block);
+        assertEquals(1, scheduler.getQueuePosition("light"));
+
+        // the light lane gets the freed slot before the heavy lane can borrow it again
+        releaseBorrowed.countDown();
+        assertTrue(lightStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, scheduler.getQueuePosition("heavy3"));
+    }
+
+    @Test
+    void testQueuedRunsAreSharedFairlyAcrossTenants() {
+        scheduler.shutdown();
+        scheduler = new PipelineScheduler(Map.of(HEAVY, new LaneSettings(1, 10)), false, Map.of("ci", 2), new SimpleMeterRegistry());
+
+        scheduler.submit("running", HEAVY, "ci", this::block);
+        scheduler.submit("ci1", HEAVY, "ci", this::block);
+        scheduler.submit("ci2", HEAVY, "ci", this::block);
+        scheduler.submit("ci3", HEAVY, "ci", this::block);
+        scheduler.submit("alice1", HEAVY, "alice", this::block);
+
+        assertEquals(1, scheduler.getQueuePosition("ci1"));
+        assertEquals(2, scheduler.getQueuePosition("ci2"));
+        assertEquals(3, scheduler.getQueuePosition("alice1"));
+        assertEquals(4, scheduler.getQueuePosition("ci3"));
+        assertEquals(3, scheduler.getQueueDepth("ci"));
+        assertEquals(1, scheduler.getQueueDepth("alice"));
+    }
+
+    @Test
+    void testQueueDepthIsPublishedForWeightedTenantsAndOthers() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        scheduler.shutdown();
+        scheduler = new PipelineScheduler(Map.of(HEAVY, new LaneSettings(1, 10)), false, Map.of("ci", 2), meterRegistry);
+
+        scheduler.submit("running", HEAVY, "ci", this::block);
+        scheduler.submit("ci1", HEAVY, "ci", this::block);
+        scheduler.submit("ci2", HEAVY, "ci", this::block);
+        scheduler.submit("alice1", HEAVY, "alice", this::block);
+        scheduler.submit("bob1", HEAVY, "bob", this::block);
+
+        assertEquals(2.0, meterRegistry.get(PipelineScheduler.QUEUE_DEPTH_METRIC).tag("tenant", "ci").gauge().value());
+        assertEquals(2.0, meterRegistry.get(PipelineScheduler.QUEUE_DEPTH_METRIC).tag("tenant", PipelineScheduler.OTHER_TENANTS).gauge().value());
+        assertNull(meterRegistry.find(PipelineScheduler.QUEUE_DEPTH_METRIC).tag("tenant", "alice").gauge());
+    }
+
+    @Test
+    void testCancelQueuedRun() {
+        scheduler.submit("running", HEAVY, this::block);
+        CompletableFuture<String> queued = scheduler.submit("queued", HEAVY, this::block);
+
+        assertTrue(scheduler.cancel("queued"));
+        assertEquals(0, scheduler.getQueuePosition("queued"));
+        assertThrows(CancellationException.class, queued::join);
+        assertFalse(scheduler.cancel("unknown"));
+    }
+
+    @Test
+    void testCancelRunningRunInterruptsAndFreesSlot() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+        scheduler.submit("running", HEAVY, () -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+                interrupted.complete(false);
+            } catch (InterruptedException e) {
+                interrupted.complete(true);
+            }
+            return "done";
+        });
+        CompletableFuture<String> next = scheduler.submit("next", HEAVY, () -> "result");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(scheduler.cancel("running"));
+        assertTrue(interrupted.get(5, TimeUnit.SECONDS));
+        assertEquals("result", next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCancelledRunKeepsItsSlotUntilItsThreadReturns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<String> running = scheduler.submit("running", HEAVY, () -> {
+            started.countDown();
+            // like ArDoCo, ignores the interruption
+            boolean finished = false;
+            while (!finished) {
+                try {
+                    finished = finish.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // keep computing
+                }
+            }
+            return "done";
+        });
+        CompletableFuture<String> next = scheduler.submit("next", HEAVY, () -> "result");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(scheduler.cancel("running"));
+        assertThrows(CancellationException.class, running::join);
+        assertEquals(1, scheduler.getQueuePosition("next"));
+        assertFalse(next.isDone());
+        assertEquals(1, scheduler.getAbandonedRuns());
+        assertTrue(scheduler.isAbandoned("running"));
+        assertFalse(scheduler.isAbandoned("next"));
+
+        finish.countDown();
+        assertEquals("result", next.get(5, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getAbandonedRuns());
+        assertFalse(scheduler.isAbandoned("running"));
+    }
+
+    @Test
+    void testShutdownInterruptsRunningRunsAndDiscardsQueuedRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> shutDownWhenInterrupted = new CompletableFuture<>();
+        scheduler.submit("running", HEAVY, () -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+                shutDownWhenInterrupted.complete(false);
+            } catch (InterruptedException e) {
+                // what a failing run sees when it decides whether to save its error
+                shutDownWhenInterrupted.complete(scheduler.isShutDown());
+            }
+            return "done";
+        });
+        CompletableFuture<String> queued = scheduler.submit("queued", HEAVY, this::block);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(scheduler.isShutDown());
+
+        scheduler.shutdown();
+        assertTrue(scheduler.isShutDown());
+        assertTrue(shutDownWhenInterrupted.get(5, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, queued::join);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.submit("rejected", LIGHT, () -> "result"));
+    }
+
+    @Test
+    void testPipelinesRunOnPlatformThreads() throws Exception {
+        CompletableFuture<Boolean> virtual = scheduler.submit("id", LIGHT, () -> Thread.currentThread().isVirtual());
+        assertFalse(virtual.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFutureIsCompletedWithResult() throws Exception {
+        CompletableFuture<String> future = scheduler.submit("id", LIGHT, () -> "result");
+        assertEquals("result", future.get(5, TimeUnit.SECONDS));
+    }
+
+    private static PipelineScheduler createScheduler(boolean borrowingEnabled) {
+        return new PipelineScheduler(Map.of(HEAVY, new LaneSettings(1, 2), LIGHT, new LaneSettings(1, 2)), borrowingEnabled);
+    }
+
+    private String block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,67 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+
+public class PipelineWatchdogTest {
+
+    private final PipelineWatchdog watchdog = new PipelineWatchdog(Map.of(TraceLinkType.SAD_SAM, Duration.ofSeconds(60), TraceLinkType.SAD_CODE,
+            Duration.ZERO));
+
+    @AfterEach
+    void tearDown() {
+        watchdog.shutdown();
+    }
+
+    @Test
+    void testConfiguredBudgetIsUsedWithoutDeadline() {
+        assertEquals(Optional.of(Duration.ofSeconds(60)), watchdog.getTimeBudget(TraceLinkType.SAD_SAM, null));
+        assertEquals(Optional.empty(), watchdog.getTimeBudget(TraceLinkType.SAD_CODE, null));
+        assertEquals(Optional.empty(), watchdog.getTimeBudget(TraceLinkType.SAM_CODE, null));
+    }
+
+    @Test
+    void testDeadlineCanOnlyLowerBudget() {
+        assertEquals(Optional.of(Duration.ofSeconds(10)), watchdog.getTimeBudget(TraceLinkType.SAD_SAM, 10));
+        assertEquals(Optional.of(Duration.ofSeconds(60)), watchdog.getTimeBudget(TraceLinkType.SAD_SAM, 600));
+        assertEquals(Optional.of(Duration.ofSeconds(600)), watchdog.getTimeBudget(TraceLinkType.SAD_CODE, 600));
+    }
+
+    @Test
+    void testRejectsNonPositiveDeadline() {
+        assertThrows(IllegalArgumentException.class, () -> watchdog.getTimeBudget(TraceLinkType.SAD_SAM, 0));
+        assertThrows(IllegalArgumentException.class, () -> watchdog.getTimeBudget(TraceLinkType.SAD_SAM, -5));
+    }
+
+    @Test
+    void testOverrunActionRunsOnceBudgetIsUsedUp() throws Exception {
+        CountDownLatch overrun = new CountDownLatch(1);
+        watchdog.watch("id", Duration.ofMillis(50), overrun::countDown);
+
+        assertTrue(overrun.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCancelledWatchDoesNotFire() throws Exception {
+        CountDownLatch overrun = new CountDownLatch(1);
+        ScheduledFuture<?> watch = watchdog.watch("id", Duration.ofMillis(200), overrun::countDown);
+        watch.cancel(false);
+
+        assertFalse(overrun.await(500, TimeUnit.MILLISECONDS));
+    }
+}
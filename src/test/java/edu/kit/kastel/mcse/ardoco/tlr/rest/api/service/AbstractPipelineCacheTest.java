@@ -0,0 +1,186 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisObjectCache;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AbstractPipelineCacheTest {
+
+    // md5sum of "Hello World!"
+    private static final String HELLO_WORLD_DIGEST = "ed076287532e86365e841e92bfc50d8c";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLookupsAreCountedAsHitsAndMisses() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TestCache cache = new TestCache(null, meterRegistry);
+
+        cache.put("key", "value");
+        assertEquals(Optional.of("value"), cache.get("key"));
+        assertTrue(cache.get("other").isEmpty());
+
+        assertEquals(1.0, meterRegistry.get(AbstractPipelineCache.CACHE_METRIC).tag("cache", "test").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get(AbstractPipelineCache.CACHE_METRIC).tag("cache", "test").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testRunsCannotChangeTheCachedValue() {
+        BuilderCache cache = new BuilderCache();
+        StringBuilder value = new StringBuilder("value");
+        cache.put("key", value);
+        value.append(" changed by the run that has computed it");
+        cache.get("key").orElseThrow().append(" changed by a run that has restored it");
+
+        assertEquals("value", cache.get("key").orElseThrow().toString());
+        assertNotSame(cache.get("key").orElseThrow(), cache.get("key").orElseThrow());
+    }
+
+    @Test
+    void testValuesFromRedisAreKeptInMemory() {
+        InMemoryRedisObjectCache redisCache = new InMemoryRedisObjectCache();
+        new TestCache(redisCache, new SimpleMeterRegistry()).put("key", "value");
+        TestCache otherNode = new TestCache(redisCache, new SimpleMeterRegistry());
+
+        assertEquals(Optional.of("value"), otherNode.get("key"));
+        assertEquals(Optional.of("value"), otherNode.get("key"));
+        assertEquals(1, redisCache.reads);
+    }
+
+    @Test
+    void testFailingRedisOnlyCausesMisses() {
+        TestCache cache = new TestCache(new FailingRedisObjectCache(), new SimpleMeterRegistry());
+
+        assertTrue(cache.get("key").isEmpty());
+        cache.put("key", "value");
+        assertEquals(Optional.of("value"), cache.get("key"));
+    }
+
+    @Test
+    void testInputIsHashedByTheDigestOfTheRequest() throws IOException {
+        File text = directory.resolve("text.txt").toFile();
+        Files.writeString(text.toPath(), "Hello World!", StandardCharsets.UTF_8);
+        File missing = directory.resolve("missing.txt").toFile();
+
+        Optional<String> hashOfFile = AbstractPipelineCache.hashOf(request(text, null), PipelineInput.TEXTUAL_DOCUMENTATION);
+        Optional<String> hashOfDigest = AbstractPipelineCache.hashOf(request(missing, HELLO_WORLD_DIGEST), PipelineInput.TEXTUAL_DOCUMENTATION);
+
+        // the file with the digest is not read at all
+        assertTrue(hashOfFile.isPresent());
+        assertEquals(hashOfFile, hashOfDigest);
+        assertTrue(AbstractPipelineCache.hashOf(request(missing, null), PipelineInput.TEXTUAL_DOCUMENTATION).isEmpty());
+        assertTrue(AbstractPipelineCache.hashOf(request(text, null), PipelineInput.CODE).isEmpty());
+    }
+
+    private static PipelineRequest request(File text, String digest) {
+        Map<PipelineInput, String> digests = digest == null ? Map.of() : Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, digest);
+        return new PipelineRequest("id", "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, text), digests, null, new TreeMap<>(), null,
+                "tenant");
+    }
+
+    private static final class TestCache extends AbstractPipelineCache<String> {
+
+        private TestCache(RedisObjectCache redisCache, SimpleMeterRegistry meterRegistry) {
+            super("test", String.class, 2, redisCache, meterRegistry);
+        }
+
+        @Override
+        public Optional<String> keyOf(PipelineRequest request) {
+            return hashOf(request, PipelineInput.TEXTUAL_DOCUMENTATION);
+        }
+
+        @Override
+        public boolean restore(String key, ArdocoRunner runner) {
+            return get(key).isPresent();
+        }
+
+        @Override
+        public void store(String key, ArdocoResult result) {
+            // nothing to take from the result
+        }
+    }
+
+    private static final class BuilderCache extends AbstractPipelineCache<StringBuilder> {
+
+        private BuilderCache() {
+            super("builder", StringBuilder.class, 2, null, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public Optional<String> keyOf(PipelineRequest request) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean restore(String key, ArdocoRunner runner) {
+            return false;
+        }
+
+        @Override
+        public void store(String key, ArdocoResult result) {
+            // nothing to take from the result
+        }
+    }
+
+    private static class InMemoryRedisObjectCache extends RedisObjectCache {
+
+        private final Map<String, Serializable> values = new HashMap<>();
+        private int reads;
+
+        private InMemoryRedisObjectCache() {
+            super(null, 1, "java.**");
+        }
+
+        @Override
+        public <T extends Serializable> Optional<T> get(String namespace, String key, Class<T> type) {
+            reads++;
+            return Optional.ofNullable(values.get(namespace + ":" + key)).map(type::cast);
+        }
+
+        @Override
+        public void put(String namespace, String key, Serializable value) {
+            values.put(namespace + ":" + key, value);
+        }
+    }
+
+    private static final class FailingRedisObjectCache extends RedisObjectCache {
+
+        private FailingRedisObjectCache() {
+            super(null, 1, "java.**");
+        }
+
+        @Override
+        public <T extends Serializable> Optional<T> get(String namespace, String key, Class<T> type) throws ArdocoException {
+            throw new ArdocoException("Redis is down");
+        }
+
+        @Override
+        public void put(String namespace, String key, Serializable value) throws ArdocoException {
+            throw new ArdocoException("Redis is down");
+        }
+    }
+}
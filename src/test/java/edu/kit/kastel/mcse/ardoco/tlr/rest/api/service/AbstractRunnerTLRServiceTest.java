@@ -0,0 +1,175 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+
+public class AbstractRunnerTLRServiceTest {
+    private static final String ID = "SAD_SAM_id";
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+    private final TestNode node = new TestNode(database, 2);
+    private final PipelineScheduler scheduler = node.scheduler;
+    private final BlockingService service = node.register(new BlockingService());
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testTimedOutRunIsNotStoredAndAnsweredToResubmissions() throws Exception {
+        service.runPipeline(createRequest(1));
+        assertTrue(service.started.tryAcquire(5, TimeUnit.SECONDS));
+        PipelineJob timedOutJob = service.getRunningJob(ID).orElseThrow();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> timedOutJob.getFuture().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ArdocoException.class, error.getCause());
+        // the deadline of one client must not answer the submissions of others
+        assertTrue(database.results.isEmpty());
+        assertTrue(service.getRunningJob(ID).isEmpty());
+
+        // clients that ask for the result afterwards learn about the timeout
+        ResultService resultService = node.createResultService();
+        ArdocoException timedOut = assertThrows(ArdocoException.class, () -> resultService.getResult(ID));
+        assertEquals(error.getCause().getMessage(), timedOut.getMessage());
+        assertThrows(ArdocoException.class, () -> resultService.waitForResult(ID));
+
+        // so do clients that submit the request again, instead of starting another run that cannot be stopped
+        awaitNoAbandonedRuns();
+        ArdocoException resubmitted = assertThrows(ArdocoException.class, () -> service.runPipeline(createRequest(null)));
+        assertEquals(timedOut.getMessage(), resubmitted.getMessage());
+        assertTrue(service.getRunningJob(ID).isEmpty());
+
+        // once the timeout is forgotten, the request runs again
+        database.timeouts.clear();
+        service.runPipeline(createRequest(null));
+        assertTrue(service.started.tryAcquire(5, TimeUnit.SECONDS));
+        assertNotSame(timedOutJob, service.getRunningJob(ID).orElseThrow());
+        assertTrue(database.results.isEmpty());
+    }
+
+    @Test
+    void testSubmissionThatMissesTheDatabaseReadsItTwice() throws Exception {
+        assertTrue(service.runPipeline(ID, () -> createRequest(null)).isEmpty());
+        assertTrue(service.started.tryAcquire(5, TimeUnit.SECONDS));
+
+        // the lookup before creating the request and the check after registering the run
+        assertEquals(2, database.reads.get());
+    }
+
+    @Test
+    void testRunCancelledDuringItsSetupNeverStartsArDoCo() throws Exception {
+        UninterruptibleService uninterruptible = node.register(new UninterruptibleService());
+        uninterruptible.runPipeline(createRequest(null));
+        assertTrue(uninterruptible.started.tryAcquire(5, TimeUnit.SECONDS));
+        PipelineJob job = uninterruptible.getRunningJob(ID).orElseThrow();
+
+        // the setup ignores the interrupt, like ArDoCo
+        assertTrue(job.cancel());
+        assertTrue(scheduler.cancel(ID));
+        assertEquals(1, scheduler.getAbandonedRuns());
+        uninterruptible.release.release();
+
+        awaitNoAbandonedRuns();
+        verify(uninterruptible.runner, never()).run();
+        assertTrue(database.results.isEmpty());
+    }
+
+    @Test
+    void testSubmissionIsRejectedWhileAnAbandonedRunOfItsRequestHoldsASlot() throws Exception {
+        UninterruptibleService uninterruptible = node.register(new UninterruptibleService());
+        uninterruptible.runPipeline(createRequest(null));
+        assertTrue(uninterruptible.started.tryAcquire(5, TimeUnit.SECONDS));
+        PipelineJob job = uninterruptible.getRunningJob(ID).orElseThrow();
+        assertTrue(job.cancel());
+        node.runningRequests.removeRequest(job);
+        assertTrue(scheduler.cancel(ID));
+
+        assertThrows(TooManyRequestsException.class, () -> uninterruptible.runPipeline(createRequest(null)));
+        AtomicInteger createdRequests = new AtomicInteger();
+        assertThrows(TooManyRequestsException.class, () -> uninterruptible.runPipeline(ID, () -> {
+            createdRequests.incrementAndGet();
+            return createRequest(null);
+        }));
+        // no input files are stored for a submission that is rejected anyway
+        assertEquals(0, createdRequests.get());
+        assertTrue(uninterruptible.getRunningJob(ID).isEmpty());
+
+        uninterruptible.release.release();
+        awaitNoAbandonedRuns();
+        uninterruptible.runPipeline(createRequest(null));
+        assertTrue(uninterruptible.started.tryAcquire(5, TimeUnit.SECONDS));
+        assertNotSame(job, uninterruptible.getRunningJob(ID).orElseThrow());
+        uninterruptible.release.release();
+    }
+
+    private void awaitNoAbandonedRuns() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getAbandonedRuns() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.getAbandonedRuns());
+    }
+
+    private static PipelineRequest createRequest(Integer deadlineSeconds) {
+        File inputFile = FileConverter.writeInputFile("text.txt", "text".getBytes(StandardCharsets.UTF_8));
+        return new PipelineRequest(ID, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, inputFile), Map.of(), null, new TreeMap<>(),
+                deadlineSeconds, "tenant");
+    }
+
+    /**
+     * Ignores interrupts in the setup of the pipeline until it is released.
+     */
+    private static final class UninterruptibleService extends AbstractRunnerTLRService {
+        private final Semaphore started = new Semaphore(0);
+        private final Semaphore release = new Semaphore(0);
+        private final ArdocoRunner runner = mock(ArdocoRunner.class);
+
+        private UninterruptibleService() {
+            super(TraceLinkType.SAD_SAM);
+        }
+
+        @Override
+        protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) {
+            started.release();
+            release.acquireUninterruptibly();
+            return runner;
+        }
+    }
+}
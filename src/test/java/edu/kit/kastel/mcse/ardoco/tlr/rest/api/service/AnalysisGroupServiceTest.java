@@ -0,0 +1,341 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.AnalysisGroup;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisAnalysisGroups;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler.LaneSettings;
+
+public class AnalysisGroupServiceTest {
+
+    // md5sums of "Hello World!" and "Hello World"
+    private static final String FIRST_DIGEST = "ed076287532e86365e841e92bfc50d8c";
+    private static final String SECOND_DIGEST = "b10a8db164e0754105b7a99be72e3fe5";
+
+    private static final AnalysisGroup.Member DERIVED_MEMBER = new AnalysisGroup.Member("swattr", "transarc");
+    private static final CompletableFuture<Void> NO_OWN_RUN = CompletableFuture.completedFuture(null);
+
+    private static final Map<Analysis, String> REQUEST_IDS = Map.of(Analysis.SWATTR, "swattr", Analysis.INCONSISTENCIES, "inconsistencies",
+            Analysis.TRANSARC, "transarc", Analysis.ARCOTL, "arcotl");
+
+    @Test
+    void testGroupIdDependsOnTheKindOfEveryInput() {
+        Set<Analysis> analyses = EnumSet.of(Analysis.SWATTR);
+        String groupId = AnalysisGroupService.groupIdOf(analyses, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, FIRST_DIGEST,
+                PipelineInput.ARCHITECTURE_MODEL, SECOND_DIGEST), new TreeMap<>());
+
+        assertEquals(groupId, AnalysisGroupService.groupIdOf(analyses, "project", Map.of(PipelineInput.ARCHITECTURE_MODEL, SECOND_DIGEST,
+                PipelineInput.TEXTUAL_DOCUMENTATION, FIRST_DIGEST), new TreeMap<>()));
+        // the same files as different kinds of input
+        assertNotEquals(groupId, AnalysisGroupService.groupIdOf(analyses, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, SECOND_DIGEST,
+                PipelineInput.ARCHITECTURE_MODEL, FIRST_DIGEST), new TreeMap<>()));
+        assertNotEquals(AnalysisGroupService.groupIdOf(analyses, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, FIRST_DIGEST),
+                new TreeMap<>()), AnalysisGroupService.groupIdOf(analyses, "project", Map.of(PipelineInput.CODE, FIRST_DIGEST), new TreeMap<>()));
+    }
+
+    @Test
+    void testAnalysisIsProvidedByThePreferredPipelineThatRuns() {
+        assertEquals(Optional.of(Analysis.TRANSARC), AnalysisGroupService.providerOf(Analysis.SWATTR, REQUEST_IDS, id -> false));
+        assertEquals(Optional.of(Analysis.TRANSARC), AnalysisGroupService.providerOf(Analysis.ARCOTL, REQUEST_IDS, id -> false));
+        // a stored result of TransArC means that its pipeline does not run
+        assertEquals(Optional.of(Analysis.INCONSISTENCIES), AnalysisGroupService.providerOf(Analysis.SWATTR, REQUEST_IDS, "transarc"::equals));
+        assertTrue(AnalysisGroupService.providerOf(Analysis.ARCOTL, REQUEST_IDS, "transarc"::equals).isEmpty());
+    }
+
+    @Test
+    void testAnalysisRunsOnItsOwnWithoutProvider() {
+        // the result of the analysis itself is stored
+        assertTrue(AnalysisGroupService.providerOf(Analysis.SWATTR, REQUEST_IDS, "swattr"::equals).isEmpty());
+        // no providing analysis is requested
+        assertTrue(AnalysisGroupService.providerOf(Analysis.SWATTR, Map.of(Analysis.SWATTR, "swattr", Analysis.ARCOTL, "arcotl"), id -> false)
+                .isEmpty());
+        // providers do not provide each other
+        assertTrue(AnalysisGroupService.providerOf(Analysis.TRANSARC, REQUEST_IDS, id -> false).isEmpty());
+        assertTrue(AnalysisGroupService.providerOf(Analysis.INCONSISTENCIES, REQUEST_IDS, id -> false).isEmpty());
+    }
+
+    @Test
+    void testDerivedMemberIsReadOnceItsProviderHasFinished() throws InterruptedException, ExecutionException {
+        FakeResultService resultService = new FakeResultService();
+        CompletableFuture<Optional<ArDoCoApiResult>> providerResult = new CompletableFuture<>();
+        resultService.running.put("transarc", providerResult);
+        ArDoCoApiResult derivedResult = new ArDoCoApiResult("swattr-links");
+        resultService.stored.put("swattr", derivedResult);
+
+        CompletableFuture<Optional<ArDoCoApiResult>> result = AnalysisGroupService.waitForMember(DERIVED_MEMBER, resultService, NO_OWN_RUN);
+        assertFalse(result.isDone());
+
+        providerResult.complete(Optional.of(new ArDoCoApiResult("transarc-links")));
+        assertSame(derivedResult, result.get().orElseThrow());
+    }
+
+    @Test
+    void testDerivedMemberIsNotReadIfItsProviderTimesOutOrFails() {
+        FakeResultService resultService = new FakeResultService();
+        resultService.running.put("transarc", CompletableFuture.completedFuture(Optional.empty()));
+        resultService.running.put("inconsistencies", CompletableFuture.failedFuture(new ArdocoException("The pipeline has failed")));
+
+        assertTrue(AnalysisGroupService.waitForMember(DERIVED_MEMBER, resultService, NO_OWN_RUN).join().isEmpty());
+        CompletableFuture<Optional<ArDoCoApiResult>> failed = AnalysisGroupService.waitForMember(new AnalysisGroup.Member("swattr",
+                "inconsistencies"), resultService, NO_OWN_RUN);
+        assertThrows(ExecutionException.class, failed::get);
+        assertTrue(resultService.readIds.isEmpty());
+    }
+
+    @Test
+    void testMemberWaitsForItsOwnRunIfItsProviderHasNotProvidedIt() throws InterruptedException, ExecutionException {
+        FakeResultService resultService = new FakeResultService();
+        resultService.running.put("transarc", CompletableFuture.failedFuture(new ArdocoException("The pipeline has been cancelled")));
+        CompletableFuture<Void> ownRunStarted = new CompletableFuture<>();
+
+        CompletableFuture<Optional<ArDoCoApiResult>> result = AnalysisGroupService.waitForMember(DERIVED_MEMBER, resultService, ownRunStarted);
+        assertFalse(result.isDone());
+
+        CompletableFuture<Optional<ArDoCoApiResult>> ownResult = new CompletableFuture<>();
+        resultService.running.put("swattr", ownResult);
+        ownRunStarted.complete(null);
+        assertFalse(result.isDone());
+
+        ArDoCoApiResult swattrResult = new ArDoCoApiResult("swattr-links");
+        ownResult.complete(Optional.of(swattrResult));
+        assertSame(swattrResult, result.get().orElseThrow());
+    }
+
+    @Test
+    void testMemberIsStartedOnItsOwnOnceItsProviderHasFinishedWithoutProvidingIt() {
+        AtomicInteger ownRuns = new AtomicInteger();
+        CompletableFuture<Object> providerRun = new CompletableFuture<>();
+        CompletableFuture<Void> ownRun = AnalysisGroupService.runOnItsOwnIfNotProvided(Analysis.SWATTR, DERIVED_MEMBER, providerRun,
+                id -> false, ownRuns::incrementAndGet);
+        assertEquals(0, ownRuns.get());
+
+        // e.g. the provider has failed to save its derived results
+        providerRun.complete(new ArDoCoApiResult("transarc-links"));
+        ownRun.join();
+        assertEquals(1, ownRuns.get());
+
+        AnalysisGroupService.runOnItsOwnIfNotProvided(Analysis.SWATTR, DERIVED_MEMBER, CompletableFuture.failedFuture(new ArdocoException(
+                "The pipeline has timed out")), id -> false, ownRuns::incrementAndGet).join();
+        assertEquals(2, ownRuns.get());
+
+        // the provider has saved the derived result
+        AnalysisGroupService.runOnItsOwnIfNotProvided(Analysis.SWATTR, DERIVED_MEMBER, CompletableFuture.completedFuture(null),
+                "swattr"::equals, ownRuns::incrementAndGet).join();
+        assertEquals(2, ownRuns.get());
+    }
+
+    @Test
+    void testMemberFailsIfItsInputFilesAreNoLongerStored() {
+        CompletableFuture<Void> ownRun = AnalysisGroupService.runOnItsOwnIfNotProvided(Analysis.SWATTR, DERIVED_MEMBER, CompletableFuture
+                .failedFuture(new ArdocoException("The pipeline has failed")), id -> false, () -> {
+                    throw new IllegalArgumentException("No file with digest " + FIRST_DIGEST + " is stored.");
+                });
+
+        ExecutionException error = assertThrows(ExecutionException.class, ownRun::get);
+        assertInstanceOf(ArdocoException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("upload them again"));
+    }
+
+    @Test
+    void testMemberResultIsOnlyAvailableOnceItsProviderHasFinished() {
+        FakeResultService resultService = new FakeResultService();
+        ArDoCoApiResult derivedResult = new ArDoCoApiResult("swattr-links");
+        resultService.stored.put("swattr", derivedResult);
+
+        // the derived result is saved before the provider has finished
+        assertTrue(AnalysisGroupService.getMemberResult(DERIVED_MEMBER, resultService).join().isEmpty());
+
+        resultService.stored.put("transarc", new ArDoCoApiResult("transarc-links"));
+        assertSame(derivedResult, AnalysisGroupService.getMemberResult(DERIVED_MEMBER, resultService).join().orElseThrow());
+    }
+
+    @Test
+    void testProvidedAnalysisDoesNotRunItsOwnPipeline() {
+        Map<TraceLinkType, LaneSettings> lanes = new EnumMap<>(TraceLinkType.class);
+        for (TraceLinkType type : TraceLinkType.values()) {
+            lanes.put(type, new LaneSettings(1, 5));
+        }
+        PipelineScheduler scheduler = new PipelineScheduler(lanes, false);
+        try {
+            CurrentlyRunningRequestsRepository runningRequests = new CurrentlyRunningRequestsRepository();
+            RunningResultService resultService = new RunningResultService(runningRequests);
+            SchedulingInputBlobService inputBlobService = new SchedulingInputBlobService(scheduler, runningRequests, resultService.stored);
+            ConfigurationProviderService configurationProviderService = new ConfigurationProviderService();
+            ReflectionTestUtils.setField(configurationProviderService, "defaultConfiguration", Map.of());
+            AnalysisGroupService service = new AnalysisGroupService(new FakeAnalysisGroups(), resultService, inputBlobService,
+                    configurationProviderService);
+
+            // SWATTR comes before TransArC in the order of the analyses
+            AnalysisGroup group = service.start(EnumSet.of(Analysis.SWATTR, Analysis.TRANSARC), "project", Map.of(
+                    PipelineInput.TEXTUAL_DOCUMENTATION, FIRST_DIGEST, PipelineInput.ARCHITECTURE_MODEL, SECOND_DIGEST, PipelineInput.CODE,
+                    FIRST_DIGEST), ModelFormat.UML, new TreeMap<>(), null, "tenant");
+            String transArCId = group.members().get(Analysis.TRANSARC).requestId();
+            assertEquals(transArCId, group.members().get(Analysis.SWATTR).providerId());
+            inputBlobService.derivedIds.add(group.members().get(Analysis.SWATTR).requestId());
+
+            inputBlobService.release.countDown();
+            service.waitForGroup(group).values().forEach(result -> assertTrue(result.join().isPresent()));
+
+            assertEquals(List.of(transArCId), inputBlobService.startedIds);
+            assertEquals(1, inputBlobService.runs.get());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static final class FakeResultService extends ResultService {
+
+        private final Map<String, CompletableFuture<Optional<ArDoCoApiResult>>> running = new HashMap<>();
+        private final Map<String, ArDoCoApiResult> stored = new HashMap<>();
+        private final Set<String> readIds = new HashSet<>();
+
+        @Override
+        public Optional<ArDoCoApiResult> getResult(String id) {
+            readIds.add(id);
+            return Optional.ofNullable(stored.get(id));
+        }
+
+        @Override
+        public CompletableFuture<Optional<ArDoCoApiResult>> waitForResult(String id) {
+            return running.getOrDefault(id, CompletableFuture.completedFuture(Optional.ofNullable(stored.get(id))));
+        }
+
+        @Override
+        public Optional<PipelineJob> getRunningJob(String id) {
+            return running.containsKey(id) ? Optional.of(new PipelineJob(id, TraceLinkType.SAD_SAM)) : Optional.empty();
+        }
+
+        @Override
+        protected boolean resultIsInDatabase(String id) {
+            return stored.containsKey(id);
+        }
+    }
+
+    /**
+     * Finds the runs in flight in a repository and the results in a map, like the result service of a single node.
+     */
+    private static final class RunningResultService extends ResultService {
+
+        private final CurrentlyRunningRequestsRepository runningRequests;
+        private final Map<String, ArDoCoApiResult> stored = new ConcurrentHashMap<>();
+
+        private RunningResultService(CurrentlyRunningRequestsRepository runningRequests) {
+            this.runningRequests = runningRequests;
+        }
+
+        @Override
+        public Optional<ArDoCoApiResult> getResult(String id) {
+            return getRunningJob(id).isPresent() ? Optional.empty() : Optional.ofNullable(stored.get(id));
+        }
+
+        @Override
+        public CompletableFuture<Optional<ArDoCoApiResult>> waitForResult(String id) {
+            return getRunningJob(id).map(job -> job.getFuture().thenApply(Optional::of))
+                    .orElseGet(() -> CompletableFuture.completedFuture(Optional.ofNullable(stored.get(id))));
+        }
+
+        @Override
+        public Optional<PipelineJob> getRunningJob(String id) {
+            return runningRequests.getRequest(id);
+        }
+
+        @Override
+        protected boolean resultIsInDatabase(String id) {
+            return stored.containsKey(id);
+        }
+    }
+
+    /**
+     * Runs a pipeline on the scheduler for every started analysis, which saves its result and the derived results once it is released.
+     */
+    private static final class SchedulingInputBlobService extends InputBlobService {
+
+        private final PipelineScheduler scheduler;
+        private final CurrentlyRunningRequestsRepository runningRequests;
+        private final Map<String, ArDoCoApiResult> stored;
+        private final List<String> startedIds = new CopyOnWriteArrayList<>();
+        private final List<String> derivedIds = new CopyOnWriteArrayList<>();
+        private final AtomicInteger runs = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private SchedulingInputBlobService(PipelineScheduler scheduler, CurrentlyRunningRequestsRepository runningRequests,
+                Map<String, ArDoCoApiResult> stored) {
+            super(null, null, null, null, null, null, null);
+            this.scheduler = scheduler;
+            this.runningRequests = runningRequests;
+            this.stored = stored;
+        }
+
+        @Override
+        public Optional<ArDoCoApiResult> start(Analysis analysis, String requestId, String projectName, Map<PipelineInput, String> digests,
+                ModelFormat modelFormat, SortedMap<String, String> additionalConfigs, Integer deadlineSeconds, String tenant) {
+            startedIds.add(requestId);
+            PipelineJob job = runningRequests.computeIfAbsent(requestId, id -> new PipelineJob(id, analysis.getTraceLinkType()));
+            scheduler.submit(requestId, analysis.getTraceLinkType(), tenant, () -> {
+                runs.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ArDoCoApiResult result = new ArDoCoApiResult(requestId + "-links");
+                stored.put(requestId, result);
+                derivedIds.forEach(derivedId -> stored.put(derivedId, new ArDoCoApiResult(derivedId + "-links")));
+                return result;
+            }).whenComplete((result, error) -> {
+                runningRequests.removeRequest(job);
+                job.getFuture().complete(result);
+            });
+            return Optional.empty();
+        }
+    }
+
+    private static final class FakeAnalysisGroups extends RedisAnalysisGroups {
+
+        private FakeAnalysisGroups() {
+            super(null, 1);
+        }
+
+        @Override
+        public void save(AnalysisGroup group) {
+            // the group is not needed to start its analyses
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.TooManyRequestsException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.AnalysisGroup;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.Batch;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisBatches;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.Analysis;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+
+public class BatchServiceTest {
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    @TempDir
+    Path blobDirectory;
+
+    private InputBlobStore blobStore;
+    private FakeAnalysisGroupService groupService;
+    private FakeBatches batches;
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new InputBlobStore(blobDirectory, 16L * MEGABYTE);
+        groupService = new FakeAnalysisGroupService();
+        batches = new FakeBatches();
+        // at most 1 MB per file and 2 MB per archive
+        batchService = new BatchService(groupService, blobStore, batches, 3, 1, 2, 10);
+    }
+
+    @Test
+    void testProjectsAreStartedWithTheDigestsOfTheirFiles() throws IOException {
+        byte[] archive = archive(manifest("project1", "doc1.txt", "project2", "doc2.txt"), entries("doc1.txt", "Hello World!", "model.uml", "model",
+                "doc2.txt", "Hello World"));
+
+        Batch batch = batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null);
+
+        assertEquals(List.of(new Batch.Item("project1", "group-project1", null, null), new Batch.Item("project2", "group-project2", null, null)),
+                batch.items());
+        assertEquals(batch, batches.get(batch.batchId()).orElseThrow());
+        assertEquals("ed076287532e86365e841e92bfc50d8c", groupService.started.get("project1").get(PipelineInput.TEXTUAL_DOCUMENTATION));
+        assertEquals("b10a8db164e0754105b7a99be72e3fe5", groupService.started.get("project2").get(PipelineInput.TEXTUAL_DOCUMENTATION));
+        // the model is shared by both projects and stored once
+        assertEquals(groupService.started.get("project1").get(PipelineInput.ARCHITECTURE_MODEL), groupService.started.get("project2").get(
+                PipelineInput.ARCHITECTURE_MODEL));
+        assertTrue(batches.pendingIds.isEmpty());
+    }
+
+    @Test
+    void testManifestMustBeTheFirstEntry() throws IOException {
+        byte[] archive = archive(null, entries("doc1.txt", "Hello World!", BatchService.MANIFEST_FILE_NAME, manifest("project1", "doc1.txt")));
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null));
+        assertTrue(groupService.started.isEmpty());
+    }
+
+    @Test
+    void testInvalidManifestIsRejected() throws IOException {
+        byte[] noJson = archive("{\"projects\": [", entries());
+        byte[] noProjects = archive("{}", entries());
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.submit(new ByteArrayInputStream(noJson), projectName -> "tenant", null));
+        assertThrows(IllegalArgumentException.class, () -> batchService.submit(new ByteArrayInputStream(noProjects), projectName -> "tenant", null));
+    }
+
+    @Test
+    void testOversizedManifestIsRejected() throws IOException {
+        String padding = " ".repeat(MEGABYTE);
+        byte[] archive = archive(manifest("project1", "doc1.txt") + padding, entries("doc1.txt", "Hello World!", "model.uml", "model"));
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null));
+        assertTrue(groupService.started.isEmpty());
+    }
+
+    @Test
+    void testTooManyProjectsAreRejected() throws IOException {
+        byte[] archive = archive(manifest("project1", "doc.txt", "project2", "doc.txt", "project3", "doc.txt", "project4", "doc.txt"), entries());
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null));
+    }
+
+    @Test
+    void testOversizedFileOnlyFailsItsProjects() throws IOException {
+        byte[] archive = archive(manifest("project1", "doc1.txt", "project2", "doc2.txt"), entries("doc1.txt", "x".repeat(MEGABYTE + 1), "model.uml",
+                "model", "doc2.txt", "Hello World"));
+
+        Batch batch = batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null);
+
+        assertNull(batch.items().get(0).groupId());
+        assertTrue(batch.items().get(0).error().contains("doc1.txt"));
+        assertEquals("group-project2", batch.items().get(1).groupId());
+        assertEquals(Set.of("project2"), groupService.started.keySet());
+    }
+
+    @Test
+    void testArchiveIsNotReadBeyondItsMaximumSize() throws IOException {
+        String almostOneMegabyte = "x".repeat(MEGABYTE - 100);
+        byte[] archive = archive(manifest("project1", "doc1.txt", "project2", "doc2.txt", "project3", "doc3.txt"), entries("model.uml",
+                almostOneMegabyte, "doc1.txt", "Hello World!", "doc2.txt", almostOneMegabyte.replace('x', 'y'), "doc3.txt", "z".repeat(200)));
+
+        Batch batch = batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null);
+
+        assertEquals("group-project1", batch.items().get(0).groupId());
+        assertEquals("group-project2", batch.items().get(1).groupId());
+        assertTrue(batch.items().get(2).error().contains("maximum size of 2 megabytes"));
+        assertEquals(Set.of("project1", "project2"), groupService.started.keySet());
+    }
+
+    @Test
+    void testTruncatedArchiveKeepsTheStartedProjects() throws IOException {
+        byte[] randomContent = new byte[64 * 1024];
+        new Random(42).nextBytes(randomContent);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int endOfFirstProject;
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            write(zip, BatchService.MANIFEST_FILE_NAME, manifest("project1", "doc1.txt", "project2", "doc2.txt").getBytes(StandardCharsets.UTF_8));
+            write(zip, "model.uml", "model".getBytes(StandardCharsets.UTF_8));
+            write(zip, "doc1.txt", "Hello World!".getBytes(StandardCharsets.UTF_8));
+            zip.flush();
+            endOfFirstProject = output.size();
+            write(zip, "doc2.txt", randomContent);
+        }
+        byte[] archive = Arrays.copyOf(output.toByteArray(), endOfFirstProject + randomContent.length / 2);
+
+        Batch batch = batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null);
+
+        assertEquals("group-project1", batch.items().get(0).groupId());
+        assertNull(batch.items().get(1).groupId());
+        assertTrue(batch.items().get(1).error().startsWith("The archive could not be read to its end"));
+        assertEquals(batch, batches.get(batch.batchId()).orElseThrow());
+    }
+
+    @Test
+    void testProjectsWaitWhileTheQueueIsFullAndAreStartedInOrderLater() throws IOException {
+        groupService.freePlaces = 1;
+        byte[] archive = archive(manifest("project1", "doc1.txt", "project2", "doc2.txt", "project3", "doc3.txt"), entries("model.uml", "model",
+                "doc1.txt", "first", "doc2.txt", "second", "doc3.txt", "third"));
+
+        Batch batch = batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null);
+
+        assertEquals("group-project1", batch.items().get(0).groupId());
+        assertNotNull(batch.items().get(1).pending());
+        assertNotNull(batch.items().get(2).pending());
+        assertEquals(List.of("project1", "project2"), groupService.attempts);
+        assertEquals(Set.of(batch.batchId()), batches.pendingIds);
+        // the input files of the waiting projects are kept until they have been started
+        assertEquals(Set.of(batch.batchId() + "/1", batch.batchId() + "/2"), blobStore.getOwners());
+
+        // the batch is fed by another node
+        batches.lockedIds.add(batch.batchId());
+        groupService.freePlaces = 1;
+        batchService.feedPendingBatches();
+        assertEquals(Set.of("project1"), groupService.started.keySet());
+        batches.lockedIds.clear();
+
+        batchService.feedPendingBatches();
+        Batch fed = batches.get(batch.batchId()).orElseThrow();
+        assertEquals(new Batch.Item("project2", "group-project2", null, null), fed.items().get(1));
+        assertNotNull(fed.items().get(2).pending());
+        assertEquals(batch.items().get(1).pending().digests(), groupService.started.get("project2"));
+        assertEquals(Set.of(batch.batchId()), batches.pendingIds);
+
+        groupService.freePlaces = 5;
+        batchService.feedPendingBatches();
+        fed = batches.get(batch.batchId()).orElseThrow();
+        assertEquals(new Batch.Item("project3", "group-project3", null, null), fed.items().get(2));
+        assertTrue(batches.pendingIds.isEmpty());
+        assertTrue(batches.lockedIds.isEmpty());
+        assertTrue(blobStore.getOwners().isEmpty());
+    }
+
+    @Test
+    void testBatchIsOnlyFedByTheNodeThatStoresItsInputFiles() throws IOException {
+        groupService.freePlaces = 0;
+        byte[] archive = archive(manifest("project1", "doc1.txt"), entries("model.uml", "model", "doc1.txt", "first"));
+        Batch batch = batchService.submit(new ByteArrayInputStream(archive), projectName -> "tenant", null);
+        assertEquals(Set.of(batch.batchId()), batches.pendingIds);
+
+        InputBlobStore otherBlobStore = new InputBlobStore(blobDirectory.resolve("other"), 16L * MEGABYTE);
+        BatchService otherNode = new BatchService(groupService, otherBlobStore, batches, 3, 1, 2, 10);
+        groupService.freePlaces = 1;
+        otherNode.feedPendingBatches();
+        assertTrue(groupService.started.isEmpty());
+        assertNotNull(batches.get(batch.batchId()).orElseThrow().items().get(0).pending());
+
+        // the input files are kept across a restart of the node
+        new BatchService(groupService, new InputBlobStore(blobDirectory, 16L * MEGABYTE), batches, 3, 1, 2, 10).feedPendingBatches();
+        assertEquals(Set.of("project1"), groupService.started.keySet());
+        assertTrue(batches.pendingIds.isEmpty());
+    }
+
+    private static String manifest(String... projectsAndDocumentations) {
+        StringBuilder projects = new StringBuilder();
+        for (int i = 0; i < projectsAndDocumentations.length; i += 2) {
+            if (i > 0) {
+                projects.append(", ");
+            }
+            projects.append(String.format(
+                    "{\"projectName\": \"%s\", \"analyses\": [\"SWATTR\"], \"inputs\": {\"TEXTUAL_DOCUMENTATION\": \"%s\", \"ARCHITECTURE_MODEL\": \"model.uml\"}, \"modelFormat\": \"UML\"}",
+                    projectsAndDocumentations[i], projectsAndDocumentations[i + 1]));
+        }
+        return "{\"projects\": [" + projects + "]}";
+    }
+
+    private static Map<String, String> entries(String... namesAndContents) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            entries.put(namesAndContents[i], namesAndContents[i + 1]);
+        }
+        return entries;
+    }
+
+    private static byte[] archive(String manifest, Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            if (manifest != null) {
+                write(zip, BatchService.MANIFEST_FILE_NAME, manifest.getBytes(StandardCharsets.UTF_8));
+            }
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                write(zip, entry.getKey(), entry.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static void write(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static final class FakeAnalysisGroupService extends AnalysisGroupService {
+
+        private final Map<String, Map<PipelineInput, String>> started = new HashMap<>();
+        private final List<String> attempts = new ArrayList<>();
+        private int freePlaces = Integer.MAX_VALUE;
+
+        private FakeAnalysisGroupService() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public AnalysisGroup start(Set<Analysis> analyses, String projectName, Map<PipelineInput, String> digests, ModelFormat modelFormat,
+                SortedMap<String, String> additionalConfigs, Integer deadlineSeconds, String tenant) {
+            attempts.add(projectName);
+            if (freePlaces == 0) {
+                throw new TooManyRequestsException("The pipeline queue is full.");
+            }
+            freePlaces--;
+            started.put(projectName, digests);
+            return new AnalysisGroup("group-" + projectName, Map.of());
+        }
+    }
+
+    private static final class FakeBatches extends RedisBatches {
+
+        private final Map<String, Batch> savedBatches = new HashMap<>();
+        private final Set<String> pendingIds = new HashSet<>();
+        private final Set<String> lockedIds = new HashSet<>();
+
+        private FakeBatches() {
+            super(null, 1);
+        }
+
+        @Override
+        public void save(Batch batch) {
+            savedBatches.put(batch.batchId(), batch);
+        }
+
+        @Override
+        public Optional<Batch> get(String batchId) {
+            return Optional.ofNullable(savedBatches.get(batchId));
+        }
+
+        @Override
+        public void addPending(String batchId) {
+            pendingIds.add(batchId);
+        }
+
+        @Override
+        public void removePending(String batchId) {
+            pendingIds.remove(batchId);
+        }
+
+        @Override
+        public Set<String> getPendingIds() {
+            return Set.copyOf(pendingIds);
+        }
+
+        @Override
+        public boolean tryLockFeeding(String batchId, Duration lease) {
+            return lockedIds.add(batchId);
+        }
+
+        @Override
+        public void unlockFeeding(String batchId) {
+            lockedIds.remove(batchId);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+/**
+ * Blocks in the setup of the pipeline until the run is interrupted. Every run that has started releases a permit of {@link #started}.
+ */
+final class BlockingService extends AbstractRunnerTLRService {
+    final Semaphore started = new Semaphore(0);
+
+    BlockingService() {
+        super(TraceLinkType.SAD_SAM);
+    }
+
+    @Override
+    protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException {
+        started.release();
+        try {
+            new Semaphore(0).acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new InterruptedIOException("The setup of the pipeline has been interrupted.");
+    }
+}
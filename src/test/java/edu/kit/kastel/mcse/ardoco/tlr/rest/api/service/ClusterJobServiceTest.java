@@ -0,0 +1,161 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.ArdocoException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisRunLock;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+public class ClusterJobServiceTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    private static final String ID = "SAD_SAM_id";
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void testReplicaFollowsTheRunOfAnotherReplicaInsteadOfRunningThePipeline() throws Exception {
+        // two replicas with tlr.cluster.enabled only: no distributed execution and no journal
+        Node node1 = new Node();
+        Node node2 = new Node();
+        CountingService service1 = node1.register(new CountingService());
+        CountingService service2 = node2.register(new CountingService());
+
+        service1.runPipeline(createRequest());
+        assertTrue(service1.started.await(5, TimeUnit.SECONDS));
+        service2.runPipeline(createRequest());
+
+        PipelineJob followingJob = service2.getRunningJob(ID).orElseThrow();
+        assertEquals(JobState.RUNNING, node2.runLock.getState(ID).orElseThrow());
+
+        service1.release.countDown();
+        ExecutionException error = assertThrows(ExecutionException.class, () -> followingJob.getFuture().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ArdocoException.class, error.getCause());
+        assertEquals(JobState.ERROR, followingJob.getState());
+
+        assertEquals(1, service1.runs.get());
+        assertEquals(0, service2.runs.get());
+        node1.shutdown();
+        node2.shutdown();
+    }
+
+    private static PipelineRequest createRequest() {
+        File inputFile = FileConverter.writeInputFile("text.txt", "text".getBytes(StandardCharsets.UTF_8));
+        return new PipelineRequest(ID, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, inputFile), Map.of(), null, new TreeMap<>(), null,
+                "tenant");
+    }
+
+    /**
+     * The beans of one replica that are involved in claiming runs, wired as the application context does.
+     */
+    private final class Node {
+        private final TestNode node = new TestNode(database, 1);
+        private final RedisRunLock runLock = new RedisRunLock(template, 60);
+        private final ClusterJobService clusterJobService = node.joinCluster(runLock);
+
+        private Node() {
+            ReflectionTestUtils.setField(clusterJobService, "pollIntervalMillis", 50L);
+            clusterJobService.start();
+        }
+
+        private <S extends AbstractRunnerTLRService> S register(S service) {
+            return node.register(service);
+        }
+
+        private void shutdown() {
+            clusterJobService.shutdown();
+            node.scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Counts the pipelines it sets up, and fails them once they are released.
+     */
+    private static final class CountingService extends AbstractRunnerTLRService {
+        private final AtomicInteger runs = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private CountingService() {
+            super(TraceLinkType.SAD_SAM);
+        }
+
+        @Override
+        protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) throws IOException {
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("The model could not be read.");
+        }
+    }
+}
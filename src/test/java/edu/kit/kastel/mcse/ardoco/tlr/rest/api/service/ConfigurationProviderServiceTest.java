@@ -0,0 +1,76 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ConfigurationProviderServiceTest {
+
+    private static final String THRESHOLD = "Agent::threshold";
+    private static final String COUNT = "Agent::count";
+    private static final String ENABLED = "Agent::enabled";
+    private static final String FORMAT = "Agent::format";
+
+    private final ConfigurationProviderService service = new ConfigurationProviderService();
+
+    public ConfigurationProviderServiceTest() {
+        // the default values in the form getDefaultConfiguration writes them, instead of scanning ArDoCo
+        ReflectionTestUtils.setField(service, "defaultConfiguration", Map.of(THRESHOLD, "0.500000", COUNT, "3", ENABLED, "false", FORMAT,
+                "PCM"));
+    }
+
+    @Test
+    void testEquivalentValuesAreWrittenInOneForm() {
+        assertEquals(service.canonicalize(Map.of(COUNT, "1")), service.canonicalize(Map.of(COUNT, "+01")));
+        assertEquals(service.canonicalize(Map.of(ENABLED, "true")), service.canonicalize(Map.of(ENABLED, "TRUE")));
+        assertEquals(service.canonicalize(Map.of(THRESHOLD, "0.7")), service.canonicalize(Map.of(THRESHOLD, "7e-1")));
+
+        SortedMap<String, String> canonical = service.canonicalize(Map.of(COUNT, "010", ENABLED, "True", THRESHOLD, "0.70"));
+        assertEquals(new TreeMap<>(Map.of(COUNT, "10", ENABLED, "true", THRESHOLD, "0.7")), canonical);
+    }
+
+    @Test
+    void testValuesThatArDoCoCannotParseAsTheirTypeAreKept() {
+        // Integer.parseInt rejects them, so they must not share results with the integer 1
+        assertEquals(new TreeMap<>(Map.of(COUNT, "1.0")), service.canonicalize(Map.of(COUNT, "1.0")));
+        assertEquals(new TreeMap<>(Map.of(COUNT, "1e0")), service.canonicalize(Map.of(COUNT, "1e0")));
+        assertEquals(new TreeMap<>(Map.of(COUNT, "3.00")), service.canonicalize(Map.of(COUNT, "3.00")));
+        assertEquals(new TreeMap<>(Map.of(ENABLED, " TRUE ")), service.canonicalize(Map.of(ENABLED, " TRUE ")));
+        assertEquals(new TreeMap<>(Map.of(THRESHOLD, "NaN")), service.canonicalize(Map.of(THRESHOLD, "NaN")));
+    }
+
+    @Test
+    void testDefaultValuesAreRemoved() {
+        Map<String, String> additionalConfigs = new HashMap<>(Map.of(THRESHOLD, "0.5", COUNT, "03", ENABLED, "FALSE", FORMAT, "PCM"));
+        additionalConfigs.put("Agent::unset", null);
+
+        assertTrue(service.canonicalize(additionalConfigs).isEmpty());
+        assertEquals(new TreeMap<>(Map.of(FORMAT, "UML")), service.canonicalize(Map.of(FORMAT, "UML", COUNT, "3")));
+    }
+
+    @Test
+    void testValuesOfUnknownKeysAndOtherTypesAreKept() {
+        SortedMap<String, String> canonical = service.canonicalize(Map.of("Unknown::value", "1.0", "Other::flag", "TRUE", COUNT, "many"));
+
+        assertEquals(new TreeMap<>(Map.of("Unknown::value", "1.0", "Other::flag", "TRUE", COUNT, "many")), canonical);
+        assertEquals(List.of(COUNT, "Other::flag", "Unknown::value"), List.copyOf(canonical.keySet()));
+    }
+
+    @Test
+    void testDefaultConfigurationIsACopySortedByKey() {
+        Map<String, String> defaults = service.getDefaultConfiguration();
+        assertEquals(List.of(COUNT, ENABLED, FORMAT, THRESHOLD), List.copyOf(defaults.keySet()));
+
+        defaults.clear();
+        assertEquals(4, service.getDefaultConfiguration().size());
+    }
+}
@@ -0,0 +1,150 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.kit.kastel.mcse.ardoco.core.api.models.ModelFormat;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.AbstractController;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.ArCoTLController;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.InconsistencyController;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.SwattrController;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.controller.TransArCController;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+
+/**
+ * Checks that the results TransArC and the inconsistency detection derive for other pipelines are saved under the ids that the controllers
+ * of these pipelines compute for the same upload.
+ */
+public class DerivedRequestIdsTest {
+
+    private static final String PROJECT_NAME = "project";
+    private static final String ADDITIONAL_CONFIGS = "{\"SomeAgent::threshold\": \"0.5\"}";
+    private static final ArDoCoApiResult RESULT = new ArDoCoApiResult("[]");
+
+    private final UploadIngestionService uploadIngestionService = new UploadIngestionService();
+    private final ConfigurationProviderService configurationProviderService = new ConfigurationProviderService();
+
+    private final RecordingSwattrService swattrService = new RecordingSwattrService();
+    private final RecordingArCoTLService arCoTLService = new RecordingArCoTLService();
+    private final RecordingTransArCService transArCService = new RecordingTransArCService();
+    private final RecordingInconsistencyService inconsistencyService = new RecordingInconsistencyService();
+
+    public DerivedRequestIdsTest() {
+        // the configuration is kept as it is instead of scanning ArDoCo for its defaults
+        ReflectionTestUtils.setField(configurationProviderService, "defaultConfiguration", Map.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (PipelineRequest request : new PipelineRequest[] { transArCService.request, inconsistencyService.request }) {
+            if (request != null) {
+                FileConverter.deleteConvertedFiles(request.inputFileList());
+            }
+        }
+        uploadIngestionService.shutdown();
+    }
+
+    @Test
+    void testTransArCDerivesTheIdsOfSwattrAndArCoTL() {
+        wire(new SwattrController(swattrService)).runPipeline(PROJECT_NAME, text(), architectureModel(), ModelFormat.PCM, ADDITIONAL_CONFIGS,
+                null, null);
+        wire(new ArCoTLController(arCoTLService)).runPipeline(PROJECT_NAME, architectureModel(), ModelFormat.PCM, code(), ADDITIONAL_CONFIGS,
+                null, null);
+        wire(new TransArCController(transArCService)).runPipeline(PROJECT_NAME, text(), architectureModel(), ModelFormat.PCM, code(),
+                ADDITIONAL_CONFIGS, null, null);
+
+        Map<TraceLinkType, String> derivedRequestIds = transArCService.getDerivedRequestIds(transArCService.request);
+        assertEquals(Map.of(TraceLinkType.SAD_SAM, swattrService.id, TraceLinkType.SAM_CODE, arCoTLService.id), derivedRequestIds);
+        assertNotEquals(swattrService.id, arCoTLService.id);
+
+        // requests without digests, e.g. warm-up runs, derive the same ids from their files
+        PipelineRequest request = transArCService.request;
+        PipelineRequest requestWithoutDigests = new PipelineRequest(request.id(), request.projectName(), request.inputFiles(), Map.of(),
+                request.modelFormat(), request.additionalConfigs(), null, request.tenant());
+        assertEquals(derivedRequestIds, transArCService.getDerivedRequestIds(requestWithoutDigests));
+    }
+
+    @Test
+    void testInconsistencyDetectionDerivesTheIdOfSwattr() {
+        wire(new SwattrController(swattrService)).runPipeline(PROJECT_NAME, text(), architectureModel(), ModelFormat.PCM, ADDITIONAL_CONFIGS,
+                null, null);
+        wire(new InconsistencyController(inconsistencyService)).runPipeline(PROJECT_NAME, text(), architectureModel(), ModelFormat.PCM,
+                ADDITIONAL_CONFIGS, null, null);
+
+        assertEquals(Map.of(TraceLinkType.SAD_SAM, swattrService.id), inconsistencyService.getDerivedRequestIds(inconsistencyService.request));
+        assertNotEquals(swattrService.id, inconsistencyService.request.id());
+    }
+
+    private <C extends AbstractController> C wire(C controller) {
+        ReflectionTestUtils.setField(controller, AbstractController.class, "uploadIngestionService", uploadIngestionService, null);
+        ReflectionTestUtils.setField(controller, AbstractController.class, "configurationProviderService", configurationProviderService, null);
+        return controller;
+    }
+
+    private static MockMultipartFile text() {
+        return new MockMultipartFile("inputText", "text.txt", "text/plain", "The server stores the documents.".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile architectureModel() {
+        return new MockMultipartFile("inputArchitectureModel", "model.repository", "application/xml", "<repository/>".getBytes(
+                StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile code() {
+        return new MockMultipartFile("inputCode", "code.acm", "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class RecordingSwattrService extends SwattrService {
+        private String id;
+
+        @Override
+        public Optional<ArDoCoApiResult> runPipeline(String id, Supplier<PipelineRequest> request) {
+            this.id = id;
+            return Optional.of(RESULT);
+        }
+    }
+
+    private static final class RecordingArCoTLService extends ArCoTLService {
+        private String id;
+
+        @Override
+        public Optional<ArDoCoApiResult> runPipeline(String id, Supplier<PipelineRequest> request) {
+            this.id = id;
+            return Optional.of(RESULT);
+        }
+    }
+
+    private static final class RecordingTransArCService extends TransArCService {
+        private PipelineRequest request;
+
+        @Override
+        public Optional<ArDoCoApiResult> runPipeline(String id, Supplier<PipelineRequest> request) {
+            this.request = request.get();
+            return Optional.of(RESULT);
+        }
+    }
+
+    private static final class RecordingInconsistencyService extends InconsistencyService {
+        private PipelineRequest request;
+
+        @Override
+        public Optional<ArDoCoApiResult> runPipeline(String id, Supplier<PipelineRequest> request) {
+            this.request = request.get();
+            return Optional.of(RESULT);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.DatabaseAccessor;
+
+/**
+ * Keeps results and timeouts in memory instead of Redis, and counts the reads of results. Timeouts are kept until they are cleared.
+ */
+final class InMemoryDatabase implements DatabaseAccessor {
+    final Map<String, String> results = new ConcurrentHashMap<>();
+    final Map<String, String> timeouts = new ConcurrentHashMap<>();
+    final AtomicInteger reads = new AtomicInteger();
+
+    @Override
+    public String saveResult(String id, String jsonResult) {
+        results.put(id, jsonResult);
+        return id;
+    }
+
+    @Override
+    public String getResult(String id) {
+        reads.incrementAndGet();
+        return results.get(id);
+    }
+
+    @Override
+    public boolean keyExistsInDatabase(String key) {
+        reads.incrementAndGet();
+        return results.containsKey(key);
+    }
+
+    @Override
+    public boolean deleteResult(String id) {
+        return results.remove(id) != null;
+    }
+
+    @Override
+    public void saveTimeout(String id, String message, Duration timeToLive) {
+        timeouts.put(id, message);
+    }
+
+    @Override
+    public String getTimeout(String id) {
+        return timeouts.get(id);
+    }
+}
@@ -0,0 +1,229 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.JobCancelledException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.InputBlobStore;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobJournal;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisRunLock;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.JobState;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineJob;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+
+public class JobJournalRecoveryTest {
+    private static final String REDIS_IMAGE_NAME = "redis:7.0-alpine";
+    private static final int REDIS_PORT = 6379;
+    private static final String ID = "SAD_SAM_id";
+
+    private static GenericContainer<?> redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    @TempDir
+    Path blobDirectory;
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+
+    @BeforeAll
+    static void beforeAll() {
+        redis = new GenericContainer<>(DockerImageName.parse(REDIS_IMAGE_NAME)).withExposedPorts(REDIS_PORT);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(REDIS_PORT)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void testRunInterruptedByShutdownIsRecoveredAfterTheRestart() throws Exception {
+        Node node = new Node();
+        BlockingService service = node.register(new BlockingService());
+        PipelineScheduler scheduler = node.scheduler;
+        service.runPipeline(createRequest());
+        assertTrue(service.started.tryAcquire(5, TimeUnit.SECONDS));
+        PipelineJob job = service.getRunningJob(ID).orElseThrow();
+
+        // the order of the shutdown hooks: the drain gives up right away, then the running pipeline is interrupted
+        node.recovery.shutdown();
+        scheduler.shutdown();
+        ExecutionException error = assertThrows(ExecutionException.class, () -> job.getFuture().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(JobCancelledException.class, error.getCause());
+
+        // no error is saved that would answer the next request, and the run is kept for the restart
+        assertTrue(database.results.isEmpty());
+        assertEquals(List.of(ID), node.journal.getIds());
+        assertTrue(node.runLock.getState(ID).isEmpty());
+
+        Node restartedNode = new Node();
+        RecordingService restartedService = restartedNode.register(new RecordingService());
+        restartedNode.recovery.recover();
+
+        PipelineRequest recovered = restartedService.executed.get(ID);
+        assertNotNull(recovered);
+        File inputFile = recovered.inputFile(PipelineInput.TEXTUAL_DOCUMENTATION);
+        assertArrayEquals("text".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(inputFile.toPath()));
+        assertEquals(Set.of("tlr:journal:" + ID), restartedNode.blobStore.getOwners());
+        FileConverter.deleteConvertedFiles(recovered.inputFileList());
+        restartedNode.scheduler.shutdown();
+    }
+
+    @Test
+    void testRunWithAResultIsRemovedInsteadOfRecovered() {
+        Node node = new Node();
+        PipelineRequest request = createRequest();
+        node.journal.record(request, TestNode.SERVICE_NAME);
+        FileConverter.deleteConvertedFiles(request.inputFileList());
+        database.saveResult(ID, "{}");
+
+        RecordingService service = node.register(new RecordingService());
+        node.recovery.recover();
+
+        assertTrue(service.executed.isEmpty());
+        assertTrue(node.journal.getIds().isEmpty());
+        assertTrue(node.blobStore.getOwners().isEmpty());
+        node.scheduler.shutdown();
+    }
+
+    @Test
+    void testRunWhoseInputsAreLostOnItsNodeEndsWithAnError(@TempDir Path otherBlobDirectory, @TempDir Path emptyBlobDirectory) {
+        Node node = new Node();
+        PipelineRequest request = createRequest();
+        node.journal.record(request, TestNode.SERVICE_NAME);
+        FileConverter.deleteConvertedFiles(request.inputFileList());
+
+        // another node leaves the run to the node that has recorded it
+        Node otherNode = new Node("node2", otherBlobDirectory);
+        RecordingService otherService = otherNode.register(new RecordingService());
+        otherNode.recovery.recover();
+        assertTrue(otherService.executed.isEmpty());
+        assertEquals(List.of(ID), otherNode.journal.getIds());
+        assertTrue(otherNode.runLock.getState(ID).isEmpty());
+
+        // the node has been restarted without its input store
+        Node restartedNode = new Node("node1", emptyBlobDirectory);
+        RecordingService restartedService = restartedNode.register(new RecordingService());
+        restartedNode.recovery.recover();
+
+        assertTrue(restartedService.executed.isEmpty());
+        assertTrue(restartedNode.journal.getIds().isEmpty());
+        assertEquals(Optional.of(JobState.ERROR), restartedNode.runLock.getState(ID));
+        node.scheduler.shutdown();
+        otherNode.scheduler.shutdown();
+        restartedNode.scheduler.shutdown();
+    }
+
+    private static PipelineRequest createRequest() {
+        File inputFile = FileConverter.writeInputFile("text.txt", "text".getBytes(StandardCharsets.UTF_8));
+        return new PipelineRequest(ID, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, inputFile), Map.of(), null, new TreeMap<>(), null,
+                "tenant");
+    }
+
+    /**
+     * The beans of one node that are involved in the journal, wired as the application context does.
+     */
+    private final class Node {
+        private final TestNode node = new TestNode(database, 1);
+        private final PipelineScheduler scheduler = node.scheduler;
+        private final InputBlobStore blobStore;
+        private final RedisJobJournal journal;
+        private final RedisRunLock runLock = new RedisRunLock(template, 60);
+        private final ClusterJobService clusterJobService = node.joinCluster(runLock);
+        private final Map<String, AbstractRunnerTLRService> services = new ConcurrentHashMap<>();
+        private JobJournalRecovery recovery;
+
+        private Node() {
+            this("node1", blobDirectory);
+        }
+
+        private Node(String name, Path directory) {
+            blobStore = new InputBlobStore(directory, 1024);
+            journal = new RedisJobJournal(template, blobStore, 1, name);
+            node.recordRunsIn(journal);
+        }
+
+        private <S extends AbstractRunnerTLRService> S register(S service) {
+            node.register(service);
+            services.put(TestNode.SERVICE_NAME, service);
+            recovery = new JobJournalRecovery(journal, blobStore, runLock, clusterJobService, node.runningRequests, services, 60, 0);
+            return service;
+        }
+    }
+
+    /**
+     * Records the runs it executes instead of running their pipelines.
+     */
+    private static final class RecordingService extends AbstractRunnerTLRService {
+        private final Map<String, PipelineRequest> executed = new ConcurrentHashMap<>();
+
+        private RecordingService() {
+            super(TraceLinkType.SAD_SAM);
+        }
+
+        @Override
+        public Optional<PipelineJob> execute(PipelineRequest request) {
+            executed.put(request.id(), request);
+            return Optional.empty();
+        }
+
+        @Override
+        protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
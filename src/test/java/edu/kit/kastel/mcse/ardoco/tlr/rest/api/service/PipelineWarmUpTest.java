@@ -0,0 +1,189 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler.LaneSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PipelineWarmUpTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineScheduler scheduler = new PipelineScheduler(Map.of(TraceLinkType.SAD_SAM, new LaneSettings(1, 1)), false);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testPipelinesAreWarmedUpInTheBackgroundByDefault() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = new ClassPathResource("application.properties").getInputStream()) {
+            properties.load(input);
+        }
+        assertEquals("background", properties.getProperty("tlr.warmup.mode"));
+
+        PipelineWarmUp warmUp = new PipelineWarmUp(Map.of(), meterRegistry, "off");
+        warmUp.run(null);
+        assertEquals(Status.UP, warmUp.health().getStatus());
+    }
+
+    @Test
+    void testBackgroundWarmUpDoesNotBlockStartup() throws Exception {
+        BlockingService service = new BlockingService();
+        PipelineWarmUp warmUp = new PipelineWarmUp(Map.of("blockingService", service), meterRegistry, "background");
+
+        // returns while the pipeline is still warming up, and the node is not ready until it has finished
+        warmUp.run(null);
+        assertTrue(service.started.await(5, TimeUnit.SECONDS));
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+
+        service.release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (warmUp.health().getStatus() != Status.UP && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        assertEquals(Set.of("blockingService"), ((Map<?, ?>) warmUp.health().getDetails().get("coldStartMillis")).keySet());
+    }
+
+    @Test
+    void testFailedWarmUpDoesNotBlockStartupOrOtherPipelines() {
+        FailingService failingService = new FailingService();
+        ReflectionTestUtils.setField(failingService, "pipelineScheduler", scheduler);
+        RecordingService recordingService = new RecordingService();
+        // the failing pipeline is warmed up first
+        PipelineWarmUp warmUp = new PipelineWarmUp(Map.of("aFailingService", failingService, "bRecordingService", recordingService),
+                meterRegistry, "eager");
+
+        warmUp.run(null);
+
+        assertTrue(failingService.called);
+        assertNotNull(recordingService.request);
+        assertTrue(recordingService.inputsExisted);
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        assertEquals(Set.of("bRecordingService"), ((Map<?, ?>) warmUp.health().getDetails().get("coldStartMillis")).keySet());
+        assertNotNull(meterRegistry.find(PipelineWarmUp.COLD_START_METRIC).tag("service", "bRecordingService").timer());
+        assertNull(meterRegistry.find(PipelineWarmUp.COLD_START_METRIC).tag("service", "aFailingService").timer());
+        // the warm-up files are deleted afterwards
+        assertTrue(recordingService.request.inputFileList().stream().noneMatch(File::exists));
+    }
+
+    @Test
+    void testWarmUpWaitsForAFreeSlotOfItsLane() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit("running", TraceLinkType.SAD_SAM, () -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        FailingService failingService = new FailingService();
+        ReflectionTestUtils.setField(failingService, "pipelineScheduler", scheduler);
+        PipelineWarmUp warmUp = new PipelineWarmUp(Map.of("failingService", failingService), meterRegistry, "background");
+
+        warmUp.run(null);
+        Thread.sleep(100);
+        assertFalse(failingService.called);
+        assertEquals(1, scheduler.getQueuePosition(PipelineWarmUp.WARM_UP_ID));
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (warmUp.health().getStatus() != Status.UP && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(failingService.called);
+    }
+
+    /**
+     * Blocks the warm-up until it is released.
+     */
+    private static final class BlockingService extends AbstractTestService {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void warmUp(PipelineRequest request) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Fails to set up its pipeline, like a pipeline whose models cannot be loaded.
+     */
+    private static final class FailingService extends AbstractTestService {
+        private volatile boolean called;
+
+        @Override
+        protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) {
+            called = true;
+            throw new IllegalStateException("The models cannot be loaded.");
+        }
+    }
+
+    /**
+     * Records the warm-up run instead of running the pipeline.
+     */
+    private static final class RecordingService extends AbstractTestService {
+        private PipelineRequest request;
+        private boolean inputsExisted;
+
+        @Override
+        public void warmUp(PipelineRequest request) {
+            this.request = request;
+            this.inputsExisted = request.inputFile(PipelineInput.TEXTUAL_DOCUMENTATION).exists() && request.inputFile(
+                    PipelineInput.ARCHITECTURE_MODEL).exists() && request.inputFile(PipelineInput.CODE).exists();
+        }
+    }
+
+    private abstract static class AbstractTestService extends AbstractRunnerTLRService {
+
+        private AbstractTestService() {
+            super(TraceLinkType.SAD_SAM);
+        }
+
+        @Override
+        protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.CurrentlyRunningRequestsRepository;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisJobJournal;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.repository.RedisRunLock;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineScheduler.LaneSettings;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineWatchdog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The beans of one node that run pipelines, wired into services as the application context does. By default, the node is not part of a
+ * cluster, keeps no journal and caches nothing.
+ */
+final class TestNode {
+    static final String SERVICE_NAME = "swattrService";
+
+    final CurrentlyRunningRequestsRepository runningRequests = new CurrentlyRunningRequestsRepository();
+    final PipelineScheduler scheduler;
+    final InMemoryDatabase database;
+
+    private Optional<ClusterJobService> clusterJobService = Optional.empty();
+    private Optional<RedisJobJournal> jobJournal = Optional.empty();
+    private List<AbstractPipelineCache<?>> pipelineCaches = List.of();
+
+    /**
+     * Creates a node with a SWATTR lane of the given size.
+     *
+     * @param database the database of the node, which several nodes may share
+     * @param laneSize the number of slots of the lane, and of places in its queue
+     */
+    TestNode(InMemoryDatabase database, int laneSize) {
+        this.database = database;
+        this.scheduler = new PipelineScheduler(Map.of(TraceLinkType.SAD_SAM, new LaneSettings(laneSize, laneSize)), false);
+    }
+
+    /**
+     * Makes the node claim its runs with the given lock. Services registered afterwards use the returned service, which is not started.
+     *
+     * @param runLock the lock that the nodes of the cluster share
+     * @return the cluster service of the node
+     */
+    ClusterJobService joinCluster(RedisRunLock runLock) {
+        ClusterJobService service = new ClusterJobService();
+        injectServiceFields(service);
+        ReflectionTestUtils.setField(service, "runLock", runLock);
+        ReflectionTestUtils.setField(service, "jobQueue", Optional.empty());
+        ReflectionTestUtils.setField(service, "currentlyRunningRequestsRepository", runningRequests);
+        clusterJobService = Optional.of(service);
+        return service;
+    }
+
+    /**
+     * Makes services registered afterwards record their runs in the given journal.
+     *
+     * @param journal the journal of the node
+     */
+    void recordRunsIn(RedisJobJournal journal) {
+        jobJournal = Optional.of(journal);
+    }
+
+    /**
+     * Makes services registered afterwards consult the given caches.
+     *
+     * @param caches the caches of intermediate pipeline data
+     */
+    void cacheIn(List<AbstractPipelineCache<?>> caches) {
+        pipelineCaches = caches;
+    }
+
+    /**
+     * Wires a service into the node under {@value #SERVICE_NAME}.
+     *
+     * @param service the service
+     * @param <S>     the type of the service
+     * @return the service
+     */
+    <S extends AbstractRunnerTLRService> S register(S service) {
+        injectServiceFields(service);
+        ReflectionTestUtils.setField(service, "currentlyRunningRequestsRepository", runningRequests);
+        ReflectionTestUtils.setField(service, "pipelineScheduler", scheduler);
+        ReflectionTestUtils.setField(service, "pipelineWatchdog", new PipelineWatchdog(Map.of()));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "distributedJobService", Optional.empty());
+        ReflectionTestUtils.setField(service, "clusterJobService", clusterJobService);
+        ReflectionTestUtils.setField(service, "jobJournal", jobJournal);
+        ReflectionTestUtils.setField(service, "pipelineCaches", pipelineCaches);
+        ReflectionTestUtils.setField(service, "databaseAccessor", database);
+        service.setBeanName(SERVICE_NAME);
+        return service;
+    }
+
+    /**
+     * Creates the service that answers for the results of the node.
+     *
+     * @return the result service
+     */
+    ResultService createResultService() {
+        ResultService resultService = new ResultService();
+        injectServiceFields(resultService);
+        ReflectionTestUtils.setField(resultService, "currentlyRunningRequestsRepository", runningRequests);
+        ReflectionTestUtils.setField(resultService, "clusterJobService", clusterJobService);
+        return resultService;
+    }
+
+    private void injectServiceFields(AbstractService service) {
+        ReflectionTestUtils.setField(service, AbstractService.class, "currentlyRunningRequestsRepository", runningRequests, null);
+        ReflectionTestUtils.setField(service, AbstractService.class, "databaseAccessor", database, null);
+    }
+}
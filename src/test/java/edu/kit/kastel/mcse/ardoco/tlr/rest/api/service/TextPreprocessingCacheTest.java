@@ -0,0 +1,168 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.kit.kastel.mcse.ardoco.core.api.PreprocessingData;
+import edu.kit.kastel.mcse.ardoco.core.api.output.ArdocoResult;
+import edu.kit.kastel.mcse.ardoco.core.data.DataRepository;
+import edu.kit.kastel.mcse.ardoco.core.execution.ArDoCo;
+import edu.kit.kastel.mcse.ardoco.core.execution.runner.ArdocoRunner;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.ArDoCoApiResult;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.api_response.TraceLinkType;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineInput;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.scheduling.PipelineRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TextPreprocessingCacheTest {
+
+    private static final String PREPROCESSING_KEY = "CoreNLPProvider::threshold";
+    private static final String OTHER_KEY = "TraceLinkAgent::threshold";
+
+    @TempDir
+    Path directory;
+
+    private final TextPreprocessingCache cache;
+    private File text;
+    private File sameText;
+    private File otherText;
+
+    public TextPreprocessingCacheTest() {
+        ConfigurationProviderService configurationProviderService = new ConfigurationProviderService();
+        // a configurable of the text preprocessing and one of a later stage, instead of scanning ArDoCo
+        ReflectionTestUtils.setField(configurationProviderService, "defaultConfiguration", Map.of(PREPROCESSING_KEY, "0.5", OTHER_KEY, "0.5"));
+        ReflectionTestUtils.setField(configurationProviderService, "preprocessingConfigurationKeys", Set.of(PREPROCESSING_KEY));
+        cache = new TextPreprocessingCache(10, false, null, configurationProviderService, new SimpleMeterRegistry());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        text = write("text.txt", "Hello World!");
+        sameText = write("copy.txt", "Hello World!");
+        otherText = write("other.txt", "Goodbye World!");
+    }
+
+    @Test
+    void testKeyDependsOnTheContentOfTheText() {
+        assertEquals(cache.keyOf(request(text, new TreeMap<>())), cache.keyOf(request(sameText, new TreeMap<>())));
+        assertNotEquals(cache.keyOf(request(text, new TreeMap<>())), cache.keyOf(request(otherText, new TreeMap<>())));
+    }
+
+    @Test
+    void testKeyDependsOnTheConfigurationOfThePreprocessing() {
+        SortedMap<String, String> configuration = new TreeMap<>(Map.of(PREPROCESSING_KEY, "0.7"));
+
+        assertNotEquals(cache.keyOf(request(text, new TreeMap<>())), cache.keyOf(request(text, configuration)));
+        assertEquals(cache.keyOf(request(text, configuration)), cache.keyOf(request(sameText, new TreeMap<>(configuration))));
+    }
+
+    @Test
+    void testConfigurationOfLaterStagesSharesThePreprocessing() {
+        SortedMap<String, String> preprocessing = new TreeMap<>(Map.of(PREPROCESSING_KEY, "0.7"));
+        SortedMap<String, String> preprocessingAndOther = new TreeMap<>(Map.of(PREPROCESSING_KEY, "0.7", OTHER_KEY, "0.9"));
+
+        assertEquals(cache.keyOf(request(text, new TreeMap<>())), cache.keyOf(request(text, new TreeMap<>(Map.of(OTHER_KEY, "0.9")))));
+        assertEquals(cache.keyOf(request(text, preprocessing)), cache.keyOf(request(text, preprocessingAndOther)));
+    }
+
+    @Test
+    void testRequestsWithoutTextHaveNoKey() {
+        PipelineRequest request = new PipelineRequest("id", "project", Map.of(PipelineInput.CODE, text), Map.of(), null, new TreeMap<>(), null,
+                "tenant");
+
+        assertTrue(cache.keyOf(request).isEmpty());
+    }
+
+    @Test
+    void testSecondRunOfTheSameTextIsHandedThePreprocessedText() throws Exception {
+        TestNode node = new TestNode(new InMemoryDatabase(), 1);
+        node.cacheIn(List.of(cache));
+        PreprocessingService service = node.register(new PreprocessingService());
+        try {
+            // the input files of a run are deleted after it, so the second run gets a copy of the text
+            service.runPipeline(request("first", text, new TreeMap<>()));
+            assertTrue(service.finished.tryAcquire(5, TimeUnit.SECONDS));
+            service.runPipeline(request("second", sameText, new TreeMap<>()));
+            assertTrue(service.finished.tryAcquire(5, TimeUnit.SECONDS));
+        } finally {
+            node.scheduler.shutdown();
+        }
+
+        assertEquals(1, service.preprocessings.get());
+    }
+
+    private static PipelineRequest request(File text, SortedMap<String, String> configuration) {
+        return request("id", text, configuration);
+    }
+
+    private static PipelineRequest request(String id, File text, SortedMap<String, String> configuration) {
+        return new PipelineRequest(id, "project", Map.of(PipelineInput.TEXTUAL_DOCUMENTATION, text), Map.of(), null, configuration, null,
+                "tenant");
+    }
+
+    private File write(String fileName, String content) throws IOException {
+        return Files.writeString(directory.resolve(fileName), content, StandardCharsets.UTF_8).toFile();
+    }
+
+    /**
+     * Runs a pipeline whose text preprocessing, like the one of ArDoCo, only annotates the text if the data repository of the run does not
+     * hold preprocessed text yet.
+     */
+    private static final class PreprocessingService extends AbstractRunnerTLRService {
+        private final AtomicInteger preprocessings = new AtomicInteger();
+        private final Semaphore finished = new Semaphore(0);
+
+        private PreprocessingService() {
+            super(TraceLinkType.SAD_SAM);
+        }
+
+        @Override
+        protected ArDoCoApiResult convertResultToJsonString(ArdocoResult result) {
+            finished.release();
+            return new ArDoCoApiResult("[]");
+        }
+
+        @Override
+        protected ArdocoRunner createRunner(PipelineRequest request, File outputDirectory) {
+            DataRepository dataRepository = new DataRepository();
+            ArDoCo arDoCo = mock(ArDoCo.class);
+            when(arDoCo.getDataRepository()).thenReturn(dataRepository);
+            ArdocoRunner runner = mock(ArdocoRunner.class);
+            when(runner.getArDoCo()).thenReturn(arDoCo);
+            when(runner.run()).thenAnswer(invocation -> {
+                PreprocessingData preprocessingData = dataRepository.getData(PreprocessingData.ID, PreprocessingData.class).orElseGet(() -> {
+                    preprocessings.incrementAndGet();
+                    return mock(PreprocessingData.class, withSettings().serializable());
+                });
+                ArdocoResult result = mock(ArdocoResult.class);
+                when(result.getPreprocessingData()).thenReturn(preprocessingData);
+                return result;
+            });
+            return runner;
+        }
+    }
+}
@@ -1,4 +1,4 @@
-/* Licensed under MIT 2024-2025. */
+/* Licensed under MIT 2024-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.util;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -130,6 +130,24 @@ public class FileConverterTest {
         assertEquals("image.png", convertedFile.getName());
     }
 
+    @Test
+    void testDigestMultipartFile_matchesTheHashOfTheConvertedFile() {
+        byte[] fileContent = "This is a test file content.".getBytes();
+        MockMultipartFile mockMultipartFile = new MockMultipartFile("file", "testfile.txt", "text/plain", fileContent);
+
+        byte[] digest = FileConverter.digestMultipartFile(mockMultipartFile);
+        File convertedFile = FileConverter.convertMultipartFileToFile(mockMultipartFile);
+
+        assertEquals(HashGenerator.getMD5HashFromFiles(List.of(convertedFile)), HashGenerator.getMD5HashFromDigests(List.of(digest)));
+    }
+
+    @Test
+    void testDigestMultipartFile_withEmptyMultipartFile() {
+        MockMultipartFile mockMultipartFile = new MockMultipartFile("file", "testfile.txt", "text/plain", new byte[0]);
+
+        assertThrows(FileNotFoundException.class, () -> FileConverter.digestMultipartFile(mockMultipartFile));
+    }
+
     @Test
     void testConvertMultipartFileToFile_withEmptyMultipartFile() {
         // Create a MockMultipartFile
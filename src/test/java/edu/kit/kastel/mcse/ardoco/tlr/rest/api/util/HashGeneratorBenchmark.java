@@ -0,0 +1,89 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.converter.FileConverter;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileConversionException;
+import edu.kit.kastel.mcse.ardoco.tlr.rest.api.exception.FileNotFoundException;
+
+/**
+ * Compares hashing the input files of a request by streaming them through the digest with reading them into one byte array first, as the
+ * request ids were computed before. Run {@link #main(String[])}; the GC profiler reports the allocated bytes per operation
+ * ({@code gc.alloc.rate.norm}), which stay constant for the streaming hash and grow with the size of the files otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashGeneratorBenchmark {
+
+    @Param({ "1", "64", "256" })
+    private int codeMegabytes;
+
+    private List<File> files;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        byte[] text = new byte[64 * 1024];
+        byte[] model = new byte[256 * 1024];
+        byte[] code = new byte[codeMegabytes * 1024 * 1024];
+        random.nextBytes(text);
+        random.nextBytes(model);
+        random.nextBytes(code);
+        files = List.of(write("text", text), write("model", model), write("code", code));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (File file : files) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Benchmark
+    public String streamingHash() throws FileNotFoundException, FileConversionException {
+        return HashGenerator.getMD5HashFromFiles(files);
+    }
+
+    @Benchmark
+    public String byteArrayHash() throws FileNotFoundException, FileConversionException {
+        return UUID.nameUUIDFromBytes(FileConverter.convertFilesToByte(files)).toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HashGeneratorBenchmark.class.getSimpleName()).addProfiler("gc").jvmArgs("-Xmx1g").build()).run();
+    }
+
+    private static File write(String name, byte[] content) throws IOException {
+        File file = File.createTempFile(name, ".bin");
+        Files.write(file.toPath(), content);
+        return file;
+    }
+}
@@ -1,4 +1,4 @@
-/* Licensed under MIT 2025. */
+/* Licensed under MIT 2025-2026. */
 package edu.kit.kastel.mcse.ardoco.tlr.rest.api.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -9,9 +9,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -74,6 +78,58 @@ public class HashGeneratorTest {
         assertEquals(hash.length(), hash2.length());
     }
 
+    @Test
+    void testContentHashEqualsFileHash() throws IOException {
+        List<File> files = Arrays.asList(tempFile1, tempFile3);
+        List<byte[]> contents = List.of(Files.readAllBytes(tempFile1.toPath()), Files.readAllBytes(tempFile3.toPath()));
+
+        assertEquals(HashGenerator.getMD5HashFromFiles(files), HashGenerator.getMD5HashFromContents(contents));
+    }
+
+    @Test
+    void testFileBoundariesChangeTheHash() {
+        List<byte[]> contents1 = List.of("Hello ".getBytes(), "World!".getBytes());
+        List<byte[]> contents2 = List.of("Hello World!".getBytes(), new byte[0]);
+
+        assertNotEquals(HashGenerator.getMD5HashFromContents(contents1), HashGenerator.getMD5HashFromContents(contents2));
+    }
+
+    @Test
+    void testChunkedContentHashEqualsFileHash() throws IOException {
+        byte[] content = Files.readAllBytes(tempFile3.toPath());
+        HashGenerator.ContentHasher hasher = new HashGenerator.ContentHasher();
+        hasher.update(content, 0, 4);
+        hasher.update(ByteBuffer.wrap(content, 4, content.length - 4));
+
+        assertEquals(HashGenerator.getMD5HashFromFiles(List.of(tempFile3)), HashGenerator.getMD5HashFromDigests(List.of(hasher.digest())));
+    }
+
+    @Test
+    void testClientDigestsGiveTheHashOfTheFiles() throws FileNotFoundException, FileConversionException {
+        // md5sum of "Hello World!" and of "Different content"
+        List<byte[]> digests = List.of(HashGenerator.parseMD5Digest("ed076287532e86365e841e92bfc50d8c"),
+                HashGenerator.parseMD5Digest("0f27b3a523b957612bb947878cbf373e"));
+
+        assertEquals(HashGenerator.getMD5HashFromFiles(Arrays.asList(tempFile1, tempFile3)), HashGenerator.getMD5HashFromDigests(digests));
+    }
+
+    @Test
+    void testConfigurationChangesTheHash() throws FileNotFoundException, FileConversionException {
+        String hash = HashGenerator.getMD5HashFromFiles(List.of(tempFile1));
+
+        assertEquals(hash, HashGenerator.getMD5HashWithConfiguration(hash, new TreeMap<>()));
+        String configured = HashGenerator.getMD5HashWithConfiguration(hash, new TreeMap<>(Map.of("a", "bc")));
+        assertNotEquals(hash, configured);
+        assertEquals(configured, HashGenerator.getMD5HashWithConfiguration(hash, new TreeMap<>(Map.of("a", "bc"))));
+        assertNotEquals(configured, HashGenerator.getMD5HashWithConfiguration(hash, new TreeMap<>(Map.of("ab", "c"))));
+    }
+
+    @Test
+    void testInvalidClientDigest() {
+        assertThrows(IllegalArgumentException.class, () -> HashGenerator.parseMD5Digest("ed076287532e86365e841e92bfc50d8"));
+        assertThrows(IllegalArgumentException.class, () -> HashGenerator.parseMD5Digest("zz076287532e86365e841e92bfc50d8c"));
+    }
+
     @Test
     void testEmptyFileList() {
         // Empty file list test
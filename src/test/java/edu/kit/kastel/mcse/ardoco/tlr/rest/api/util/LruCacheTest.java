@@ -0,0 +1,98 @@
+/* Licensed under MIT 2026. */
+package edu.kit.kastel.mcse.ardoco.tlr.rest.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTest {
+
+    @Test
+    void testCachedValueIsReturned() {
+        LruCache<String> cache = new LruCache<>(2);
+        cache.put("a", "1");
+
+        assertEquals(Optional.of("1"), cache.get("a"));
+        assertTrue(cache.get("b").isEmpty());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        LruCache<String> cache = new LruCache<>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals(Optional.of("1"), cache.get("a"));
+        assertTrue(cache.get("b").isEmpty());
+        assertEquals(Optional.of("3"), cache.get("c"));
+    }
+
+    @Test
+    void testEntriesAreEvictedByWeight() {
+        LruCache<String> cache = new LruCache<>(10, String::length);
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        cache.get("a");
+        cache.put("c", "12345");
+
+        assertEquals(9, cache.weight());
+        assertEquals(1, cache.evictions());
+        assertEquals(Optional.of("1234"), cache.get("a"));
+        assertTrue(cache.get("b").isEmpty());
+        assertEquals(Optional.of("12345"), cache.get("c"));
+    }
+
+    @Test
+    void testEvictedEntriesAreReported() {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String> cache = new LruCache<>(2, value -> 1, (key, value) -> evicted.add(key + "=" + value));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        assertEquals(List.of("a=1"), evicted);
+    }
+
+    @Test
+    void testReplacedEntryIsNotCountedTwice() {
+        LruCache<String> cache = new LruCache<>(10, String::length);
+        cache.put("a", "1234");
+        cache.put("a", "123456");
+
+        assertEquals(6, cache.weight());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    void testTooHeavyValueIsNotCached() {
+        LruCache<String> cache = new LruCache<>(3, String::length);
+        cache.put("a", "123");
+        cache.put("b", "1234");
+
+        assertEquals(Optional.of("123"), cache.get("a"));
+        assertTrue(cache.get("b").isEmpty());
+    }
+
+    @Test
+    void testEmptyCacheKeepsNothing() {
+        LruCache<String> cache = new LruCache<>(0);
+        cache.put("a", "1");
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.get("a").isEmpty());
+    }
+
+    @Test
+    void testNegativeSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String>(-1));
+    }
+}